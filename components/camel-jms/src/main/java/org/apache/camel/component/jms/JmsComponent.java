@@ -805,6 +805,21 @@ public class JmsComponent extends HeaderFilterStrategyComponent implements Appli
         getConfiguration().setRequestTimeoutCheckerInterval(requestTimeoutCheckerInterval);
     }
 
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending replies when doing request/reply over JMS,
+     * instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in constant time,
+     * which scales better when there are many pending replies, but the timeouts are only checked at every
+     * requestTimeoutCheckerInterval.
+     */
+    @Metadata(label = "advanced",
+            description = "Whether to use a hashed timing wheel to track the timeouts of the pending replies when doing request/reply over JMS,"
+                    + " instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in constant time,"
+                    + " which scales better when there are many pending replies, but the timeouts are only checked at every"
+                    + " requestTimeoutCheckerInterval.")
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        getConfiguration().setRequestTimeoutTimingWheel(requestTimeoutTimingWheel);
+    }
+
     /**
      * You can transfer the exchange over the wire instead of just the body and headers.
      * The following fields are transferred: In body, Out body, Fault body, In headers, Out headers, Fault headers,
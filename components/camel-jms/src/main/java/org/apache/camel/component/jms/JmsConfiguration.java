@@ -173,6 +173,12 @@ public class JmsConfiguration implements Cloneable {
                     + " By default Camel checks once per second. But if you must react faster when a timeout occurs,"
                     + " then you can lower this interval, to check more frequently. The timeout is determined by the option requestTimeout.")
     private long requestTimeoutCheckerInterval = 1000L;
+    @UriParam(label = "advanced",
+            description = "Whether to use a hashed timing wheel to track the timeouts of the pending replies when doing request/reply over JMS,"
+                    + " instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in constant time,"
+                    + " which scales better when there are many pending replies, but the timeouts are only checked at every"
+                    + " requestTimeoutCheckerInterval.")
+    private boolean requestTimeoutTimingWheel;
     @UriParam(defaultValue = "1", label = "advanced",
             description = "Specifies the limit for idle executions of a receive task, not having received any message within its execution."
                     + " If this limit is reached, the task will shut down and leave receiving to other executing tasks"
@@ -1690,6 +1696,20 @@ public class JmsConfiguration implements Cloneable {
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending replies when doing request/reply over JMS,
+     * instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in constant time,
+     * which scales better when there are many pending replies, but the timeouts are only checked at every
+     * requestTimeoutCheckerInterval.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public String getReplyTo() {
         return replyTo;
     }
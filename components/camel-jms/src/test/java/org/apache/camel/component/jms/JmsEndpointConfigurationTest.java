@@ -301,6 +301,7 @@ public class JmsEndpointConfigurationTest extends CamelTestSupport {
         assertNull(endpoint.getReplyToDestinationSelectorName());
         assertEquals(20000L, endpoint.getRequestTimeout());
         assertEquals(1000L, endpoint.getRequestTimeoutCheckerInterval());
+        assertFalse(endpoint.isRequestTimeoutTimingWheel());
         assertEquals(0, endpoint.getRunningMessageListeners());
         assertNull(endpoint.getSelector());
         assertEquals(ServiceStatus.Started, endpoint.getStatus());
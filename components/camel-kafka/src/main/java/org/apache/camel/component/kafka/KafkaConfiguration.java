@@ -136,6 +136,18 @@ public class KafkaConfiguration implements Cloneable, HeaderFilterStrategyAware
     private boolean breakOnFirstError;
     @UriParam(label = "consumer")
     private StateRepository<String, String> offsetRepository;
+    @UriParam(label = "consumer")
+    private int consumerWorkers;
+    @UriParam(label = "consumer", defaultValue = "partition", enums = "partition,key")
+    private String consumerWorkersOrdering = "partition";
+    @UriParam(label = "consumer", defaultValue = "1000")
+    private int consumerWorkersMaxBacklog = 1000;
+    @UriParam(label = "consumer")
+    private boolean batching;
+    @UriParam(label = "consumer", defaultValue = "500")
+    private int batchingMaxSize = 500;
+    @UriParam(label = "consumer")
+    private long batchingMaxWaitMs;
 
     // Producer Camel specific configuration properties
     @UriParam(label = "producer")
@@ -155,6 +167,10 @@ public class KafkaConfiguration implements Cloneable, HeaderFilterStrategyAware
     private Integer workerPoolCoreSize = 10;
     @UriParam(label = "producer", defaultValue = "20")
     private Integer workerPoolMaxSize = 20;
+    @UriParam(label = "producer")
+    private boolean workerPoolEnabled;
+    @UriParam(label = "producer")
+    private int maxInFlightRecords;
 
     // Async producer config
     @UriParam(label = "producer", defaultValue = "10000")
@@ -646,7 +662,8 @@ public class KafkaConfiguration implements Cloneable, HeaderFilterStrategyAware
     }
 
     public Boolean isAutoCommitEnable() {
-        return offsetRepository == null ? autoCommitEnable : false;
+        // the offsets are committed by the consumer when using an offset repository, consumer workers or batching
+        return offsetRepository == null && consumerWorkers <= 0 && !batching ? autoCommitEnable : false;
     }
 
     /**
@@ -686,6 +703,92 @@ public class KafkaConfiguration implements Cloneable, HeaderFilterStrategyAware
         this.offsetRepository = offsetRepository;
     }
 
+    public int getConsumerWorkers() {
+        return consumerWorkers;
+    }
+
+    /**
+     * The number of worker threads each consumer dispatches the polled records
+     * to, so the records of different partitions are processed in parallel,
+     * while the records of the same partition (or key) are processed in order.
+     * The offset of a partition is committed asynchronously when all the
+     * records up to the offset have been processed, which replaces the auto
+     * commit of Kafka. The default value 0 processes the records on the
+     * consumer thread. This option cannot be used together with
+     * allowManualCommit or breakOnFirstError.
+     */
+    public void setConsumerWorkers(int consumerWorkers) {
+        this.consumerWorkers = consumerWorkers;
+    }
+
+    public String getConsumerWorkersOrdering() {
+        return consumerWorkersOrdering;
+    }
+
+    /**
+     * Whether the consumer workers keep the records in order per partition,
+     * or per record key, which spreads the records of a partition over the
+     * workers. Records without a key are ordered per partition.
+     */
+    public void setConsumerWorkersOrdering(String consumerWorkersOrdering) {
+        this.consumerWorkersOrdering = consumerWorkersOrdering;
+    }
+
+    public int getConsumerWorkersMaxBacklog() {
+        return consumerWorkersMaxBacklog;
+    }
+
+    /**
+     * The maximum number of records of a partition waiting to be processed by
+     * the consumer workers, before the consumer pauses fetching records from
+     * the partition. The partition is resumed when the backlog is down to half.
+     */
+    public void setConsumerWorkersMaxBacklog(int consumerWorkersMaxBacklog) {
+        this.consumerWorkersMaxBacklog = consumerWorkersMaxBacklog;
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Whether the consumer routes the polled records together as a single
+     * exchange, instead of an exchange per record. The message body is a
+     * java.util.List with the value of each record, and the records are
+     * available from the kafka.BATCH_RECORDS header. The offsets of the
+     * records are committed when the exchange is done, which replaces the
+     * auto commit of Kafka. This option cannot be used together with
+     * allowManualCommit or consumerWorkers.
+     */
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    public int getBatchingMaxSize() {
+        return batchingMaxSize;
+    }
+
+    /**
+     * The maximum number of records in each exchange when batching. Use 0 for
+     * no limit.
+     */
+    public void setBatchingMaxSize(int batchingMaxSize) {
+        this.batchingMaxSize = batchingMaxSize;
+    }
+
+    public long getBatchingMaxWaitMs() {
+        return batchingMaxWaitMs;
+    }
+
+    /**
+     * The maximum time in millis the consumer keeps polling for more records
+     * to fill up a batch to batchingMaxSize, before routing the records it
+     * has. The default value 0 routes the records of each poll right away.
+     */
+    public void setBatchingMaxWaitMs(long batchingMaxWaitMs) {
+        this.batchingMaxWaitMs = batchingMaxWaitMs;
+    }
+
     public Integer getAutoCommitIntervalMs() {
         return autoCommitIntervalMs;
     }
@@ -1678,6 +1781,38 @@ public class KafkaConfiguration implements Cloneable, HeaderFilterStrategyAware
         this.workerPoolMaxSize = workerPoolMaxSize;
     }
 
+    public boolean isWorkerPoolEnabled() {
+        return workerPoolEnabled;
+    }
+
+    /**
+     * Whether to continue routing {@link Exchange} on a worker pool after kafka
+     * server has acknowledge the message that was sent to it from
+     * {@link KafkaProducer} using asynchronous non-blocking processing. By
+     * default the routing continues right away on the thread of the Kafka
+     * producer which completed the send, which avoids a thread hand-over per
+     * exchange, but then the rest of the route should not do slow or blocking
+     * work. Configuring a custom workerPool enables the worker pool as well.
+     */
+    public void setWorkerPoolEnabled(boolean workerPoolEnabled) {
+        this.workerPoolEnabled = workerPoolEnabled;
+    }
+
+    public int getMaxInFlightRecords() {
+        return maxInFlightRecords;
+    }
+
+    /**
+     * The maximum number of records sent from {@link KafkaProducer} which are
+     * not yet acknowledged by kafka server. When reached, sending more records
+     * blocks for up to maxBlockMs until records have been acknowledged, which
+     * applies back pressure to the routes sending to Kafka. The default value
+     * 0 is no limit.
+     */
+    public void setMaxInFlightRecords(int maxInFlightRecords) {
+        this.maxInFlightRecords = maxInFlightRecords;
+    }
+
     public boolean isRecordMetadata() {
         return recordMetadata;
     }
@@ -26,6 +26,8 @@ public final class KafkaConstants {
     public static final String HEADERS = "kafka.HEADERS";
     public static final String LAST_RECORD_BEFORE_COMMIT = "kafka.LAST_RECORD_BEFORE_COMMIT";
     public static final String TIMESTAMP = "kafka.TIMESTAMP";
+    public static final String BATCH_SIZE = "kafka.BATCH_SIZE";
+    public static final String BATCH_RECORDS = "kafka.BATCH_RECORDS";
 
     @Deprecated
     public static final String KAFKA_DEFAULT_ENCODER = "kafka.serializer.DefaultEncoder";
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -32,8 +33,10 @@ import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.Processor;
 import org.apache.camel.component.kafka.serde.KafkaHeaderDeserializer;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.spi.StateRepository;
 import org.apache.camel.support.DefaultConsumer;
@@ -59,7 +62,11 @@ public class KafkaConsumer extends DefaultConsumer {
     private final Long pollTimeoutMs;
     // This list helps working around the infinite loop of KAFKA-1894
     private final List<KafkaFetchRecords> tasks = new ArrayList<>();
+    private final List<ExecutorService> workerExecutors = new ArrayList<>();
+    private ExchangeFactory exchangeFactory;
     private volatile boolean stopOffsetRepo;
+    // whether a consumer thread stopped without waiting for the workers to process its records
+    private volatile boolean workersAbandoned;
 
     public KafkaConsumer(KafkaEndpoint endpoint, Processor processor) {
         super(endpoint, processor);
@@ -101,6 +108,12 @@ public class KafkaConsumer extends DefaultConsumer {
             props.put(ConsumerConfig.GROUP_ID_CONFIG, randomGroupId);
             log.debug("Kafka consumer groupId is {} (generated)", randomGroupId);
         }
+
+        if (endpoint.getConfiguration().getConsumerWorkers() > 0 || endpoint.getConfiguration().isBatching()) {
+            // the offsets are committed when the workers have processed the records (or the batch has been routed),
+            // so kafka must never auto commit the offsets of records which have been polled but not processed yet
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        }
         return props;
     }
 
@@ -109,6 +122,8 @@ public class KafkaConsumer extends DefaultConsumer {
         log.info("Starting Kafka consumer on topic: {} with breakOnFirstError: {}", endpoint.getConfiguration().getTopic(), endpoint.getConfiguration().isBreakOnFirstError());
         super.doStart();
 
+        exchangeFactory = endpoint.getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory();
+
         // is the offset repository already started?
         StateRepository repo = endpoint.getConfiguration().getOffsetRepository();
         if (repo instanceof ServiceSupport) {
@@ -122,6 +137,7 @@ public class KafkaConsumer extends DefaultConsumer {
         }
 
         executor = endpoint.createExecutor();
+        workersAbandoned = false;
 
         String topic = endpoint.getConfiguration().getTopic();
         Pattern pattern = null;
@@ -129,8 +145,36 @@ public class KafkaConsumer extends DefaultConsumer {
             pattern = Pattern.compile(topic);
         }
 
+        int consumerWorkers = endpoint.getConfiguration().getConsumerWorkers();
+        if (consumerWorkers > 0) {
+            if (endpoint.getConfiguration().isAllowManualCommit()) {
+                throw new IllegalArgumentException("The consumerWorkers option cannot be used together with allowManualCommit");
+            }
+            if (endpoint.getConfiguration().isBreakOnFirstError()) {
+                throw new IllegalArgumentException("The consumerWorkers option cannot be used together with breakOnFirstError");
+            }
+        }
+        if (endpoint.getConfiguration().isBatching()) {
+            if (endpoint.getConfiguration().isAllowManualCommit()) {
+                throw new IllegalArgumentException("The batching option cannot be used together with allowManualCommit");
+            }
+            if (consumerWorkers > 0) {
+                throw new IllegalArgumentException("The batching option cannot be used together with consumerWorkers");
+            }
+        }
+
         for (int i = 0; i < endpoint.getConfiguration().getConsumersCount(); i++) {
-            KafkaFetchRecords task = new KafkaFetchRecords(topic, pattern, i + "", getProps());
+            KafkaConsumerWorkers workers = null;
+            if (consumerWorkers > 0) {
+                ExecutorService[] executors = new ExecutorService[consumerWorkers];
+                for (int j = 0; j < consumerWorkers; j++) {
+                    executors[j] = endpoint.createConsumerWorker();
+                    workerExecutors.add(executors[j]);
+                }
+                boolean orderByKey = "key".equals(endpoint.getConfiguration().getConsumerWorkersOrdering());
+                workers = new KafkaConsumerWorkers(executors, orderByKey, endpoint.getConfiguration().getConsumerWorkersMaxBacklog());
+            }
+            KafkaFetchRecords task = new KafkaFetchRecords(topic, pattern, i + "", getProps(), workers);
             // pre-initialize task during startup so if there is any error we
             // have it thrown asap
             task.preInit();
@@ -152,11 +196,23 @@ public class KafkaConsumer extends DefaultConsumer {
             if (!executor.isTerminated()) {
                 tasks.forEach(KafkaFetchRecords::shutdown);
                 executor.shutdownNow();
+                workersAbandoned = true;
             }
         }
         tasks.clear();
         executor = null;
 
+        for (ExecutorService worker : workerExecutors) {
+            if (workersAbandoned) {
+                // the offsets of the records are not committed anyway, so do not wait for the workers
+                getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(worker);
+            } else {
+                // the consumer threads have waited for the workers to process their records, so they are idle
+                getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(worker);
+            }
+        }
+        workerExecutors.clear();
+
         if (stopOffsetRepo) {
             StateRepository repo = endpoint.getConfiguration().getOffsetRepository();
             log.debug("Stopping OffsetRepository: {}", repo);
@@ -174,12 +230,17 @@ public class KafkaConsumer extends DefaultConsumer {
         private final String threadId;
         private final Properties kafkaProps;
         private final Map<String, Long> lastProcessedOffset = new ConcurrentHashMap<>();
+        private final KafkaConsumerWorkers workers;
+        // the records waiting to be routed together when batching
+        private final List<ConsumerRecord<Object, Object>> batch = new ArrayList<>();
+        private long batchStarted;
 
-        KafkaFetchRecords(String topicName, Pattern topicPattern, String id, Properties kafkaProps) {
+        KafkaFetchRecords(String topicName, Pattern topicPattern, String id, Properties kafkaProps, KafkaConsumerWorkers workers) {
             this.topicName = topicName;
             this.topicPattern = topicPattern;
             this.threadId = topicName + "-" + "Thread " + id;
             this.kafkaProps = kafkaProps;
+            this.workers = workers;
         }
 
         @Override
@@ -215,6 +276,11 @@ public class KafkaConsumer extends DefaultConsumer {
                 // doRun keeps running until we either shutdown or is told to
                 // re-connect
                 reConnect = doRun();
+                if (reConnect) {
+                    // the records waiting for the batch are polled again by the new consumer
+                    batch.clear();
+                    batchStarted = 0;
+                }
             }
         }
 
@@ -300,8 +366,33 @@ public class KafkaConsumer extends DefaultConsumer {
 
                     // flag to break out processing on the first exception
                     boolean breakOnErrorHit = false;
-                    log.trace("Polling {} from topic: {} with timeout: {}", threadId, topicName, pollTimeoutMs);
-                    ConsumerRecords<Object, Object> allRecords = consumer.poll(pollTimeoutMs);
+                    long timeout = pollTimeoutMs;
+                    if (!batch.isEmpty() && endpoint.getConfiguration().getBatchingMaxWaitMs() > 0) {
+                        // do not wait longer for more records than the batch is allowed to wait
+                        long remaining = batchStarted + endpoint.getConfiguration().getBatchingMaxWaitMs() - System.currentTimeMillis();
+                        timeout = Math.max(0, Math.min(timeout, remaining));
+                    }
+                    log.trace("Polling {} from topic: {} with timeout: {}", threadId, topicName, timeout);
+                    ConsumerRecords<Object, Object> allRecords = consumer.poll(timeout);
+
+                    if (workers != null) {
+                        // the records are processed by the workers, and the offsets are committed when processed
+                        dispatchRecords(allRecords);
+                        commitProcessedOffsets(offsetRepository, false);
+                        continue;
+                    }
+
+                    if (endpoint.getConfiguration().isBatching()) {
+                        // the records are routed together, and the offsets are committed when routed
+                        if (batch.isEmpty()) {
+                            batchStarted = System.currentTimeMillis();
+                        }
+                        for (TopicPartition partition : allRecords.partitions()) {
+                            batch.addAll(allRecords.records(partition));
+                        }
+                        routeBatches(offsetRepository, false, false, Collections.emptySet());
+                        continue;
+                    }
 
                     for (TopicPartition partition : allRecords.partitions()) {
 
@@ -367,6 +458,11 @@ public class KafkaConsumer extends DefaultConsumer {
                                     // offset state upon partition revoke
                                     lastProcessedOffset.put(serializeOffsetKey(partition), partitionLastOffset);
                                 }
+
+                                if (!endpoint.getConfiguration().isAllowManualCommit()) {
+                                    // the exchange is done so it can be recycled (manual commit may keep a reference to the exchange)
+                                    exchangeFactory.release(exchange);
+                                }
                             }
 
                             if (!breakOnErrorHit) {
@@ -383,7 +479,19 @@ public class KafkaConsumer extends DefaultConsumer {
                     }
                 }
 
-                if (!reConnect) {
+                if (!reConnect && workers != null) {
+                    // wait for the records to be processed, so we can commit their offsets
+                    log.info("Waiting for records to be processed before committing {} from topic {}", threadId, topicName);
+                    if (workers.awaitProcessed()) {
+                        commitProcessedOffsets(offsetRepository, true);
+                    } else {
+                        log.warn("Interrupted while waiting for records to be processed, so not committing {} from topic {}", threadId, topicName);
+                        workersAbandoned = true;
+                    }
+                } else if (!reConnect && endpoint.getConfiguration().isBatching()) {
+                    // route the records waiting for the batch to fill up
+                    routeBatches(offsetRepository, true, true, Collections.emptySet());
+                } else if (!reConnect) {
                     if (isAutoCommitEnabled()) {
                         if ("async".equals(endpoint.getConfiguration().getAutoCommitOnStop())) {
                             log.info("Auto commitAsync on stop {} from topic {}", threadId, topicName);
@@ -435,6 +543,161 @@ public class KafkaConsumer extends DefaultConsumer {
             }
         }
 
+        private void dispatchRecords(ConsumerRecords<Object, Object> allRecords) {
+            for (TopicPartition partition : allRecords.partitions()) {
+                List<ConsumerRecord<Object, Object>> partitionRecords = allRecords.records(partition);
+                log.debug("Records count {} received for partition {}", partitionRecords.size(), partition);
+                for (ConsumerRecord<Object, Object> record : partitionRecords) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Partition = {}, offset = {}, key = {}, value = {}", record.partition(), record.offset(), record.key(), record.value());
+                    }
+                    // the exchange is created by the worker, as the exchange factory pools the exchanges per thread
+                    workers.dispatch(partition, record, () -> processRecord(record));
+                }
+            }
+
+            // pause the partitions which the workers are behind on, so we do not keep polling more records for them
+            Set<TopicPartition> assignment = consumer.assignment();
+            List<TopicPartition> resume = workers.partitionsToResume();
+            resume.retainAll(assignment);
+            if (!resume.isEmpty()) {
+                log.debug("Resuming partitions {} from topic {}", resume, topicName);
+                consumer.resume(resume);
+            }
+            List<TopicPartition> pause = workers.partitionsToPause();
+            pause.retainAll(assignment);
+            if (!pause.isEmpty()) {
+                log.debug("Pausing partitions {} from topic {} as the backlog of the workers is exceeded", pause, topicName);
+                consumer.pause(pause);
+            }
+        }
+
+        private void processRecord(ConsumerRecord<Object, Object> record) {
+            Exchange exchange = endpoint.createKafkaExchange(record);
+            propagateHeaders(record, exchange, endpoint.getConfiguration());
+            try {
+                processor.process(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+            if (exchange.getException() != null) {
+                // will handle/log the exception and then continue to next
+                getExceptionHandler().handleException("Error during processing", exchange, exchange.getException());
+            }
+            exchangeFactory.release(exchange);
+        }
+
+        private void commitProcessedOffsets(StateRepository<String, String> offsetRepository, boolean sync) {
+            commitOffsets(workers.processedOffsets(), offsetRepository, sync);
+        }
+
+        /**
+         * Routes the batches of records, which are full, or have waited long enough to be routed
+         *
+         * @param all     whether to route all the records, such as when stopping
+         * @param sync    whether to commit the offsets synchronously
+         * @param revoked the partitions being revoked, which must not be seeked when the exchange fails
+         */
+        private void routeBatches(StateRepository<String, String> offsetRepository, boolean all, boolean sync, Collection<TopicPartition> revoked) {
+            int maxSize = endpoint.getConfiguration().getBatchingMaxSize();
+            while (maxSize > 0 && batch.size() >= maxSize) {
+                List<ConsumerRecord<Object, Object>> records = new ArrayList<>(batch.subList(0, maxSize));
+                batch.subList(0, maxSize).clear();
+                // the records left over starts waiting for the next batch
+                batchStarted = System.currentTimeMillis();
+                if (!routeBatch(records, offsetRepository, sync, revoked)) {
+                    return;
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            long maxWait = endpoint.getConfiguration().getBatchingMaxWaitMs();
+            if (all || maxWait <= 0 || System.currentTimeMillis() - batchStarted >= maxWait) {
+                List<ConsumerRecord<Object, Object>> records = new ArrayList<>(batch);
+                batch.clear();
+                routeBatch(records, offsetRepository, sync, revoked);
+            }
+        }
+
+        /**
+         * Routes the records as a single exchange
+         *
+         * @return <tt>false</tt> if the consumer has seeked back to the records, as the exchange failed
+         */
+        private boolean routeBatch(List<ConsumerRecord<Object, Object>> records, StateRepository<String, String> offsetRepository, boolean sync,
+                                   Collection<TopicPartition> revoked) {
+            log.debug("Routing batch of {} records from topic {}", records.size(), topicName);
+            Exchange exchange = endpoint.createKafkaBatchExchange(records);
+            try {
+                processor.process(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+
+            if (exchange.getException() != null) {
+                if (endpoint.getConfiguration().isBreakOnFirstError()) {
+                    // seek back to the first record of the batch, and drop the records after it, so they are polled again
+                    Map<TopicPartition, Long> firstOffsets = new HashMap<>();
+                    for (ConsumerRecord<Object, Object> record : records) {
+                        firstOffsets.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+                    }
+                    for (ConsumerRecord<Object, Object> record : batch) {
+                        firstOffsets.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+                    }
+                    // the revoked partitions can no longer be seeked, and their records are polled again by the new owner
+                    // as their offsets are not committed
+                    firstOffsets.keySet().removeAll(revoked);
+                    log.warn("Error during processing {} from topic: {}. Will seek consumer to offsets: {} and start polling again.", exchange, topicName, firstOffsets);
+                    firstOffsets.forEach(consumer::seek);
+                    batch.clear();
+                    exchangeFactory.release(exchange);
+                    return false;
+                }
+                // will handle/log the exception and then continue to next
+                getExceptionHandler().handleException("Error during processing", exchange, exchange.getException());
+            }
+
+            // the batch is done so commit the offset of the last record of each partition
+            Map<TopicPartition, Long> lastOffsets = new HashMap<>();
+            for (ConsumerRecord<Object, Object> record : records) {
+                lastOffsets.put(new TopicPartition(record.topic(), record.partition()), record.offset());
+            }
+            commitOffsets(lastOffsets, offsetRepository, sync);
+            exchangeFactory.release(exchange);
+            return true;
+        }
+
+        private void commitOffsets(Map<TopicPartition, Long> offsets, StateRepository<String, String> offsetRepository, boolean sync) {
+            if (offsets.isEmpty()) {
+                return;
+            }
+            Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+            for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+                lastProcessedOffset.put(serializeOffsetKey(entry.getKey()), entry.getValue());
+                if (offsetRepository != null) {
+                    offsetRepository.setState(serializeOffsetKey(entry.getKey()), serializeOffsetValue(entry.getValue()));
+                } else {
+                    commits.put(entry.getKey(), new OffsetAndMetadata(entry.getValue() + 1));
+                }
+            }
+            if (commits.isEmpty()) {
+                return;
+            }
+            if (sync) {
+                log.debug("CommitSync {} from topic {} with offsets: {}", threadId, topicName, commits);
+                consumer.commitSync(commits);
+            } else {
+                log.trace("CommitAsync {} from topic {} with offsets: {}", threadId, topicName, commits);
+                consumer.commitAsync(commits, (committed, e) -> {
+                    if (e != null) {
+                        // a later commit will include the offsets
+                        log.warn("Error committing offsets {} from topic {} due {}", committed, topicName, e.getMessage());
+                    }
+                });
+            }
+        }
+
         private void shutdown() {
             // As advised in the KAFKA-1894 ticket, calling this wakeup method
             // breaks the infinite loop
@@ -446,6 +709,16 @@ public class KafkaConsumer extends DefaultConsumer {
             log.debug("onPartitionsRevoked: {} from topic {}", threadId, topicName);
 
             StateRepository<String, String> offsetRepository = endpoint.getConfiguration().getOffsetRepository();
+            if (!batch.isEmpty()) {
+                // route the records waiting for the batch to fill up, so their offsets are committed
+                routeBatches(offsetRepository, true, true, partitions);
+            }
+            if (workers != null) {
+                // wait for the records of the revoked partitions to be processed, so their offsets are committed
+                workers.awaitProcessed(partitions);
+                commitProcessedOffsets(offsetRepository, true);
+                workers.remove(partitions);
+            }
             for (TopicPartition partition : partitions) {
                 String offsetKey = serializeOffsetKey(partition);
                 Long offset = lastProcessedOffset.get(offsetKey);
@@ -462,6 +735,11 @@ public class KafkaConsumer extends DefaultConsumer {
         public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
             log.debug("onPartitionsAssigned: {} from topic {}", threadId, topicName);
 
+            if (workers != null) {
+                // the assigned partitions are not paused
+                workers.assigned(partitions);
+            }
+
             StateRepository<String, String> offsetRepository = endpoint.getConfiguration().getOffsetRepository();
             if (offsetRepository != null) {
                 for (TopicPartition partition : partitions) {
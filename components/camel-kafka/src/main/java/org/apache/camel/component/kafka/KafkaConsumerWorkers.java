@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Dispatches the records polled by a {@link KafkaConsumer} thread to a number of worker threads, and keeps track of
+ * which offsets of each partition have been processed.
+ * <p/>
+ * Each worker is a single thread, and a record is always dispatched to the same worker by its partition (or its key),
+ * so the records of a partition (or key) are processed in the order they were polled. As records of a partition may
+ * complete out of order when dispatched by key, then the offset to commit for a partition is the highest offset where
+ * all the records up to and including the offset have been processed.
+ * <p/>
+ * The methods, except for the tasks running on the workers, must only be called by the consumer thread, as they
+ * are used together with the (not thread safe) Kafka consumer, such as pausing and resuming partitions.
+ */
+class KafkaConsumerWorkers {
+
+    private final ExecutorService[] workers;
+    private final boolean orderByKey;
+    private final int maxBacklog;
+    private final Map<TopicPartition, PartitionProgress> partitions = new ConcurrentHashMap<>();
+    private final Set<TopicPartition> paused = new HashSet<>();
+    private final Object doneLock = new Object();
+
+    KafkaConsumerWorkers(ExecutorService[] workers, boolean orderByKey, int maxBacklog) {
+        this.workers = workers;
+        this.orderByKey = orderByKey;
+        this.maxBacklog = maxBacklog;
+    }
+
+    /**
+     * Dispatches the task processing the record to its worker
+     *
+     * @param partition the partition of the record
+     * @param record    the record
+     * @param task      the task which processes the record
+     */
+    void dispatch(TopicPartition partition, ConsumerRecord<Object, Object> record, Runnable task) {
+        PartitionProgress progress = partitions.computeIfAbsent(partition, p -> new PartitionProgress());
+        long offset = record.offset();
+        progress.dispatched(offset);
+
+        ExecutorService worker = workers[Math.floorMod(hash(partition, record), workers.length)];
+        worker.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                if (progress.done(offset)) {
+                    synchronized (doneLock) {
+                        doneLock.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the partitions where more offsets have been processed since last time, and the highest offset processed
+     * in order for each partition.
+     */
+    Map<TopicPartition, Long> processedOffsets() {
+        Map<TopicPartition, Long> answer = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionProgress> entry : partitions.entrySet()) {
+            long offset = entry.getValue().takeProcessed();
+            if (offset != -1) {
+                answer.put(entry.getKey(), offset);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the partitions with a backlog above the maximum which are not yet paused, and remembers them as paused.
+     */
+    List<TopicPartition> partitionsToPause() {
+        List<TopicPartition> answer = new ArrayList<>();
+        for (Map.Entry<TopicPartition, PartitionProgress> entry : partitions.entrySet()) {
+            if (entry.getValue().backlog() > maxBacklog && paused.add(entry.getKey())) {
+                answer.add(entry.getKey());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the paused partitions where the backlog is down to half of the maximum, and forgets them as paused.
+     */
+    List<TopicPartition> partitionsToResume() {
+        List<TopicPartition> answer = new ArrayList<>();
+        for (TopicPartition partition : paused) {
+            PartitionProgress progress = partitions.get(partition);
+            if (progress == null || progress.backlog() <= maxBacklog / 2) {
+                answer.add(partition);
+            }
+        }
+        paused.removeAll(answer);
+        return answer;
+    }
+
+    /**
+     * Waits until all the records dispatched for the given partitions have been processed
+     *
+     * @return <tt>false</tt> if interrupted while waiting
+     */
+    boolean awaitProcessed(Collection<TopicPartition> partitions) {
+        synchronized (doneLock) {
+            while (hasBacklog(partitions)) {
+                try {
+                    doneLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits until all the dispatched records have been processed
+     *
+     * @return <tt>false</tt> if interrupted while waiting
+     */
+    boolean awaitProcessed() {
+        return awaitProcessed(partitions.keySet());
+    }
+
+    /**
+     * Forgets the given partitions, such as when the partitions have been revoked from the consumer
+     */
+    void remove(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            this.partitions.remove(partition);
+            paused.remove(partition);
+        }
+    }
+
+    /**
+     * Forgets the given partitions as paused, as the partitions have been (re)assigned to the consumer
+     */
+    void assigned(Collection<TopicPartition> partitions) {
+        paused.removeAll(partitions);
+    }
+
+    private boolean hasBacklog(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            PartitionProgress progress = this.partitions.get(partition);
+            if (progress != null && progress.backlog() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int hash(TopicPartition partition, ConsumerRecord<Object, Object> record) {
+        Object key = record.key();
+        if (orderByKey && key != null) {
+            return key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode();
+        }
+        return partition.hashCode();
+    }
+
+    /**
+     * The offsets of a partition which have been dispatched and are not yet processed in order.
+     */
+    private static final class PartitionProgress {
+
+        // the dispatched offsets in the order they were dispatched
+        private final ArrayDeque<Long> pending = new ArrayDeque<>();
+        // the offsets which are processed before the offsets dispatched before them
+        private final Set<Long> done = new HashSet<>();
+        private long processed = -1;
+        private long taken = -1;
+
+        synchronized void dispatched(long offset) {
+            pending.addLast(offset);
+        }
+
+        /**
+         * Marks the offset as processed
+         *
+         * @return <tt>true</tt> if there is no more backlog
+         */
+        synchronized boolean done(long offset) {
+            if (pending.isEmpty() || pending.peekFirst() != offset) {
+                done.add(offset);
+                return false;
+            }
+            processed = pending.pollFirst();
+            // advance past the offsets which have already been processed
+            while (!pending.isEmpty() && done.remove(pending.peekFirst())) {
+                processed = pending.pollFirst();
+            }
+            return pending.isEmpty();
+        }
+
+        synchronized int backlog() {
+            return pending.size();
+        }
+
+        /**
+         * Gets the processed offset if it has advanced since last time, otherwise -1
+         */
+        synchronized long takeProcessed() {
+            if (processed > taken) {
+                taken = processed;
+                return processed;
+            }
+            return -1;
+        }
+    }
+
+}
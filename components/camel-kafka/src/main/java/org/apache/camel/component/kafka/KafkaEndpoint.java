@@ -17,16 +17,20 @@
 package org.apache.camel.component.kafka;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.camel.Consumer;
 import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.Message;
 import org.apache.camel.MultipleConsumersSupport;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
 import org.apache.camel.spi.ClassResolver;
+import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.spi.UriEndpoint;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.support.DefaultEndpoint;
@@ -150,6 +154,16 @@ public class KafkaEndpoint extends DefaultEndpoint implements MultipleConsumersS
         return getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, "KafkaConsumer[" + configuration.getTopic() + "]", configuration.getConsumerStreams());
     }
 
+    public ExecutorService createConsumerWorker() {
+        // a single thread with an unbounded task queue, so the records are processed in the order they are dispatched
+        ThreadPoolProfile profile = new ThreadPoolProfile("KafkaConsumerWorker");
+        profile.setPoolSize(1);
+        profile.setMaxPoolSize(1);
+        profile.setKeepAliveTime(0L);
+        profile.setMaxQueueSize(-1);
+        return getCamelContext().getExecutorServiceManager().newThreadPool(this, "KafkaConsumerWorker[" + configuration.getTopic() + "]", profile);
+    }
+
     public ExecutorService createProducerExecutor() {
         int core = getConfiguration().getWorkerPoolCoreSize();
         int max = getConfiguration().getWorkerPoolMaxSize();
@@ -158,7 +172,7 @@ public class KafkaEndpoint extends DefaultEndpoint implements MultipleConsumersS
 
     @SuppressWarnings("rawtypes")
     public Exchange createKafkaExchange(ConsumerRecord record) {
-        Exchange exchange = super.createExchange();
+        Exchange exchange = getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory().create(this, getExchangePattern());
 
         Message message = exchange.getIn();
         message.setHeader(KafkaConstants.PARTITION, record.partition());
@@ -174,6 +188,23 @@ public class KafkaEndpoint extends DefaultEndpoint implements MultipleConsumersS
         return exchange;
     }
 
+    @SuppressWarnings("rawtypes")
+    public Exchange createKafkaBatchExchange(List<? extends ConsumerRecord> records) {
+        Exchange exchange = getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory().create(this, getExchangePattern());
+
+        List<Object> values = new ArrayList<>(records.size());
+        for (ConsumerRecord record : records) {
+            values.add(record.value());
+        }
+
+        Message message = exchange.getIn();
+        message.setHeader(KafkaConstants.BATCH_SIZE, records.size());
+        message.setHeader(KafkaConstants.BATCH_RECORDS, records);
+        message.setBody(values);
+
+        return exchange;
+    }
+
     protected KafkaProducer createProducer(KafkaEndpoint endpoint) {
         return new KafkaProducer(endpoint);
     }
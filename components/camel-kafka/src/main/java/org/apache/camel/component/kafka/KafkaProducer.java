@@ -28,12 +28,17 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.component.kafka.serde.KafkaHeaderSerializer;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.support.DefaultAsyncProducer;
@@ -42,18 +47,26 @@ import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.utils.Bytes;
 
+@ManagedResource(description = "Managed KafkaProducer")
 public class KafkaProducer extends DefaultAsyncProducer {
 
+    // whether the current thread is completing a send, which is the thread of the kafka producer
+    private static final ThreadLocal<Boolean> IN_SEND_CALLBACK = new ThreadLocal<>();
+
     @SuppressWarnings("rawtypes")
     private org.apache.kafka.clients.producer.KafkaProducer kafkaProducer;
     private final KafkaEndpoint endpoint;
     private ExecutorService workerPool;
     private boolean shutdownWorkerPool;
     private volatile boolean closeKafkaProducer;
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final AtomicInteger inFlightRecords = new AtomicInteger();
+    private Semaphore inFlightPermits;
 
     public KafkaProducer(KafkaEndpoint endpoint) {
         super(endpoint);
@@ -98,6 +111,46 @@ public class KafkaProducer extends DefaultAsyncProducer {
         this.workerPool = workerPool;
     }
 
+    @ManagedAttribute(description = "Number of records sent which are not yet acknowledged by Kafka")
+    public int getInFlightRecords() {
+        return inFlightRecords.get();
+    }
+
+    @ManagedAttribute(description = "Number of records acknowledged by Kafka since the send latency was reset")
+    public long getSendLatencyCount() {
+        return sendLatency.getCount();
+    }
+
+    @ManagedAttribute(description = "Mean time in micros from sending a record until acknowledged by Kafka")
+    public long getSendLatencyMean() {
+        return sendLatency.getMean();
+    }
+
+    @ManagedAttribute(description = "Max time in micros from sending a record until acknowledged by Kafka")
+    public long getSendLatencyMax() {
+        return sendLatency.getMax();
+    }
+
+    @ManagedAttribute(description = "Time in micros which 50% of the records are acknowledged by Kafka within")
+    public long getSendLatencyP50() {
+        return sendLatency.getPercentile(50);
+    }
+
+    @ManagedAttribute(description = "Time in micros which 99% of the records are acknowledged by Kafka within")
+    public long getSendLatencyP99() {
+        return sendLatency.getPercentile(99);
+    }
+
+    @ManagedAttribute(description = "Time in micros which 99.9% of the records are acknowledged by Kafka within")
+    public long getSendLatencyP999() {
+        return sendLatency.getPercentile(99.9);
+    }
+
+    @ManagedOperation(description = "Resets the send latency")
+    public void resetSendLatency() {
+        sendLatency.reset();
+    }
+
     @Override
     @SuppressWarnings("rawtypes")
     protected void doStart() throws Exception {
@@ -116,12 +169,18 @@ public class KafkaProducer extends DefaultAsyncProducer {
             log.debug("Created KafkaProducer: {}", kafkaProducer);
         }
 
-        // if we are in asynchronous mode we need a worker pool
-        if (!endpoint.isSynchronous() && workerPool == null) {
+        // in asynchronous mode the routing continues on the thread of the kafka producer, unless a worker pool is used
+        if (workerPool == null) {
+            workerPool = endpoint.getConfiguration().getWorkerPool();
+        }
+        if (!endpoint.isSynchronous() && workerPool == null && endpoint.getConfiguration().isWorkerPoolEnabled()) {
             workerPool = endpoint.createProducerExecutor();
             // we create a thread pool so we should also shut it down
             shutdownWorkerPool = true;
         }
+
+        int maxInFlightRecords = endpoint.getConfiguration().getMaxInFlightRecords();
+        inFlightPermits = maxInFlightRecords > 0 ? new Semaphore(maxInFlightRecords) : null;
     }
 
     @Override
@@ -278,11 +337,7 @@ public class KafkaProducer extends DefaultAsyncProducer {
         }
 
         while (c.hasNext()) {
-            ProducerRecord rec = c.next();
-            if (log.isDebugEnabled()) {
-                log.debug("Sending message to topic: {}, partition: {}, key: {}", rec.topic(), rec.partition(), rec.key());
-            }
-            futures.add(kafkaProducer.send(rec));
+            futures.add(send(c.next(), null));
         }
         for (Future<RecordMetadata> f : futures) {
             //wait for them all to be sent
@@ -296,13 +351,10 @@ public class KafkaProducer extends DefaultAsyncProducer {
         try {
             Iterator<ProducerRecord> c = createRecorder(exchange);
             KafkaProducerCallBack cb = new KafkaProducerCallBack(exchange, callback);
+            // send all the records right away, and continue routing when the last of them is acknowledged
             while (c.hasNext()) {
                 cb.increment();
-                ProducerRecord rec = c.next();
-                if (log.isDebugEnabled()) {
-                    log.debug("Sending message to topic: {}, partition: {}, key: {}", rec.topic(), rec.partition(), rec.key());
-                }
-                kafkaProducer.send(rec, cb);
+                send(c.next(), cb);
             }
             return cb.allSent();
         } catch (Exception ex) {
@@ -312,6 +364,69 @@ public class KafkaProducer extends DefaultAsyncProducer {
         return true;
     }
 
+    /**
+     * Sends the record, which blocks for up to maxBlockMs while there are maxInFlightRecords records in flight.
+     * <p/>
+     * When sending from the thread of the kafka producer, such as when routing continues from the callback,
+     * then the send fails right away instead, as blocking the thread would also block acknowledging the records.
+     *
+     * @param callback optional callback when the record is acknowledged
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Future<RecordMetadata> send(ProducerRecord rec, Callback callback) throws Exception {
+        if (log.isDebugEnabled()) {
+            log.debug("Sending message to topic: {}, partition: {}, key: {}", rec.topic(), rec.partition(), rec.key());
+        }
+
+        if (inFlightPermits != null) {
+            if (IN_SEND_CALLBACK.get() != null) {
+                if (!inFlightPermits.tryAcquire()) {
+                    throw new TimeoutException("Failed to send record from the thread of the Kafka producer as "
+                            + endpoint.getConfiguration().getMaxInFlightRecords() + " records are in flight");
+                }
+            } else {
+                long timeout = endpoint.getConfiguration().getMaxBlockMs();
+                if (!inFlightPermits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("Failed to send record after " + timeout + " ms as "
+                            + endpoint.getConfiguration().getMaxInFlightRecords() + " records are in flight");
+                }
+            }
+        }
+        inFlightRecords.incrementAndGet();
+
+        long start = System.nanoTime();
+        try {
+            return kafkaProducer.send(rec, (recordMetadata, e) -> {
+                sendLatency.record(System.nanoTime() - start);
+                releaseInFlight();
+                if (callback != null) {
+                    boolean nested = IN_SEND_CALLBACK.get() != null;
+                    if (!nested) {
+                        IN_SEND_CALLBACK.set(Boolean.TRUE);
+                    }
+                    try {
+                        callback.onCompletion(recordMetadata, e);
+                    } finally {
+                        if (!nested) {
+                            IN_SEND_CALLBACK.remove();
+                        }
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // the record was not sent so the callback is not called
+            releaseInFlight();
+            throw e;
+        }
+    }
+
+    private void releaseInFlight() {
+        inFlightRecords.decrementAndGet();
+        if (inFlightPermits != null) {
+            inFlightPermits.release();
+        }
+    }
+
     /**
      * Attempts to convert the object to the same type as the serialized class specified
      */
@@ -377,15 +492,21 @@ public class KafkaProducer extends DefaultAsyncProducer {
             recordMetadatas.add(recordMetadata);
 
             if (count.decrementAndGet() == 0) {
-                // use worker pool to continue routing the exchange
-                // as this thread is from Kafka Callback and should not be used by Camel routing
-                workerPool.submit(new Runnable() {
-                    @Override
-                    public void run() {
-                        log.trace("All messages sent, continue routing.");
-                        callback.done(false);
-                    }
-                });
+                if (workerPool != null) {
+                    // use worker pool to continue routing the exchange
+                    // so the thread from Kafka Callback is not used by Camel routing
+                    workerPool.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            log.trace("All messages sent, continue routing.");
+                            callback.done(false);
+                        }
+                    });
+                } else {
+                    // continue routing the exchange on the thread from Kafka Callback, without a thread hand-over
+                    log.trace("All messages sent, continue routing.");
+                    callback.done(false);
+                }
             }
         }
     }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.EndpointInject;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerBatchingTest extends BaseEmbeddedKafkaTest {
+
+    public static final String TOPIC = "batching";
+
+    @EndpointInject("kafka:" + TOPIC
+            + "?groupId=group1&autoOffsetReset=earliest"
+            + "&batching=true&batchingMaxSize=4&batchingMaxWaitMs=2000"
+    )
+    private Endpoint from;
+
+    @EndpointInject("mock:result")
+    private MockEndpoint to;
+
+    private org.apache.kafka.clients.producer.KafkaProducer<String, String> producer;
+
+    @Before
+    public void before() {
+        Properties props = getDefaultProperties();
+        producer = new org.apache.kafka.clients.producer.KafkaProducer<>(props);
+    }
+
+    @After
+    public void after() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(from).routeId("foo").to(to);
+            }
+        };
+    }
+
+    @Test
+    public void kafkaRecordsAreRoutedInBatches() throws Exception {
+        to.expectedMinimumMessageCount(3);
+
+        for (int k = 1; k <= 10; k++) {
+            producer.send(new ProducerRecord<>(TOPIC, "1", "m" + k));
+        }
+
+        // the last 2 records are routed when the batch has waited long enough
+        to.setResultWaitTime(10000);
+        to.assertIsSatisfied();
+
+        List<Object> values = new ArrayList<>();
+        for (Exchange exchange : to.getReceivedExchanges()) {
+            List<?> body = exchange.getIn().getBody(List.class);
+            List<?> records = exchange.getIn().getHeader(KafkaConstants.BATCH_RECORDS, List.class);
+            assertTrue("Batch is too large: " + body, body.size() <= 4);
+            assertEquals(body.size(), exchange.getIn().getHeader(KafkaConstants.BATCH_SIZE));
+            assertEquals(body.size(), records.size());
+            assertEquals(body.get(0), ((ConsumerRecord<?, ?>) records.get(0)).value());
+            values.addAll(body);
+        }
+        assertEquals(10, values.size());
+        for (int k = 1; k <= 10; k++) {
+            assertEquals("m" + k, values.get(k - 1));
+        }
+    }
+}
@@ -16,9 +16,13 @@
  */
 package org.apache.camel.component.kafka;
 
+import java.util.Properties;
+
 import org.apache.camel.Processor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -44,4 +48,32 @@ public class KafkaConsumerTest {
         when(endpoint.getConfiguration().getBrokers()).thenReturn("localhost:2181");
         new KafkaConsumer(endpoint, processor);
     }
+
+    @Test
+    public void consumerWorkersTurnsOffAutoCommit() throws Exception {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true");
+        when(endpoint.getComponent()).thenReturn(component);
+        when(endpoint.getConfiguration()).thenReturn(configuration);
+        when(configuration.getBrokers()).thenReturn("localhost:2181");
+        when(configuration.createConsumerProperties()).thenReturn(props);
+        when(configuration.getConsumerWorkers()).thenReturn(4);
+
+        KafkaConsumer consumer = new KafkaConsumer(endpoint, processor);
+        assertEquals("false", consumer.getProps().get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+    }
+
+    @Test
+    public void batchingTurnsOffAutoCommit() throws Exception {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true");
+        when(endpoint.getComponent()).thenReturn(component);
+        when(endpoint.getConfiguration()).thenReturn(configuration);
+        when(configuration.getBrokers()).thenReturn("localhost:2181");
+        when(configuration.createConsumerProperties()).thenReturn(props);
+        when(configuration.isBatching()).thenReturn(true);
+
+        KafkaConsumer consumer = new KafkaConsumer(endpoint, processor);
+        assertEquals("false", consumer.getProps().get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaConsumerWorkersTest {
+
+    private final TopicPartition partition = new TopicPartition("test", 0);
+    private ExecutorService[] executors;
+
+    @Before
+    public void setUp() {
+        executors = new ExecutorService[4];
+        for (int i = 0; i < executors.length; i++) {
+            executors[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOrderedPerPartition() throws Exception {
+        KafkaConsumerWorkers workers = new KafkaConsumerWorkers(executors, false, 1000);
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        for (long offset = 0; offset < 100; offset++) {
+            ConsumerRecord<Object, Object> record = new ConsumerRecord<>("test", 0, offset, "key" + offset, "value");
+            final long current = offset;
+            workers.dispatch(partition, record, () -> processed.add(current));
+        }
+
+        assertTrue(workers.awaitProcessed());
+        assertEquals(100, processed.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, processed.get(i).longValue());
+        }
+        assertEquals(Long.valueOf(99), workers.processedOffsets().get(partition));
+        // nothing more has been processed since
+        assertTrue(workers.processedOffsets().isEmpty());
+    }
+
+    @Test
+    public void testProcessedOffsetWaitsForEarlierRecords() throws Exception {
+        KafkaConsumerWorkers workers = new KafkaConsumerWorkers(executors, true, 1000);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // the first record is slow, and the records by other keys are done before it
+        workers.dispatch(partition, new ConsumerRecord<>("test", 0, 0L, "slow", "value"), () -> await(latch));
+        CountDownLatch others = new CountDownLatch(1);
+        workers.dispatch(partition, new ConsumerRecord<>("test", 0, 1L, "fast", "value"), others::countDown);
+        assertTrue(others.await(5, TimeUnit.SECONDS));
+
+        assertTrue(workers.processedOffsets().isEmpty());
+
+        latch.countDown();
+        assertTrue(workers.awaitProcessed());
+        assertEquals(Long.valueOf(1), workers.processedOffsets().get(partition));
+    }
+
+    @Test
+    public void testPauseAndResume() throws Exception {
+        KafkaConsumerWorkers workers = new KafkaConsumerWorkers(executors, false, 10);
+        CountDownLatch latch = new CountDownLatch(1);
+        for (long offset = 0; offset < 20; offset++) {
+            workers.dispatch(partition, new ConsumerRecord<>("test", 0, offset, null, "value"), () -> await(latch));
+        }
+
+        assertEquals(Collections.singletonList(partition), workers.partitionsToPause());
+        // already paused
+        assertTrue(workers.partitionsToPause().isEmpty());
+        assertTrue(workers.partitionsToResume().isEmpty());
+
+        latch.countDown();
+        assertTrue(workers.awaitProcessed(Collections.singletonList(partition)));
+        assertEquals(Collections.singletonList(partition), workers.partitionsToResume());
+
+        Map<TopicPartition, Long> offsets = workers.processedOffsets();
+        assertEquals(Long.valueOf(19), offsets.get(partition));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.kafka;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
@@ -35,13 +36,16 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.errors.ApiException;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 
@@ -73,7 +77,7 @@ public class KafkaProducerTest {
         Future future = Mockito.mock(Future.class);
         Mockito.when(future.get()).thenReturn(rm);
         org.apache.kafka.clients.producer.KafkaProducer kp = Mockito.mock(org.apache.kafka.clients.producer.KafkaProducer.class);
-        Mockito.when(kp.send(any(ProducerRecord.class))).thenReturn(future);
+        Mockito.when(kp.send(any(ProducerRecord.class), any(Callback.class))).thenReturn(future);
 
         Mockito.when(exchange.getContext()).thenReturn(context);
         Mockito.when(context.getTypeConverter()).thenReturn(converter);
@@ -100,7 +104,7 @@ public class KafkaProducerTest {
         in.setHeader(KafkaConstants.PARTITION_KEY, 4);
 
         producer.process(exchange);
-        Mockito.verify(producer.getKafkaProducer()).send(any(ProducerRecord.class));
+        Mockito.verify(producer.getKafkaProducer()).send(any(ProducerRecord.class), any(Callback.class));
         assertRecordMetadataExists();
     }
 
@@ -110,7 +114,7 @@ public class KafkaProducerTest {
         endpoint.getConfiguration().setTopic("sometopic");
         // setup the exception here
         org.apache.kafka.clients.producer.KafkaProducer kp = producer.getKafkaProducer();
-        Mockito.when(kp.send(any(ProducerRecord.class))).thenThrow(new ApiException());
+        Mockito.when(kp.send(any(ProducerRecord.class), any(Callback.class))).thenThrow(new ApiException());
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.PARTITION_KEY, 4);
 
@@ -159,6 +163,90 @@ public class KafkaProducerTest {
         assertRecordMetadataExists();
     }
 
+    @Test
+    public void processAsyncContinuesRoutingWhenLastRecordAcknowledged() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+        in.setBody(Arrays.asList("a", "b", "c"));
+        // continue routing on the kafka callback thread
+        producer.setWorkerPool(null);
+
+        assertFalse(producer.process(exchange, callback));
+
+        ArgumentCaptor<Callback> callBackCaptor = ArgumentCaptor.forClass(Callback.class);
+        Mockito.verify(producer.getKafkaProducer(), Mockito.times(3)).send(any(ProducerRecord.class), callBackCaptor.capture());
+        assertEquals(3, producer.getInFlightRecords());
+        for (Callback kafkaCallback : callBackCaptor.getAllValues()) {
+            Mockito.verify(callback, Mockito.never()).done(anyBoolean());
+            kafkaCallback.onCompletion(new RecordMetadata(null, 0, 0, 0, new Long(0), 0, 0), null);
+        }
+        Mockito.verify(callback).done(eq(false));
+        assertEquals(0, producer.getInFlightRecords());
+        assertEquals(3, producer.getSendLatencyCount());
+    }
+
+    @Test
+    public void processAsyncFailsWhenTooManyRecordsInFlight() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        endpoint.getConfiguration().setMaxInFlightRecords(1);
+        endpoint.getConfiguration().setMaxBlockMs(100);
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+        in.setBody(Arrays.asList("a", "b"));
+
+        producer.start();
+        try {
+            // the first record is never acknowledged so the second cannot be sent
+            assertTrue(producer.process(exchange, callback));
+            Mockito.verify(producer.getKafkaProducer()).send(any(ProducerRecord.class), any(Callback.class));
+            Mockito.verify(exchange).setException(isA(TimeoutException.class));
+            Mockito.verify(callback).done(eq(true));
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void processAsyncFailsFastWhenSendingFromCallback() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        endpoint.getConfiguration().setMaxInFlightRecords(2);
+        endpoint.getConfiguration().setMaxBlockMs(60000);
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+        // continue routing on the kafka callback thread
+        producer.setWorkerPool(null);
+
+        producer.start();
+        try {
+            // when the first record is acknowledged then the route sends two records again from the callback
+            AsyncCallback resend = doneSync -> {
+                in.setBody(Arrays.asList("c", "d"));
+                producer.process(exchange, callback);
+            };
+            in.setBody("a");
+            assertFalse(producer.process(exchange, resend));
+            in.setBody("b");
+            assertFalse(producer.process(exchange, Mockito.mock(AsyncCallback.class)));
+
+            ArgumentCaptor<Callback> callBackCaptor = ArgumentCaptor.forClass(Callback.class);
+            Mockito.verify(producer.getKafkaProducer(), Mockito.times(2)).send(any(ProducerRecord.class), callBackCaptor.capture());
+            assertEquals(2, producer.getInFlightRecords());
+
+            long start = System.currentTimeMillis();
+            callBackCaptor.getAllValues().get(0).onCompletion(new RecordMetadata(null, 0, 0, 0, new Long(0), 0, 0), null);
+            assertTrue("Should not block while sending from the callback", System.currentTimeMillis() - start < 10000);
+
+            // the first record is sent, and the second fails right away as the other records are in flight
+            Mockito.verify(producer.getKafkaProducer(), Mockito.times(3)).send(any(ProducerRecord.class), any(Callback.class));
+            Mockito.verify(exchange).setException(isA(TimeoutException.class));
+            Mockito.verify(callback).done(eq(true));
+            assertEquals(2, producer.getInFlightRecords());
+        } finally {
+            producer.stop();
+        }
+    }
+
     @Test
     public void processSendsMessageWithTopicHeaderAndNoTopicInEndPoint() throws Exception {
         endpoint.getConfiguration().setTopic(null);
@@ -318,7 +406,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(Integer partitionKey, String topic, String messageKey) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), any(Callback.class));
         assertEquals(partitionKey, captor.getValue().partition());
         assertEquals(messageKey, captor.getValue().key());
         assertEquals(topic, captor.getValue().topic());
@@ -327,7 +415,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(String topic, String messageKey) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), any(Callback.class));
         assertEquals(messageKey, captor.getValue().key());
         assertEquals(topic, captor.getValue().topic());
     }
@@ -335,7 +423,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(String topic) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), any(Callback.class));
         assertEquals(topic, captor.getValue().topic());
     }
 
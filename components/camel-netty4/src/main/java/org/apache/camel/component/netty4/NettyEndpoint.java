@@ -28,6 +28,7 @@ import io.netty.handler.ssl.SslHandler;
 import org.apache.camel.AsyncEndpoint;
 import org.apache.camel.Consumer;
 import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
@@ -71,7 +72,7 @@ public class NettyEndpoint extends DefaultEndpoint implements AsyncEndpoint {
     }
 
     public Exchange createExchange(ChannelHandlerContext ctx, Object message) throws Exception {
-        Exchange exchange = createExchange();
+        Exchange exchange = getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory().create(this, getExchangePattern());
         updateMessageHeader(exchange.getIn(), ctx);
         NettyPayloadHelper.setIn(exchange, message);
         return exchange;
@@ -24,6 +24,7 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.component.netty4.NettyConstants;
 import org.apache.camel.component.netty4.NettyConsumer;
 import org.apache.camel.component.netty4.NettyHelper;
@@ -134,6 +135,7 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
             consumer.getExceptionHandler().handleException(e);
         } finally {
             consumer.doneUoW(exchange);
+            releaseExchange(exchange);
         }
     }
 
@@ -150,6 +152,7 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
                     consumer.getExceptionHandler().handleException(e);
                 } finally {
                     consumer.doneUoW(exchange);
+                    releaseExchange(exchange);
                 }
             }
         });
@@ -184,6 +187,13 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
         }
     }
 
+    /**
+     * Releases the exchange when it has been completely processed, so it can be recycled by the {@link org.apache.camel.spi.ExchangeFactory}.
+     */
+    protected void releaseExchange(Exchange exchange) {
+        consumer.getEndpoint().getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory().release(exchange);
+    }
+
     /**
      * Gets the object we want to use as the response object for sending to netty.
      *
@@ -20,7 +20,7 @@ import java.net.SocketAddress;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
-import org.apache.camel.CamelExchangeException;
+import org.apache.camel.CamelException;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.netty4.NettyConstants;
 import org.apache.camel.component.netty4.NettyConsumer;
@@ -37,23 +37,35 @@ public class ServerResponseFutureListener implements ChannelFutureListener {
     // use NettyConsumer as logger to make it easier to read the logs as this is part of the consumer
     private static final Logger LOG = LoggerFactory.getLogger(NettyConsumer.class);
     private final NettyConsumer consumer;
-    private final Exchange exchange;
+    private final String exchangeId;
     private final SocketAddress remoteAddress;
+    private final boolean disconnect;
 
     public ServerResponseFutureListener(NettyConsumer consumer, Exchange exchange, SocketAddress remoteAddress) {
         this.consumer = consumer;
-        this.exchange = exchange;
+        // capture what we need eager as the exchange may have been released when the write is complete
+        this.exchangeId = exchange.getExchangeId();
         this.remoteAddress = remoteAddress;
+        this.disconnect = isDisconnect(consumer, exchange);
     }
 
     @Override
     public void operationComplete(ChannelFuture future) throws Exception {
         // if it was not a success then thrown an exception
         if (!future.isSuccess()) {
-            Exception e = new CamelExchangeException("Cannot write response to " + remoteAddress, exchange, future.cause());
+            Exception e = new CamelException("Cannot write response to " + remoteAddress + " on ExchangeId: " + exchangeId, future.cause());
             consumer.getExceptionHandler().handleException(e);
         }
 
+        if (disconnect) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Closing channel when complete at address: {}", remoteAddress);
+            }
+            NettyHelper.close(future.channel());
+        }
+    }
+
+    private static boolean isDisconnect(NettyConsumer consumer, Exchange exchange) {
         // should channel be closed after complete?
         Boolean close;
         if (exchange.hasOut()) {
@@ -72,11 +84,6 @@ public class ServerResponseFutureListener implements ChannelFutureListener {
         if (close != null) {
             disconnect = close;
         }
-        if (disconnect) {
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Closing channel when complete at address: {}", remoteAddress);
-            }
-            NettyHelper.close(future.channel());
-        }
+        return disconnect;
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.engine.PooledExchangeFactory;
+import org.junit.Test;
+
+public class NettyTCPSyncPooledExchangeTest extends BaseNettyTest {
+
+    private PooledExchangeFactory factory = new PooledExchangeFactory();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        factory.setLeakDetection(true);
+        context.adapt(ExtendedCamelContext.class).setExchangeFactory(factory);
+        return context;
+    }
+
+    @Test
+    public void testPooledExchange() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World", "Bye World", "Hi World");
+
+        assertEquals("Reply Hello World", template.requestBody("netty4:tcp://localhost:{{port}}?sync=true&textline=true", "Hello World", String.class));
+        assertEquals("Reply Bye World", template.requestBody("netty4:tcp://localhost:{{port}}?sync=true&textline=true", "Bye World", String.class));
+        assertEquals("Reply Hi World", template.requestBody("netty4:tcp://localhost:{{port}}?sync=true&textline=true", "Hi World", String.class));
+
+        assertMockEndpointsSatisfied();
+
+        // the consumer should recycle the exchanges
+        assertTrue(factory.getCreatedCounter() >= 1);
+        assertEquals(3, factory.getCreatedCounter() + factory.getAcquiredCounter());
+        assertEquals(3, factory.getReleasedCounter());
+        assertEquals(0, factory.getInUseCounter());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("netty4:tcp://localhost:{{port}}?sync=true&textline=true")
+                    .to("mock:result")
+                    .transform(body().prepend("Reply "));
+            }
+        };
+    }
+
+}
@@ -121,6 +121,8 @@ public class RabbitMQComponent extends DefaultComponent {
     @Metadata(label = "advanced", defaultValue = "1000")
     private long requestTimeoutCheckerInterval = 1000;
     @Metadata(label = "advanced")
+    private boolean requestTimeoutTimingWheel;
+    @Metadata(label = "advanced")
     private boolean transferException;
     @Metadata(label = "producer")
     private boolean mandatory;
@@ -221,6 +223,7 @@ public class RabbitMQComponent extends DefaultComponent {
         endpoint.setChannelPoolMaxWait(getChannelPoolMaxWait());
         endpoint.setRequestTimeout(getRequestTimeout());
         endpoint.setRequestTimeoutCheckerInterval(getRequestTimeoutCheckerInterval());
+        endpoint.setRequestTimeoutTimingWheel(isRequestTimeoutTimingWheel());
         endpoint.setTransferException(isTransferException());
         endpoint.setPublisherAcknowledgements(isPublisherAcknowledgements());
         endpoint.setPublisherAcknowledgementsTimeout(getPublisherAcknowledgementsTimeout());
@@ -560,6 +563,20 @@ public class RabbitMQComponent extends DefaultComponent {
         return requestTimeoutCheckerInterval;
     }
 
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending replies for inOut exchange,
+     * instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in
+     * constant time, which scales better when there are many pending replies, but the timeouts are only
+     * checked at every requestTimeoutCheckerInterval.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
     /**
      * When true and an inOut Exchange failed on the consumer side send the
      * caused Exception back in the response
@@ -157,6 +157,8 @@ public class RabbitMQEndpoint extends DefaultEndpoint implements AsyncEndpoint {
     @UriParam(label = "advanced", defaultValue = "1000")
     private long requestTimeoutCheckerInterval = 1000;
     @UriParam(label = "advanced")
+    private boolean requestTimeoutTimingWheel;
+    @UriParam(label = "advanced")
     private boolean transferException;
     @UriParam(label = "producer")
     private boolean publisherAcknowledgements;
@@ -829,6 +831,20 @@ public class RabbitMQEndpoint extends DefaultEndpoint implements AsyncEndpoint {
         return requestTimeoutCheckerInterval;
     }
 
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending replies for inOut exchange,
+     * instead of the default timeout map. The timing wheel adds, removes and expires the pending replies in
+     * constant time, which scales better when there are many pending replies, but the timeouts are only
+     * checked at every requestTimeoutCheckerInterval.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
     /**
      * Get useMessageIDAsCorrelationID for inOut exchange
      */
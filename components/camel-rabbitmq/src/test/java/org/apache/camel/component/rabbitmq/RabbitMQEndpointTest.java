@@ -251,6 +251,15 @@ public class RabbitMQEndpointTest extends CamelTestSupport {
         assertEquals(1000, endpoint.getRequestTimeoutCheckerInterval());
     }
 
+    @Test
+    public void createEndpointWithRequestTimeoutTimingWheel() throws Exception {
+        RabbitMQEndpoint endpoint = context.getEndpoint("rabbitmq:localhost/exchange", RabbitMQEndpoint.class);
+        assertFalse(endpoint.isRequestTimeoutTimingWheel());
+
+        endpoint = context.getEndpoint("rabbitmq:localhost/exchange?requestTimeoutTimingWheel=true", RabbitMQEndpoint.class);
+        assertTrue(endpoint.isRequestTimeoutTimingWheel());
+    }
+
     @Test
     public void createEndpointWithSkipQueueDeclareEnabled() throws Exception {
         RabbitMQEndpoint endpoint = context.getEndpoint("rabbitmq:localhost/exchange?skipQueueDeclare=true", RabbitMQEndpoint.class);
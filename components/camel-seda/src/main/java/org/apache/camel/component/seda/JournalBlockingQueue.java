@@ -0,0 +1,643 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.Service;
+import org.apache.camel.support.CamelObjectInputStream;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.DefaultExchangeHolder;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded {@link BlockingQueue} of exchanges, which keeps the exchanges in a journal on disk, so the exchanges
+ * which have not been processed are not lost when the JVM is restarted or crashes.
+ * <p/>
+ * The message body and headers of every exchange added to the queue are appended to memory mapped segment files
+ * in the journal directory. The exchange is acknowledged in the journal when its unit of work is done, that is when
+ * the consumer has completed routing the exchange (or the exchange was removed from the queue). When all the
+ * exchanges in a segment have been acknowledged, then the segment file is deleted.
+ * <p/>
+ * The journal is forced to disk in batches (group commit) by a background task, which runs every
+ * {@link JournalBlockingQueueFactory#getSyncInterval()} millis. This means the exchanges added within the last
+ * interval may be lost if the operating system crashes, but not if only the JVM crashes. A sync interval of 0
+ * forces the journal to disk on every added exchange instead.
+ * <p/>
+ * When the queue is started, all the exchanges which have not been acknowledged are read from the journal and
+ * added to the queue again, before any new exchanges. The exchanges are delivered at least once, which means an
+ * exchange which was being processed when the JVM crashed is delivered again.
+ * <p/>
+ * Only one queue can use the journal directory at the same time.
+ */
+public class JournalBlockingQueue extends AbstractQueue<Exchange> implements BlockingQueue<Exchange>, Service {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalBlockingQueue.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final String LOCK_FILE = "journal.lock";
+    // each record is the length of the data, the checksum of the data, the state and then the data
+    private static final int RECORD_HEADER = 9;
+    private static final int STATE_OFFSET = 8;
+    private static final byte PENDING = 'P';
+    private static final byte ACKNOWLEDGED = 'A';
+
+    private final CamelContext camelContext;
+    private final File directory;
+    private final int capacity;
+    private final int segmentSize;
+    private final long syncInterval;
+    private final Object writeLock = new Object();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile BlockingQueue<Entry> queue;
+    private Segment current;
+    private int nextSegmentId;
+    private RandomAccessFile lockFile;
+    private FileLock fileLock;
+    private ScheduledExecutorService executorService;
+    private volatile boolean started;
+
+    /**
+     * Creates a queue which keeps its journal in the given directory
+     *
+     * @param camelContext the camel context used for creating the exchanges read from the journal
+     * @param directory    the journal directory
+     * @param capacity     the maximum number of exchanges in the queue
+     * @param segmentSize  the size in bytes of each segment file
+     * @param syncInterval the interval in millis for forcing the journal to disk, or 0 to force on every write
+     */
+    public JournalBlockingQueue(CamelContext camelContext, File directory, int capacity, int segmentSize, long syncInterval) {
+        ObjectHelper.notNull(camelContext, "camelContext");
+        ObjectHelper.notNull(directory, "directory");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        if (segmentSize <= RECORD_HEADER) {
+            throw new IllegalArgumentException("Segment size must be larger than " + RECORD_HEADER + ", was: " + segmentSize);
+        }
+        this.camelContext = camelContext;
+        this.directory = directory;
+        this.capacity = capacity;
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of segment files in the journal
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    @Override
+    public void start() {
+        synchronized (writeLock) {
+            if (started) {
+                return;
+            }
+            try {
+                doStart();
+            } catch (IOException e) {
+                closeSegments();
+                releaseLock();
+                throw new RuntimeCamelException("Error opening journal in directory: " + directory, e);
+            }
+            started = true;
+        }
+        if (syncInterval > 0) {
+            executorService = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "SedaJournalSync");
+            executorService.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (executorService != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(executorService);
+            executorService = null;
+        }
+        synchronized (writeLock) {
+            if (!started) {
+                return;
+            }
+            started = false;
+            // the exchanges still in the queue are not acknowledged, so they are read again when started
+            sync();
+            closeSegments();
+            current = null;
+            releaseLock();
+        }
+    }
+
+    @Override
+    public boolean offer(Exchange exchange) {
+        ObjectHelper.notNull(exchange, "exchange");
+        if (queue.remainingCapacity() == 0) {
+            // avoid writing to the journal when the queue is full
+            return false;
+        }
+        Entry entry = append(exchange);
+        if (queue.offer(entry)) {
+            return true;
+        }
+        acknowledge(entry);
+        return false;
+    }
+
+    @Override
+    public void put(Exchange exchange) throws InterruptedException {
+        ObjectHelper.notNull(exchange, "exchange");
+        Entry entry = append(exchange);
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            acknowledge(entry);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean offer(Exchange exchange, long timeout, TimeUnit unit) throws InterruptedException {
+        ObjectHelper.notNull(exchange, "exchange");
+        Entry entry = append(exchange);
+        boolean added = false;
+        try {
+            added = queue.offer(entry, timeout, unit);
+        } finally {
+            if (!added) {
+                acknowledge(entry);
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public Exchange poll() {
+        return exchangeOf(queue.poll());
+    }
+
+    @Override
+    public Exchange take() throws InterruptedException {
+        return exchangeOf(queue.take());
+    }
+
+    @Override
+    public Exchange poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return exchangeOf(queue.poll(timeout, unit));
+    }
+
+    @Override
+    public Exchange peek() {
+        return exchangeOf(queue.peek());
+    }
+
+    @Override
+    public int drainTo(Collection<? super Exchange> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Exchange> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int answer = 0;
+        while (answer < maxElements) {
+            Entry entry = queue.poll();
+            if (entry == null) {
+                break;
+            }
+            c.add(entry.exchange);
+            answer++;
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        for (Iterator<Entry> it = queue.iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.exchange == o || entry.exchange.equals(o)) {
+                it.remove();
+                // the exchange will not be processed so acknowledge it
+                acknowledge(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        List<Entry> removed = new ArrayList<>();
+        queue.drainTo(removed);
+        for (Entry entry : removed) {
+            acknowledge(entry);
+        }
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public Iterator<Exchange> iterator() {
+        final Iterator<Entry> it = queue.iterator();
+        return new Iterator<Exchange>() {
+            private Entry last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Exchange next() {
+                last = it.next();
+                return last.exchange;
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                acknowledge(last);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "JournalBlockingQueue[" + directory + "]";
+    }
+
+    /**
+     * Forces the segments which have been written to since last time to disk
+     */
+    protected void sync() {
+        for (Segment segment : segments.values()) {
+            if (segment.dirty) {
+                // clear the flag before forcing, so writes while forcing are forced next time
+                segment.dirty = false;
+                boolean closed;
+                synchronized (segment) {
+                    closed = segment.closed;
+                }
+                if (!closed) {
+                    segment.buffer.force();
+                }
+            }
+        }
+    }
+
+    private void doStart() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory: " + directory);
+        }
+        lockFile = new RandomAccessFile(new File(directory, LOCK_FILE), "rw");
+        try {
+            fileLock = lockFile.getChannel().tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the lock is held by another queue in this JVM
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            throw new IOException("Journal directory is in use by another queue: " + directory);
+        }
+
+        // read the exchanges which have not been acknowledged from the existing segments
+        List<Entry> entries = new ArrayList<>();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        List<Integer> ids = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                ids.add(Integer.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        ids.sort(null);
+        for (Integer id : ids) {
+            Segment segment = openSegment(id, 0);
+            // the existing segments are not written to again, as their end may have been torn by a crash
+            segment.sealed = true;
+            segments.put(id, segment);
+            replay(segment, entries);
+            if (segment.pending == 0) {
+                deleteSegment(segment);
+            }
+            nextSegmentId = id + 1;
+        }
+        if (!entries.isEmpty()) {
+            LOG.info("Replaying {} exchanges from journal: {}", entries.size(), directory);
+        }
+
+        // start with a new queue as the exchanges from before being stopped are read again,
+        // and make room for all the read exchanges
+        BlockingQueue<Entry> answer = new LinkedBlockingQueue<>(Math.max(capacity, entries.size()));
+        answer.addAll(entries);
+        queue = answer;
+    }
+
+    private void replay(Segment segment, List<Entry> entries) throws IOException {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER + length > buffer.capacity()) {
+                // end of the segment, or a record which was not completely written
+                break;
+            }
+            byte[] data = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + RECORD_HEADER);
+            view.get(data);
+            crc.reset();
+            crc.update(data, 0, length);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                LOG.warn("Journal segment {} has a corrupt record at position {}, skipping the rest of the segment", segment.file, position);
+                break;
+            }
+            if (buffer.get(position + STATE_OFFSET) == PENDING) {
+                Exchange exchange = unmarshal(data);
+                entries.add(createEntry(exchange, segment, position));
+                segment.pending++;
+            }
+            position += RECORD_HEADER + length;
+        }
+        segment.position = position;
+    }
+
+    private Entry append(Exchange exchange) {
+        if (!started) {
+            throw new IllegalStateException("Journal is not started: " + directory);
+        }
+        byte[] data = marshal(exchange);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        int length = RECORD_HEADER + data.length;
+
+        synchronized (writeLock) {
+            if (!started) {
+                throw new IllegalStateException("Journal is not started: " + directory);
+            }
+            if (current == null || current.position + length > current.buffer.capacity()) {
+                rollSegment(length);
+            }
+            Segment segment = current;
+            int position = segment.position;
+            ByteBuffer view = segment.buffer.duplicate();
+            view.position(position + 4);
+            view.putInt((int) crc.getValue());
+            view.put(PENDING);
+            view.put(data);
+            // write the length last, which marks the record as complete
+            segment.buffer.putInt(position, data.length);
+            segment.position = position + length;
+            synchronized (segment) {
+                segment.pending++;
+            }
+            if (syncInterval > 0) {
+                segment.dirty = true;
+            } else {
+                segment.buffer.force();
+            }
+            return createEntry(exchange, segment, position);
+        }
+    }
+
+    private void acknowledge(Entry entry) {
+        Segment segment = entry.segment;
+        boolean delete;
+        synchronized (segment) {
+            if (entry.acknowledged || segment.closed) {
+                return;
+            }
+            entry.acknowledged = true;
+            segment.buffer.put(entry.position + STATE_OFFSET, ACKNOWLEDGED);
+            segment.dirty = true;
+            delete = --segment.pending == 0 && segment.sealed;
+        }
+        if (delete) {
+            deleteSegment(segment);
+        }
+    }
+
+    private void rollSegment(int length) {
+        Segment old = current;
+        try {
+            current = openSegment(nextSegmentId++, Math.max(segmentSize, length));
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error creating journal segment in directory: " + directory, e);
+        }
+        segments.put(current.id, current);
+        if (old != null) {
+            boolean delete;
+            synchronized (old) {
+                old.sealed = true;
+                delete = old.pending == 0;
+            }
+            if (delete) {
+                deleteSegment(old);
+            }
+        }
+    }
+
+    private Segment openSegment(int id, int size) throws IOException {
+        File file = new File(directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (size > 0) {
+                // a new segment is filled with zeros, which marks the end of the records
+                raf.setLength(size);
+            }
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            LOG.debug("Opened journal segment {} with size {}", file, channel.size());
+            return new Segment(id, file, raf, buffer);
+        } catch (IOException e) {
+            IOHelper.close(raf);
+            throw e;
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        synchronized (segment) {
+            if (segment.closed) {
+                return;
+            }
+            segment.closed = true;
+        }
+        segments.remove(segment.id);
+        IOHelper.close(segment.file, segment.file.getName(), LOG);
+        if (!segment.path.delete()) {
+            LOG.debug("Cannot delete journal segment {}", segment.path);
+        } else {
+            LOG.debug("Deleted journal segment {}", segment.path);
+        }
+    }
+
+    private void closeSegments() {
+        for (Segment segment : segments.values()) {
+            synchronized (segment) {
+                segment.closed = true;
+            }
+            IOHelper.close(segment.file, segment.file.getName(), LOG);
+        }
+        segments.clear();
+    }
+
+    private void releaseLock() {
+        if (fileLock != null) {
+            try {
+                fileLock.release();
+            } catch (IOException e) {
+                LOG.debug("Error releasing lock on journal directory " + directory + ". This exception is ignored.", e);
+            }
+            fileLock = null;
+        }
+        IOHelper.close(lockFile);
+        lockFile = null;
+    }
+
+    private Entry createEntry(Exchange exchange, Segment segment, int position) {
+        Entry entry = new Entry(exchange, segment, position);
+        // acknowledge in the journal when the consumer is done with the exchange
+        exchange.addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                acknowledge(entry);
+            }
+
+            @Override
+            public String toString() {
+                return "JournalAcknowledge[" + directory + "]";
+            }
+        });
+        return entry;
+    }
+
+    private byte[] marshal(Exchange exchange) {
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange, false, true);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(holder);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error writing exchange to journal: " + directory, e);
+        }
+        return bos.toByteArray();
+    }
+
+    private Exchange unmarshal(byte[] data) throws IOException {
+        try (ObjectInputStream ois = new CamelObjectInputStream(new ByteArrayInputStream(data), camelContext)) {
+            DefaultExchangeHolder holder = (DefaultExchangeHolder) ois.readObject();
+            Exchange exchange = new DefaultExchange(camelContext);
+            DefaultExchangeHolder.unmarshal(exchange, holder);
+            return exchange;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read exchange from journal: " + directory, e);
+        }
+    }
+
+    private static Exchange exchangeOf(Entry entry) {
+        return entry != null ? entry.exchange : null;
+    }
+
+    private static final class Entry {
+        private final Exchange exchange;
+        private final Segment segment;
+        private final int position;
+        // guarded by the segment
+        private boolean acknowledged;
+
+        Entry(Exchange exchange, Segment segment, int position) {
+            this.exchange = exchange;
+            this.segment = segment;
+            this.position = position;
+        }
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final File path;
+        private final RandomAccessFile file;
+        private final MappedByteBuffer buffer;
+        // the write position, guarded by the write lock
+        private int position;
+        // the remaining fields are guarded by the segment
+        private int pending;
+        private boolean sealed;
+        private boolean closed;
+        private volatile boolean dirty;
+
+        Segment(int id, File path, RandomAccessFile file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+}
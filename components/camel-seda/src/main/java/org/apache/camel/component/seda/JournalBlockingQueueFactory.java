@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.io.File;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.SedaConstants;
+
+/**
+ * Implementation of {@link BlockingQueueFactory} producing {@link JournalBlockingQueue}, which keeps the exchanges
+ * in a journal on disk, so they are not lost when the JVM is restarted or crashes.
+ * <p/>
+ * The journal is kept in the given directory, so use a factory (and directory) per queue. The created queue is
+ * started right away, which reads the exchanges not yet processed from the journal, and is stopped when the
+ * {@link CamelContext} is stopped.
+ */
+public class JournalBlockingQueueFactory implements BlockingQueueFactory<Exchange>, CamelContextAware {
+
+    private CamelContext camelContext;
+
+    /**
+     * Directory of the journal
+     */
+    private File directory;
+
+    /**
+     * Capacity used when none provided
+     */
+    private int defaultCapacity = SedaConstants.QUEUE_SIZE;
+
+    /**
+     * Size in bytes of each segment file
+     */
+    private int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * Interval in millis for forcing the journal to disk
+     */
+    private long syncInterval = 100;
+
+    public JournalBlockingQueueFactory() {
+    }
+
+    public JournalBlockingQueueFactory(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    /**
+     * @return Directory of the journal
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param directory Directory of the journal, which must only be used by one queue
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return Default queue capacity
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * @param defaultCapacity Default queue capacity
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    /**
+     * @return Size in bytes of each segment file
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @param segmentSize Size in bytes of each segment file, which is memory mapped. Exchanges larger than the
+     *                    segment size are written to a segment of their own.
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return Interval in millis for forcing the journal to disk
+     */
+    public long getSyncInterval() {
+        return syncInterval;
+    }
+
+    /**
+     * @param syncInterval Interval in millis for forcing the journal to disk in batches. Use 0 to force the journal
+     *                     to disk on every added exchange, which is safer but slower.
+     */
+    public void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    @Override
+    public JournalBlockingQueue create() {
+        return create(defaultCapacity);
+    }
+
+    @Override
+    public JournalBlockingQueue create(int capacity) {
+        ObjectHelper.notNull(camelContext, "camelContext", this);
+        ObjectHelper.notNull(directory, "directory", this);
+
+        JournalBlockingQueue queue = new JournalBlockingQueue(camelContext, directory, capacity, segmentSize, syncInterval);
+        queue.start();
+        try {
+            // stop the queue (and close the journal) when camel is stopped
+            camelContext.addService(queue, true);
+        } catch (Exception e) {
+            queue.stop();
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+        return queue;
+    }
+}
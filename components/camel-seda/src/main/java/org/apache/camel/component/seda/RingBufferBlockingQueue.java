@@ -0,0 +1,433 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded {@link BlockingQueue} which supports multiple producers and multiple consumers without locking.
+ * <p/>
+ * The elements are kept in a ring buffer where each slot has a sequence number, which tells whether the slot is free
+ * to be used by a producer, or has an element ready to be taken by a consumer. Producers and consumers claim their slot
+ * by a compare-and-set of the tail and head positions, so handing over an element does not acquire any locks and
+ * does not signal any conditions, as long as there are no threads waiting.
+ * <p/>
+ * Threads waiting for an element (or for a free slot) spins a little while, and then parks until woken up by a thread
+ * which has added an element (or taken an element), or the timeout is reached.
+ * <p/>
+ * Iterating the queue is weakly consistent, and removing an element from the middle of the queue leaves an empty slot
+ * which is skipped by the consumers. The empty slot is not counted by {@link #size()}, but it uses capacity until
+ * a consumer has passed it.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final int SPINS = 128;
+    private static final Object REMOVED = new Object();
+
+    private final int capacity;
+    private final int length;
+    private final int mask;
+    private final AtomicReferenceArray<Object> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicInteger removed = new AtomicInteger();
+    private final Queue<Thread> takers = new ConcurrentLinkedQueue<>();
+    private final Queue<Thread> putters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a queue with the given capacity
+     *
+     * @param capacity the maximum number of elements in the queue
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public RingBufferBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        this.capacity = capacity;
+        // the ring buffer must have at least two slots, as the sequence number of a slot with an element
+        // would otherwise be the same as the sequence number of the free slot in the next round
+        this.length = Math.max(2, capacity);
+        // use a mask instead of modulus to find the slot when the length is a power of two
+        this.mask = Integer.bitCount(length) == 1 ? length - 1 : -1;
+        this.elements = new AtomicReferenceArray<>(length);
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (doOffer(e)) {
+            signal(takers);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offer(e, 0, null);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(e)) {
+            return true;
+        }
+        // a null unit means waiting without timeout
+        long deadline = unit != null ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        for (int i = 0; i < SPINS; i++) {
+            if (offer(e)) {
+                return true;
+            }
+        }
+        Thread current = Thread.currentThread();
+        for (;;) {
+            putters.add(current);
+            // check again after being added as waiting, so we do not miss being signalled
+            if (offer(e)) {
+                stopWaiting(putters, current);
+                return true;
+            }
+            if (!park(unit, deadline)) {
+                stopWaiting(putters, current);
+                return false;
+            }
+            if (Thread.interrupted()) {
+                stopWaiting(putters, current);
+                throw new InterruptedException();
+            }
+            putters.remove(current);
+        }
+    }
+
+    @Override
+    public E poll() {
+        E answer = doPoll();
+        if (answer != null) {
+            signal(putters);
+        }
+        return answer;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(0, null);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E answer = poll();
+        if (answer != null) {
+            return answer;
+        }
+        // a null unit means waiting without timeout
+        long deadline = unit != null ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        for (int i = 0; i < SPINS; i++) {
+            answer = poll();
+            if (answer != null) {
+                return answer;
+            }
+        }
+        Thread current = Thread.currentThread();
+        for (;;) {
+            takers.add(current);
+            // check again after being added as waiting, so we do not miss being signalled
+            answer = poll();
+            if (answer != null) {
+                stopWaiting(takers, current);
+                return answer;
+            }
+            if (!park(unit, deadline)) {
+                stopWaiting(takers, current);
+                return null;
+            }
+            if (Thread.interrupted()) {
+                stopWaiting(takers, current);
+                throw new InterruptedException();
+            }
+            takers.remove(current);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int answer = 0;
+        while (answer < maxElements) {
+            E e = doPoll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            answer++;
+            signal(putters);
+        }
+        return answer;
+    }
+
+    @Override
+    public E peek() {
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            Object e = elementAt(pos);
+            if (e != null) {
+                return cast(e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            int index = index(pos);
+            Object e = elementAt(pos);
+            // mark the slot as removed, which fails if a consumer has taken the element in the meantime
+            if (e != null && o.equals(e) && elements.compareAndSet(index, e, REMOVED)) {
+                removed.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, slots() - removed.get());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        // a removed element still uses its slot until a consumer passes it
+        return capacity - slots();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // iterate a snapshot of the elements
+        List<E> snapshot = new ArrayList<>();
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            Object e = elementAt(pos);
+            if (e != null) {
+                snapshot.add(cast(e));
+            }
+        }
+        return new SnapshotIterator(snapshot.iterator());
+    }
+
+    /**
+     * Gets the number of slots in use, which includes the slots of removed elements
+     */
+    private int slots() {
+        for (;;) {
+            long h = head.get();
+            long t = tail.get();
+            if (h == head.get()) {
+                return (int) Math.max(0, Math.min(capacity, t - h));
+            }
+        }
+    }
+
+    private int index(long pos) {
+        return mask >= 0 ? (int) (pos & mask) : (int) (pos % length);
+    }
+
+    /**
+     * Gets the element at the given position, or <tt>null</tt> if there is no element at the position
+     */
+    private Object elementAt(long pos) {
+        int index = index(pos);
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        Object e = elements.get(index);
+        return e != REMOVED ? e : null;
+    }
+
+    private boolean doOffer(Object e) {
+        long pos = tail.get();
+        for (;;) {
+            int index = index(pos);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (length > capacity && pos - head.get() >= capacity) {
+                    // the ring buffer has more slots than the capacity, so the queue is full
+                    return false;
+                }
+                // the slot is free so claim it
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, e);
+                    // publish the element to the consumers
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot has not been taken by a consumer yet so the queue is full
+                return false;
+            } else {
+                // another producer has claimed the slot
+                pos = tail.get();
+            }
+        }
+    }
+
+    private E doPoll() {
+        long pos = head.get();
+        for (;;) {
+            int index = index(pos);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                // the slot has an element so claim it
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Object e = elements.getAndSet(index, null);
+                    // free the slot for the producers in the next round
+                    sequences.set(index, pos + length);
+                    if (e != REMOVED) {
+                        return cast(e);
+                    }
+                    removed.decrementAndGet();
+                    signal(putters);
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // the slot has not been filled by a producer yet so the queue is empty
+                return null;
+            } else {
+                // another consumer has claimed the slot
+                pos = head.get();
+            }
+        }
+    }
+
+    private static void signal(Queue<Thread> waiting) {
+        if (!waiting.isEmpty()) {
+            Thread thread = waiting.poll();
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Removes the current thread from the waiting threads, when it stops waiting without parking again. If the thread
+     * has already been removed, then it has been signalled, and the signal is passed on to another waiting thread,
+     * which may be parked and would otherwise not be woken up.
+     */
+    private static void stopWaiting(Queue<Thread> waiting, Thread current) {
+        if (!waiting.remove(current)) {
+            signal(waiting);
+        }
+    }
+
+    /**
+     * Parks the current thread until signalled or the deadline is reached
+     *
+     * @return <tt>false</tt> if the deadline has been reached
+     */
+    private boolean park(TimeUnit unit, long deadline) {
+        if (unit == null) {
+            LockSupport.park(this);
+            return true;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        LockSupport.parkNanos(this, remaining);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E cast(Object e) {
+        return (E) e;
+    }
+
+    private final class SnapshotIterator implements Iterator<E> {
+
+        private final Iterator<E> it;
+        private E last;
+
+        SnapshotIterator(Iterator<E> it) {
+            this.it = it;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        @Override
+        public E next() {
+            if (!it.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = it.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            RingBufferBlockingQueue.this.remove(last);
+            last = null;
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 
+import org.apache.camel.CamelContextAware;
 import org.apache.camel.Component;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
@@ -137,6 +138,8 @@ public class SedaComponent extends DefaultComponent {
         // create queue
         BlockingQueue<Exchange> queue;
         BlockingQueueFactory<Exchange> queueFactory = customQueueFactory == null ? defaultQueueFactory : customQueueFactory;
+        // the queue factory may need camel context, such as for keeping the queue on disk
+        CamelContextAware.trySetCamelContext(queueFactory, getCamelContext());
         if (size != null && size > 0) {
             queue = queueFactory.create(size);
         } else {
@@ -26,6 +26,7 @@ import java.util.concurrent.ExecutorService;
 
 import org.apache.camel.AsyncEndpoint;
 import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelContextAware;
 import org.apache.camel.Component;
 import org.apache.camel.Consumer;
 import org.apache.camel.Exchange;
@@ -78,6 +79,8 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
     private boolean purgeWhenStopping;
     @UriParam(label = "consumer,advanced", defaultValue = "1000")
     private int pollTimeout = 1000;
+    @UriParam(label = "consumer,advanced", defaultValue = "1")
+    private int drainSize = 1;
 
     @UriParam(label = "producer", defaultValue = "IfReplyExpected")
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -187,6 +190,7 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
     }
 
     protected BlockingQueue<Exchange> createQueue() {
+        CamelContextAware.trySetCamelContext(queueFactory, getCamelContext());
         if (size > 0) {
             return queueFactory.create(size);
         } else {
@@ -405,6 +409,20 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
         this.pollTimeout = pollTimeout;
     }
 
+    @ManagedAttribute
+    public int getDrainSize() {
+        return drainSize;
+    }
+
+    /**
+     * The maximum number of exchanges the consumer takes from the queue at once, which are then processed one after
+     * the other. Taking more exchanges at once reduces the contention on the queue, when there are many exchanges
+     * on the queue. The default value 1 takes one exchange at a time.
+     */
+    public void setDrainSize(int drainSize) {
+        this.drainSize = drainSize;
+    }
+
     @ManagedAttribute
     public boolean isPurgeWhenStopping() {
         return purgeWhenStopping;
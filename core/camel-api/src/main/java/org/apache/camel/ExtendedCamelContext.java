@@ -31,6 +31,8 @@ import org.apache.camel.spi.CamelBeanPostProcessor;
 import org.apache.camel.spi.DataFormatResolver;
 import org.apache.camel.spi.DeferServiceFactory;
 import org.apache.camel.spi.EndpointStrategy;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.ExchangePropertiesMapFactory;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.InterceptStrategy;
@@ -267,6 +269,26 @@ public interface ExtendedCamelContext extends CamelContext {
      */
     void setUnitOfWorkFactory(UnitOfWorkFactory unitOfWorkFactory);
 
+    /**
+     * Gets the {@link ExchangeFactory} to use for creating the exchanges by the consumers.
+     */
+    ExchangeFactory getExchangeFactory();
+
+    /**
+     * Sets a custom {@link ExchangeFactory} to use for creating the exchanges by the consumers.
+     */
+    void setExchangeFactory(ExchangeFactory exchangeFactory);
+
+    /**
+     * Gets the {@link ExchangePropertiesMapFactory} to use for creating the map of exchange properties.
+     */
+    ExchangePropertiesMapFactory getExchangePropertiesMapFactory();
+
+    /**
+     * Sets a custom {@link ExchangePropertiesMapFactory} to use for creating the map of exchange properties.
+     */
+    void setExchangePropertiesMapFactory(ExchangePropertiesMapFactory exchangePropertiesMapFactory);
+
     /**
      * Gets the {@link AnnotationBasedProcessorFactory} to use.
      */
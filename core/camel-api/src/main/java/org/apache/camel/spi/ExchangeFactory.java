@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+
+/**
+ * Factory used by consumers to create the {@link Exchange} for each incoming message.
+ * <p/>
+ * A pooled implementation can recycle the exchanges, which requires the consumer to release
+ * the exchange by calling {@link #release(Exchange)} when the exchange has been completely processed
+ * (eg after the {@link UnitOfWork} is done, and the consumer no longer uses the exchange).
+ */
+public interface ExchangeFactory {
+
+    /**
+     * Gets a new {@link Exchange} (may be recycled from a pool)
+     *
+     * @param fromEndpoint the endpoint which is creating the exchange
+     * @param pattern      the exchange pattern
+     * @return the exchange
+     */
+    Exchange create(Endpoint fromEndpoint, ExchangePattern pattern);
+
+    /**
+     * Releases the exchange back into the pool, so it can be recycled.
+     * <p/>
+     * The exchange must not be used after it has been released.
+     *
+     * @param exchange the exchange
+     * @return <tt>true</tt> if released into the pool, or <tt>false</tt> if the exchange was not pooled or was discarded
+     */
+    boolean release(Exchange exchange);
+
+}
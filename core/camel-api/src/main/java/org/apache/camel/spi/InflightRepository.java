@@ -134,6 +134,23 @@ public interface InflightRepository extends StaticService {
      */
     int size(String routeId);
 
+    /**
+     * Whether the inflight repository should allow browsing each inflight exchange.
+     */
+    default boolean isInflightBrowseEnabled() {
+        return true;
+    }
+
+    /**
+     * Whether the inflight repository should allow browsing each inflight exchange.
+     * <p/>
+     * This is by default enabled, and each inflight exchange is registered in the repository. If disabled,
+     * then only the number of inflight exchanges is counted, which reduces the overhead of routing each exchange,
+     * and {@link #browse()} will not return any exchanges.
+     */
+    default void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
+    }
+
     /**
      * A <i>read-only</i> browser of the {@link InflightExchange}s that are currently inflight.
      */
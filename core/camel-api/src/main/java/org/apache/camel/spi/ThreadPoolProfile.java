@@ -40,6 +40,8 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     private Integer maxQueueSize;
     private Boolean allowCoreThreadTimeOut;
     private ThreadPoolRejectedPolicy rejectedPolicy;
+    private Boolean virtualThreads;
+    private Integer maxConcurrentTasks;
 
     /**
      * Creates a new thread pool profile, with no id set.
@@ -204,6 +206,50 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
     }
 
+    /**
+     * Gets whether to run the tasks in virtual threads instead of a pool of platform threads.
+     *
+     * @return whether to use virtual threads
+     */
+    public Boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets whether to run the tasks in virtual threads instead of a pool of platform threads.
+     * <p/>
+     * Virtual threads do not tie up a platform thread while blocking, and is well suited for tasks doing blocking IO.
+     * This requires Java 21 or newer, and on older versions of Java a pool of platform threads is used instead.
+     * As there is no fixed pool size, then use {@link #setMaxConcurrentTasks(Integer)} to limit the concurrency.
+     *
+     * @param virtualThreads <tt>true</tt> to use virtual threads
+     */
+    public void setVirtualThreads(Boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Gets the maximum number of tasks to run concurrently when using virtual threads.
+     *
+     * @return the max concurrent tasks
+     */
+    public Integer getMaxConcurrentTasks() {
+        return maxConcurrentTasks;
+    }
+
+    /**
+     * Sets the maximum number of tasks to run concurrently when using virtual threads.
+     * <p/>
+     * Tasks exceeding this limit waits to run, bounded by the max queue size.
+     * The default is the max pool size, and use <tt>0</tt> or a negative value for no limit.
+     * Notice a limit of <tt>1</tt> uses a single platform thread instead, to keep the tasks in order.
+     *
+     * @param maxConcurrentTasks the max concurrent tasks
+     */
+    public void setMaxConcurrentTasks(Integer maxConcurrentTasks) {
+        this.maxConcurrentTasks = maxConcurrentTasks;
+    }
+
     /**
      * Gets the policy for tasks which cannot be executed by the thread pool.
      *
@@ -264,6 +310,12 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         if (rejectedPolicy == null) {
             rejectedPolicy = defaultProfile.getRejectedPolicy();
         }
+        if (virtualThreads == null) {
+            virtualThreads = defaultProfile.getVirtualThreads();
+        }
+        if (maxConcurrentTasks == null) {
+            maxConcurrentTasks = defaultProfile.getMaxConcurrentTasks();
+        }
     }
 
     @Override
@@ -278,6 +330,8 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         cloned.setAllowCoreThreadTimeOut(allowCoreThreadTimeOut);
         cloned.setRejectedPolicy(rejectedPolicy);
         cloned.setTimeUnit(timeUnit);
+        cloned.setVirtualThreads(virtualThreads);
+        cloned.setMaxConcurrentTasks(maxConcurrentTasks);
         return cloned;
     }
 
@@ -285,7 +339,8 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     public String toString() {
         return "ThreadPoolProfile[" + id + " (" + defaultProfile + ") size:" + poolSize + "-" + maxPoolSize
                 + ", keepAlive: " + keepAliveTime + " " + timeUnit + ", maxQueue: " + maxQueueSize
-                + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", rejectedPolicy:" + rejectedPolicy + "]";
+                + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", rejectedPolicy:" + rejectedPolicy
+                + ", virtualThreads:" + virtualThreads + ", maxConcurrentTasks:" + maxConcurrentTasks + "]";
     }
 
 }
@@ -69,6 +69,11 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     public static final String META_INF_SERVICES_TYPE_CONVERTER_LOADER = "META-INF/services/org/apache/camel/TypeConverterLoader";
 
+    /**
+     * The maximum number of negative lookups to remember, before the negative lookups are cleared.
+     */
+    public static final int MAXIMUM_NEGATIVE_LOOKUPS = 1000;
+
     protected static final TypeConverter MISS_CONVERTER = new TypeConverterSupport() {
         @Override
         public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
@@ -76,7 +81,18 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
     };
 
+    // marker for a lookup which did not find a type converter (but the fallback type converters may still convert)
+    protected static final TypeConverter NO_CONVERTER = new TypeConverterSupport() {
+        @Override
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
+            return null;
+        }
+    };
+
     protected final DoubleMap<Class<?>, Class<?>, TypeConverter> typeMappings = new DoubleMap<>(200);
+    // remembers the conversions which cannot be converted, or where a lookup did not find a type converter,
+    // which is bounded in size as it can grow with any type being converted
+    protected final DoubleMap<Class<?>, Class<?>, TypeConverter> negativeLookups = new DoubleMap<>(16);
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<>();
     protected final List<FallbackTypeConverter> fallbackConverters = new CopyOnWriteArrayList<>();
     protected CamelContext camelContext;
@@ -273,8 +289,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                 Class<?> fromType = value.getClass();
                 TypeConverter tc = getOrFindTypeConverter(primitiveType, fromType);
                 if (tc != null) {
-                    // add the type as a known type converter as we can convert from primitive to object converter
-                    addTypeConverter(type, fromType, tc);
+                    // remember the type as a known type converter as we can convert from primitive to object converter
+                    // (this is the same converter as any lookup would find, so the negative lookups are still valid)
+                    typeMappings.put(type, fromType, tc);
                     Object rc;
                     if (tryConvert) {
                         rc = tc.tryConvertTo(primitiveType, exchange, value);
@@ -332,7 +349,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (!tryConvert) {
             // Could not find suitable conversion, so remember it
             // do not register misses for try conversions
-            typeMappings.put(type, value.getClass(), MISS_CONVERTER);
+            addNegativeLookup(type, value.getClass(), MISS_CONVERTER);
         }
 
         // Could not find suitable conversion, so return Void to indicate not found
@@ -368,6 +385,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
             if (add) {
                 typeMappings.put(toType, fromType, typeConverter);
+                // a lookup may now be able to find a type converter
+                clearNegativeLookups();
             }
         }
     }
@@ -387,7 +406,10 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     @Override
     public boolean removeTypeConverter(Class<?> toType, Class<?> fromType) {
         log.trace("Removing type converter from: {} to: {}", fromType, toType);
-        return typeMappings.remove(toType, fromType);
+        boolean removed = typeMappings.remove(toType, fromType);
+        // a miss may have been remembered for this conversion
+        removed |= negativeLookups.remove(toType, fromType);
+        return removed;
     }
 
     @Override
@@ -397,6 +419,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         // add in top of fallback as the toString() fallback will nearly always be able to convert
         // the last one which is add to the FallbackTypeConverter will be called at the first place
         fallbackConverters.add(0, new FallbackTypeConverter(typeConverter, canPromote));
+        // the new fallback type converter may be able to convert
+        clearNegativeLookups();
 
         if (typeConverter instanceof CamelContextAware) {
             CamelContextAware camelContextAware = (CamelContextAware) typeConverter;
@@ -442,15 +466,39 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected <T> TypeConverter getOrFindTypeConverter(Class<?> toType, Class<?> fromType) {
         TypeConverter converter = typeMappings.get(toType, fromType);
         if (converter == null) {
+            // we may already know that the lookup does not find any converter, or the conversion is a miss
+            converter = negativeLookups.get(toType, fromType);
+            if (converter == NO_CONVERTER) {
+                return null;
+            } else if (converter != null) {
+                return converter;
+            }
             // converter not found, try to lookup then
             converter = lookup(toType, fromType);
             if (converter != null) {
                 typeMappings.put(toType, fromType, converter);
+            } else {
+                // remember the lookup did not find a converter, as the lookup is expensive
+                addNegativeLookup(toType, fromType, NO_CONVERTER);
             }
         }
         return converter;
     }
 
+    protected void addNegativeLookup(Class<?> toType, Class<?> fromType, TypeConverter converter) {
+        if (negativeLookups.size() >= MAXIMUM_NEGATIVE_LOOKUPS) {
+            // keep the memory bounded
+            negativeLookups.clear();
+        }
+        negativeLookups.put(toType, fromType, converter);
+    }
+
+    protected void clearNegativeLookups() {
+        if (negativeLookups.size() > 0) {
+            negativeLookups.clear();
+        }
+    }
+
     @Override
     public TypeConverter lookup(Class<?> toType, Class<?> fromType) {
         return doLookup(toType, fromType, false);
@@ -688,7 +736,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (statistics.isStatisticsEnabled()) {
             String info = statistics.toString();
             AtomicInteger misses = new AtomicInteger();
-            typeMappings.forEach((k1, k2, v) -> {
+            negativeLookups.forEach((k1, k2, v) -> {
                 if (v == MISS_CONVERTER) {
                     misses.incrementAndGet();
                 }
@@ -698,6 +746,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
 
         typeMappings.clear();
+        negativeLookups.clear();
         statistics.reset();
     }
 
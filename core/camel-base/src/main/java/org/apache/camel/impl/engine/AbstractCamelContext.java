@@ -95,6 +95,8 @@ import org.apache.camel.spi.DeferServiceFactory;
 import org.apache.camel.spi.EndpointRegistry;
 import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.ExchangePropertiesMapFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
@@ -233,6 +235,8 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
     private volatile RestRegistryFactory restRegistryFactory;
     private volatile RestRegistry restRegistry;
     private volatile HeadersMapFactory headersMapFactory;
+    private volatile ExchangePropertiesMapFactory exchangePropertiesMapFactory;
+    private volatile ExchangeFactory exchangeFactory;
     private volatile BeanProxyFactory beanProxyFactory;
     private volatile BeanProcessorFactory beanProcessorFactory;
     private volatile ClassResolver classResolver;
@@ -2656,6 +2660,8 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         }
 
         log.debug("Using HeadersMapFactory: {}", getHeadersMapFactory());
+        log.debug("Using ExchangePropertiesMapFactory: {}", getExchangePropertiesMapFactory());
+        log.debug("Using ExchangeFactory: {}", getExchangeFactory());
         if (!getHeadersMapFactory().isCaseInsensitive()) {
             log.info("HeadersMapFactory: {} is case-sensitive which can cause problems for protocols such as HTTP based, which rely on case-insensitive headers.",
                      getHeadersMapFactory());
@@ -3365,6 +3371,8 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         getDataFormatResolver();
         getManagementStrategy();
         getHeadersMapFactory();
+        getExchangePropertiesMapFactory();
+        getExchangeFactory();
         getClassResolver();
         getNodeIdFactory();
         getProcessorFactory();
@@ -4096,6 +4104,40 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         this.headersMapFactory = doAddService(headersMapFactory);
     }
 
+    @Override
+    public ExchangeFactory getExchangeFactory() {
+        if (exchangeFactory == null) {
+            synchronized (lock) {
+                if (exchangeFactory == null) {
+                    setExchangeFactory(createExchangeFactory());
+                }
+            }
+        }
+        return exchangeFactory;
+    }
+
+    @Override
+    public void setExchangeFactory(ExchangeFactory exchangeFactory) {
+        this.exchangeFactory = doAddService(exchangeFactory);
+    }
+
+    @Override
+    public ExchangePropertiesMapFactory getExchangePropertiesMapFactory() {
+        if (exchangePropertiesMapFactory == null) {
+            synchronized (lock) {
+                if (exchangePropertiesMapFactory == null) {
+                    setExchangePropertiesMapFactory(createExchangePropertiesMapFactory());
+                }
+            }
+        }
+        return exchangePropertiesMapFactory;
+    }
+
+    @Override
+    public void setExchangePropertiesMapFactory(ExchangePropertiesMapFactory exchangePropertiesMapFactory) {
+        this.exchangePropertiesMapFactory = doAddService(exchangePropertiesMapFactory);
+    }
+
     @Override
     public ReactiveExecutor getReactiveExecutor() {
         if (reactiveExecutor == null) {
@@ -4249,6 +4291,10 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
 
     protected abstract HeadersMapFactory createHeadersMapFactory();
 
+    protected abstract ExchangePropertiesMapFactory createExchangePropertiesMapFactory();
+
+    protected abstract ExchangeFactory createExchangeFactory();
+
     protected abstract BeanProxyFactory createBeanProxyFactory();
 
     protected abstract BeanProcessorFactory createBeanProcessorFactory();
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.camel.spi.ExchangePropertiesMapFactory;
+
+/**
+ * Default {@link ExchangePropertiesMapFactory} which uses a {@link ConcurrentHashMap} for storing the exchange properties,
+ * which allows the properties to be accessed by multiple threads.
+ */
+public class DefaultExchangePropertiesMapFactory implements ExchangePropertiesMapFactory {
+
+    @Override
+    public Map<String, Object> newMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Map<String, Object> newMap(Map<String, Object> map) {
+        return new ConcurrentHashMap<>(map);
+    }
+}
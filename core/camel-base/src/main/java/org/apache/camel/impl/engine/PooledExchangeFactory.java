@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.StaticService;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pooled {@link ExchangeFactory} which recycles the exchanges (and their in messages) created by the consumers,
+ * to reduce object allocations and garbage collection in high throughput routes.
+ * <p/>
+ * The exchanges are pooled per thread, so acquiring and releasing exchanges do not require any synchronization,
+ * which fits consumers which are processing each message fully by the same thread. An exchange which is released
+ * by another thread than it was acquired from, is returned into the pool of the releasing thread.
+ * <p/>
+ * The consumer must release the exchange when it has been completely processed, and the exchange must not be used
+ * afterwards. Exchanges which are never released are simply garbage collected, which can be detected by
+ * turning on leak detection (which has a small overhead) that logs a WARN when this factory is stopped.
+ */
+@ManagedResource(description = "Managed PooledExchangeFactory")
+public class PooledExchangeFactory extends ServiceSupport implements ExchangeFactory, StaticService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledExchangeFactory.class);
+
+    private final ThreadLocal<ArrayDeque<DefaultExchange>> pools = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Set<Exchange> inUse = ConcurrentHashMap.newKeySet();
+
+    // use for statistics so we have insights at runtime
+    private final LongAdder created = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    private int capacity = 100;
+    private boolean leakDetection;
+
+    @Override
+    public Exchange create(Endpoint fromEndpoint, ExchangePattern pattern) {
+        DefaultExchange answer = pools.get().poll();
+        if (answer == null) {
+            answer = new DefaultExchange(fromEndpoint, pattern);
+            answer.setPooled(true);
+            created.increment();
+        } else {
+            answer.reset(fromEndpoint, pattern);
+            acquired.increment();
+        }
+        if (leakDetection) {
+            inUse.add(answer);
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean release(Exchange exchange) {
+        if (!(exchange instanceof DefaultExchange) || !((DefaultExchange) exchange).isPooled()) {
+            // not created by this factory
+            return false;
+        }
+        if (leakDetection) {
+            inUse.remove(exchange);
+        }
+        ArrayDeque<DefaultExchange> pool = pools.get();
+        if (pool.size() < capacity && isRunAllowed()) {
+            pool.push((DefaultExchange) exchange);
+            released.increment();
+            return true;
+        } else {
+            discarded.increment();
+            return false;
+        }
+    }
+
+    @ManagedAttribute(description = "Maximum number of exchanges pooled per thread")
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Maximum number of exchanges pooled per thread. Released exchanges exceeding the capacity are discarded.
+     * <p/>
+     * The default capacity is 100.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @ManagedAttribute(description = "Whether leak detection is enabled")
+    public boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    /**
+     * Whether to keep track of the exchanges in use, so exchanges which have not been released can be reported
+     * when this factory is stopped.
+     * <p/>
+     * This option is disabled by default.
+     */
+    public void setLeakDetection(boolean leakDetection) {
+        this.leakDetection = leakDetection;
+    }
+
+    @ManagedAttribute(description = "Number of new exchanges created")
+    public long getCreatedCounter() {
+        return created.sum();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges acquired (reused) from the pool")
+    public long getAcquiredCounter() {
+        return acquired.sum();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges released back to the pool")
+    public long getReleasedCounter() {
+        return released.sum();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges discarded (not pooled) as the pool was full")
+    public long getDiscardedCounter() {
+        return discarded.sum();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges in use which has not been released (only available with leak detection)")
+    public int getInUseCounter() {
+        return inUse.size();
+    }
+
+    @ManagedOperation(description = "Reset the counters")
+    public void resetStatistics() {
+        created.reset();
+        acquired.reset();
+        released.reset();
+        discarded.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledExchangeFactory[capacity: " + capacity + "]";
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (leakDetection && !inUse.isEmpty()) {
+            LOG.warn("PooledExchangeFactory detected {} leaked exchanges which was not released: {}", inUse.size(), inUse);
+        }
+        inUse.clear();
+        // the pools of the other threads are released when the threads terminates
+        pools.remove();
+        LOG.debug("PooledExchangeFactory usage [created: {}, acquired: {}, released: {}, discarded: {}]",
+                created.sum(), acquired.sum(), released.sum(), discarded.sum());
+    }
+
+}
@@ -27,16 +27,34 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Factory resolver to create the {@link org.apache.camel.spi.ReactiveExecutor} to be used.
+ * <p/>
+ * The reactive executor can be selected per {@link CamelContext} by setting the global option
+ * {@link #REACTIVE_EXECUTOR_OPTION} to either <tt>default</tt> or <tt>workStealing</tt>.
+ * Otherwise a custom implementation is discovered from the classpath, and if none is found then
+ * the {@link DefaultReactiveExecutor} is used.
  */
 public class ReactiveExecutorResolver {
 
     public static final String RESOURCE_PATH = "META-INF/services/org/apache/camel/";
+    public static final String REACTIVE_EXECUTOR_OPTION = "CamelReactiveExecutor";
 
     private static final Logger LOG = LoggerFactory.getLogger(ReactiveExecutorResolver.class);
 
     private FactoryFinder factoryFinder;
 
     public ReactiveExecutor resolve(CamelContext context) {
+        // the reactive executor can be selected per camel context via global option
+        String mode = context.getGlobalOption(REACTIVE_EXECUTOR_OPTION);
+        if ("workStealing".equalsIgnoreCase(mode)) {
+            LOG.debug("Creating WorkStealingReactiveExecutor");
+            return new WorkStealingReactiveExecutor();
+        } else if ("default".equalsIgnoreCase(mode)) {
+            LOG.debug("Creating default ReactiveExecutor");
+            return new DefaultReactiveExecutor();
+        } else if (mode != null) {
+            throw new IllegalArgumentException("Unknown ReactiveExecutor: " + mode + ". Supported values: default, workStealing");
+        }
+
         // use factory finder to find a custom implementations
         Class<?> type = null;
         try {
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.StaticService;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.ReactiveExecutor;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ReactiveExecutor} where each worker keeps its tasks in array based deques, and where
+ * workers that have run out of work can steal pending tasks from other busy workers.
+ * <p/>
+ * The statistics are kept in striped counters which are only summed up when being read (eg from JMX),
+ * so scheduling tasks does not make all the cores contend on the same counters.
+ * <p/>
+ * Notice that a stolen task is continued on another thread than the thread that scheduled it,
+ * which is the same as when an asynchronous callback is completed by another thread. Therefore the tasks
+ * scheduled while a worker runs a synchronous loop (such as for transacted exchanges, which must stay
+ * on the same thread) are never stolen, and a worker does not steal while it runs a synchronous loop.
+ */
+@ManagedResource(description = "Managed WorkStealingReactiveExecutor")
+public class WorkStealingReactiveExecutor extends ServiceSupport implements ReactiveExecutor, StaticService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkStealingReactiveExecutor.class);
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(this::createWorker);
+    private final List<Worker> allWorkers = new CopyOnWriteArrayList<>();
+
+    // use for statistics so we have insights at runtime
+    private final LongAdder createdWorkers = new LongAdder();
+    private final LongAdder pendingTasks = new LongAdder();
+    private final LongAdder stolenTasks = new LongAdder();
+
+    private boolean stealingEnabled = true;
+
+    @Override
+    public void scheduleMain(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, true, true, false);
+    }
+
+    @Override
+    public void schedule(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, true, false, false);
+    }
+
+    @Override
+    public void scheduleSync(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, false, true, true);
+    }
+
+    @Override
+    public boolean executeFromQueue() {
+        return workers.get().executeFromQueue();
+    }
+
+    @Override
+    public void callback(AsyncCallback callback) {
+        schedule(new Runnable() {
+            @Override
+            public void run() {
+                callback.done(false);
+            }
+            @Override
+            public String toString() {
+                return "Callback[" + callback + "]";
+            }
+        });
+    }
+
+    @ManagedAttribute(description = "Whether idle workers can steal pending tasks from busy workers")
+    public boolean isStealingEnabled() {
+        return stealingEnabled;
+    }
+
+    /**
+     * Whether idle workers can steal pending tasks from busy workers.
+     * <p/>
+     * This option is enabled by default.
+     */
+    public void setStealingEnabled(boolean stealingEnabled) {
+        this.stealingEnabled = stealingEnabled;
+    }
+
+    @ManagedAttribute(description = "Number of created workers")
+    public int getCreatedWorkers() {
+        return createdWorkers.intValue();
+    }
+
+    @ManagedAttribute(description = "Number of running workers")
+    public int getRunningWorkers() {
+        int answer = 0;
+        for (Worker worker : allWorkers) {
+            if (worker.running) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Number of pending tasks")
+    public long getPendingTasks() {
+        return pendingTasks.sum();
+    }
+
+    @ManagedAttribute(description = "Number of tasks stolen by idle workers from busy workers")
+    public long getStolenTasks() {
+        return stolenTasks.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "WorkStealingReactiveExecutor";
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // noop
+    }
+
+    private Worker createWorker() {
+        // remove workers from threads which are no longer alive
+        allWorkers.removeIf(w -> !w.owner.isAlive());
+        Worker worker = new Worker(this, Thread.currentThread());
+        allWorkers.add(worker);
+        createdWorkers.increment();
+        return worker;
+    }
+
+    /**
+     * Attempts to steal a pending task from another busy worker.
+     */
+    private Runnable steal(Worker thief) {
+        List<Worker> list = allWorkers;
+        int size = list.size();
+        if (size <= 1) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            Worker victim;
+            try {
+                victim = list.get((start + i) % size);
+            } catch (IndexOutOfBoundsException e) {
+                // a worker was removed concurrently
+                return null;
+            }
+            if (victim != thief && victim.running) {
+                // steal the oldest task which is at the end of the deque
+                Runnable task = victim.queue.pollLast();
+                if (task != null) {
+                    stolenTasks.increment();
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Runnable describe(Runnable runnable, String description) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+
+    private static final class Worker {
+
+        private static final int MAX_SPARE_DEQUES = 8;
+
+        private final WorkStealingReactiveExecutor executor;
+        private final Thread owner;
+        // only the current queue is visible for other workers to steal from
+        private volatile TaskDeque queue = new TaskDeque();
+        // the back stack and spare deques are only accessed by the owner thread
+        private final ArrayDeque<TaskDeque> back = new ArrayDeque<>();
+        private final ArrayDeque<TaskDeque> spare = new ArrayDeque<>();
+        private volatile boolean running;
+        // the depth of nested synchronous loops, only accessed by the owner thread
+        private int syncDepth;
+
+        Worker(WorkStealingReactiveExecutor executor, Thread owner) {
+            this.executor = executor;
+            this.owner = owner;
+        }
+
+        void schedule(Runnable runnable, boolean first, boolean main, boolean sync) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Schedule [first={}, main={}, sync={}]: {}", first, main, sync, runnable);
+            }
+            if (sync) {
+                syncDepth++;
+            }
+            try {
+                if (main) {
+                    if (!queue.isEmpty()) {
+                        back.push(queue);
+                        TaskDeque next = spare.poll();
+                        queue = next != null ? next : new TaskDeque();
+                    }
+                }
+                if (syncDepth > 0) {
+                    // the tasks of a synchronous loop must stay on this thread so they cannot be stolen
+                    queue.pin();
+                }
+                if (first) {
+                    queue.addFirst(runnable);
+                } else {
+                    queue.addLast(runnable);
+                }
+                executor.pendingTasks.increment();
+                if (!running || sync) {
+                    // only the outer most loop steals work, as nested sync loops should return asap,
+                    // and never while in a sync loop, as the thread may be bound to a transaction
+                    boolean steal = !running && syncDepth == 0;
+                    running = true;
+                    try {
+                        for (;;) {
+                            Runnable polled = queue.pollFirst();
+                            if (polled == null) {
+                                if (!back.isEmpty()) {
+                                    recycle(queue);
+                                    queue = back.poll();
+                                    continue;
+                                } else if (steal && executor.stealingEnabled) {
+                                    polled = executor.steal(this);
+                                    if (polled == null) {
+                                        break;
+                                    }
+                                } else {
+                                    break;
+                                }
+                            }
+                            run(polled);
+                        }
+                    } finally {
+                        running = false;
+                    }
+                } else {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Queuing reactive work: {}", runnable);
+                    }
+                }
+            } finally {
+                if (sync && --syncDepth == 0) {
+                    queue.unpin();
+                }
+            }
+        }
+
+        boolean executeFromQueue() {
+            final Runnable polled = queue.pollFirst();
+            if (polled == null) {
+                return false;
+            }
+            run(polled);
+            return true;
+        }
+
+        private void run(Runnable task) {
+            try {
+                executor.pendingTasks.decrement();
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Running: {}", task);
+                }
+                task.run();
+            } catch (Throwable t) {
+                LOG.warn("Error executing reactive work due to " + t.getMessage() + ". This exception is ignored.", t);
+            }
+        }
+
+        private void recycle(TaskDeque deque) {
+            deque.unpin();
+            if (spare.size() < MAX_SPARE_DEQUES) {
+                spare.push(deque);
+            }
+        }
+    }
+
+    /**
+     * A growable array based deque of tasks. The owner worker adds and polls tasks at the head,
+     * while other workers steals tasks from the tail, unless the deque is pinned to the owner.
+     */
+    private static final class TaskDeque {
+
+        private Runnable[] elements = new Runnable[16];
+        private int head;
+        private int size;
+        private boolean pinned;
+
+        synchronized void pin() {
+            pinned = true;
+        }
+
+        synchronized void unpin() {
+            pinned = false;
+        }
+
+        synchronized void addFirst(Runnable task) {
+            if (size == elements.length) {
+                grow();
+            }
+            head = (head - 1) & (elements.length - 1);
+            elements[head] = task;
+            size++;
+        }
+
+        synchronized void addLast(Runnable task) {
+            if (size == elements.length) {
+                grow();
+            }
+            elements[(head + size) & (elements.length - 1)] = task;
+            size++;
+        }
+
+        synchronized Runnable pollFirst() {
+            if (size == 0) {
+                return null;
+            }
+            Runnable answer = elements[head];
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return answer;
+        }
+
+        synchronized Runnable pollLast() {
+            if (size == 0 || pinned) {
+                return null;
+            }
+            int tail = (head + size - 1) & (elements.length - 1);
+            Runnable answer = elements[tail];
+            elements[tail] = null;
+            size--;
+            return answer;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void grow() {
+            Runnable[] bigger = new Runnable[elements.length << 1];
+            for (int i = 0; i < size; i++) {
+                bigger[i] = elements[(head + i) & (elements.length - 1)];
+            }
+            elements = bigger;
+            head = 0;
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.StaticService;
+import org.apache.camel.language.simple.compiler.SimpleCompiler;
 import org.apache.camel.spi.annotations.Language;
 import org.apache.camel.support.CamelContextHelper;
 import org.apache.camel.support.LRUCache;
@@ -107,6 +108,11 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
     boolean allowEscape = true;
 
+    private boolean compiled;
+    private int compiledCacheSize = SimpleCompiler.DEFAULT_CACHE_SIZE;
+    private int maxCompiled = SimpleCompiler.DEFAULT_MAX_COMPILED;
+    private volatile SimpleCompiler compiler;
+
     // use caches to avoid re-parsing the same expressions over and over again
     private Map<String, Expression> cacheExpression;
     private Map<String, Predicate> cachePredicate;
@@ -117,6 +123,49 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
     public SimpleLanguage() {
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the simple expressions and predicates into Java classes, which are faster to evaluate
+     * than the interpreted expressions. The parts of an expression which cannot be compiled are evaluated
+     * as usual.
+     * <p/>
+     * Compiling requires the Java compiler from a JDK to be available at runtime, and if not then the
+     * expressions are not compiled.
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    public int getCompiledCacheSize() {
+        return compiledCacheSize;
+    }
+
+    /**
+     * The number of compiled expressions and predicates to keep in the LRU cache of the compiler.
+     * <p/>
+     * The default is 1000.
+     */
+    public void setCompiledCacheSize(int compiledCacheSize) {
+        this.compiledCacheSize = compiledCacheSize;
+    }
+
+    public int getMaxCompiled() {
+        return maxCompiled;
+    }
+
+    /**
+     * The maximum number of expressions and predicates to compile into Java classes. When the maximum
+     * is reached, then new expressions and predicates are interpreted. Use 0 or negative for no limit.
+     * <p/>
+     * The default is 10000.
+     */
+    public void setMaxCompiled(int maxCompiled) {
+        this.maxCompiled = maxCompiled;
+    }
+
     @Override
     public void init() {
         // setup cache which requires CamelContext to be set first
@@ -164,7 +213,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
             expression = loadResource(expression);
 
-            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, cacheExpression);
+            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, cacheExpression, getCompiler());
             answer = parser.parsePredicate();
 
             if (cachePredicate != null && answer != null) {
@@ -184,7 +233,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
             expression = loadResource(expression);
 
-            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, cacheExpression);
+            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, cacheExpression, getCompiler());
             answer = parser.parseExpression();
 
             if (cacheExpression != null && answer != null) {
@@ -195,6 +244,27 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
         return answer;
     }
 
+    private SimpleCompiler getCompiler() {
+        if (!compiled) {
+            return null;
+        }
+        if (compiler == null) {
+            synchronized (this) {
+                if (compiler == null) {
+                    SimpleCompiler answer = new SimpleCompiler(compiledCacheSize, maxCompiled);
+                    if (!answer.isSupported()) {
+                        LOG.warn("Cannot compile simple language as the Java compiler is not available (requires a JDK)."
+                                + " The simple language is not compiled.");
+                        compiled = false;
+                        return null;
+                    }
+                    compiler = answer;
+                }
+            }
+        }
+        return compiler;
+    }
+
     /**
      * Creates a new {@link Expression}.
      * <p/>
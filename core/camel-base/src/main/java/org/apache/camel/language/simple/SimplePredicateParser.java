@@ -18,6 +18,7 @@ package org.apache.camel.language.simple;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
@@ -25,6 +26,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.language.simple.ast.BinaryExpression;
@@ -40,6 +44,7 @@ import org.apache.camel.language.simple.ast.SimpleNode;
 import org.apache.camel.language.simple.ast.SingleQuoteEnd;
 import org.apache.camel.language.simple.ast.SingleQuoteStart;
 import org.apache.camel.language.simple.ast.UnaryExpression;
+import org.apache.camel.language.simple.compiler.SimpleCompiler;
 import org.apache.camel.language.simple.types.BinaryOperatorType;
 import org.apache.camel.language.simple.types.LogicalOperatorType;
 import org.apache.camel.language.simple.types.SimpleIllegalSyntaxException;
@@ -47,6 +52,8 @@ import org.apache.camel.language.simple.types.SimpleParserException;
 import org.apache.camel.language.simple.types.SimpleToken;
 import org.apache.camel.language.simple.types.TokenType;
 import org.apache.camel.support.ExpressionToPredicateAdapter;
+import org.apache.camel.support.IndexablePredicate;
+import org.apache.camel.support.ObjectHelper;
 import org.apache.camel.support.builder.PredicateBuilder;
 
 /**
@@ -56,10 +63,17 @@ public class SimplePredicateParser extends BaseSimpleParser {
 
     // use caches to avoid re-parsing the same expressions over and over again
     private Map<String, Expression> cacheExpression;
+    private final SimpleCompiler compiler;
 
     public SimplePredicateParser(String expression, boolean allowEscape, Map<String, Expression> cacheExpression) {
+        this(expression, allowEscape, cacheExpression, null);
+    }
+
+    public SimplePredicateParser(String expression, boolean allowEscape, Map<String, Expression> cacheExpression,
+                                 SimpleCompiler compiler) {
         super(expression, allowEscape);
         this.cacheExpression = cacheExpression;
+        this.compiler = compiler;
     }
 
     public Predicate parsePredicate() {
@@ -117,16 +131,59 @@ public class SimplePredicateParser extends BaseSimpleParser {
         // compact and stack logical expressions
         prepareLogicalExpressions();
 
-        // create and return as a Camel predicate
-        List<Predicate> predicates = createPredicates();
-        if (predicates.isEmpty()) {
-            // return a false predicate as response as there was nothing to parse
-            return PredicateBuilder.constant(false);
-        } else if (predicates.size() == 1) {
-            return predicates.get(0);
+        // compile the ast into java code if possible
+        Predicate answer = null;
+        if (compiler != null) {
+            answer = compiler.compilePredicate(expression, nodes);
+        }
+
+        if (answer == null) {
+            // create and return as a Camel predicate
+            List<Predicate> predicates = createPredicates();
+            if (predicates.isEmpty()) {
+                // return a false predicate as response as there was nothing to parse
+                answer = PredicateBuilder.constant(false);
+            } else if (predicates.size() == 1) {
+                answer = predicates.get(0);
+            } else {
+                answer = PredicateBuilder.and(predicates);
+            }
+        }
+
+        return createIndexablePredicate(answer);
+    }
+
+    /**
+     * Creates an {@link IndexablePredicate} if the predicate compares a function with literal values using
+     * the equal or in operator, so the predicate can be indexed by the content based router.
+     */
+    private Predicate createIndexablePredicate(Predicate predicate) {
+        if (nodes.size() != 1 || !(nodes.get(0) instanceof BinaryExpression)) {
+            return predicate;
+        }
+        BinaryExpression binary = (BinaryExpression) nodes.get(0);
+        BinaryOperatorType operator = binary.getOperator();
+        if ((operator != BinaryOperatorType.EQ && operator != BinaryOperatorType.IN) || !(binary.getLeft() instanceof SimpleFunctionStart)) {
+            return predicate;
+        }
+        String literal = SimpleCompiler.literal(binary.getRight());
+        if (literal == null) {
+            return predicate;
+        }
+
+        List<String> values = new ArrayList<>();
+        if (operator == BinaryOperatorType.EQ) {
+            values.add(literal);
         } else {
-            return PredicateBuilder.and(predicates);
+            // split the values the same way as the in operator does
+            Iterator<?> it = ObjectHelper.createIterator(literal);
+            while (it.hasNext()) {
+                values.add(String.valueOf(it.next()));
+            }
         }
+        Expression left = binary.getLeft().createExpression(expression);
+        // the same function evaluates to the same value, so use the function as the key
+        return new IndexableSimplePredicate(predicate, left, new FunctionKey(binary.getLeft().toString()), values);
     }
 
     /**
@@ -674,4 +731,96 @@ public class SimplePredicateParser extends BaseSimpleParser {
         // no other tokens to check so do not use nextToken
     }
 
+    private static final class IndexableSimplePredicate implements IndexablePredicate, CamelContextAware {
+
+        private final Predicate predicate;
+        private final Expression left;
+        private final FunctionKey key;
+        private final List<String> values;
+
+        IndexableSimplePredicate(Predicate predicate, Expression left, FunctionKey key, List<String> values) {
+            this.predicate = predicate;
+            this.left = left;
+            this.key = key;
+            this.values = values;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            return predicate.matches(exchange);
+        }
+
+        @Override
+        public Expression getIndexExpression() {
+            return left;
+        }
+
+        @Override
+        public Object getIndexKey() {
+            return key;
+        }
+
+        @Override
+        public Collection<String> getIndexValues() {
+            return values;
+        }
+
+        @Override
+        public boolean matchesValue(Exchange exchange, Object value) {
+            if (value == null) {
+                return false;
+            }
+            // compare the same way as the equal and in operators
+            for (String v : values) {
+                if (ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), value, v)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void setCamelContext(CamelContext camelContext) {
+            if (predicate instanceof CamelContextAware) {
+                ((CamelContextAware) predicate).setCamelContext(camelContext);
+            }
+        }
+
+        @Override
+        public CamelContext getCamelContext() {
+            return predicate instanceof CamelContextAware ? ((CamelContextAware) predicate).getCamelContext() : null;
+        }
+
+        @Override
+        public String toString() {
+            return predicate.toString();
+        }
+    }
+
+    /**
+     * The key of a simple function which is indexed, so it can only be equal to the key of the same function.
+     */
+    private static final class FunctionKey {
+
+        private final String function;
+
+        FunctionKey(String function) {
+            this.function = function;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FunctionKey && function.equals(((FunctionKey) o).function);
+        }
+
+        @Override
+        public int hashCode() {
+            return function.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return function;
+        }
+    }
 }
@@ -46,6 +46,10 @@ public class SimpleFunctionStart extends BaseSimpleNode implements BlockStart {
         return !text.startsWith("${type:");
     }
 
+    public CompositeNodes getBlock() {
+        return block;
+    }
+
     @Override
     public String toString() {
         // output a nice toString so it makes debugging easier as we can see the entire block
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+
+/**
+ * Base class for the generated classes of compiled simple expressions.
+ */
+public abstract class CompiledExpression implements Expression {
+
+    protected final String text;
+    protected final Expression[] delegates;
+
+    /**
+     * @param text      the simple expression
+     * @param delegates the expressions for the parts of the simple expression which are not compiled
+     */
+    protected CompiledExpression(String text, Expression[] delegates) {
+        this.text = text;
+        this.delegates = delegates;
+    }
+
+    /**
+     * Evaluates the compiled expression
+     */
+    public abstract Object evaluate(Exchange exchange);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T evaluate(Exchange exchange, Class<T> type) {
+        Object value = evaluate(exchange);
+        if (Object.class == type) {
+            // do not use type converter if type is Object (optimize)
+            return (T) value;
+        }
+        return exchange.getContext().getTypeConverter().convertTo(type, exchange, value);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import java.util.regex.Pattern;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.support.ObjectHelper;
+
+/**
+ * Helper methods used by the compiled simple expressions and predicates.
+ * <p/>
+ * The binary operators have the same semantics as the operators from
+ * {@link org.apache.camel.support.builder.PredicateBuilder}, but operate directly on the values.
+ * The variants which accepts the right hand side as a numeric literal compares numbers directly
+ * without using the type converter.
+ */
+public final class CompiledHelper {
+
+    private CompiledHelper() {
+    }
+
+    /**
+     * Gets the header from the in message, and fallback to the exchange property
+     */
+    public static Object header(Exchange exchange, String name) {
+        Object answer = exchange.getIn().getHeader(name);
+        if (answer == null) {
+            answer = exchange.getProperty(name);
+        }
+        return answer;
+    }
+
+    public static String toString(Exchange exchange, Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return exchange.getContext().getTypeConverter().convertTo(String.class, exchange, value);
+    }
+
+    public static void append(StringBuilder sb, String text) {
+        if (text != null) {
+            sb.append(text);
+        }
+    }
+
+    public static boolean matches(Exchange exchange, Expression expression) {
+        if (expression instanceof Predicate) {
+            return ((Predicate) expression).matches(exchange);
+        }
+        return org.apache.camel.util.ObjectHelper.evaluateValuePredicate(expression.evaluate(exchange, Object.class));
+    }
+
+    public static boolean matches(Object value) {
+        return org.apache.camel.util.ObjectHelper.evaluateValuePredicate(value);
+    }
+
+    public static boolean isEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), left, right);
+    }
+
+    public static boolean isEqualTo(Exchange exchange, Object left, String right) {
+        if (left instanceof String) {
+            // same type so no need for type coercion
+            return left.equals(right);
+        }
+        return isEqualTo(exchange, left, (Object) right);
+    }
+
+    public static boolean isEqualTo(Exchange exchange, Object left, String right, long number) {
+        if (isWholeNumber(left)) {
+            return ((Number) left).longValue() == number;
+        }
+        return isEqualTo(exchange, left, right);
+    }
+
+    public static boolean isEqualToIgnoreCase(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), left, right, true);
+    }
+
+    public static int compare(Exchange exchange, Object left, Object right) {
+        return ObjectHelper.typeCoerceCompare(exchange.getContext().getTypeConverter(), left, right);
+    }
+
+    public static int compare(Exchange exchange, Object left, String right, long number) {
+        if (isWholeNumber(left)) {
+            return Long.compare(((Number) left).longValue(), number);
+        }
+        return compare(exchange, left, right);
+    }
+
+    public static boolean isGreaterThan(Exchange exchange, Object left, Object right) {
+        return left != null && right != null && compare(exchange, left, right) > 0;
+    }
+
+    public static boolean isGreaterThan(Exchange exchange, Object left, String right, long number) {
+        return left != null && compare(exchange, left, right, number) > 0;
+    }
+
+    public static boolean isGreaterThanOrEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        }
+        return left != null && right != null && compare(exchange, left, right) >= 0;
+    }
+
+    public static boolean isGreaterThanOrEqualTo(Exchange exchange, Object left, String right, long number) {
+        return left != null && compare(exchange, left, right, number) >= 0;
+    }
+
+    public static boolean isLessThan(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        }
+        return left != null && right != null && compare(exchange, left, right) < 0;
+    }
+
+    public static boolean isLessThan(Exchange exchange, Object left, String right, long number) {
+        return left != null && compare(exchange, left, right, number) < 0;
+    }
+
+    public static boolean isLessThanOrEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        }
+        return left != null && right != null && compare(exchange, left, right) <= 0;
+    }
+
+    public static boolean isLessThanOrEqualTo(Exchange exchange, Object left, String right, long number) {
+        return left != null && compare(exchange, left, right, number) <= 0;
+    }
+
+    public static boolean contains(Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        return ObjectHelper.contains(left, right);
+    }
+
+    public static boolean containsIgnoreCase(Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        return ObjectHelper.containsIgnoreCase(left, right);
+    }
+
+    public static boolean startsWith(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        String leftStr = exchange.getContext().getTypeConverter().convertTo(String.class, left);
+        String rightStr = exchange.getContext().getTypeConverter().convertTo(String.class, right);
+        return leftStr != null && rightStr != null && leftStr.startsWith(rightStr);
+    }
+
+    public static boolean endsWith(Exchange exchange, Object left, Object right) {
+        if (left == null && right == null) {
+            return true;
+        } else if (left == null || right == null) {
+            return false;
+        }
+        String leftStr = exchange.getContext().getTypeConverter().convertTo(String.class, left);
+        String rightStr = exchange.getContext().getTypeConverter().convertTo(String.class, right);
+        return leftStr != null && rightStr != null && leftStr.endsWith(rightStr);
+    }
+
+    public static boolean regex(String value, Pattern pattern) {
+        return value != null && pattern.matcher(value).matches();
+    }
+
+    private static boolean isWholeNumber(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+
+/**
+ * Base class for the generated classes of compiled simple predicates.
+ */
+public abstract class CompiledPredicate implements Predicate {
+
+    protected final String text;
+    protected final Expression[] delegates;
+
+    /**
+     * @param text      the simple predicate
+     * @param delegates the expressions for the parts of the simple predicate which are not compiled
+     */
+    protected CompiledPredicate(String text, Expression[] delegates) {
+        this.text = text;
+        this.delegates = delegates;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,640 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.language.simple.ast.BinaryExpression;
+import org.apache.camel.language.simple.ast.CompositeNodes;
+import org.apache.camel.language.simple.ast.DoubleQuoteStart;
+import org.apache.camel.language.simple.ast.LiteralNode;
+import org.apache.camel.language.simple.ast.LogicalExpression;
+import org.apache.camel.language.simple.ast.NullExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionStart;
+import org.apache.camel.language.simple.ast.SimpleNode;
+import org.apache.camel.language.simple.ast.SingleQuoteStart;
+import org.apache.camel.language.simple.types.BinaryOperatorType;
+import org.apache.camel.language.simple.types.LogicalOperatorType;
+import org.apache.camel.support.LRUCacheFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the AST of parsed simple expressions and predicates into Java classes, which are compiled
+ * at runtime using the Java compiler from the JDK.
+ * <p/>
+ * The generated code accesses the message body, headers and exchange properties directly, and evaluates the
+ * binary and logical operators without creating intermediate {@link Expression}s. Comparisons with numeric
+ * literals are done as typed comparisons when the value is a whole number. The parts of the AST which
+ * are not supported by the compiler (such as OGNL, bean and date functions) are delegating to the
+ * regular {@link Expression} which the simple language would otherwise have used.
+ * <p/>
+ * Compiling requires a JDK (not only a JRE). The generated classes are compiled against the JARs of the Camel
+ * classes they use, which are located from the class loader of these classes (and not from the classpath of the JVM).
+ * If not possible to compile, then <tt>null</tt> is returned, and the parsed simple expression should be used as-is.
+ * <p/>
+ * Each compiled class is defined in its own class loader, so it can be garbage collected when no longer in use.
+ * The compiled expressions and predicates are kept in a LRU cache, and when the maximum number of classes
+ * has been compiled, then <tt>null</tt> is returned for any new expression or predicate, which then
+ * is interpreted.
+ */
+public class SimpleCompiler {
+
+    /**
+     * The default number of compiled expressions and predicates to keep in the cache
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    /**
+     * The default maximum number of classes to compile
+     */
+    public static final int DEFAULT_MAX_COMPILED = 10000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleCompiler.class);
+
+    private static final String PACKAGE_NAME = "org.apache.camel.language.simple.compiler.generated";
+    private static final Pattern HEADER_FUNCTION = Pattern.compile("(?:in\\.)?headers?[.:]([\\w\\-]+)");
+    private static final Pattern PROPERTY_FUNCTION = Pattern.compile("exchangeProperty\\.([\\w\\-]+)");
+    private static final Pattern WHOLE_NUMBER = Pattern.compile("-?\\d{1,18}");
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final JavaCompiler compiler;
+    private final AtomicBoolean failureLogged = new AtomicBoolean();
+    private final AtomicBoolean limitLogged = new AtomicBoolean();
+    private final AtomicInteger compiledCount = new AtomicInteger();
+    private final Map<String, Object> cache;
+    private final int maxCompiled;
+    private volatile String classPath;
+
+    public SimpleCompiler() {
+        this(DEFAULT_CACHE_SIZE, DEFAULT_MAX_COMPILED);
+    }
+
+    /**
+     * @param cacheSize   the number of compiled expressions and predicates to keep in the LRU cache,
+     *                    use 0 or negative to not cache
+     * @param maxCompiled the maximum number of classes to compile, after which new expressions and predicates
+     *                    are not compiled, use 0 or negative for no limit
+     */
+    public SimpleCompiler(int cacheSize, int maxCompiled) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.cache = cacheSize > 0 ? LRUCacheFactory.newLRUCache(16, cacheSize) : null;
+        this.maxCompiled = maxCompiled;
+    }
+
+    /**
+     * Whether compiling is supported, which requires the Java compiler from the JDK.
+     */
+    public boolean isSupported() {
+        return compiler != null;
+    }
+
+    /**
+     * The number of classes which has been compiled
+     */
+    public int getCompiledCount() {
+        return compiledCount.get();
+    }
+
+    /**
+     * Compiles the AST of the parsed simple expression
+     *
+     * @param expression the simple expression
+     * @param nodes      the AST nodes of the parsed expression
+     * @return the compiled expression, or <tt>null</tt> if the expression is not compiled
+     */
+    public Expression compileExpression(String expression, List<SimpleNode> nodes) {
+        String key = "expression:" + expression;
+        Object cached = cache != null ? cache.get(key) : null;
+        if (cached != null) {
+            return (Expression) cached;
+        }
+
+        Generator generator = new Generator(expression);
+        List<SimpleNode> list = generator.validate(nodes);
+        if (list.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder body = new StringBuilder();
+        if (list.size() == 1) {
+            body.append("        return ").append(generator.value(list.get(0))).append(";\n");
+        } else {
+            body.append("        StringBuilder sb = new StringBuilder();\n");
+            for (SimpleNode node : list) {
+                String literal = literal(node);
+                if (literal != null) {
+                    body.append("        sb.append(").append(quote(literal)).append(");\n");
+                } else {
+                    body.append("        CompiledHelper.append(sb, ").append(generator.text(node)).append(");\n");
+                }
+            }
+            body.append("        return sb.toString();\n");
+        }
+        if (generator.compiled == 0) {
+            // nothing to gain by compiling
+            return null;
+        }
+
+        String method = "    @Override\n    public Object evaluate(Exchange exchange) {\n" + body + "    }\n";
+        return (Expression) compile(key, "SimpleExpression", CompiledExpression.class, generator, method);
+    }
+
+    /**
+     * Compiles the AST of the parsed simple predicate
+     *
+     * @param predicate the simple predicate
+     * @param nodes     the AST nodes of the parsed predicate
+     * @return the compiled predicate, or <tt>null</tt> if the predicate is not compiled
+     */
+    public Predicate compilePredicate(String predicate, List<SimpleNode> nodes) {
+        String key = "predicate:" + predicate;
+        Object cached = cache != null ? cache.get(key) : null;
+        if (cached != null) {
+            return (Predicate) cached;
+        }
+
+        Generator generator = new Generator(predicate);
+        List<SimpleNode> list = generator.validate(nodes);
+        if (list.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder body = new StringBuilder();
+        body.append("        return ");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                body.append("\n            && ");
+            }
+            body.append(generator.predicate(list.get(i)));
+        }
+        body.append(";\n");
+        if (generator.compiled == 0) {
+            // nothing to gain by compiling
+            return null;
+        }
+
+        String method = "    @Override\n    public boolean matches(Exchange exchange) {\n" + body + "    }\n";
+        return (Predicate) compile(key, "SimplePredicate", CompiledPredicate.class, generator, method);
+    }
+
+    private Object compile(String key, String prefix, Class<?> baseClass, Generator generator, String method) {
+        if (maxCompiled > 0 && compiledCount.get() >= maxCompiled) {
+            if (limitLogged.compareAndSet(false, true)) {
+                LOG.info("Compiled {} simple expressions and predicates which is the maximum."
+                        + " New simple expressions and predicates are not compiled.", maxCompiled);
+            }
+            return null;
+        }
+
+        String simpleName = prefix + COUNTER.incrementAndGet();
+        String className = PACKAGE_NAME + "." + simpleName;
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n\n");
+        source.append("import org.apache.camel.Exchange;\n");
+        source.append("import org.apache.camel.Expression;\n");
+        source.append("import org.apache.camel.language.simple.compiler.CompiledHelper;\n\n");
+        source.append("public final class ").append(simpleName).append(" extends ").append(baseClass.getName()).append(" {\n\n");
+        source.append(generator.fields);
+        source.append("    public ").append(simpleName).append("(String text, Expression[] delegates) {\n");
+        source.append("        super(text, delegates);\n");
+        source.append("    }\n\n");
+        source.append(method);
+        source.append("}\n");
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Compiling simple: {} as class: {}\n{}", generator.text, className, source);
+        }
+
+        try {
+            Class<?> clazz = doCompile(className, source.toString());
+            Expression[] delegates = generator.delegates.toArray(new Expression[0]);
+            Object answer = clazz.getConstructor(String.class, Expression[].class).newInstance(generator.text, delegates);
+            compiledCount.incrementAndGet();
+            if (cache != null) {
+                cache.put(key, answer);
+            }
+            LOG.debug("Compiled simple: {} as class: {}", generator.text, className);
+            return answer;
+        } catch (Exception e) {
+            if (failureLogged.compareAndSet(false, true)) {
+                LOG.warn("Error compiling simple: " + generator.text + " due to " + e.getMessage()
+                        + ". The simple language will not be compiled. This exception is logged once.", e);
+            } else {
+                LOG.debug("Error compiling simple: {} due to {}", generator.text, e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private synchronized Class<?> doCompile(String className, String source) throws Exception {
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available. Compiling requires a JDK.");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, null);
+        InMemoryFileManager fileManager = new InMemoryFileManager(standard);
+        try {
+            JavaFileObject unit = new SourceFileObject(className, source);
+            List<String> options = Arrays.asList("-classpath", getClassPath(), "-proc:none", "-nowarn");
+            boolean ok = compiler.getTask(null, fileManager, diagnostics, options, null, Collections.singletonList(unit)).call();
+            if (!ok) {
+                throw new IllegalStateException("Compilation failed: " + diagnostics.getDiagnostics());
+            }
+        } finally {
+            fileManager.close();
+        }
+
+        CompiledClassLoader classLoader = new CompiledClassLoader(SimpleCompiler.class.getClassLoader());
+        Class<?> answer = null;
+        for (Map.Entry<String, ByteArrayOutputStream> entry : fileManager.classes.entrySet()) {
+            Class<?> clazz = classLoader.define(entry.getKey(), entry.getValue().toByteArray());
+            if (className.equals(entry.getKey())) {
+                answer = clazz;
+            }
+        }
+        if (answer == null) {
+            throw new IllegalStateException("Compilation did not generate class: " + className);
+        }
+        return answer;
+    }
+
+    private String getClassPath() {
+        if (classPath == null) {
+            // only the camel JARs which the generated code uses (camel-api, camel-support, camel-base, camel-util)
+            // as the classpath of the JVM is not the classpath of camel in containers such as OSGi or fat jars
+            Set<String> paths = new LinkedHashSet<>();
+            for (Class<?> type : new Class<?>[] {Exchange.class, org.apache.camel.support.ObjectHelper.class,
+                                                 SimpleCompiler.class, org.apache.camel.util.ObjectHelper.class}) {
+                CodeSource source = type.getProtectionDomain().getCodeSource();
+                if (source == null || source.getLocation() == null) {
+                    throw new IllegalStateException("Cannot determine location of class: " + type.getName());
+                }
+                try {
+                    paths.add(Paths.get(source.getLocation().toURI()).toString());
+                } catch (Exception e) {
+                    throw new IllegalStateException("Cannot determine location of class: " + type.getName()
+                            + " from: " + source.getLocation(), e);
+                }
+            }
+            classPath = String.join(File.pathSeparator, paths);
+        }
+        return classPath;
+    }
+
+    /**
+     * Returns the text if the node is a literal (which may be quoted), or <tt>null</tt> if not a literal
+     */
+    public static String literal(SimpleNode node) {
+        if (node instanceof LiteralNode) {
+            return ((LiteralNode) node).getText();
+        }
+        CompositeNodes block = null;
+        if (node instanceof SingleQuoteStart) {
+            block = ((SingleQuoteStart) node).getBlock();
+        } else if (node instanceof DoubleQuoteStart) {
+            block = ((DoubleQuoteStart) node).getBlock();
+        }
+        if (block != null) {
+            if (block.getChildren().isEmpty()) {
+                return "";
+            } else if (block.getChildren().size() == 1 && block.getChildren().get(0) instanceof LiteralNode) {
+                return ((LiteralNode) block.getChildren().get(0)).getText();
+            }
+        }
+        return null;
+    }
+
+    private static String quote(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2);
+        sb.append('"');
+        for (char ch : text.toCharArray()) {
+            switch (ch) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (ch < 0x20 || ch > 0x7e) {
+                    sb.append(String.format("\\u%04x", (int) ch));
+                } else {
+                    sb.append(ch);
+                }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * Generates the Java code for the nodes of a single simple expression or predicate.
+     */
+    private static final class Generator {
+
+        private final String text;
+        private final List<Expression> delegates = new ArrayList<>();
+        private final StringBuilder fields = new StringBuilder();
+        private int patterns;
+        private int compiled;
+
+        Generator(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Creates the regular expressions from the nodes, to validate the nodes the same way as
+         * without compilation, and returns the nodes which are in use.
+         */
+        List<SimpleNode> validate(List<SimpleNode> nodes) {
+            List<SimpleNode> answer = new ArrayList<>();
+            for (SimpleNode node : nodes) {
+                if (node.createExpression(text) != null) {
+                    answer.add(node);
+                }
+            }
+            return answer;
+        }
+
+        /**
+         * Java code which evaluates the node as an Object
+         */
+        String value(SimpleNode node) {
+            String literal = literal(node);
+            if (literal != null) {
+                return quote(literal);
+            } else if (node instanceof NullExpression) {
+                return "null";
+            } else if (node instanceof BinaryExpression || node instanceof LogicalExpression) {
+                String answer = predicate(node);
+                return "Boolean.valueOf(" + answer + ")";
+            } else if (node instanceof SimpleFunctionStart) {
+                String answer = function((SimpleFunctionStart) node);
+                if (answer != null) {
+                    compiled++;
+                    return answer;
+                }
+            }
+            return delegate(node) + ".evaluate(exchange, Object.class)";
+        }
+
+        /**
+         * Java code which evaluates the node as a String
+         */
+        String text(SimpleNode node) {
+            String literal = literal(node);
+            if (literal != null) {
+                return quote(literal);
+            } else if (node instanceof SimpleFunctionStart) {
+                String answer = function((SimpleFunctionStart) node);
+                if (answer != null) {
+                    compiled++;
+                    return "CompiledHelper.toString(exchange, " + answer + ")";
+                }
+            }
+            return delegate(node) + ".evaluate(exchange, String.class)";
+        }
+
+        /**
+         * Java code which evaluates the node as a boolean
+         */
+        String predicate(SimpleNode node) {
+            if (node instanceof LogicalExpression) {
+                LogicalExpression logical = (LogicalExpression) node;
+                String op = logical.getOperator() == LogicalOperatorType.AND ? " && " : " || ";
+                compiled++;
+                return "(" + predicate(logical.getLeft()) + op + predicate(logical.getRight()) + ")";
+            } else if (node instanceof BinaryExpression) {
+                String answer = binary((BinaryExpression) node);
+                if (answer != null) {
+                    compiled++;
+                    return answer;
+                }
+            } else if (node instanceof SimpleFunctionStart) {
+                String answer = function((SimpleFunctionStart) node);
+                if (answer != null) {
+                    compiled++;
+                    return "CompiledHelper.matches(" + answer + ")";
+                }
+            }
+            return "CompiledHelper.matches(exchange, " + delegate(node) + ")";
+        }
+
+        private String binary(BinaryExpression node) {
+            BinaryOperatorType operator = node.getOperator();
+            SimpleNode right = node.getRight();
+            String literal = literal(right);
+
+            if (operator == BinaryOperatorType.REGEX || operator == BinaryOperatorType.NOT_REGEX) {
+                if (literal == null) {
+                    return null;
+                }
+                try {
+                    Pattern.compile(literal);
+                } catch (PatternSyntaxException e) {
+                    // let the regular expression fail when its evaluated
+                    return null;
+                }
+                String field = "pattern" + patterns++;
+                fields.append("    private final java.util.regex.Pattern ").append(field)
+                        .append(" = java.util.regex.Pattern.compile(").append(quote(literal)).append(");\n\n");
+                String answer = "CompiledHelper.regex(" + text(node.getLeft()) + ", " + field + ")";
+                return operator == BinaryOperatorType.NOT_REGEX ? "!" + answer : answer;
+            }
+
+            String left = value(node.getLeft());
+            // use typed comparison if the right hand side is a literal
+            String typed = null;
+            String rightValue;
+            if (literal != null) {
+                rightValue = quote(literal);
+                if (WHOLE_NUMBER.matcher(literal).matches()) {
+                    typed = rightValue + ", " + Long.parseLong(literal) + "L";
+                }
+            } else {
+                rightValue = "(Object) " + value(right);
+            }
+            String args = "exchange, " + left + ", " + (typed != null ? typed : rightValue);
+
+            switch (operator) {
+            case EQ:
+                return "CompiledHelper.isEqualTo(" + args + ")";
+            case NOT_EQ:
+                return "!CompiledHelper.isEqualTo(" + args + ")";
+            case GT:
+                return "CompiledHelper.isGreaterThan(" + args + ")";
+            case GTE:
+                return "CompiledHelper.isGreaterThanOrEqualTo(" + args + ")";
+            case LT:
+                return "CompiledHelper.isLessThan(" + args + ")";
+            case LTE:
+                return "CompiledHelper.isLessThanOrEqualTo(" + args + ")";
+            case EQ_IGNORE:
+                return "CompiledHelper.isEqualToIgnoreCase(exchange, " + left + ", " + rightValue + ")";
+            case NOT_EQ_IGNORE:
+                return "!CompiledHelper.isEqualToIgnoreCase(exchange, " + left + ", " + rightValue + ")";
+            case CONTAINS:
+                return "CompiledHelper.contains(" + left + ", " + rightValue + ")";
+            case NOT_CONTAINS:
+                return "!CompiledHelper.contains(" + left + ", " + rightValue + ")";
+            case CONTAINS_IGNORECASE:
+                return "CompiledHelper.containsIgnoreCase(" + left + ", " + rightValue + ")";
+            case NOT_CONTAINS_IGNORECASE:
+                return "!CompiledHelper.containsIgnoreCase(" + left + ", " + rightValue + ")";
+            case STARTS_WITH:
+                return "CompiledHelper.startsWith(exchange, " + left + ", " + rightValue + ")";
+            case ENDS_WITH:
+                return "CompiledHelper.endsWith(exchange, " + left + ", " + rightValue + ")";
+            default:
+                // the other operators are not compiled
+                return null;
+            }
+        }
+
+        private String function(SimpleFunctionStart node) {
+            List<SimpleNode> children = node.getBlock().getChildren();
+            if (children.size() != 1 || !(children.get(0) instanceof LiteralNode)) {
+                // nested functions are not compiled
+                return null;
+            }
+            String function = ((LiteralNode) children.get(0)).getText();
+            if ("body".equals(function) || "in.body".equals(function)) {
+                return "exchange.getIn().getBody()";
+            } else if ("id".equals(function)) {
+                return "exchange.getIn().getMessageId()";
+            } else if ("exchangeId".equals(function)) {
+                return "exchange.getExchangeId()";
+            } else if ("null".equals(function)) {
+                return "null";
+            }
+            Matcher matcher = HEADER_FUNCTION.matcher(function);
+            if (matcher.matches()) {
+                return "CompiledHelper.header(exchange, " + quote(matcher.group(1)) + ")";
+            }
+            matcher = PROPERTY_FUNCTION.matcher(function);
+            if (matcher.matches()) {
+                return "exchange.getProperty(" + quote(matcher.group(1)) + ")";
+            }
+            return null;
+        }
+
+        private String delegate(SimpleNode node) {
+            delegates.add(node.createExpression(text));
+            return "delegates[" + (delegates.size() - 1) + "]";
+        }
+    }
+
+    /**
+     * Source code of the class to compile
+     */
+    private static final class SourceFileObject extends SimpleJavaFileObject {
+
+        private final String source;
+
+        SourceFileObject(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    /**
+     * Keeps the compiled classes in memory
+     */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> classes = new LinkedHashMap<>();
+
+        InMemoryFileManager(JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    classes.put(className, bos);
+                    return bos;
+                }
+            };
+        }
+    }
+
+    /**
+     * Class loader for the compiled classes, so the classes can be garbage collected when no longer in use
+     */
+    private static final class CompiledClassLoader extends ClassLoader {
+
+        CompiledClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+}
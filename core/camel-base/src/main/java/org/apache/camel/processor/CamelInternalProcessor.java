@@ -86,10 +86,17 @@ import org.slf4j.LoggerFactory;
  * {@link #process(org.apache.camel.Exchange, org.apache.camel.AsyncCallback)} method.
  * <p/>
  * The added advices can implement {@link Ordered} to control in which order the advices are executed.
+ * <p/>
+ * The advices are kept in an array which is built when advices are added (which happens when the routes are created),
+ * and during routing the states of the advices and the callback are kept in a single object per exchange,
+ * so the hot path does not iterate lists or allocate state arrays and lambdas.
  */
 public class CamelInternalProcessor extends DelegateAsyncProcessor {
 
+    private static final CamelInternalProcessorAdvice[] NO_ADVICES = new CamelInternalProcessorAdvice[0];
+
     private final List<CamelInternalProcessorAdvice<?>> advices = new ArrayList<>();
+    private CamelInternalProcessorAdvice[] adviceChain = NO_ADVICES;
 
     public CamelInternalProcessor() {
     }
@@ -107,6 +114,7 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         advices.add(advice);
         // ensure advices are sorted so they are in the order we want
         advices.sort(OrderedComparator.get());
+        adviceChain = advices.toArray(new CamelInternalProcessorAdvice[advices.size()]);
     }
 
     /**
@@ -147,14 +155,17 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             return true;
         }
 
-        // optimise to use object array for states
-        final Object[] states = new Object[advices.size()];
+        final CamelInternalProcessorAdvice[] chain = adviceChain;
+        // the task keeps the states of the advices, and is the callback which will execute the advices
+        // in reverse order when done, and the task to execute any after processor work
+        final AsyncAfterTask task = new AsyncAfterTask(exchange, originalCallback, chain);
         // optimise for loop using index access to avoid creating iterator object
-        for (int i = 0; i < advices.size(); i++) {
-            CamelInternalProcessorAdvice task = advices.get(i);
+        for (int i = 0; i < chain.length; i++) {
             try {
-                Object state = task.before(exchange);
-                states[i] = state;
+                Object state = chain[i].before(exchange);
+                if (state != null) {
+                    task.setState(i, state);
+                }
             } catch (Throwable e) {
                 exchange.setException(e);
                 originalCallback.done(true);
@@ -162,31 +173,6 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             }
         }
 
-        // create internal callback which will execute the advices in reverse order when done
-        AsyncCallback callback = doneSync -> {
-            try {
-                for (int i = advices.size() - 1; i >= 0; i--) {
-                    CamelInternalProcessorAdvice task = advices.get(i);
-                    Object state = states[i];
-                    try {
-                        task.after(exchange, state);
-                    } catch (Throwable e) {
-                        exchange.setException(e);
-                        // allow all advices to complete even if there was an exception
-                    }
-                }
-            } finally {
-                // ----------------------------------------------------------
-                // CAMEL END USER - DEBUG ME HERE +++ START +++
-                // ----------------------------------------------------------
-                // callback must be called
-                exchange.getContext().getReactiveExecutor().callback(originalCallback);
-                // ----------------------------------------------------------
-                // CAMEL END USER - DEBUG ME HERE +++ END +++
-                // ----------------------------------------------------------
-            }
-        };
-
         if (exchange.isTransacted()) {
             // must be synchronized for transacted exchanges
             if (log.isTraceEnabled()) {
@@ -207,16 +193,17 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             // ----------------------------------------------------------
             // CAMEL END USER - DEBUG ME HERE +++ END +++
             // ----------------------------------------------------------
-            callback.done(true);
+            task.done(true);
             return true;
         } else {
             final UnitOfWork uow = exchange.getUnitOfWork();
 
             // allow unit of work to wrap callback in case it need to do some special work
             // for example the MDCUnitOfWork
-            AsyncCallback async = callback;
+            AsyncCallback async = task;
             if (uow != null) {
-                async = uow.beforeProcess(processor, exchange, callback);
+                task.uow = uow;
+                async = uow.beforeProcess(processor, exchange, task);
             }
 
             // ----------------------------------------------------------
@@ -230,17 +217,8 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             // CAMEL END USER - DEBUG ME HERE +++ END +++
             // ----------------------------------------------------------
 
-            exchange.getContext().getReactiveExecutor().schedule(() -> {
-                // execute any after processor work (in current thread, not in the callback)
-                if (uow != null) {
-                    uow.afterProcess(processor, exchange, callback, false);
-                }
-
-                if (log.isTraceEnabled()) {
-                    log.trace("Exchange processed and is continued routed asynchronously for exchangeId: {} -> {}",
-                             exchange.getExchangeId(), exchange);
-                }
-            }, "CamelInternalProcessor - UnitOfWork - afterProcess - " + processor + " - " + exchange.getExchangeId());
+            // execute any after processor work (in current thread, not in the callback)
+            exchange.getContext().getReactiveExecutor().schedule(task);
             return false;
         }
     }
@@ -278,6 +256,77 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         return true;
     }
 
+    /**
+     * The callback which executes the advices in reverse order when the exchange is done, and the task which
+     * executes any after processor work of the {@link UnitOfWork} when the exchange is continued asynchronously.
+     */
+    private final class AsyncAfterTask implements AsyncCallback, Runnable {
+
+        private final Exchange exchange;
+        private final AsyncCallback originalCallback;
+        private final CamelInternalProcessorAdvice[] chain;
+        // most advices has no state so only create the array when needed
+        private Object[] states;
+        // the unit of work before processing
+        private UnitOfWork uow;
+
+        AsyncAfterTask(Exchange exchange, AsyncCallback originalCallback, CamelInternalProcessorAdvice[] chain) {
+            this.exchange = exchange;
+            this.originalCallback = originalCallback;
+            this.chain = chain;
+        }
+
+        void setState(int index, Object state) {
+            if (states == null) {
+                states = new Object[chain.length];
+            }
+            states[index] = state;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void done(boolean doneSync) {
+            try {
+                for (int i = chain.length - 1; i >= 0; i--) {
+                    Object state = states != null ? states[i] : null;
+                    try {
+                        chain[i].after(exchange, state);
+                    } catch (Throwable e) {
+                        exchange.setException(e);
+                        // allow all advices to complete even if there was an exception
+                    }
+                }
+            } finally {
+                // ----------------------------------------------------------
+                // CAMEL END USER - DEBUG ME HERE +++ START +++
+                // ----------------------------------------------------------
+                // callback must be called
+                exchange.getContext().getReactiveExecutor().callback(originalCallback);
+                // ----------------------------------------------------------
+                // CAMEL END USER - DEBUG ME HERE +++ END +++
+                // ----------------------------------------------------------
+            }
+        }
+
+        @Override
+        public void run() {
+            // execute any after processor work (in current thread, not in the callback)
+            if (uow != null) {
+                uow.afterProcess(processor, exchange, this, false);
+            }
+
+            if (log.isTraceEnabled()) {
+                log.trace("Exchange processed and is continued routed asynchronously for exchangeId: {} -> {}",
+                         exchange.getExchangeId(), exchange);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CamelInternalProcessor - UnitOfWork - afterProcess - " + processor + " - " + exchange.getExchangeId();
+        }
+    }
+
     /**
      * Advice to invoke callbacks for before and after routing.
      */
@@ -17,18 +17,23 @@
 package org.apache.camel.processor;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
 import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
 import org.apache.camel.Navigate;
+import org.apache.camel.Predicate;
 import org.apache.camel.Processor;
 import org.apache.camel.Traceable;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.support.AsyncProcessorConverterHelper;
 import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.IndexablePredicate;
 import org.apache.camel.support.service.ServiceHelper;
 
 import static org.apache.camel.processor.PipelineHelper.continueProcessing;
@@ -37,6 +42,10 @@ import static org.apache.camel.processor.PipelineHelper.continueProcessing;
  * Implements a Choice structure where one or more predicates are used which if
  * they are true their processors are used, with a default otherwise clause used
  * if none match.
+ * <p/>
+ * When several of the predicates tests whether the same expression is equal to constant values, such as
+ * <tt>${header.type} == 'gold'</tt>, then the expression is only evaluated once, and the predicate which matches
+ * is looked up in an index by the value (see {@link IndexablePredicate}).
  */
 public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<Processor>, Traceable, IdAware {
 
@@ -44,6 +53,10 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
     private final List<FilterProcessor> filters;
     private final Processor otherwise;
     private transient long notFiltered;
+    // the filters which predicates compares the same expression with constant values can be looked up by the value
+    private Expression indexExpression;
+    private Map<String, Integer> index;
+    private boolean[] indexed;
 
     public ChoiceProcessor(List<FilterProcessor> filters, Processor otherwise) {
         this.filters = filters;
@@ -52,8 +65,6 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
 
     @Override
     public boolean process(final Exchange exchange, final AsyncCallback callback) {
-        Iterator<Processor> processors = next().iterator();
-
         // callback to restore existing FILTER_MATCHED property on the Exchange
         final Object existing = exchange.getProperty(Exchange.FILTER_MATCHED);
         final AsyncCallback choiceCallback = new AsyncCallback() {
@@ -68,44 +79,67 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
             }
         };
 
+        // the index expression is evaluated once, when the first indexed filter is reached, and if the value
+        // is a String then the only indexed filter which can match is looked up in the index, otherwise
+        // the indexed filters tests the value in turn as other types may be compared using type coercion
+        boolean evaluated = false;
+        Object value = null;
+        int candidate = -1;
+
         // as we only pick one processor to process, then no need to have async callback that has a while loop as well
         // as this should not happen, eg we pick the first filter processor that matches, or the otherwise (if present)
         // and if not, we just continue without using any processor
-        while (processors.hasNext()) {
-            // get the next processor
-            Processor processor = processors.next();
+        for (int i = 0; i < filters.size(); i++) {
+            FilterProcessor filter = filters.get(i);
 
             // evaluate the predicate on filter predicate early to be faster
             // and avoid issues when having nested choices
             // as we should only pick one processor
             boolean matches = false;
-            if (processor instanceof FilterProcessor) {
-                FilterProcessor filter = (FilterProcessor) processor;
-                try {
+            try {
+                if (indexed != null && indexed[i]) {
+                    if (!evaluated) {
+                        evaluated = true;
+                        value = indexExpression.evaluate(exchange, Object.class);
+                        if (value instanceof String) {
+                            Integer found = index.get(value);
+                            candidate = found != null ? found : -1;
+                        }
+                    }
+                    if (value instanceof String) {
+                        if (i != candidate) {
+                            // the index tells this filter does not match
+                            continue;
+                        }
+                        matches = filter.matched(exchange, true);
+                    } else {
+                        IndexablePredicate predicate = (IndexablePredicate) filter.getPredicate();
+                        matches = filter.matched(exchange, predicate.matchesValue(exchange, value));
+                    }
+                } else {
                     matches = filter.matches(exchange);
-                    // as we have pre evaluated the predicate then use its processor directly when routing
-                    processor = filter.getProcessor();
-                } catch (Throwable e) {
-                    exchange.setException(e);
                 }
-            } else {
-                // its the otherwise processor, so its a match
-                notFiltered++;
-                matches = true;
+            } catch (Throwable e) {
+                exchange.setException(e);
             }
 
             // check for error if so we should break out
             if (!continueProcessing(exchange, "so breaking out of choice", log)) {
-                break;
+                choiceCallback.done(true);
+                return true;
             }
 
-            // if we did not match then continue to next filter
-            if (!matches) {
-                continue;
+            if (matches) {
+                // as we have pre evaluated the predicate then use its processor directly when routing
+                AsyncProcessor async = AsyncProcessorConverterHelper.convert(filter.getProcessor());
+                return async.process(exchange, choiceCallback);
             }
+        }
 
-            // okay we found a filter or its the otherwise we are processing
-            AsyncProcessor async = AsyncProcessorConverterHelper.convert(processor);
+        if (otherwise != null) {
+            // its the otherwise processor, so its a match
+            notFiltered++;
+            AsyncProcessor async = AsyncProcessorConverterHelper.convert(otherwise);
             return async.process(exchange, choiceCallback);
         }
 
@@ -148,6 +182,21 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
         return otherwise;
     }
 
+    /**
+     * Gets the number of filters which are looked up using an index, instead of evaluating their predicates in turn.
+     */
+    public int getIndexedCount() {
+        int answer = 0;
+        if (indexed != null) {
+            for (boolean b : indexed) {
+                if (b) {
+                    answer++;
+                }
+            }
+        }
+        return answer;
+    }
+
     /**
      * Gets the number of Exchanges that did not match any predicate and are routed using otherwise
      */
@@ -198,6 +247,55 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
     @Override
     protected void doStart() throws Exception {
         ServiceHelper.startService(filters, otherwise);
+        createIndex();
+    }
+
+    /**
+     * Creates an index of the filters with {@link IndexablePredicate}s which tests the same expression,
+     * so the expression can be evaluated once and the filter which matches the value be looked up.
+     * The other filters are evaluated in turn as usual.
+     */
+    private void createIndex() {
+        indexExpression = null;
+        index = null;
+        indexed = null;
+        if (filters == null) {
+            return;
+        }
+
+        // find the expression which is tested by the most filters
+        Map<Object, List<Integer>> keys = new LinkedHashMap<>();
+        for (int i = 0; i < filters.size(); i++) {
+            Predicate predicate = filters.get(i).getPredicate();
+            if (predicate instanceof IndexablePredicate) {
+                keys.computeIfAbsent(((IndexablePredicate) predicate).getIndexKey(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        List<Integer> best = null;
+        for (List<Integer> list : keys.values()) {
+            if (best == null || list.size() > best.size()) {
+                best = list;
+            }
+        }
+        if (best == null || best.size() < 2) {
+            // nothing to gain from an index
+            return;
+        }
+
+        Map<String, Integer> answer = new HashMap<>();
+        boolean[] flags = new boolean[filters.size()];
+        for (int i : best) {
+            IndexablePredicate predicate = (IndexablePredicate) filters.get(i).getPredicate();
+            for (String value : predicate.getIndexValues()) {
+                // the first filter which matches the value wins
+                answer.putIfAbsent(value, i);
+            }
+            flags[i] = true;
+        }
+        indexExpression = ((IndexablePredicate) filters.get(best.get(0)).getPredicate()).getIndexExpression();
+        index = answer;
+        indexed = flags;
+        log.debug("Indexed {} out of {} filters using expression: {}", best.size(), filters.size(), indexExpression);
     }
 
     @Override
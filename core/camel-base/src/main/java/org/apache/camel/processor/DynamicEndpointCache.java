@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.support.LRUCacheFactory;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.util.function.ThrowingFunction;
+
+/**
+ * A bounded cache of the endpoints resolved by the EIPs sending to dynamic computed endpoints,
+ * such as <a href="http://camel.apache.org/message-endpoint.html">toD</a> and the
+ * <a href="http://camel.apache.org/recipient-list.html">Recipient List</a>.
+ * <p/>
+ * The endpoints are cached by the uri as computed by the expression, which allows to lookup an endpoint
+ * which has been sent to before, without resolving property placeholders and normalizing the uri,
+ * as when the endpoint is looked up from the {@link CamelContext}.
+ * <p/>
+ * The least recently used endpoints are evicted from the cache when its full, which does not stop
+ * the endpoints as they are still managed by the {@link CamelContext}. Endpoints which are not singletons
+ * are never cached, as a new endpoint is to be resolved each time.
+ */
+public final class DynamicEndpointCache {
+
+    private final Map<String, Endpoint> cache;
+    private final int maximumCacheSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DynamicEndpointCache(int maximumCacheSize) {
+        this.maximumCacheSize = maximumCacheSize;
+        this.cache = LRUCacheFactory.newLRUCache(16, maximumCacheSize, false);
+    }
+
+    /**
+     * Gets the endpoint from the cache, or resolves the endpoint and adds it to the cache
+     *
+     * @param uri      the uri as computed by the expression
+     * @param resolver to resolve the endpoint if its not in the cache
+     * @return the endpoint
+     */
+    public <T extends Throwable> Endpoint resolve(String uri, ThrowingFunction<String, Endpoint, T> resolver) throws T {
+        Endpoint answer = get(uri);
+        if (answer == null) {
+            answer = resolver.apply(uri);
+            put(uri, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the endpoint which has been resolved for the given uri
+     *
+     * @param uri the uri as computed by the expression
+     * @return the endpoint, or <tt>null</tt> if not in the cache
+     */
+    public Endpoint get(String uri) {
+        Endpoint answer = cache.get(uri);
+        if (answer != null && ServiceHelper.isStopped(answer)) {
+            // the endpoint has been stopped, such as when removed from the camel context
+            cache.remove(uri);
+            answer = null;
+        }
+        if (answer != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the endpoint which has been resolved for the given uri
+     *
+     * @param uri      the uri as computed by the expression
+     * @param endpoint the resolved endpoint
+     */
+    public void put(String uri, Endpoint endpoint) {
+        // only cache started endpoints, as a stopped endpoint is removed from the cache when looked up
+        // and only singletons, as a new endpoint must be created each time for the others
+        if (endpoint != null && endpoint.isSingleton() && !ServiceHelper.isStopped(endpoint)) {
+            cache.put(uri, endpoint);
+        }
+    }
+
+    /**
+     * Number of times an endpoint was found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of times an endpoint was not found in the cache and had to be resolved
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of endpoints in the cache
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * The maximum number of endpoints in the cache
+     */
+    public int getMaximumCacheSize() {
+        return maximumCacheSize;
+    }
+
+    /**
+     * Resets the hits and misses statistics
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Removes all the endpoints from the cache
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicEndpointCache[size: " + size() + ", capacity: " + maximumCacheSize + ", hits: " + getHits() + ", misses: " + getMisses() + "]";
+    }
+}
@@ -59,8 +59,13 @@ public class FilterProcessor extends DelegateAsyncProcessor implements Traceable
     }
 
     public boolean matches(Exchange exchange) {
-        boolean matches = predicate.matches(exchange);
+        return matched(exchange, predicate.matches(exchange));
+    }
 
+    /**
+     * Records whether the predicate matches, when it has been evaluated by the caller.
+     */
+    boolean matched(Exchange exchange, boolean matches) {
         log.debug("Filter matches: {} for exchange: {}", matches, exchange);
 
         // set property whether the filter matches or not
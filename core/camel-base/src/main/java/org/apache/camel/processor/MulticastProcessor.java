@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -151,6 +152,7 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
     private final boolean shutdownExecutorService;
     private ExecutorService aggregateExecutorService;
     private final long timeout;
+    private int parallelWindowSize;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<>();
     private final boolean shareUnitOfWork;
 
@@ -265,6 +267,11 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         final AtomicInteger nbAggregated = new AtomicInteger();
         final AtomicBoolean allSent = new AtomicBoolean();
         final AtomicBoolean done = new AtomicBoolean();
+        // reorder buffer used when parallel processing with a bounded window of in-flight exchanges
+        final AtomicReferenceArray<Exchange> window;
+        final AtomicInteger windowWip;
+        final AtomicBoolean windowPaused;
+        int windowNext;
 
         MulticastState(Exchange original, Iterable<ProcessorExchangePair> pairs, AsyncCallback callback) {
             this.original = original;
@@ -274,6 +281,15 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
             this.lock = new ReentrantLock();
             this.completion = new AsyncCompletionService<>(MulticastProcessor.this::schedule, !isStreaming(), lock);
             this.result = new AtomicReference<>();
+            if (isParallelProcessing() && parallelWindowSize > 0) {
+                this.window = new AtomicReferenceArray<>(parallelWindowSize);
+                this.windowWip = new AtomicInteger();
+                this.windowPaused = new AtomicBoolean();
+            } else {
+                this.window = null;
+                this.windowWip = null;
+                this.windowPaused = null;
+            }
             if (timeout > 0) {
                 schedule(aggregateExecutorService, this::timeout, timeout, TimeUnit.MILLISECONDS);
             }
@@ -314,7 +330,9 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
 
                 // Schedule the processing of the next pair
                 if (hasNext) {
-                    if (isParallelProcessing()) {
+                    if (window != null) {
+                        scheduleWithinWindow();
+                    } else if (isParallelProcessing()) {
                         schedule(this);
                     }
                 } else {
@@ -347,10 +365,16 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                             return;
                         }
 
-                        exchangeResult.accept(exchange);
+                        if (window != null) {
+                            // the window is never larger than the in-flight exchanges so the slot is free
+                            window.set(index % window.length(), exchange);
+                            aggregateWindow();
+                        } else {
+                            exchangeResult.accept(exchange);
 
-                        // aggregate exchanges if any
-                        aggregate();
+                            // aggregate exchanges if any
+                            aggregate();
+                        }
 
                         // next step
                         if (hasNext && !isParallelProcessing()) {
@@ -385,6 +409,55 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
             }
         }
 
+        /**
+         * Schedules the processing of the next pair if the window of in-flight exchanges is not full,
+         * otherwise the iteration is paused until the oldest exchange has been aggregated.
+         */
+        protected void scheduleWithinWindow() {
+            if (nbExchangeSent.get() - nbAggregated.get() < window.length()) {
+                schedule(this);
+            } else {
+                windowPaused.set(true);
+                // an exchange may have been aggregated before we paused, so check again
+                if (nbExchangeSent.get() - nbAggregated.get() < window.length() && windowPaused.compareAndSet(true, false)) {
+                    schedule(this);
+                }
+            }
+        }
+
+        /**
+         * Aggregates the completed exchanges in order from the reorder buffer.
+         * <p/>
+         * The thread which completes an exchange takes over the aggregation if no other thread is aggregating,
+         * otherwise the aggregating thread is signalled to check the buffer once more before it stops.
+         */
+        protected void aggregateWindow() {
+            if (windowWip.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                int missed = 1;
+                do {
+                    Exchange exchange;
+                    while (!done.get() && (exchange = window.getAndSet(windowNext % window.length(), null)) != null) {
+                        windowNext++;
+                        doAggregate(result, exchange);
+                        if (nbAggregated.incrementAndGet() >= nbExchangeSent.get() && allSent.get()) {
+                            doDone(result.get(), true);
+                        } else if (windowPaused.get() && windowPaused.compareAndSet(true, false)) {
+                            // there is room in the window again so continue the iteration
+                            schedule(this);
+                        }
+                    }
+                    missed = windowWip.addAndGet(-missed);
+                } while (missed != 0);
+            } catch (Throwable e) {
+                original.setException(e);
+                // and do the done work
+                doDone(null, false);
+            }
+        }
+
         protected void timeout() {
             Lock lock = this.lock;
             if (lock.tryLock()) {
@@ -780,6 +853,9 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         if (isParallelProcessing() && executorService == null) {
             throw new IllegalArgumentException("ParallelProcessing is enabled but ExecutorService has not been set");
         }
+        if (parallelWindowSize > 0 && timeout > 0) {
+            throw new IllegalArgumentException("ParallelWindowSize cannot be used together with timeout");
+        }
         if (aggregateExecutorService == null) {
             // use unbounded thread pool so we ensure the aggregate on-the-fly task always will have assigned a thread
             // and run the tasks when the task is submitted. If not then the aggregate task may not be able to run
@@ -938,6 +1014,23 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         return parallelAggregate;
     }
 
+    public int getParallelWindowSize() {
+        return parallelWindowSize;
+    }
+
+    /**
+     * Sets the maximum number of exchanges which are in-flight when using parallel processing.
+     * <p/>
+     * When the window is full then the iteration is paused until the oldest exchange has completed and been aggregated,
+     * so the memory used is bounded by the window size and not by the number of exchanges, which matters when
+     * splitting big messages in streaming mode. The exchanges are always aggregated in order when the window is in use.
+     * <p/>
+     * Use 0 or a negative value for no limit, which is the default.
+     */
+    public void setParallelWindowSize(int parallelWindowSize) {
+        this.parallelWindowSize = parallelWindowSize;
+    }
+
     public boolean isStopOnAggregateException() {
         return stopOnAggregateException;
     }
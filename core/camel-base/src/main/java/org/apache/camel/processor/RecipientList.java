@@ -51,6 +51,7 @@ public class RecipientList extends AsyncProcessorSupport implements IdAware {
     private final CamelContext camelContext;
     private String id;
     private ProducerCache producerCache;
+    private DynamicEndpointCache endpointCache;
     private Expression expression;
     private final String delimiter;
     private boolean parallelProcessing;
@@ -151,6 +152,7 @@ public class RecipientList extends AsyncProcessorSupport implements IdAware {
             }
         };
         rlp.setIgnoreInvalidEndpoints(isIgnoreInvalidEndpoints());
+        rlp.setEndpointCache(endpointCache);
 
         // start the service
         try {
@@ -177,18 +179,32 @@ public class RecipientList extends AsyncProcessorSupport implements IdAware {
         return producerCache.getEndpointUtilizationStatistics();
     }
 
+    /**
+     * Gets the cache of the resolved endpoints, or <tt>null</tt> if the endpoints are not cached.
+     */
+    public DynamicEndpointCache getEndpointCache() {
+        return endpointCache;
+    }
+
     @Override
     protected void doStart() throws Exception {
         if (producerCache == null) {
             producerCache = new DefaultProducerCache(this, camelContext, cacheSize);
             log.debug("RecipientList {} using ProducerCache with cacheSize={}", this, producerCache.getCapacity());
         }
+        if (endpointCache == null && producerCache.getCapacity() > 0) {
+            // cache the resolved endpoints the same as the producers (is turned off if cacheSize is -1)
+            endpointCache = new DynamicEndpointCache(producerCache.getCapacity());
+        }
         ServiceHelper.startService(aggregationStrategy, producerCache);
     }
 
     @Override
     protected void doStop() throws Exception {
         ServiceHelper.stopService(producerCache, aggregationStrategy);
+        if (endpointCache != null) {
+            endpointCache.clear();
+        }
     }
 
     @Override
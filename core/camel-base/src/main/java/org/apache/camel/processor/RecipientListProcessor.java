@@ -63,6 +63,7 @@ public class RecipientListProcessor extends MulticastProcessor {
     private final Iterator<?> iter;
     private boolean ignoreInvalidEndpoints;
     private ProducerCache producerCache;
+    private DynamicEndpointCache endpointCache;
 
     /**
      * Class that represent each step in the recipient list to do
@@ -181,6 +182,17 @@ public class RecipientListProcessor extends MulticastProcessor {
         this.ignoreInvalidEndpoints = ignoreInvalidEndpoints;
     }
 
+    public DynamicEndpointCache getEndpointCache() {
+        return endpointCache;
+    }
+
+    /**
+     * Sets the cache to use for looking up the endpoints which has been resolved before
+     */
+    public void setEndpointCache(DynamicEndpointCache endpointCache) {
+        this.endpointCache = endpointCache;
+    }
+
     @Override
     protected Iterable<ProcessorExchangePair> createProcessorExchangePairs(Exchange exchange) throws Exception {
         // here we iterate the recipient lists and create the exchange pair for each of those
@@ -194,7 +206,7 @@ public class RecipientListProcessor extends MulticastProcessor {
             Producer producer;
             ExchangePattern pattern;
             try {
-                endpoint = resolveEndpoint(exchange, recipient);
+                endpoint = lookupEndpoint(exchange, recipient);
                 pattern = resolveExchangePattern(recipient);
                 producer = producerCache.acquireProducer(endpoint);
             } catch (Exception e) {
@@ -250,6 +262,16 @@ public class RecipientListProcessor extends MulticastProcessor {
         return new RecipientProcessorExchangePair(index, producerCache, endpoint, producer, prepared, copy, pattern);
     }
 
+    /**
+     * Looks up the endpoint from the endpoint cache, and resolves the endpoint if not already cached.
+     */
+    protected Endpoint lookupEndpoint(Exchange exchange, Object recipient) {
+        if (endpointCache == null || !(recipient instanceof String)) {
+            return resolveEndpoint(exchange, recipient);
+        }
+        return endpointCache.resolve((String) recipient, uri -> resolveEndpoint(exchange, uri));
+    }
+
     protected static Endpoint resolveEndpoint(Exchange exchange, Object recipient) {
         // trim strings as end users might have added spaces between separators
         if (recipient instanceof String) {
@@ -50,6 +50,7 @@ public class SendDynamicProcessor extends AsyncProcessorSupport implements IdAwa
     protected final Expression expression;
     protected ExchangePattern pattern;
     protected ProducerCache producerCache;
+    protected DynamicEndpointCache endpointCache;
     protected String id;
     protected boolean ignoreInvalidEndpoint;
     protected int cacheSize;
@@ -118,9 +119,9 @@ public class SendDynamicProcessor extends AsyncProcessorSupport implements IdAwa
                 }
             }
             if (staticUri != null) {
-                endpoint = resolveEndpoint(exchange, staticUri);
+                endpoint = lookupEndpoint(exchange, staticUri);
             } else {
-                endpoint = resolveEndpoint(exchange, recipient);
+                endpoint = lookupEndpoint(exchange, recipient);
             }
             if (endpoint == null) {
                 if (log.isDebugEnabled()) {
@@ -229,6 +230,16 @@ public class SendDynamicProcessor extends AsyncProcessorSupport implements IdAwa
         }
     }
 
+    /**
+     * Looks up the endpoint from the endpoint cache, and resolves the endpoint if not already cached.
+     */
+    protected Endpoint lookupEndpoint(Exchange exchange, Object recipient) throws NoTypeConversionAvailableException {
+        if (endpointCache == null || !(recipient instanceof String)) {
+            return resolveEndpoint(exchange, recipient);
+        }
+        return endpointCache.resolve((String) recipient, uri -> resolveEndpoint(exchange, uri));
+    }
+
     protected Exchange configureExchange(Exchange exchange, ExchangePattern pattern, Endpoint endpoint) {
         if (pattern != null) {
             exchange.setPattern(pattern);
@@ -244,6 +255,10 @@ public class SendDynamicProcessor extends AsyncProcessorSupport implements IdAwa
             producerCache = new DefaultProducerCache(this, camelContext, cacheSize);
             log.debug("DynamicSendTo {} using ProducerCache with cacheSize={}", this, producerCache.getCapacity());
         }
+        if (endpointCache == null && producerCache.getCapacity() > 0) {
+            // cache the resolved endpoints the same as the producers (is turned off if cacheSize is -1)
+            endpointCache = new DynamicEndpointCache(producerCache.getCapacity());
+        }
 
         if (isAllowOptimisedComponents() && uri != null) {
             try {
@@ -276,12 +291,22 @@ public class SendDynamicProcessor extends AsyncProcessorSupport implements IdAwa
     @Override
     protected void doStop() throws Exception {
         ServiceHelper.stopService(producerCache);
+        if (endpointCache != null) {
+            endpointCache.clear();
+        }
     }
 
     public EndpointUtilizationStatistics getEndpointUtilizationStatistics() {
         return producerCache.getEndpointUtilizationStatistics();
     }
 
+    /**
+     * Gets the cache of the resolved endpoints, or <tt>null</tt> if the endpoints are not cached.
+     */
+    public DynamicEndpointCache getEndpointCache() {
+        return endpointCache;
+    }
+
     @Override
     public CamelContext getCamelContext() {
         return camelContext;
@@ -32,6 +32,7 @@ import org.apache.camel.Navigate;
 import org.apache.camel.Processor;
 import org.apache.camel.Traceable;
 import org.apache.camel.processor.resequencer.ResequencerEngine;
+import org.apache.camel.processor.resequencer.RingBufferResequencerEngine;
 import org.apache.camel.processor.resequencer.SequenceElementComparator;
 import org.apache.camel.processor.resequencer.SequenceSender;
 import org.apache.camel.spi.ExceptionHandler;
@@ -58,6 +59,9 @@ import org.apache.camel.util.ObjectHelper;
  * Instances of this class poll for {@link Exchange}s from a given
  * <code>endpoint</code>. Resequencing work and the delivery of messages to
  * the next <code>processor</code> is done within the single polling thread.
+ * <p>
+ * For high volume streams with dense sequence numbers, then the resequencer can
+ * use a ring buffer indexed by the sequence number, see {@link RingBufferResequencerEngine}.
  * 
  *
  * @see ResequencerEngine
@@ -67,13 +71,15 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
     private String id;
     private final CamelContext camelContext;
     private final ExceptionHandler exceptionHandler;
-    private final ResequencerEngine<Exchange> engine;
+    private final SequenceElementComparator<Exchange> comparator;
+    private ResequencerEngine<Exchange> engine;
     private final Processor processor;
     private final Expression expression;
     private Delivery delivery;
     private int capacity;
     private boolean ignoreInvalidExchanges;
     private long deliveryAttemptInterval = 1000L;
+    private boolean ringBuffer;
 
     /**
      * Creates a new {@link StreamResequencer} instance.
@@ -84,6 +90,7 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
     public StreamResequencer(CamelContext camelContext, Processor processor, SequenceElementComparator<Exchange> comparator, Expression expression) {
         ObjectHelper.notNull(camelContext, "CamelContext");
         this.camelContext = camelContext;
+        this.comparator = comparator;
         this.engine = new ResequencerEngine<>(comparator);
         this.engine.setSequenceSender(this);
         this.processor = processor;
@@ -158,6 +165,21 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
         return engine.getRejectOld() != null && engine.getRejectOld();
     }
 
+    public boolean isRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Sets whether to use a ring buffer indexed by the sequence number, which is faster for high volume streams
+     * where the sequence numbers are dense (such as 1,2,3,4). The sequence numbers is evaluated from the expression,
+     * and the size of the ring buffer is the capacity rounded up to a power of two.
+     * <p/>
+     * Default is <tt>false</tt>.
+     */
+    public void setRingBuffer(boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
     /**
      * Sets whether to ignore invalid exchanges which cannot be used by this stream resequencer.
      * <p/>
@@ -191,6 +213,13 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
     @Override
     protected void doStart() throws Exception {
         ServiceHelper.startService(processor);
+        if (ringBuffer && !(engine instanceof RingBufferResequencerEngine)) {
+            RingBufferResequencerEngine<Exchange> answer = new RingBufferResequencerEngine<>(comparator, e -> expression.evaluate(e, Long.class), capacity);
+            answer.setTimeout(engine.getTimeout());
+            answer.setRejectOld(engine.getRejectOld());
+            answer.setSequenceSender(this);
+            engine = answer;
+        }
         delivery = new Delivery();
         engine.start();
         delivery.start();
@@ -214,18 +243,33 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
         processor.process(exchange);
     }
 
+    /**
+     * Sends the batch of <code>exchanges</code> to the next <code>processor</code>.
+     * A failure is handled for each exchange, so the remainder of the batch is still sent.
+     *
+     * @param exchanges exchanges to send.
+     */
     @Override
-    public boolean process(Exchange exchange, AsyncCallback callback) {
-        while (engine.size() >= capacity) {
+    public void sendElements(List<Exchange> exchanges) throws Exception {
+        for (Exchange exchange : exchanges) {
             try {
-                Thread.sleep(getTimeout());
-            } catch (InterruptedException e) {
-                // we was interrupted so break out
-                exchange.setException(e);
-                callback.done(true);
-                return true;
+                processor.process(exchange);
+            } catch (Throwable t) {
+                getExceptionHandler().handleException("Error processing exchange in StreamResequencer", exchange, t);
             }
         }
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            awaitCapacity(exchange);
+        } catch (InterruptedException e) {
+            // we was interrupted so break out
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
 
         try {
             engine.insert(exchange);
@@ -242,6 +286,21 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
         return true;
     }
 
+    private void awaitCapacity(Exchange exchange) throws InterruptedException {
+        if (engine instanceof RingBufferResequencerEngine) {
+            if (engine.size() >= capacity) {
+                // let the delivery make room as soon as possible
+                delivery.request();
+            }
+            // the exchanges the delivery is waiting for must not wait for capacity
+            ((RingBufferResequencerEngine<Exchange>) engine).awaitCapacity(exchange, capacity);
+            return;
+        }
+        while (engine.size() >= capacity) {
+            Thread.sleep(getTimeout());
+        }
+    }
+
     @Override
     public boolean hasNext() {
         return processor != null;
@@ -272,7 +331,7 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
                 try {
                     deliveryRequestLock.lock();
                     try {
-                        deliveryRequestCondition.await(deliveryAttemptInterval, TimeUnit.MILLISECONDS);
+                        deliveryRequestCondition.await(nextDeliveryAttempt(), TimeUnit.MILLISECONDS);
                     } finally {
                         deliveryRequestLock.unlock();
                     }
@@ -291,6 +350,17 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
         public void cancel() {
             interrupt();
         }
+
+        private long nextDeliveryAttempt() {
+            if (engine instanceof RingBufferResequencerEngine) {
+                // attempt delivery when the gap times out instead of waiting for the next attempt
+                long remaining = ((RingBufferResequencerEngine<Exchange>) engine).getGapTimeoutRemaining();
+                if (remaining >= 0) {
+                    return Math.min(deliveryAttemptInterval, remaining);
+                }
+            }
+            return deliveryAttemptInterval;
+        }
         
         public void request() {
             deliveryRequestLock.lock();
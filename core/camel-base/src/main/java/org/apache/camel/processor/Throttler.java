@@ -16,6 +16,9 @@
  */
 package org.apache.camel.processor;
 
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
@@ -24,7 +27,9 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
@@ -55,10 +60,24 @@ import org.apache.camel.util.ObjectHelper;
  * block if necessary. The end result is a rolling window of time. Where from the
  * callers point of view in the last timePeriodMillis no more than
  * maxRequestsPerPeriod have been allowed to be acquired.
+ * <p/>
+ * Alternatively the throttler can use a token bucket, where each bucket is implemented using
+ * the generic cell rate algorithm (GCRA), which only keeps the theoretical arrival time
+ * of the next exchange as an atomic number. The bucket holds maxRequestsPerPeriod tokens
+ * and is refilled evenly over timePeriodMillis, and the time to wait for a token is computed
+ * directly, so there are no permit objects. Buckets which are idle (ie refilled) are equivalent
+ * to new buckets and are therefore evicted periodically. The number of buckets is bounded by
+ * maximumBuckets, and when exceeded the idle buckets and then the least recently used buckets are evicted.
  */
 public class Throttler extends AsyncProcessorSupport implements Traceable, IdAware {
 
     private static final String DEFAULT_KEY = "CamelThrottlerDefaultKey";
+    private static final int DEFAULT_MAXIMUM_BUCKETS = 10000;
+    // returned when acquiring a token from a bucket that has been evicted
+    private static final long EVICTED = -2;
+    // the theoretical arrival time of a new token bucket, and of a token bucket that has been evicted
+    private static final long TAT_NEW = Long.MIN_VALUE;
+    private static final long TAT_EVICTED = Long.MAX_VALUE;
 
     private static final String PROPERTY_EXCHANGE_QUEUED_TIMESTAMP = "CamelThrottlerExchangeQueuedTimestamp";
     private static final String PROPERTY_EXCHANGE_STATE = "CamelThrottlerExchangeState";
@@ -76,8 +95,12 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
     private boolean rejectExecution;
     private boolean asyncDelayed;
     private boolean callerRunsWhenRejected = true;
+    private boolean tokenBucket;
+    private int maximumBuckets = DEFAULT_MAXIMUM_BUCKETS;
     private Expression correlationExpression;
     private Map<String, ThrottlingState> states = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private volatile ScheduledFuture<?> evictionFuture;
 
     public Throttler(final CamelContext camelContext, final Expression maxRequestsPerPeriodExpression, final long timePeriodMillis,
                      final ScheduledExecutorService asyncExecutor, final boolean shutdownAsyncExecutor, final boolean rejectExecution, Expression correlation) {
@@ -99,6 +122,10 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
 
     @Override
     public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        if (tokenBucket) {
+            return processTokenBucket(exchange, callback);
+        }
+
         long queuedStart = 0;
         if (log.isTraceEnabled()) {
             queuedStart = exchange.getProperty(PROPERTY_EXCHANGE_QUEUED_TIMESTAMP, 0L, Long.class);
@@ -213,15 +240,148 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
         }
     }
 
+    /**
+     * Throttles the exchange using a token bucket, where the time to wait for a token is computed directly.
+     * When asyncDelayed is enabled then the exchange is continued by a task scheduled on the asyncExecutor,
+     * otherwise the current thread sleeps.
+     */
+    protected boolean processTokenBucket(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            String key = DEFAULT_KEY;
+            if (correlationExpression != null) {
+                key = correlationExpression.evaluate(exchange, String.class);
+            }
+            TokenBucket bucket = getTokenBucket(key);
+            bucket.calculateAndSetMaxRequestsPerPeriod(exchange);
+
+            long delay;
+            while ((delay = bucket.acquire(System.nanoTime(), isRejectExecution())) < 0) {
+                if (delay == EVICTED) {
+                    // the bucket was evicted after we got it, so continue with a new bucket
+                    buckets.remove(key, bucket);
+                    bucket = getTokenBucket(key);
+                    bucket.calculateAndSetMaxRequestsPerPeriod(exchange);
+                    continue;
+                }
+                if (isRejectExecution()) {
+                    throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                            + bucket.getThrottleRate() + " within " + timePeriodMillis + "ms");
+                }
+                // the max requests per period is zero so wait a period and evaluate it again
+                TimeUnit.MILLISECONDS.sleep(timePeriodMillis);
+                bucket.calculateAndSetMaxRequestsPerPeriod(exchange);
+            }
+            if (delay > 0) {
+                if (isAsyncDelayed() && !exchange.isTransacted()) {
+                    try {
+                        log.debug("Throttle rate exceeded but AsyncDelayed enabled, so scheduling for async processing, exchangeId: {}", exchange.getExchangeId());
+                        asyncExecutor.schedule(() -> callback.done(false), delay, TimeUnit.NANOSECONDS);
+                        return false;
+                    } catch (RejectedExecutionException e) {
+                        if (!isCallerRunsWhenRejected()) {
+                            throw e;
+                        }
+                        log.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}", exchange.getExchangeId());
+                    }
+                }
+                TimeUnit.NANOSECONDS.sleep(delay);
+                log.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay), exchange.getExchangeId());
+            } else {
+                log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+            }
+        } catch (final InterruptedException e) {
+            // determine if we can still run, or the camel context is forcing a shutdown
+            boolean forceShutdown = exchange.getContext().getShutdownStrategy().forceShutdown(this);
+            if (forceShutdown) {
+                String msg = "Run not allowed as ShutdownStrategy is forcing shutting down, will reject executing exchange: " + exchange;
+                log.debug(msg);
+                exchange.setException(new RejectedExecutionException(msg, e));
+            } else {
+                exchange.setException(e);
+            }
+        } catch (final Throwable t) {
+            exchange.setException(t);
+        }
+
+        callback.done(true);
+        return true;
+    }
+
+    private TokenBucket getTokenBucket(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket());
+            if (buckets.size() > maximumBuckets) {
+                evictBuckets(key);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Evicts the token buckets which are idle, as they are equivalent to new buckets.
+     */
+    protected void evictIdleBuckets() {
+        evictIdleBuckets(null);
+    }
+
+    private void evictIdleBuckets(String excludeKey) {
+        long now = System.nanoTime();
+        for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+            TokenBucket bucket = entry.getValue();
+            // the bucket is marked as evicted when its idle, so another thread using the bucket will use a new bucket
+            if (!entry.getKey().equals(excludeKey) && bucket.evict(now, false)) {
+                buckets.remove(entry.getKey(), bucket);
+            }
+        }
+    }
+
+    /**
+     * Evicts the idle token buckets, and then the least recently used buckets while there are more
+     * than maximumBuckets, except the bucket for the given key which has just been added.
+     */
+    private synchronized void evictBuckets(String excludeKey) {
+        evictIdleBuckets(excludeKey);
+        int excess = buckets.size() - maximumBuckets;
+        if (excess <= 0) {
+            return;
+        }
+        // the least recently used buckets are the buckets with the oldest theoretical arrival time
+        List<Map.Entry<Map.Entry<String, TokenBucket>, Long>> candidates = buckets.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(excludeKey))
+                .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry, entry.getValue().tat.get()))
+                .sorted(Comparator.comparingLong(Map.Entry::getValue))
+                .limit(excess)
+                .collect(Collectors.toList());
+        for (Map.Entry<Map.Entry<String, TokenBucket>, Long> candidate : candidates) {
+            TokenBucket bucket = candidate.getKey().getValue();
+            if (bucket.evict(0, true)) {
+                buckets.remove(candidate.getKey().getKey(), bucket);
+            }
+        }
+        log.debug("Evicted {} least recently used token buckets as there were more than {} buckets", candidates.size(), maximumBuckets);
+    }
+
     @Override
     protected void doStart() throws Exception {
         if (isAsyncDelayed()) {
             ObjectHelper.notNull(asyncExecutor, "executorService", this);
         }
+        if (tokenBucket && asyncExecutor != null) {
+            evictionFuture = asyncExecutor.scheduleWithFixedDelay(this::evictIdleBuckets, cleanPeriodMillis, cleanPeriodMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
+        if (evictionFuture != null) {
+            evictionFuture.cancel(false);
+            evictionFuture = null;
+        }
     }
 
     @Override
@@ -230,6 +390,7 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
             camelContext.getExecutorServiceManager().shutdownNow(asyncExecutor);
         }
         states.clear();
+        buckets.clear();
         super.doShutdown();
     }
 
@@ -334,6 +495,112 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
         }
     }
 
+    /**
+     * Token bucket using the generic cell rate algorithm, which only keeps the theoretical arrival time (TAT)
+     * of the next exchange. Each exchange moves the TAT one emission interval (the time period divided by the
+     * maximum requests per period) ahead, and the exchange must wait until the TAT is no more than the burst
+     * tolerance (the time period minus one emission interval) ahead of now.
+     */
+    private class TokenBucket {
+        private final AtomicLong tat = new AtomicLong(TAT_NEW);
+        private volatile Rate rate;
+
+        public int getThrottleRate() {
+            Rate current = rate;
+            return current != null ? current.requests : 0;
+        }
+
+        /**
+         * Evicts this bucket if it is idle (ie refilled and therefore equivalent to a new bucket),
+         * or regardless when forced. A bucket that is evicted cannot acquire tokens anymore.
+         *
+         * @param now   the current time in nanos
+         * @param force whether to evict the bucket even if its not idle
+         * @return whether the bucket was evicted by this call
+         */
+        public boolean evict(long now, boolean force) {
+            while (true) {
+                long current = tat.get();
+                if (current == TAT_EVICTED || !force && current != TAT_NEW && current - now > 0) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, TAT_EVICTED)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Acquires a token.
+         *
+         * @param now    the current time in nanos
+         * @param reject whether to not acquire a token if it is not available now
+         * @return the time in nanos to wait for the acquired token, -1 if rejected or no requests are allowed,
+         *         or -2 if this bucket has been evicted
+         */
+        public long acquire(long now, boolean reject) {
+            Rate current = rate;
+            if (current.requests == 0) {
+                // no requests are allowed
+                return -1;
+            }
+            while (true) {
+                long prev = tat.get();
+                if (prev == TAT_EVICTED) {
+                    return EVICTED;
+                }
+                long base = prev == TAT_NEW || prev - now < 0 ? now : prev;
+                long delay = base - current.tolerance - now;
+                if (delay > 0 && reject) {
+                    return -1;
+                }
+                if (tat.compareAndSet(prev, base + current.interval)) {
+                    return Math.max(0, delay);
+                }
+            }
+        }
+
+        /**
+         * Evaluates the maxRequestsPerPeriodExpression and adjusts the throttle rate up or down.
+         */
+        public void calculateAndSetMaxRequestsPerPeriod(final Exchange exchange) throws Exception {
+            Integer newThrottle = maxRequestsPerPeriodExpression.evaluate(exchange, Integer.class);
+            Rate current = rate;
+
+            if (newThrottle != null && newThrottle < 0) {
+                throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+            }
+            if (newThrottle == null && current == null) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
+            }
+
+            int requests = newThrottle != null ? newThrottle : current.requests;
+            long period = TimeUnit.MILLISECONDS.toNanos(timePeriodMillis);
+            if (current == null || current.requests != requests || current.period != period) {
+                if (current == null) {
+                    log.debug("Initial throttle rate set to {}, triggered by ExchangeId: {}", requests, exchange.getExchangeId());
+                } else {
+                    log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", current.requests, requests, exchange.getExchangeId());
+                }
+                rate = new Rate(requests, period);
+            }
+        }
+    }
+
+    private static final class Rate {
+        private final int requests;
+        private final long period;
+        private final long interval;
+        private final long tolerance;
+
+        Rate(int requests, long period) {
+            this.requests = requests;
+            this.period = period;
+            this.interval = requests > 0 ? Math.max(1, period / requests) : period;
+            this.tolerance = period - interval;
+        }
+    }
+
     /**
      * Permit that implements the Delayed interface needed by DelayQueue.
      */
@@ -375,6 +642,30 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
         this.asyncDelayed = asyncDelayed;
     }
 
+    public boolean isTokenBucket() {
+        return tokenBucket;
+    }
+
+    /**
+     * Whether to use a token bucket (using the generic cell rate algorithm) instead of a queue with permits,
+     * which has less overhead for high rates.
+     */
+    public void setTokenBucket(boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public int getMaximumBuckets() {
+        return maximumBuckets;
+    }
+
+    /**
+     * Sets the maximum number of token buckets (one per correlation key) to keep. When exceeded then the
+     * idle buckets and then the least recently used buckets are evicted. Default is 10000.
+     */
+    public void setMaximumBuckets(int maximumBuckets) {
+        this.maximumBuckets = maximumBuckets;
+    }
+
     public boolean isCallerRunsWhenRejected() {
         return callerRunsWhenRejected;
     }
@@ -410,6 +701,9 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
      * than the max per period within the group will return
      */
     public int getCurrentMaximumRequestsPerPeriod() {
+        if (tokenBucket) {
+            return buckets.values().stream().mapToInt(TokenBucket::getThrottleRate).max().orElse(0);
+        }
         return states.values().stream().mapToInt(ThrottlingState::getThrottleRate).max().orElse(0);
     }
 
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import org.apache.camel.Exchange;
+
+/**
+ * A typed accumulator which incrementally aggregates the exchanges of a correlation group into a small state,
+ * such as a counter or a sum, instead of keeping the aggregated exchanges.
+ * <p/>
+ * Accumulators are used with the {@link AccumulatorAggregationStrategy}, and must be thread safe,
+ * as the same accumulator is used for all the correlation groups. The state is only accessed by one thread at a time.
+ * <p/>
+ * The state should be {@link java.io.Serializable} if a persistent {@link org.apache.camel.spi.AggregationRepository}
+ * is in use.
+ *
+ * @param <A> the type of the state
+ * @see Accumulators
+ */
+public interface Accumulator<A> {
+
+    /**
+     * Creates a new empty state
+     */
+    A create();
+
+    /**
+     * Accumulates the exchange into the state
+     *
+     * @param state    the state
+     * @param exchange the exchange
+     * @return the updated state (can be the same instance as the given state)
+     */
+    A accumulate(A state, Exchange exchange);
+
+    /**
+     * Merges two states, such as the partial states from different aggregators
+     *
+     * @param state the state
+     * @param other the other state to merge into the state
+     * @return the merged state (can be the same instance as the given state)
+     */
+    A merge(A state, A other);
+
+    /**
+     * The result of the state which is set as the message body when the aggregation is complete.
+     * <p/>
+     * By default the state is the result.
+     *
+     * @param state the state
+     * @return the result
+     */
+    default Object result(A state) {
+        return state;
+    }
+
+}
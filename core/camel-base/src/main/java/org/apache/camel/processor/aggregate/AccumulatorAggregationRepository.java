@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.AccumulatorAggregationStrategy.Accumulation;
+import org.apache.camel.spi.AggregationRepository;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * A memory based {@link org.apache.camel.spi.AggregationRepository} which only stores the state of the
+ * {@link AccumulatorAggregationStrategy}, and therefore requires this strategy to be used.
+ * <p/>
+ * The message headers and exchange properties of the aggregated exchanges are not stored, except for the
+ * aggregated size and the completion timeout, which means the memory used per correlation group is only
+ * the state of the {@link Accumulator}. The aggregated exchange is recreated from the state when its
+ * retrieved from the repository.
+ */
+public class AccumulatorAggregationRepository extends ServiceSupport implements AggregationRepository {
+
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+        Object body = exchange.getIn().getBody();
+        if (!(body instanceof Accumulation)) {
+            throw new IllegalArgumentException("AccumulatorAggregationRepository must be used with AccumulatorAggregationStrategy, was message body: "
+                + (body != null ? body.getClass().getName() : null) + " on exchange: " + exchange);
+        }
+        int size = exchange.getProperty(Exchange.AGGREGATED_SIZE, 0, Integer.class);
+        long timeout = exchange.getProperty(Exchange.AGGREGATED_TIMEOUT, 0L, Long.class);
+        Entry old = cache.put(key, new Entry(exchange.getExchangeId(), (Accumulation<?>) body, size, timeout));
+        return old != null ? old.toExchange(camelContext) : null;
+    }
+
+    @Override
+    public Exchange get(CamelContext camelContext, String key) {
+        Entry entry = cache.get(key);
+        return entry != null ? entry.toExchange(camelContext) : null;
+    }
+
+    @Override
+    public void remove(CamelContext camelContext, String key, Exchange exchange) {
+        cache.remove(key);
+    }
+
+    @Override
+    public void confirm(CamelContext camelContext, String exchangeId) {
+        // noop
+    }
+
+    @Override
+    public Set<String> getKeys() {
+        // do not allow edits to the set
+        return Collections.unmodifiableSet(cache.keySet());
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        cache.clear();
+    }
+
+    private static final class Entry {
+        private final String exchangeId;
+        private final Accumulation<?> accumulation;
+        private final int size;
+        private final long timeout;
+
+        Entry(String exchangeId, Accumulation<?> accumulation, int size, long timeout) {
+            this.exchangeId = exchangeId;
+            this.accumulation = accumulation;
+            this.size = size;
+            this.timeout = timeout;
+        }
+
+        Exchange toExchange(CamelContext camelContext) {
+            Exchange answer = new DefaultExchange(camelContext);
+            answer.setExchangeId(exchangeId);
+            answer.getIn().setBody(accumulation);
+            if (size > 0) {
+                answer.setProperty(Exchange.AGGREGATED_SIZE, size);
+            }
+            if (timeout > 0) {
+                answer.setProperty(Exchange.AGGREGATED_TIMEOUT, timeout);
+            }
+            return answer;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.io.Serializable;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.Exchange;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Aggregates the exchanges of a correlation group into the state of an {@link Accumulator}.
+ * <p/>
+ * While aggregating, the message body of the aggregated exchange holds only the state as an {@link Accumulation},
+ * and the message bodies of the incoming exchanges are not kept. This means the memory used per correlation group
+ * stays constant, and persistent aggregation repositories only have to store the state, instead of for example a
+ * growing list of all the aggregated messages.
+ * <p/>
+ * When the aggregation is complete, the result of the state is stored as the message body. If the
+ * {@link #isStoreResultOnCompletion()} option is disabled then the message body is the {@link Accumulation}, which
+ * can be merged by another aggregator using the same accumulator, such as when aggregating by the hour from
+ * the results aggregated by the minute.
+ *
+ * @param <A> the type of the state
+ * @see Accumulators
+ * @see AccumulatorAggregationRepository
+ */
+public class AccumulatorAggregationStrategy<A> implements AggregationStrategy {
+
+    private final Accumulator<A> accumulator;
+    private boolean storeResultOnCompletion = true;
+
+    public AccumulatorAggregationStrategy(Accumulator<A> accumulator) {
+        ObjectHelper.notNull(accumulator, "accumulator");
+        this.accumulator = accumulator;
+    }
+
+    public Accumulator<A> getAccumulator() {
+        return accumulator;
+    }
+
+    public boolean isStoreResultOnCompletion() {
+        return storeResultOnCompletion;
+    }
+
+    /**
+     * Whether to store the result of the state as message body when the aggregation is complete,
+     * or to keep the {@link Accumulation} as message body.
+     * <p/>
+     * The default behavior is <tt>true</tt> to store the result as message body.
+     */
+    public void setStoreResultOnCompletion(boolean storeResultOnCompletion) {
+        this.storeResultOnCompletion = storeResultOnCompletion;
+    }
+
+    /**
+     * Whether to store the result of the state as message body when the aggregation is complete,
+     * or to keep the {@link Accumulation} as message body.
+     */
+    public AccumulatorAggregationStrategy<A> storeResultOnCompletion(boolean storeResultOnCompletion) {
+        setStoreResultOnCompletion(storeResultOnCompletion);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+        Accumulation<A> accumulation = null;
+        if (oldExchange != null) {
+            Object body = oldExchange.getIn().getBody();
+            if (body instanceof Accumulation) {
+                accumulation = (Accumulation<A>) body;
+            }
+        }
+        if (accumulation == null) {
+            accumulation = new Accumulation<>(accumulator.create());
+        }
+
+        if (newExchange != null) {
+            Object body = newExchange.getIn().getBody();
+            if (body instanceof Accumulation) {
+                // merge the state which has been accumulated by another aggregator
+                accumulation.state = accumulator.merge(accumulation.state, ((Accumulation<A>) body).state);
+            } else {
+                accumulation.state = accumulator.accumulate(accumulation.state, newExchange);
+            }
+        }
+
+        Exchange answer = oldExchange != null ? oldExchange : newExchange;
+        if (answer != null) {
+            // only keep the state and not the message body
+            answer.getIn().setBody(accumulation);
+        }
+        return answer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onCompletion(Exchange exchange) {
+        if (exchange != null && storeResultOnCompletion) {
+            Object body = exchange.getIn().getBody();
+            if (body instanceof Accumulation) {
+                exchange.getIn().setBody(accumulator.result(((Accumulation<A>) body).state));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AccumulatorAggregationStrategy[" + accumulator + "]";
+    }
+
+    /**
+     * Holds the state of an {@link Accumulator} as the message body while aggregating.
+     */
+    public static final class Accumulation<A> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private A state;
+
+        public Accumulation(A state) {
+            this.state = state;
+        }
+
+        public A getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return "Accumulation[" + state + "]";
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Factory for commonly used {@link Accumulator}s.
+ * <p/>
+ * The counting and summing accumulators keeps their state in a single element array, so aggregating does not
+ * create new objects.
+ */
+public final class Accumulators {
+
+    private Accumulators() {
+    }
+
+    /**
+     * Counts the number of aggregated exchanges, which has a {@link Long} as result.
+     */
+    public static Accumulator<long[]> counting() {
+        return new Accumulator<long[]>() {
+            @Override
+            public long[] create() {
+                return new long[1];
+            }
+
+            @Override
+            public long[] accumulate(long[] state, Exchange exchange) {
+                state[0]++;
+                return state;
+            }
+
+            @Override
+            public long[] merge(long[] state, long[] other) {
+                state[0] += other[0];
+                return state;
+            }
+
+            @Override
+            public Object result(long[] state) {
+                return state[0];
+            }
+
+            @Override
+            public String toString() {
+                return "Counting";
+            }
+        };
+    }
+
+    /**
+     * Sums the values of the expression evaluated as {@link Long}, which has a {@link Long} as result.
+     * Exchanges where the expression evaluates to <tt>null</tt> are not included.
+     *
+     * @param expression the expression for the value to sum
+     */
+    public static Accumulator<long[]> summingLong(Expression expression) {
+        ObjectHelper.notNull(expression, "expression");
+        return new Accumulator<long[]>() {
+            @Override
+            public long[] create() {
+                return new long[1];
+            }
+
+            @Override
+            public long[] accumulate(long[] state, Exchange exchange) {
+                Long value = expression.evaluate(exchange, Long.class);
+                if (value != null) {
+                    state[0] += value;
+                }
+                return state;
+            }
+
+            @Override
+            public long[] merge(long[] state, long[] other) {
+                state[0] += other[0];
+                return state;
+            }
+
+            @Override
+            public Object result(long[] state) {
+                return state[0];
+            }
+
+            @Override
+            public String toString() {
+                return "SummingLong[" + expression + "]";
+            }
+        };
+    }
+
+    /**
+     * Sums the values of the expression evaluated as {@link Double}, which has a {@link Double} as result.
+     * Exchanges where the expression evaluates to <tt>null</tt> are not included.
+     *
+     * @param expression the expression for the value to sum
+     */
+    public static Accumulator<double[]> summingDouble(Expression expression) {
+        ObjectHelper.notNull(expression, "expression");
+        return new Accumulator<double[]>() {
+            @Override
+            public double[] create() {
+                return new double[1];
+            }
+
+            @Override
+            public double[] accumulate(double[] state, Exchange exchange) {
+                Double value = expression.evaluate(exchange, Double.class);
+                if (value != null) {
+                    state[0] += value;
+                }
+                return state;
+            }
+
+            @Override
+            public double[] merge(double[] state, double[] other) {
+                state[0] += other[0];
+                return state;
+            }
+
+            @Override
+            public Object result(double[] state) {
+                return state[0];
+            }
+
+            @Override
+            public String toString() {
+                return "SummingDouble[" + expression + "]";
+            }
+        };
+    }
+
+    /**
+     * Keeps the latest values of the expression, which has a {@link java.util.List} with the values in the order
+     * they were aggregated as result. Exchanges where the expression evaluates to <tt>null</tt> are not included.
+     *
+     * @param size       the maximum number of values to keep
+     * @param expression the expression for the value to keep
+     */
+    public static Accumulator<ArrayDeque<Object>> latest(int size, Expression expression) {
+        ObjectHelper.notNull(expression, "expression");
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be a positive number, was: " + size);
+        }
+        return new Accumulator<ArrayDeque<Object>>() {
+            @Override
+            public ArrayDeque<Object> create() {
+                return new ArrayDeque<>(Math.min(size, 16));
+            }
+
+            @Override
+            public ArrayDeque<Object> accumulate(ArrayDeque<Object> state, Exchange exchange) {
+                Object value = expression.evaluate(exchange, Object.class);
+                if (value != null) {
+                    add(state, value);
+                }
+                return state;
+            }
+
+            @Override
+            public ArrayDeque<Object> merge(ArrayDeque<Object> state, ArrayDeque<Object> other) {
+                for (Object value : other) {
+                    add(state, value);
+                }
+                return state;
+            }
+
+            private void add(ArrayDeque<Object> state, Object value) {
+                if (state.size() == size) {
+                    state.pollFirst();
+                }
+                state.addLast(value);
+            }
+
+            @Override
+            public Object result(ArrayDeque<Object> state) {
+                return new ArrayList<>(state);
+            }
+
+            @Override
+            public String toString() {
+                return "Latest[" + size + ", " + expression + "]";
+            }
+        };
+    }
+
+}
@@ -32,6 +32,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.apache.camel.AggregationStrategy;
 import org.apache.camel.AsyncCallback;
@@ -59,11 +60,11 @@ import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.AsyncProcessorSupport;
-import org.apache.camel.support.DefaultTimeoutMap;
 import org.apache.camel.support.ExchangeHelper;
 import org.apache.camel.support.LRUCacheFactory;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.NoLock;
+import org.apache.camel.support.TimingWheelTimeoutMap;
 import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.StopWatch;
@@ -97,7 +98,10 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     public static final String COMPLETED_BY_TIMEOUT = "timeout";
     public static final String COMPLETED_BY_FORCE = "force";
 
-    private volatile Lock lock;
+    // the locks which guards the correlation groups, where the correlation keys are spread over the locks by their hash code
+    private volatile Lock[] locks;
+    // whether to force completion of all the other groups after the lock of the current group has been released
+    private final ThreadLocal<Boolean> deferredForceCompletionOfAllGroups = new ThreadLocal<>();
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final AsyncProcessor processor;
@@ -223,6 +227,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -382,6 +387,8 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         copy.getIn().removeHeader(Exchange.AGGREGATION_COMPLETE_ALL_GROUPS_INCLUSIVE);
 
         List<Exchange> aggregated = null;
+        boolean forceCompletionOfAllGroups = false;
+        Lock lock = getLock(key);
         lock.lock();
         try {
             aggregated = doAggregation(key, copy);
@@ -389,6 +396,10 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             exchange.setException(e);
         } finally {
             lock.unlock();
+            if (deferredForceCompletionOfAllGroups.get() != null) {
+                deferredForceCompletionOfAllGroups.remove();
+                forceCompletionOfAllGroups = true;
+            }
         }
 
         // we are completed so do that work outside the lock
@@ -397,6 +408,11 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             aggregated.forEach(agg -> onSubmitCompletion(key, agg));
         }
 
+        if (forceCompletionOfAllGroups) {
+            // the other groups can only be completed when we do not hold the lock of this group
+            doForceCompletionOfAllGroups(key);
+        }
+
         // check for the special header to force completion of all groups (inclusive of the message)
         if (getAndRemoveBooleanHeader(exchange, Exchange.AGGREGATION_COMPLETE_ALL_GROUPS_INCLUSIVE)) {
             forceCompletionOfAllGroups();
@@ -523,10 +539,10 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
 
         // check for the special exchange property to force completion of all groups
         if (getAndRemoveBooleanProperty(answer, Exchange.AGGREGATION_COMPLETE_ALL_GROUPS)) {
-            forceCompletionOfAllGroups();
+            onForceCompletionOfAllGroups(key);
         } else if (isCompletionOnNewCorrelationGroup() && originalExchange == null) {
             // its a new group so force complete of all existing groups
-            forceCompletionOfAllGroups();
+            onForceCompletionOfAllGroups(key);
         }
 
         // special for some repository implementations
@@ -562,6 +578,19 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         return list;
     }
 
+    private void onForceCompletionOfAllGroups(String key) {
+        if (locks.length == 1) {
+            forceCompletionOfAllGroups();
+        } else {
+            // complete the current group now (we hold its lock) so it is completed before the new exchange is
+            // stored as a new group, as when using a single lock
+            forceCompletionOfGroup(key);
+            // we must not acquire the locks of the other groups while holding the lock of the current group
+            // as that can deadlock with another thread doing the same, so defer until the lock is released
+            deferredForceCompletionOfAllGroups.set(Boolean.TRUE);
+        }
+    }
+
     protected void doAggregationComplete(String complete, List<Exchange> list, String key,
                                          Exchange originalExchange, Exchange answer, boolean aggregateFailed) {
         if (COMPLETED_BY_CONSUMER.equals(complete)) {
@@ -679,6 +708,14 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     }
 
     protected void trackTimeout(String key, Exchange exchange) {
+        if (getCompletionInterval() > 0) {
+            // the timeout map is not in use when the interval is checked by scanning the aggregation repository
+            if (timeoutMap != null) {
+                addExchangeToCompletionInterval(key, exchange);
+            }
+            return;
+        }
+
         // timeout can be either evaluated based on an expression or from a fixed value
         // expression takes precedence
         boolean timeoutSet = false;
@@ -846,6 +883,11 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
 
         for (String key : keys) {
             Exchange exchange = aggregationRepository.get(camelContext, key);
+            if (getCompletionInterval() > 0) {
+                // complete the existing exchanges on the next interval
+                addExchangeToCompletionInterval(key, exchange);
+                continue;
+            }
             // grab the timeout value
             long timeout = exchange.hasProperties() ? exchange.getProperty(Exchange.AGGREGATED_TIMEOUT, 0, long.class) : 0;
             if (timeout > 0) {
@@ -872,6 +914,18 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         timeoutMap.put(key, exchange.getExchangeId(), timeout);
     }
 
+    /**
+     * Adds the given exchange to the timeout map, which is used by the timeout checker task to trigger completion on the
+     * next interval. All the correlation groups which are added during the same interval are therefore completed together.
+     *
+     * @param key      the correlation key
+     * @param exchange the exchange
+     */
+    private void addExchangeToCompletionInterval(String key, Exchange exchange) {
+        // the group should only be scheduled once, and its already expired so its completed on the next interval
+        timeoutMap.putIfAbsent(key, exchange.getExchangeId(), 0);
+    }
+
     /**
      * Current number of closed correlation keys in the memory cache
      */
@@ -1024,6 +1078,20 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Number of locks the correlation keys are spread over (rounded up to a power of two), which allows
+     * exchanges for different correlation groups to be aggregated concurrently.
+     * <p/>
+     * By default a single lock is used for all the correlation groups.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1162,27 +1230,39 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     }
 
     /**
-     * Background task that looks for aggregated exchanges which is triggered by completion timeouts.
+     * Background task that looks for aggregated exchanges which is triggered by completion timeouts, or which
+     * should be completed on the next completion interval.
+     * <p/>
+     * The correlation groups are kept in a timing wheel, so the task only visits the groups which are due,
+     * instead of scanning all the groups in progress.
      */
-    private final class AggregationTimeoutMap extends DefaultTimeoutMap<String, String> {
+    private final class AggregationTimeoutMap extends TimingWheelTimeoutMap<String, String> {
 
         private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
             // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
-            super(executor, requestMapPollTimeMillis, optimisticLocking);
+            // (unless the correlation groups are guarded by striped locks)
+            super(executor, requestMapPollTimeMillis, optimisticLocking || isLockStriping());
             addListener(this::onEviction);
         }
 
         @Override
         protected void purge() {
             // wait for lock to be created
-            if (lock != null) {
+            Lock[] array = locks;
+            if (array == null) {
+                return;
+            }
+            if (array.length == 1) {
                 // must acquire the shared aggregation lock to be able to purge
-                lock.lock();
+                array[0].lock();
                 try {
                     super.purge();
                 } finally {
-                    lock.unlock();
+                    array[0].unlock();
                 }
+            } else {
+                // the lock of each evicted group is acquired when its evicted
+                super.purge();
             }
         }
 
@@ -1190,6 +1270,38 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             if (type != Listener.Type.Evict) {
                 return;
             }
+            if (locks.length == 1) {
+                // we already hold the shared aggregation lock
+                doEviction(key, exchangeId);
+                return;
+            }
+
+            Lock lock = getLock(key);
+            lock.lock();
+            try {
+                // a new exchange may have been aggregated to the group since it was evicted
+                if (containsKey(key)) {
+                    log.trace("Completion timeout for correlation key: {} was renewed while being evicted.", key);
+                } else {
+                    doEviction(key, exchangeId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void doEviction(String key, String exchangeId) {
+            if (getCompletionInterval() > 0) {
+                if (!camelContext.getStatus().isStarted()) {
+                    log.trace("Completion interval cannot trigger due CamelContext({}) has not been started yet", camelContext.getName());
+                    // try again on the next interval
+                    putIfAbsent(key, exchangeId, 0);
+                } else {
+                    doCompletionInterval(key);
+                }
+                return;
+            }
+
             log.debug("Completion timeout triggered for correlation key: {}", key);
 
             boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
@@ -1242,40 +1354,37 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             Set<String> keys = aggregationRepository.getKeys();
 
             if (keys != null && !keys.isEmpty()) {
-                // must acquire the shared aggregation lock to be able to trigger interval completion
-                lock.lock();
-                try {
-                    for (String key : keys) {
-                        boolean stolenInterval = false;
-                        Exchange exchange = aggregationRepository.get(camelContext, key);
-                        if (exchange == null) {
-                            stolenInterval = true;
-                        } else {
-                            log.trace("Completion interval triggered for correlation key: {}", key);
-                            // indicate it was completed by interval
-                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
-                            try {
-                                Exchange answer = onCompletion(key, exchange, exchange, false, false);
-                                if (answer != null) {
-                                    onSubmitCompletion(key, answer);
-                                }
-                            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                                stolenInterval = true;
-                            }
-                        }
-                        if (optimisticLocking && stolenInterval) {
-                            log.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
-                        }
-                    }
-                } finally {
-                    lock.unlock();
-                }
+                // must acquire the aggregation lock to be able to trigger interval completion
+                doInLock(keys, AggregateProcessor.this::doCompletionInterval);
             }
 
             log.trace("Completion interval task complete");
         }
     }
 
+    private void doCompletionInterval(String key) {
+        boolean stolenInterval = false;
+        Exchange exchange = aggregationRepository.get(camelContext, key);
+        if (exchange == null) {
+            stolenInterval = true;
+        } else {
+            log.trace("Completion interval triggered for correlation key: {}", key);
+            // indicate it was completed by interval
+            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
+            try {
+                Exchange answer = onCompletion(key, exchange, exchange, false, false);
+                if (answer != null) {
+                    onSubmitCompletion(key, answer);
+                }
+            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                stolenInterval = true;
+            }
+        }
+        if (optimisticLocking && stolenInterval) {
+            log.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
+        }
+    }
+
     /**
      * Background task that looks for aggregated exchanges to recover.
      */
@@ -1307,7 +1416,8 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
                     log.info("We are shutting down so stop recovering");
                     return;
                 }
-                lock.lock();
+                // the correlation key is not known until the exchange is recovered so acquire all the locks
+                lockAll();
                 try {
                     // consider in progress if it was in progress before we did the scan, or currently after we did the scan
                     // its safer to consider it in progress than risk duplicates due both in progress + recovered
@@ -1371,7 +1481,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
                         }
                     }
                 } finally {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
 
@@ -1457,17 +1567,34 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             }
         }
 
-        if (getCompletionInterval() > 0 && getCompletionTimeout() > 0) {
+        if (getCompletionInterval() > 0 && (getCompletionTimeout() > 0 || getCompletionTimeoutExpression() != null)) {
             throw new IllegalArgumentException("Only one of completionInterval or completionTimeout can be used, not both.");
         }
+        if (lockStripes > 1) {
+            if (optimisticLocking) {
+                throw new IllegalArgumentException("Only one of optimisticLocking or lockStripes can be used, not both.");
+            }
+            if (isCompletionFromBatchConsumer() || isCompletionOnNewCorrelationGroup()) {
+                // these completions spans all the correlation groups
+                log.info("Using a single lock as lockStripes cannot be used together with completionFromBatchConsumer or completionOnNewCorrelationGroup");
+            }
+        }
         if (getCompletionInterval() > 0) {
             log.info("Using CompletionInterval to run every {} millis.", getCompletionInterval());
             if (getTimeoutCheckerExecutorService() == null) {
                 setTimeoutCheckerExecutorService(camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, AGGREGATE_TIMEOUT_CHECKER));
                 shutdownTimeoutCheckerExecutorService = true;
             }
-            // trigger completion based on interval
-            getTimeoutCheckerExecutorService().scheduleAtFixedRate(new AggregationIntervalTask(), getCompletionInterval(), getCompletionInterval(), TimeUnit.MILLISECONDS);
+            if (optimisticLocking) {
+                // the aggregation repository may be shared with other Camel instances, so trigger completion based on interval
+                // for all the correlation groups in the repository
+                getTimeoutCheckerExecutorService().scheduleAtFixedRate(new AggregationIntervalTask(), getCompletionInterval(), getCompletionInterval(), TimeUnit.MILLISECONDS);
+            } else {
+                // the correlation groups are added to the timeout map which triggers completion on the next interval
+                timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionInterval());
+                restoreTimeoutMapFromAggregationRepository();
+                ServiceHelper.startService(timeoutMap);
+            }
         }
 
         // start timeout service if its in use
@@ -1491,13 +1618,22 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         aggregateController.onStart(this);
 
         if (optimisticLocking) {
-            lock = NoLock.INSTANCE;
+            locks = new Lock[] {NoLock.INSTANCE};
             if (getOptimisticLockingExecutorService() == null) {
                 setOptimisticLockingExecutorService(camelContext.getExecutorServiceManager().newScheduledThreadPool(this, AGGREGATE_OPTIMISTIC_LOCKING_EXECUTOR, 1));
                 shutdownOptimisticLockingExecutorService = true;
             }
+        } else if (isLockStriping()) {
+            // round up to power of two so we can use a mask to find the lock for a given correlation key
+            int size = Integer.highestOneBit(lockStripes - 1) << 1;
+            Lock[] array = new Lock[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = new ReentrantLock();
+            }
+            log.info("Using {} lock stripes to aggregate correlation groups concurrently", size);
+            locks = array;
         } else {
-            lock = new ReentrantLock();
+            locks = new Lock[] {new ReentrantLock()};
         }
     }
 
@@ -1607,6 +1743,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
+        Lock lock = getLock(key);
         lock.lock();
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1632,6 +1769,10 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     }
 
     public int forceCompletionOfAllGroups() {
+        return doForceCompletionOfAllGroups(null);
+    }
+
+    private int doForceCompletionOfAllGroups(String excludeKey) {
 
         // only run if CamelContext has been fully started or is stopping
         boolean allow = camelContext.getStatus().isStarted() || camelContext.getStatus().isStopping();
@@ -1645,27 +1786,27 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         // trigger completion for all in the repository
         Set<String> keys = aggregationRepository.getKeys();
 
+        if (keys != null && excludeKey != null && keys.contains(excludeKey)) {
+            keys = new LinkedHashSet<>(keys);
+            keys.remove(excludeKey);
+        }
+
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            lock.lock();
+            // must acquire the aggregation lock to be able to trigger force completion
             total = keys.size();
-            try {
-                for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        log.trace("Force completion triggered for correlation key: {}", key);
-                        // indicate it was completed by a force completion request
-                        exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
-                        Exchange answer = onCompletion(key, exchange, exchange, false, false);
-                        if (answer != null) {
-                            onSubmitCompletion(key, answer);
-                        }
+            doInLock(keys, key -> {
+                Exchange exchange = aggregationRepository.get(camelContext, key);
+                if (exchange != null) {
+                    log.trace("Force completion triggered for correlation key: {}", key);
+                    // indicate it was completed by a force completion request
+                    exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
+                    Exchange answer = onCompletion(key, exchange, exchange, false, false);
+                    if (answer != null) {
+                        onSubmitCompletion(key, answer);
                     }
                 }
-            } finally {
-                lock.unlock();
-            }
+            });
         }
         log.trace("Completed force completion of all groups task");
 
@@ -1679,6 +1820,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
+        Lock lock = getLock(key);
         lock.lock();
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1715,21 +1857,16 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
 
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            lock.lock();
+            // must acquire the aggregation lock to be able to trigger force completion
             total = keys.size();
-            try {
-                for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        log.trace("Force discarded triggered for correlation key: {}", key);
-                        // force discarding by setting aggregate failed as true
-                        onCompletion(key, exchange, exchange, false, true);
-                    }
+            doInLock(keys, key -> {
+                Exchange exchange = aggregationRepository.get(camelContext, key);
+                if (exchange != null) {
+                    log.trace("Force discarded triggered for correlation key: {}", key);
+                    // force discarding by setting aggregate failed as true
+                    onCompletion(key, exchange, exchange, false, true);
                 }
-            } finally {
-                lock.unlock();
-            }
+            });
         }
         log.trace("Completed force discarding of all groups task");
 
@@ -1739,4 +1876,60 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         return total;
     }
 
+    private boolean isLockStriping() {
+        return lockStripes > 1 && !optimisticLocking && !completionFromBatchConsumer && !completionOnNewCorrelationGroup;
+    }
+
+    /**
+     * Gets the lock which guards the correlation group with the given key
+     */
+    private Lock getLock(String key) {
+        Lock[] array = locks;
+        if (array.length == 1) {
+            return array[0];
+        }
+        int h = key.hashCode();
+        return array[(h ^ (h >>> 16)) & (array.length - 1)];
+    }
+
+    /**
+     * Runs the task for each of the correlation keys while holding the lock of the correlation group.
+     * When using a single lock then the lock is only acquired once for all the correlation keys.
+     */
+    private void doInLock(Set<String> keys, Consumer<String> task) {
+        Lock[] array = locks;
+        if (array.length == 1) {
+            array[0].lock();
+            try {
+                keys.forEach(task);
+            } finally {
+                array[0].unlock();
+            }
+        } else {
+            for (String key : keys) {
+                Lock lock = getLock(key);
+                lock.lock();
+                try {
+                    task.accept(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void lockAll() {
+        // always acquire the locks in the same order
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        Lock[] array = locks;
+        for (int i = array.length - 1; i >= 0; i--) {
+            array[i].unlock();
+        }
+    }
+
 }
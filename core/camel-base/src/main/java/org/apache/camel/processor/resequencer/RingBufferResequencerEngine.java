@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A {@link ResequencerEngine} for dense sequences of elements which keeps the
+ * elements in a ring buffer indexed by their sequence number, instead of a
+ * sorted {@link Sequence} with a timer per element.
+ * <p>
+ * Elements are inserted without locking by storing them into the slot of their
+ * sequence number, when the sequence number is within the window of the ring
+ * buffer starting from the next sequence number to deliver. Elements which are
+ * beyond the window, or when the sequence is sparse, are kept in a sorted map
+ * instead. The delivery is done by a single thread which delivers all the
+ * elements in sequence as batches to the {@link SequenceSender}.
+ * <p>
+ * When there is a gap in the sequence, then the delivery waits at most
+ * <code>timeout</code> milliseconds for the missing element, before the gap is
+ * skipped and the delivery continues from the next element in the sequence.
+ * Elements older than the last delivered element is either rejected, or
+ * delivered as soon as possible, out of order.
+ * <p>
+ * As the start of the sequence is not known, the first element is delivered
+ * when it has waited <code>timeout</code> milliseconds for any earlier element,
+ * as with the {@link ResequencerEngine}. Producers which must wait for
+ * capacity should use {@link #awaitCapacity(Object, int)}, which never waits
+ * for the elements the delivery is waiting for.
+ */
+public class RingBufferResequencerEngine<E> extends ResequencerEngine<E> {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final Function<E, Long> sequenceNumber;
+    private final AtomicReferenceArray<Slot<E>> ring;
+    private final int mask;
+    private final ConcurrentSkipListMap<Long, E> sparse = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Lock capacityLock = new ReentrantLock();
+    private final Condition capacityCondition = capacityLock.newCondition();
+    // the batch is reused as the delivery is done by a single thread
+    private final List<E> batch = new ArrayList<>();
+    // the next sequence number to deliver, which is only updated by the delivering thread
+    private volatile long nextSequence = UNKNOWN;
+    private long gapSince;
+
+    /**
+     * Creates a new resequencer engine.
+     *
+     * @param comparator a sequence element comparator.
+     * @param sequenceNumber function returning the sequence number of an element,
+     *                       or <code>null</code> if the element has no sequence number.
+     * @param capacity the capacity which is rounded up to a power of two for the size of the ring buffer.
+     */
+    public RingBufferResequencerEngine(SequenceElementComparator<E> comparator, Function<E, Long> sequenceNumber, int capacity) {
+        super(comparator);
+        this.sequenceNumber = sequenceNumber;
+        int length = 1;
+        while (length < capacity) {
+            length <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(length);
+        this.mask = length - 1;
+    }
+
+    /**
+     * Returns the number of slots in the ring buffer.
+     */
+    public int getRingSize() {
+        return ring.length();
+    }
+
+    @Override
+    public void start() {
+        // timeouts are detected when delivering so there is no timer
+    }
+
+    @Override
+    public void stop() {
+        // noop
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Inserts the given element into this resequencer. This method does not lock, and can
+     * be called concurrently by several threads.
+     *
+     * @param o an element.
+     * @throws IllegalArgumentException if the element has no sequence number.
+     * @throws MessageRejectedException if the element is older than the last delivered element
+     *                                  and rejecting old elements is enabled.
+     */
+    @Override
+    public void insert(E o) {
+        Long number = sequenceNumber.apply(o);
+        if (number == null) {
+            throw new IllegalArgumentException("Element has no sequence number: " + o);
+        }
+        long seq = number;
+        long next = nextSequence;
+        if (next != UNKNOWN) {
+            if (seq < next) {
+                if (getRejectOld() != null && getRejectOld()) {
+                    throw new MessageRejectedException("rejecting message [" + o
+                            + "], it should have been sent before the last delivered message with sequence number " + (next - 1));
+                }
+                addSparse(seq, o);
+                return;
+            }
+            if (seq - next < ring.length()) {
+                int index = (int) seq & mask;
+                if (ring.compareAndSet(index, null, new Slot<>(seq, o))) {
+                    size.incrementAndGet();
+                    return;
+                }
+                Slot<E> existing = ring.get(index);
+                if (existing != null && existing.sequence == seq) {
+                    // duplicate element
+                    return;
+                }
+            }
+        }
+        // the start of the sequence is not yet known, the element is beyond the window, or the slot is taken
+        addSparse(seq, o);
+    }
+
+    /**
+     * Waits until there is room for the given element without exceeding the given capacity.
+     * <p/>
+     * Elements within the window of the ring buffer (or which may start the sequence) never wait,
+     * as the delivery may be waiting for them, and they would otherwise be delivered out of order
+     * when the gap times out.
+     *
+     * @param o an element.
+     * @param capacity the maximum number of elements in this resequencer.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitCapacity(E o, int capacity) throws InterruptedException {
+        if (size.get() < capacity || isInWindow(o)) {
+            return;
+        }
+        capacityLock.lock();
+        try {
+            while (size.get() >= capacity && !isInWindow(o)) {
+                capacityCondition.await();
+            }
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of milliseconds until the current gap in the sequence times out,
+     * or <code>-1</code> if the delivery is not waiting for a gap.
+     */
+    public synchronized long getGapTimeoutRemaining() {
+        if (gapSince == 0 || size.get() == 0) {
+            return -1;
+        }
+        return Math.max(0, gapSince + getTimeout() - System.currentTimeMillis());
+    }
+
+    /**
+     * Delivers all elements which are in sequence or have timed out.
+     *
+     * @throws Exception thrown by {@link SequenceSender}.
+     */
+    @Override
+    public synchronized void deliver() throws Exception {
+        while (deliverNext()) {
+            // do nothing here
+        }
+    }
+
+    /**
+     * Delivers the next batch of elements which are in sequence or have timed out.
+     *
+     * @return <code>true</code> if a full batch was delivered and there may be more elements
+     *         to deliver, <code>false</code> otherwise.
+     * @throws Exception thrown by {@link SequenceSender}.
+     */
+    @Override
+    public synchronized boolean deliverNext() throws Exception {
+        long next = nextSequence;
+        if (next == UNKNOWN) {
+            // wait for the first element(s) to time out as we do not know where the sequence starts
+            if (sparse.isEmpty() || !gapTimedOut()) {
+                return false;
+            }
+            next = sparse.firstKey();
+            nextSequence = next;
+        }
+
+        int max = ring.length();
+        while (batch.size() < max) {
+            if (!sparse.isEmpty()) {
+                Map.Entry<Long, E> entry = sparse.firstEntry();
+                if (entry != null && entry.getKey() <= next) {
+                    sparse.remove(entry.getKey());
+                    batch.add(entry.getValue());
+                    if (entry.getKey() == next) {
+                        nextSequence = ++next;
+                        gapSince = 0;
+                    }
+                    continue;
+                }
+            }
+            int index = (int) next & mask;
+            Slot<E> slot = ring.get(index);
+            if (slot != null && slot.sequence <= next) {
+                ring.set(index, null);
+                batch.add(slot.object);
+                if (slot.sequence == next) {
+                    nextSequence = ++next;
+                    gapSince = 0;
+                }
+                continue;
+            }
+            // there is a gap in the sequence
+            if (size.get() <= batch.size() || !gapTimedOut()) {
+                break;
+            }
+            long skipped = skipGap(next, batch);
+            if (skipped == next) {
+                break;
+            }
+            next = skipped;
+            nextSequence = next;
+        }
+
+        if (batch.isEmpty()) {
+            return false;
+        }
+        int delivered = batch.size();
+        size.addAndGet(-delivered);
+        signalCapacity();
+        try {
+            getSequenceSender().sendElements(batch);
+        } finally {
+            batch.clear();
+        }
+        return delivered == max;
+    }
+
+    private boolean isInWindow(E o) {
+        Long number;
+        try {
+            number = sequenceNumber.apply(o);
+        } catch (RuntimeException e) {
+            // the element is invalid which is reported when its inserted
+            return true;
+        }
+        if (number == null) {
+            return true;
+        }
+        long next = nextSequence;
+        if (next == UNKNOWN) {
+            // the element may be the start of the sequence if its before the elements we have
+            Map.Entry<Long, E> first = sparse.firstEntry();
+            return first == null || number < first.getKey();
+        }
+        return number - next < ring.length();
+    }
+
+    private void signalCapacity() {
+        capacityLock.lock();
+        try {
+            capacityCondition.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private void addSparse(long seq, E o) {
+        // duplicate elements are ignored
+        if (sparse.putIfAbsent(seq, o) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    private boolean gapTimedOut() {
+        long now = System.currentTimeMillis();
+        if (gapSince == 0) {
+            gapSince = now;
+        }
+        if (now - gapSince >= getTimeout()) {
+            gapSince = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the sequence number of the next element after the gap, and adds any old elements
+     * that was stored into the ring buffer while the delivery passed by to the batch.
+     */
+    private long skipGap(long next, List<E> batch) {
+        long answer = Long.MAX_VALUE;
+        for (int i = 1; i < ring.length(); i++) {
+            int index = (int) (next + i) & mask;
+            Slot<E> slot = ring.get(index);
+            if (slot != null) {
+                if (slot.sequence < next) {
+                    ring.set(index, null);
+                    batch.add(slot.object);
+                } else {
+                    answer = slot.sequence;
+                    break;
+                }
+            }
+        }
+        if (!sparse.isEmpty()) {
+            answer = Math.min(answer, sparse.firstKey());
+        }
+        return answer == Long.MAX_VALUE ? next : answer;
+    }
+
+    private static final class Slot<E> {
+
+        private final long sequence;
+        private final E object;
+
+        Slot(long sequence, E object) {
+            this.sequence = sequence;
+            this.object = object;
+        }
+    }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.processor.resequencer;
 
+import java.util.List;
+
 /**
   * An interface used by the {@link ResequencerEngine#deliver()} and
   * {@link ResequencerEngine#deliverNext()} methods to send out re-ordered
@@ -32,4 +34,18 @@ public interface SequenceSender<E> {
      */
     void sendElement(E o) throws Exception;
 
+    /**
+     * Sends the given batch of re-ordered elements. By default each element
+     * is sent in order using {@link #sendElement(Object)}. The list may be
+     * reused when this method returns.
+     *
+     * @param elements the re-ordered elements.
+     * @throws Exception if delivery fails.
+     */
+    default void sendElements(List<E> elements) throws Exception {
+        for (E o : elements) {
+            sendElement(o);
+        }
+    }
+
 }
\ No newline at end of file
@@ -85,6 +85,8 @@ import org.apache.camel.spi.Debugger;
 import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.EventFactory;
 import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.ExchangePropertiesMapFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.HeadersMapFactory;
@@ -239,6 +241,16 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
             LOG.info("Using custom HeadersMapFactory: {}", headersMapFactory);
             getContext().setHeadersMapFactory(headersMapFactory);
         }
+        ExchangeFactory exchangeFactory = getBeanForType(ExchangeFactory.class);
+        if (exchangeFactory != null) {
+            LOG.info("Using custom ExchangeFactory: {}", exchangeFactory);
+            getContext().adapt(ExtendedCamelContext.class).setExchangeFactory(exchangeFactory);
+        }
+        ExchangePropertiesMapFactory exchangePropertiesMapFactory = getBeanForType(ExchangePropertiesMapFactory.class);
+        if (exchangePropertiesMapFactory != null) {
+            LOG.info("Using custom ExchangePropertiesMapFactory: {}", exchangePropertiesMapFactory);
+            getContext().adapt(ExtendedCamelContext.class).setExchangePropertiesMapFactory(exchangePropertiesMapFactory);
+        }
         JSonSchemaResolver jsonSchemaResolver = getBeanForType(JSonSchemaResolver.class);
         if (jsonSchemaResolver != null) {
             LOG.info("Using custom JSonSchemaResolver: {}", jsonSchemaResolver);
@@ -17,6 +17,8 @@
 package org.apache.camel.builder;
 
 import org.apache.camel.AggregationStrategy;
+import org.apache.camel.processor.aggregate.Accumulator;
+import org.apache.camel.processor.aggregate.AccumulatorAggregationStrategy;
 import org.apache.camel.processor.aggregate.AggregationStrategyBeanAdapter;
 import org.apache.camel.processor.aggregate.GroupedBodyAggregationStrategy;
 import org.apache.camel.processor.aggregate.GroupedExchangeAggregationStrategy;
@@ -95,6 +97,15 @@ public final class AggregationStrategies {
         return new GroupedBodyAggregationStrategy();
     }
 
+    /**
+     * Creates a {@link AccumulatorAggregationStrategy} which aggregates into the state of the given accumulator.
+     *
+     * @see org.apache.camel.processor.aggregate.Accumulators
+     */
+    public static <A> AccumulatorAggregationStrategy<A> accumulate(Accumulator<A> accumulator) {
+        return new AccumulatorAggregationStrategy<>(accumulator);
+    }
+
     /**
      * Creates a {@link AggregationStrategyBeanAdapter} for using a POJO as the aggregation strategy.
      */
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.builder;
 
+import org.apache.camel.CamelContext;
 import org.apache.camel.CamelExecutionException;
 import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
@@ -101,6 +102,25 @@ public class SimpleBuilder implements Predicate, Expression, ExpressionResultTyp
         return expression.evaluate(exchange, type);
     }
 
+    /**
+     * Creates the predicate up front using the given {@link CamelContext}, instead of lazy when the first message
+     * is being evaluated. This allows EIPs such as the content based router to inspect the parsed predicate.
+     *
+     * @param camelContext the camel context
+     * @return the parsed predicate
+     */
+    public Predicate createPredicate(CamelContext camelContext) {
+        if (predicate == null) {
+            // resolve property placeholders
+            String resolve = camelContext.resolvePropertyPlaceholders(text);
+            // and optional it be refer to an external script on the file/classpath
+            resolve = ScriptHelper.resolveOptionalExternalScript(camelContext, resolve);
+            Language simple = camelContext.resolveLanguage("simple");
+            predicate = simple.createPredicate(resolve);
+        }
+        return predicate;
+    }
+
     private Predicate createPredicate(Exchange exchange) {
         try {
             // resolve property placeholders
@@ -82,6 +82,16 @@ public class ThreadPoolProfileBuilder {
         return this;
     }
 
+    public ThreadPoolProfileBuilder virtualThreads(Boolean virtualThreads) {
+        profile.setVirtualThreads(virtualThreads);
+        return this;
+    }
+
+    public ThreadPoolProfileBuilder maxConcurrentTasks(Integer maxConcurrentTasks) {
+        profile.setMaxConcurrentTasks(maxConcurrentTasks);
+        return this;
+    }
+
     /**
      * Builds the thread pool profile
      * 
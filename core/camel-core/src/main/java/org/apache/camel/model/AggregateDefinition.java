@@ -78,6 +78,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute
     private Boolean optimisticLocking;
     @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
     private String timeoutCheckerExecutorServiceRef;
@@ -409,6 +411,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -938,6 +948,19 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Spreads the correlation groups over the given number of locks, which allows exchanges for different
+     * correlation groups to be aggregated concurrently, instead of using a single lock for all the groups.
+     * The number is rounded up to a power of two. This requires the aggregation repository and the aggregation
+     * strategy to support being used concurrently for different correlation groups.
+     * This option cannot be used together with optimistic locking, and is not in use when completing
+     * from batch consumer or on new correlation group, as these completions spans all the correlation groups.
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
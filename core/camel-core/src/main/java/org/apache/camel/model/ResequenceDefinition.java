@@ -168,6 +168,20 @@ public class ResequenceDefinition extends ProcessorDefinition<ResequenceDefiniti
         return this;
     }
 
+    /**
+     * Use a ring buffer indexed by the sequence number for the stream resequencer, which is faster for
+     * high volume streams where the sequence numbers are dense.
+     *
+     * @return the builder
+     */
+    public ResequenceDefinition ringBuffer() {
+        if (streamConfig == null) {
+            throw new IllegalStateException("ringBuffer() only supported for stream resequencer");
+        }
+        streamConfig.setRingBuffer(true);
+        return this;
+    }
+
     /**
      * Sets the in batch size for number of exchanges received
      * @param batchSize  the batch size
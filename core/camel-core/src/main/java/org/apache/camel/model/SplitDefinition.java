@@ -68,6 +68,8 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute
+    private Integer parallelWindowSize;
 
     public SplitDefinition() {
     }
@@ -323,6 +325,21 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         return this;
     }
 
+    /**
+     * Sets the maximum number of splitted messages which can be in-flight at the same time when using parallel processing.
+     * When the window is full then the Splitter pauses splitting until the oldest splitted message has been processed and aggregated,
+     * so the memory used is bounded by the window size and not by the size of the message being splitted.
+     * The splitted messages are always aggregated in the same order as they were splitted when using a window,
+     * also in streaming mode. This option cannot be used together with timeout.
+     *
+     * @param parallelWindowSize the maximum number of in-flight splitted messages
+     * @return the builder
+     */
+    public SplitDefinition parallelWindowSize(int parallelWindowSize) {
+        setParallelWindowSize(parallelWindowSize);
+        return this;
+    }
+
     // Properties
     //-------------------------------------------------------------------------
 
@@ -478,4 +495,12 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         this.shareUnitOfWork = shareUnitOfWork;
     }
 
+    public Integer getParallelWindowSize() {
+        return parallelWindowSize;
+    }
+
+    public void setParallelWindowSize(Integer parallelWindowSize) {
+        this.parallelWindowSize = parallelWindowSize;
+    }
+
 }
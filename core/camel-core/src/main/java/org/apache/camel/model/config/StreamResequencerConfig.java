@@ -46,6 +46,8 @@ public class StreamResequencerConfig extends ResequencerConfig {
     private String comparatorRef;
     @XmlAttribute
     private Boolean rejectOld;
+    @XmlAttribute
+    private Boolean ringBuffer;
 
     /**
      * Creates a new {@link StreamResequencerConfig} instance using default
@@ -205,4 +207,17 @@ public class StreamResequencerConfig extends ResequencerConfig {
         return rejectOld;
     }
 
+    public Boolean getRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Whether to use a ring buffer indexed by the sequence number, which is faster for high volume streams
+     * where the sequence numbers are dense (such as 1,2,3,4). The size of the ring buffer is the capacity
+     * rounded up to a power of two. This cannot be used together with a custom comparator.
+     */
+    public void setRingBuffer(Boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
 }
@@ -134,6 +134,12 @@ public class ResequenceReifier extends ProcessorReifier<ResequenceDefinition> {
         if (config.getIgnoreInvalidExchanges() != null) {
             resequencer.setIgnoreInvalidExchanges(config.getIgnoreInvalidExchanges());
         }
+        if (config.getRingBuffer() != null && config.getRingBuffer()) {
+            if (!(comparator instanceof DefaultExchangeComparator)) {
+                throw new IllegalArgumentException("Cannot use ringBuffer with a custom comparator on: " + definition);
+            }
+            resequencer.setRingBuffer(true);
+        }
         return resequencer;
     }
 
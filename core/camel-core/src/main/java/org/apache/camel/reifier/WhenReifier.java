@@ -16,13 +16,20 @@
  */
 package org.apache.camel.reifier;
 
+import org.apache.camel.Predicate;
+import org.apache.camel.builder.SimpleBuilder;
 import org.apache.camel.model.ProcessorDefinition;
 import org.apache.camel.model.WhenDefinition;
 import org.apache.camel.processor.FilterProcessor;
 import org.apache.camel.spi.RouteContext;
+import org.apache.camel.support.IndexablePredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class WhenReifier extends ExpressionReifier<WhenDefinition> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(WhenReifier.class);
+
     WhenReifier(ProcessorDefinition<?> definition) {
         super((WhenDefinition) definition);
     }
@@ -31,4 +38,23 @@ public class WhenReifier extends ExpressionReifier<WhenDefinition> {
     public FilterProcessor createProcessor(RouteContext routeContext) throws Exception {
         return createFilterProcessor(routeContext);
     }
+
+    @Override
+    protected Predicate createPredicate(RouteContext routeContext) {
+        Predicate answer = super.createPredicate(routeContext);
+        if (answer instanceof SimpleBuilder) {
+            // the simple language is parsed lazy, so parse it up front which allows
+            // the content based router to index the predicate when its indexable
+            try {
+                Predicate parsed = ((SimpleBuilder) answer).createPredicate(routeContext.getCamelContext());
+                if (parsed instanceof IndexablePredicate) {
+                    return parsed;
+                }
+            } catch (Exception e) {
+                // ignore as the error is reported when the predicate is evaluated
+                LOG.trace("Cannot parse simple predicate: " + answer + " due " + e.getMessage() + ". This exception is ignored.", e);
+            }
+        }
+        return answer;
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.TestSupport;
+import org.junit.Test;
+
+public class RingBufferBlockingQueueTest extends TestSupport {
+
+    @Test
+    public void testOfferAndPoll() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(3);
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.remainingCapacity());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Queue should be full", queue.offer("D"));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("A", queue.peek());
+
+        assertEquals("A", queue.poll());
+        assertTrue(queue.offer("D"));
+
+        // the positions wraps around the ring buffer
+        for (int i = 0; i < 10; i++) {
+            String next = queue.poll();
+            assertNotNull(next);
+            assertTrue(queue.offer(next));
+        }
+        assertEquals(3, queue.size());
+        assertEquals("[C, D, B]", queue.toString());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(4);
+        queue.add("A");
+        queue.add("B");
+        queue.add("C");
+
+        assertTrue(queue.remove("B"));
+        assertFalse(queue.remove("B"));
+        assertEquals(2, queue.size());
+        // the slot of the removed element is still in use
+        assertEquals(1, queue.remainingCapacity());
+        queue.add("D");
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse("Queue should be full", queue.offer("E"));
+        assertEquals("D", queue.toArray()[2]);
+        assertTrue(queue.remove("D"));
+
+        Iterator<String> it = queue.iterator();
+        assertEquals("A", it.next());
+        it.remove();
+        assertEquals("C", it.next());
+        assertFalse(it.hasNext());
+
+        assertEquals(1, queue.size());
+        assertEquals("C", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDrainTo() throws Exception {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(16);
+        for (int i = 0; i < 10; i++) {
+            queue.put(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, queue.drainTo(drained, 4));
+        assertEquals(6, queue.drainTo(drained));
+        assertEquals(0, queue.drainTo(drained));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, drained.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testPollTimeout() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(1);
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+
+        queue.put("A");
+        assertFalse(queue.offer("B", 50, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTakeIsSignalled() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> taken = executor.submit(() -> {
+                started.countDown();
+                return queue.take();
+            });
+            started.await();
+            Thread.sleep(50);
+            queue.put("A");
+            assertEquals("A", taken.get(5, TimeUnit.SECONDS));
+
+            // and the other way around where the producer waits for a free slot
+            queue.put("B");
+            Future<?> put = executor.submit(() -> {
+                queue.put("C");
+                return null;
+            });
+            Thread.sleep(50);
+            assertEquals("B", queue.take());
+            put.get(5, TimeUnit.SECONDS);
+            assertEquals("C", queue.take());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMultipleProducersAndConsumers() throws Exception {
+        final int producers = 4;
+        final int consumers = 4;
+        final int count = 20000;
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(100);
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int start = p;
+                futures.add(executor.submit(() -> {
+                    for (int i = start; i < count; i += producers) {
+                        queue.put(i);
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    List<Integer> drained = new ArrayList<>();
+                    while (received.size() < count) {
+                        Integer next = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (next != null) {
+                            assertTrue("Duplicate element " + next, received.add(next));
+                            queue.drainTo(drained, 10);
+                            for (Integer i : drained) {
+                                assertTrue("Duplicate element " + i, received.add(i));
+                            }
+                            drained.clear();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(count, received.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testMultipleProducersAndConsumersWaiting() throws Exception {
+        // repeat as a lost signal only happens now and then
+        for (int i = 0; i < 20; i++) {
+            doTestMultipleProducersAndConsumersWaiting();
+        }
+    }
+
+    private void doTestMultipleProducersAndConsumersWaiting() throws Exception {
+        final int producers = 8;
+        final int consumers = 8;
+        final int count = 8000;
+        // use the smallest capacity and wait without timeout, so the threads are waiting most of the time
+        // and a lost signal would leave a thread waiting forever
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(1);
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int start = p;
+                futures.add(executor.submit(() -> {
+                    for (int i = start; i < count; i += producers) {
+                        queue.put(i);
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < count / consumers; i++) {
+                        Integer next = queue.take();
+                        assertTrue("Duplicate element " + next, received.add(next));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(count, received.size());
+        assertTrue(queue.isEmpty());
+    }
+
+}
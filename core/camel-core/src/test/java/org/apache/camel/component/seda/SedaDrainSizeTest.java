@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class SedaDrainSizeTest extends ContextTestSupport {
+
+    private final List<Integer> pending = new CopyOnWriteArrayList<>();
+    private volatile SedaConsumer consumer;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getRegistry().bind("ringBufferQueueFactory", new RingBufferBlockingQueueFactory<Exchange>());
+        return context;
+    }
+
+    @Test
+    public void testDrainSize() throws Exception {
+        SedaEndpoint seda = context.getEndpoint("seda:foo?queueFactory=#ringBufferQueueFactory&drainSize=10", SedaEndpoint.class);
+        assertEquals(10, seda.getDrainSize());
+        assertIsInstanceOf(RingBufferBlockingQueue.class, seda.getQueue());
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        Object[] bodies = new Object[100];
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = "Message " + i;
+        }
+        mock.expectedBodiesReceived(bodies);
+
+        for (Object body : bodies) {
+            template.sendBody("seda:foo?queueFactory=#ringBufferQueueFactory&drainSize=10", body);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testDrainedExchangesArePending() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:bar");
+        mock.expectedBodiesReceived("A", "B", "C", "D", "E");
+
+        // put the exchanges on the queue before the consumer is started so they are drained together
+        for (String body : new String[] {"A", "B", "C", "D", "E"}) {
+            template.sendBody("seda:bar?drainSize=10", body);
+        }
+        context.getRouteController().startRoute("bar");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(Arrays.asList(4, 3, 2, 1, 0), pending);
+    }
+
+    @Test
+    public void testSuspendWhileDraining() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:bar");
+        // the drained exchanges are processed in order even though the consumer is suspended meanwhile
+        mock.expectedBodiesReceived("A", "Suspend", "C", "D", "E");
+
+        for (String body : new String[] {"A", "Suspend", "C", "D", "E"}) {
+            template.sendBody("seda:bar?drainSize=10", body);
+        }
+        context.getRouteController().startRoute("bar");
+
+        assertMockEndpointsSatisfied();
+        assertTrue(consumer.isSuspended());
+        assertEquals(0, consumer.getPendingExchangesSize());
+
+        // and the consumer does not take more exchanges from the queue until resumed
+        mock.reset();
+        mock.expectedBodiesReceived("F", "G");
+        template.sendBody("seda:bar?drainSize=10", "F");
+        template.sendBody("seda:bar?drainSize=10", "G");
+        SedaEndpoint seda = context.getEndpoint("seda:bar?drainSize=10", SedaEndpoint.class);
+        assertEquals(2, seda.getQueue().size());
+
+        consumer.resume();
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#ringBufferQueueFactory&drainSize=10").to("mock:result");
+
+                from("seda:bar?drainSize=10").routeId("bar").noAutoStartup()
+                    .process(exchange -> {
+                        consumer = (SedaConsumer) context.getRoute("bar").getConsumer();
+                        pending.add(consumer.getPendingExchangesSize());
+                        if ("Suspend".equals(exchange.getIn().getBody())) {
+                            consumer.suspend();
+                        }
+                    })
+                    .to("mock:bar");
+            }
+        };
+    }
+}
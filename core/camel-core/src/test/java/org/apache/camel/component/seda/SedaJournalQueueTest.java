@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.io.File;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SedaJournalQueueTest extends ContextTestSupport {
+
+    private final File directory = new File("target/data/sedajournal");
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        deleteDirectory("target/data/sedajournal");
+        super.setUp();
+    }
+
+    @Test
+    public void testReplayNotDone() throws Exception {
+        JournalBlockingQueue queue = new JournalBlockingQueue(context, directory, 10, 4096, 0);
+        queue.start();
+        queue.put(createExchange("A"));
+        queue.put(createExchange("B"));
+        queue.put(createExchange("C"));
+
+        Exchange a = queue.poll();
+        assertEquals("A", a.getIn().getBody());
+        done(a);
+        queue.stop();
+
+        // B and C was not done so they are read from the journal
+        queue = new JournalBlockingQueue(context, directory, 10, 4096, 0);
+        queue.start();
+        assertEquals(2, queue.size());
+        Exchange b = queue.take();
+        assertEquals("B", b.getIn().getBody());
+        assertEquals(123, b.getIn().getHeader("foo"));
+        Exchange c = queue.take();
+        assertEquals("C", c.getIn().getBody());
+        done(b);
+        done(c);
+        queue.stop();
+
+        queue = new JournalBlockingQueue(context, directory, 10, 4096, 0);
+        queue.start();
+        assertTrue(queue.isEmpty());
+        queue.stop();
+    }
+
+    @Test
+    public void testRemovedAndRejected() throws Exception {
+        JournalBlockingQueue queue = new JournalBlockingQueue(context, directory, 2, 4096, 0);
+        queue.start();
+        Exchange a = createExchange("A");
+        assertTrue(queue.offer(a));
+        assertTrue(queue.offer(createExchange("B")));
+        assertFalse("Queue should be full", queue.offer(createExchange("C")));
+        assertTrue(queue.remove(a));
+        queue.stop();
+
+        queue = new JournalBlockingQueue(context, directory, 2, 4096, 0);
+        queue.start();
+        assertEquals(1, queue.size());
+        assertEquals("B", queue.peek().getIn().getBody());
+        queue.clear();
+        queue.stop();
+
+        queue = new JournalBlockingQueue(context, directory, 2, 4096, 0);
+        queue.start();
+        assertTrue(queue.isEmpty());
+        queue.stop();
+    }
+
+    @Test
+    public void testSegmentsDeleted() throws Exception {
+        // use small segments so each exchange is written to a new segment
+        JournalBlockingQueue queue = new JournalBlockingQueue(context, directory, 10, 64, 10);
+        queue.start();
+        for (int i = 0; i < 5; i++) {
+            queue.put(createExchange("Message " + i));
+        }
+        assertEquals(5, queue.getSegmentCount());
+
+        Exchange exchange;
+        while ((exchange = queue.poll()) != null) {
+            done(exchange);
+        }
+        // only the current segment is kept
+        assertEquals(1, queue.getSegmentCount());
+        queue.stop();
+    }
+
+    @Test
+    public void testRestartCamel() throws Exception {
+        context.getRegistry().bind("journalQueueFactory", new JournalBlockingQueueFactory(directory));
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#journalQueueFactory").routeId("foo").noAutoStartup().to("mock:result");
+            }
+        });
+
+        template.sendBody("seda:foo?queueFactory=#journalQueueFactory", "Hello World");
+        template.sendBody("seda:foo?queueFactory=#journalQueueFactory", "Bye World");
+        context.stop();
+
+        CamelContext other = new DefaultCamelContext();
+        other.getRegistry().bind("journalQueueFactory", new JournalBlockingQueueFactory(directory));
+        other.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#journalQueueFactory").to("mock:result");
+            }
+        });
+        other.start();
+        try {
+            MockEndpoint mock = other.getEndpoint("mock:result", MockEndpoint.class);
+            mock.expectedBodiesReceived("Hello World", "Bye World");
+            mock.assertIsSatisfied();
+        } finally {
+            other.stop();
+        }
+    }
+
+    private Exchange createExchange(String body) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+        exchange.getIn().setHeader("foo", 123);
+        return exchange;
+    }
+
+    private static void done(Exchange exchange) {
+        for (Synchronization synchronization : exchange.handoverCompletions()) {
+            synchronization.onComplete(exchange);
+        }
+    }
+
+}
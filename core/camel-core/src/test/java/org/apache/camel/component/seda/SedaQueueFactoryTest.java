@@ -58,6 +58,16 @@ public class SedaQueueFactoryTest extends ContextTestSupport {
         assertEquals("remainingCapacity - custom", 100, blockingQueue.remainingCapacity());
     }
 
+    @Test
+    public void testRingBufferBlockingQueueFactory() throws Exception {
+        context.getRegistry().bind("ringBufferQueueFactory", new RingBufferBlockingQueueFactory<Exchange>());
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ringBufferQueue?queueFactory=#ringBufferQueueFactory&size=100", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<?> blockingQueue = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        assertEquals("remainingCapacity - custom", 100, blockingQueue.remainingCapacity());
+    }
+
     @Test
     public void testDefaultBlockingQueueFactory() throws Exception {
         SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:linkedQueue", SedaEndpoint.class);
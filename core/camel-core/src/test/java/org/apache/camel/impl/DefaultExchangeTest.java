@@ -18,6 +18,9 @@ package org.apache.camel.impl;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
@@ -26,6 +29,7 @@ import org.apache.camel.InvalidPayloadException;
 import org.apache.camel.Message;
 import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.TypeConversionException;
+import org.apache.camel.support.CopyOnWriteMap;
 import org.apache.camel.support.DefaultExchange;
 import org.apache.camel.support.DefaultMessage;
 import org.junit.Test;
@@ -247,6 +251,96 @@ public class DefaultExchangeTest extends ExchangeTestSupport {
                      sourceIn.getClass(), destIn.getClass());
     }
 
+    @Test
+    public void testCopySharesHeadersAndProperties() {
+        exchange.getIn().setHeader("foo", 123);
+        exchange.setProperty("beer", "Carlsberg");
+
+        Exchange copy = exchange.copy();
+        copy.getIn().setHeader("foo", 456);
+        copy.getIn().setHeader("baz", "yes");
+        copy.setProperty("beer", "Tuborg");
+
+        // changes to the copy must not be seen by the original
+        assertEquals(123, exchange.getIn().getHeader("foo"));
+        assertEquals(123, exchange.getIn().getHeader("FOO"));
+        assertNull(exchange.getIn().getHeader("baz"));
+        assertEquals("Carlsberg", exchange.getProperty("beer"));
+
+        // and changes to the original must not be seen by the copy
+        exchange.getIn().removeHeader("foo");
+        exchange.setProperty("wine", "Barolo");
+        assertEquals(456, copy.getIn().getHeader("FOO"));
+        assertEquals("yes", copy.getIn().getHeader("baz"));
+        assertEquals(123, copy.getIn().getHeader("bar"));
+        assertEquals("Tuborg", copy.getProperty("beer"));
+        assertNull(copy.getProperty("wine"));
+    }
+
+    @Test
+    public void testMessageCopyDoesNotShareHeaders() {
+        exchange.getIn().setHeader("foo", 123);
+
+        // only exchange copies share the headers
+        Message copy = exchange.getIn().copy();
+        assertFalse(((CopyOnWriteMap) copy.getHeaders()).isShared());
+        assertFalse(((CopyOnWriteMap) exchange.getIn().getHeaders()).isShared());
+
+        Message other = new DefaultMessage(context);
+        other.copyFrom(exchange.getIn());
+        assertFalse(((CopyOnWriteMap) other.getHeaders()).isShared());
+        assertEquals(123, other.getHeader("foo"));
+    }
+
+    @Test
+    public void testCopyDoesNotShareMapsSetFromOutside() {
+        DefaultExchange source = new DefaultExchange(context);
+        Map<String, Object> headers = context.getHeadersMapFactory().newMap();
+        headers.put("foo", 123);
+        source.getIn().setHeaders(headers);
+        Map<String, Object> properties = new ConcurrentHashMap<>();
+        properties.put("beer", "Carlsberg");
+        source.setProperties(properties);
+
+        Exchange copy = source.copy();
+
+        // changing the maps directly must not change the copy
+        headers.put("foo", 456);
+        properties.put("beer", "Tuborg");
+        assertEquals(123, copy.getIn().getHeader("foo"));
+        assertEquals("Carlsberg", copy.getProperty("beer"));
+    }
+
+    @Test
+    public void testCopyDoesNotChangeMapsOfOriginal() {
+        exchange.getIn().setHeader("foo", 123);
+        exchange.setProperty("beer", "Carlsberg");
+        Map<String, Object> headers = exchange.getIn().getHeaders();
+        Map<String, Object> properties = exchange.getProperties();
+
+        Exchange copy = exchange.copy();
+
+        // the original keeps the same maps, and changing them must not change the copy
+        assertSame(headers, exchange.getIn().getHeaders());
+        assertSame(properties, exchange.getProperties());
+        headers.put("foo", 456);
+        properties.put("beer", "Tuborg");
+        assertEquals(123, copy.getIn().getHeader("foo"));
+        assertEquals("Carlsberg", copy.getProperty("beer"));
+    }
+
+    @Test
+    public void testSetHeadersCopiesForeignCopyOnWriteMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("foo", 123);
+        CopyOnWriteMap headers = new CopyOnWriteMap(map, HashMap::new);
+
+        // the map does not wrap a map from the headers map factory, so it must be copied
+        exchange.getIn().setHeaders(headers);
+        assertNotSame(headers, exchange.getIn().getHeaders());
+        assertEquals(123, exchange.getIn().getHeader("FOO"));
+    }
+
     public static class MyMessage extends DefaultMessage {
         public MyMessage(CamelContext camelContext) {
             super(camelContext);
@@ -25,6 +25,7 @@ import org.apache.camel.ContextTestSupport;
 import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.util.concurrent.SizedScheduledExecutorService;
 import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
+import org.apache.camel.util.concurrent.VirtualThreadExecutorService;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -353,6 +354,71 @@ public class DefaultExecutorServiceManagerTest extends ContextTestSupport {
         assertTrue(tp.isShutdown());
     }
 
+    @Test
+    public void testNewThreadPoolProfileVirtualThreads() throws Exception {
+        ThreadPoolProfile foo = new ThreadPoolProfile("foo");
+        foo.setVirtualThreads(true);
+        foo.setMaxConcurrentTasks(10);
+        foo.setMaxQueueSize(2000);
+
+        ExecutorService pool = context.getExecutorServiceManager().newThreadPool(this, "Cool", foo);
+        assertNotNull(pool);
+
+        if (VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            VirtualThreadExecutorService vt = assertIsInstanceOf(VirtualThreadExecutorService.class, pool);
+            assertEquals(10, vt.getMaxConcurrentTasks());
+            assertEquals(2000, vt.getMaxQueueSize());
+
+            final CountDownLatch latch = new CountDownLatch(1);
+            pool.execute(latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } else {
+            // fallback to platform threads
+            assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        }
+        assertFalse(pool.isShutdown());
+
+        context.stop();
+
+        assertTrue(pool.isShutdown());
+    }
+
+    @Test
+    public void testNewThreadPoolProfileVirtualThreadsBoundedByMaxPoolSize() throws Exception {
+        ThreadPoolProfile foo = new ThreadPoolProfile("foo");
+        foo.setVirtualThreads(true);
+        foo.setPoolSize(5);
+        foo.setMaxPoolSize(40);
+
+        ExecutorService pool = context.getExecutorServiceManager().newThreadPool(this, "Cool", foo);
+        if (VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            VirtualThreadExecutorService vt = assertIsInstanceOf(VirtualThreadExecutorService.class, pool);
+            assertEquals(40, vt.getMaxConcurrentTasks());
+        } else {
+            assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        }
+    }
+
+    @Test
+    public void testNewSingleThreadExecutorVirtualThreads() throws Exception {
+        ThreadPoolProfile profile = context.getExecutorServiceManager().getDefaultThreadPoolProfile();
+        profile.setVirtualThreads(true);
+
+        // a single thread must keep the tasks in order so it is not using virtual threads
+        ExecutorService pool = context.getExecutorServiceManager().newSingleThreadExecutor(this, "Cool");
+        ThreadPoolExecutor tp = assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        assertEquals(1, tp.getMaximumPoolSize());
+
+        // a single core thread can grow up to the max pool size, so it can use virtual threads
+        pool = context.getExecutorServiceManager().newThreadPool(this, "Cool", 1, 20);
+        if (VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            VirtualThreadExecutorService vt = assertIsInstanceOf(VirtualThreadExecutorService.class, pool);
+            assertEquals(20, vt.getMaxConcurrentTasks());
+        } else {
+            assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        }
+    }
+
     @Test
     public void testNewThreadPoolProfileById() throws Exception {
         assertNull(context.getExecutorServiceManager().getThreadPoolProfile("foo"));
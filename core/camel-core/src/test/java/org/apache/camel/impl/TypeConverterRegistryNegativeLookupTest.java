@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.TypeConverterSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeConverterRegistryNegativeLookupTest extends Assert {
+
+    @Test
+    public void testMissThenAddFallbackTypeConverter() {
+        DefaultCamelContext context = new DefaultCamelContext();
+
+        MyOrder order = context.getTypeConverter().convertTo(MyOrder.class, "123");
+        assertNull(order);
+        // the miss is remembered
+        order = context.getTypeConverter().convertTo(MyOrder.class, "123");
+        assertNull(order);
+
+        // add missing fallback type converter
+        context.getTypeConverterRegistry().addFallbackTypeConverter(new MyOrderTypeConverter(), false);
+
+        // this time it should work
+        order = context.getTypeConverter().convertTo(MyOrder.class, "123");
+        assertNotNull(order);
+        assertEquals(123, order.getId());
+    }
+
+    @Test
+    public void testLookupMissThenAddTypeConverterForInterface() {
+        DefaultCamelContext context = new DefaultCamelContext();
+
+        MyOrder order = context.getTypeConverter().convertTo(MyOrder.class, new StringBuilder("123"));
+        assertNull(order);
+
+        // add type converter from the interface of the value
+        context.getTypeConverterRegistry().addTypeConverter(MyOrder.class, CharSequence.class, new MyOrderTypeConverter());
+
+        // this time it should be found by the lookup
+        order = context.getTypeConverter().convertTo(MyOrder.class, new StringBuilder("456"));
+        assertNotNull(order);
+        assertEquals(456, order.getId());
+    }
+
+    @Test
+    public void testPrimitiveConversionKeepsNegativeLookups() {
+        DefaultCamelContext context = new DefaultCamelContext();
+        MyCountingTypeConverter fallback = new MyCountingTypeConverter();
+        context.getTypeConverterRegistry().addFallbackTypeConverter(fallback, false);
+
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+        assertEquals(1, fallback.getCounter());
+
+        // converting to a primitive uses the converter of the wrapper type
+        int number = context.getTypeConverter().convertTo(int.class, "5");
+        assertEquals(5, number);
+
+        // the miss is still remembered so the fallback is not called again
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+        assertEquals(1, fallback.getCounter());
+    }
+
+    private static class MyOrder {
+        private int id;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+
+    private static class MyCountingTypeConverter extends TypeConverterSupport {
+
+        private int counter;
+
+        @Override
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+            if (type == MyOrder.class) {
+                counter++;
+            }
+            return null;
+        }
+
+        public int getCounter() {
+            return counter;
+        }
+    }
+
+    private static class MyOrderTypeConverter extends TypeConverterSupport {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+            if (type != MyOrder.class) {
+                return null;
+            }
+            MyOrder order = new MyOrder();
+            order.setId(Integer.parseInt(value.toString()));
+            return (T) order;
+        }
+
+    }
+
+}
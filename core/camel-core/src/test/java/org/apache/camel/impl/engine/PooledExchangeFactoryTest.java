@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.Test;
+
+public class PooledExchangeFactoryTest extends ContextTestSupport {
+
+    private PooledExchangeFactory factory = new PooledExchangeFactory();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        factory.setCapacity(2);
+        factory.setLeakDetection(true);
+        context.adapt(ExtendedCamelContext.class).setExchangeFactory(factory);
+        return context;
+    }
+
+    @Test
+    public void testPooledExchangeFactory() throws Exception {
+        assertSame(factory, context.adapt(ExtendedCamelContext.class).getExchangeFactory());
+
+        Endpoint foo = context.getEndpoint("mock:foo");
+        Endpoint bar = context.getEndpoint("mock:bar");
+
+        Exchange exchange = factory.create(foo, ExchangePattern.InOnly);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.setProperty("bar", 456);
+        exchange.setException(new IllegalArgumentException("Forced"));
+        String id = exchange.getExchangeId();
+        assertEquals(1, factory.getInUseCounter());
+
+        assertTrue(factory.release(exchange));
+        assertEquals(0, factory.getInUseCounter());
+
+        // should recycle the same exchange and message which has been reset
+        Exchange exchange2 = factory.create(bar, ExchangePattern.InOut);
+        assertSame(exchange, exchange2);
+        assertSame(bar, exchange2.getFromEndpoint());
+        assertEquals(ExchangePattern.InOut, exchange2.getPattern());
+        assertNull(exchange2.getIn().getBody());
+        assertNull(exchange2.getIn().getHeader("foo"));
+        assertNull(exchange2.getProperty("bar"));
+        assertNull(exchange2.getException());
+        assertNull(exchange2.getUnitOfWork());
+        assertNotEquals(id, exchange2.getExchangeId());
+
+        assertEquals(1, factory.getCreatedCounter());
+        assertEquals(1, factory.getAcquiredCounter());
+        assertEquals(1, factory.getReleasedCounter());
+        assertEquals(0, factory.getDiscardedCounter());
+    }
+
+    @Test
+    public void testPooledExchangeFactoryCapacity() throws Exception {
+        Endpoint foo = context.getEndpoint("mock:foo");
+
+        Exchange e1 = factory.create(foo, ExchangePattern.InOnly);
+        Exchange e2 = factory.create(foo, ExchangePattern.InOnly);
+        Exchange e3 = factory.create(foo, ExchangePattern.InOnly);
+        assertEquals(3, factory.getCreatedCounter());
+        assertEquals(3, factory.getInUseCounter());
+
+        assertTrue(factory.release(e1));
+        assertTrue(factory.release(e2));
+        // the pool is full
+        assertFalse(factory.release(e3));
+        assertEquals(2, factory.getReleasedCounter());
+        assertEquals(1, factory.getDiscardedCounter());
+        assertEquals(0, factory.getInUseCounter());
+
+        // exchanges not created by the factory are not pooled
+        assertFalse(factory.release(new DefaultExchange(context)));
+        assertEquals(1, factory.getDiscardedCounter());
+    }
+
+}
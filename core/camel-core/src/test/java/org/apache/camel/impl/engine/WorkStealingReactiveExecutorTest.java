@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class WorkStealingReactiveExecutorTest extends ContextTestSupport {
+
+    private final WorkStealingReactiveExecutor executor = new WorkStealingReactiveExecutor();
+    private final AtomicInteger threadChanges = new AtomicInteger();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(ReactiveExecutorResolver.REACTIVE_EXECUTOR_OPTION, "workStealing");
+        return context;
+    }
+
+    @Test
+    public void testStealFromBusyWorker() throws Exception {
+        CountDownLatch queued = new CountDownLatch(1);
+        CountDownLatch stolen = new CountDownLatch(1);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        Thread busy = new Thread(() -> executor.scheduleMain(() -> {
+            executor.schedule(() -> {
+                ranOn.set(Thread.currentThread());
+                stolen.countDown();
+            });
+            queued.countDown();
+            await(stolen);
+        }));
+        busy.start();
+        assertTrue(queued.await(5, TimeUnit.SECONDS));
+
+        // this thread runs out of work and steals the task queued by the busy worker
+        executor.scheduleMain(() -> { });
+        busy.join(5000);
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1, executor.getStolenTasks());
+    }
+
+    @Test
+    public void testNoStealFromSyncLoop() throws Exception {
+        CountDownLatch queued = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        Thread busy = new Thread(() -> executor.scheduleSync(() -> {
+            executor.schedule(() -> ranOn.set(Thread.currentThread()));
+            queued.countDown();
+            await(release);
+        }));
+        busy.start();
+        assertTrue(queued.await(5, TimeUnit.SECONDS));
+
+        executor.scheduleMain(() -> { });
+        assertNull("Should not steal tasks of a sync loop", ranOn.get());
+        release.countDown();
+        busy.join(5000);
+
+        assertSame(busy, ranOn.get());
+        assertEquals(0, executor.getStolenTasks());
+    }
+
+    @Test
+    public void testNoStealWhileInSyncLoop() throws Exception {
+        CountDownLatch queued = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        Thread busy = new Thread(() -> executor.scheduleMain(() -> {
+            executor.schedule(() -> ranOn.set(Thread.currentThread()));
+            queued.countDown();
+            await(release);
+        }));
+        busy.start();
+        assertTrue(queued.await(5, TimeUnit.SECONDS));
+
+        // a thread running a sync loop (eg bound to a transaction) must not run tasks of other workers
+        executor.scheduleSync(() -> { });
+        assertNull("Should not steal while in a sync loop", ranOn.get());
+        release.countDown();
+        busy.join(5000);
+
+        assertSame(busy, ranOn.get());
+        assertEquals(0, executor.getStolenTasks());
+    }
+
+    @Test
+    public void testTransactedRouteStaysOnSameThread() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(200);
+
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 200; i++) {
+                senders.submit(() -> template.sendBody("direct:start", "Hello World"));
+            }
+            assertMockEndpointsSatisfied();
+        } finally {
+            senders.shutdownNow();
+        }
+
+        assertEquals("Transacted exchanges should stay on the same thread", 0, threadChanges.get());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final Processor sameThread = new Processor() {
+            @Override
+            public void process(Exchange exchange) throws Exception {
+                Thread thread = exchange.getProperty("transactedThread", Thread.class);
+                if (thread == null) {
+                    exchange.setProperty("transactedThread", Thread.currentThread());
+                } else if (thread != Thread.currentThread()) {
+                    threadChanges.incrementAndGet();
+                }
+            }
+        };
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .process(e -> e.getUnitOfWork().beginTransactedBy("test"))
+                    .pipeline()
+                        .process(sameThread)
+                        .to("log:foo?level=OFF")
+                        .process(sameThread)
+                        .to("log:bar?level=OFF")
+                        .process(sameThread)
+                    .end()
+                    .process(e -> e.getUnitOfWork().endTransactedBy("test"))
+                    .to("mock:result");
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
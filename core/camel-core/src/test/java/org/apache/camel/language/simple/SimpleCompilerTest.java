@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.Collections;
+
+import org.apache.camel.Expression;
+import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
+import org.apache.camel.language.simple.compiler.CompiledExpression;
+import org.apache.camel.language.simple.compiler.CompiledPredicate;
+import org.junit.Test;
+
+public class SimpleCompilerTest extends LanguageTestSupport {
+
+    private SimpleLanguage simple;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        simple = new SimpleLanguage();
+        simple.setCamelContext(context);
+        simple.setCompiled(true);
+        simple.init();
+    }
+
+    @Test
+    public void testCompiledExpression() throws Exception {
+        exchange.getIn().setBody("World");
+        exchange.getIn().setHeader("foo", 123);
+
+        Expression exp = simple.createExpression("Hello ${body} and ${header.foo}");
+        assertIsInstanceOf(CompiledExpression.class, exp);
+        assertEquals("Hello World and 123", exp.evaluate(exchange, String.class));
+        assertEquals("Hello ${body} and ${header.foo}", exp.toString());
+
+        exp = simple.createExpression("${header.foo}");
+        assertIsInstanceOf(CompiledExpression.class, exp);
+        assertEquals(123, exp.evaluate(exchange, Object.class));
+        assertEquals("123", exp.evaluate(exchange, String.class));
+    }
+
+    @Test
+    public void testCompiledExpressionDelegate() throws Exception {
+        exchange.getIn().setBody("World");
+        exchange.getIn().setHeader("foo", Collections.singletonList("Camel"));
+
+        // the ognl function is not compiled but delegated to the interpreted expression
+        Expression exp = simple.createExpression("Hello ${body} from ${header.foo[0]}");
+        assertIsInstanceOf(CompiledExpression.class, exp);
+        assertEquals("Hello World from Camel", exp.evaluate(exchange, String.class));
+
+        // nothing to compile
+        exp = simple.createExpression("${header.foo[0]}");
+        assertFalse(exp instanceof CompiledExpression);
+        exp = simple.createExpression("Hello World");
+        assertFalse(exp instanceof CompiledExpression);
+    }
+
+    @Test
+    public void testCompiledPredicate() throws Exception {
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", "150");
+        exchange.setProperty("bar", 7);
+
+        Predicate pre = simple.createPredicate("${header.foo} > 100 && ${body} contains 'World'");
+        assertIsInstanceOf(CompiledPredicate.class, pre);
+        assertTrue(pre.matches(exchange));
+
+        pre = simple.createPredicate("${header.foo} < 100 || ${exchangeProperty.bar} == 7");
+        assertIsInstanceOf(CompiledPredicate.class, pre);
+        assertTrue(pre.matches(exchange));
+
+        pre = simple.createPredicate("${body} regex '^Hello.*' && ${header.unknown} == null");
+        assertIsInstanceOf(CompiledPredicate.class, pre);
+        assertTrue(pre.matches(exchange));
+
+        pre = simple.createPredicate("${body} starts with 'Bye' || ${header.foo} != '150'");
+        assertIsInstanceOf(CompiledPredicate.class, pre);
+        assertFalse(pre.matches(exchange));
+    }
+
+    @Test
+    public void testCompiledPredicateDelegate() throws Exception {
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 150);
+
+        // the in and range operators are not compiled but delegated
+        Predicate pre = simple.createPredicate("${header.foo} range '100..200' && ${body.length} in '11,12'");
+        assertIsInstanceOf(CompiledPredicate.class, pre);
+        assertTrue(pre.matches(exchange));
+
+        exchange.getIn().setHeader("foo", 250);
+        assertFalse(pre.matches(exchange));
+    }
+
+    @Test
+    public void testMaxCompiled() throws Exception {
+        SimpleLanguage limited = new SimpleLanguage();
+        limited.setCamelContext(context);
+        limited.setCompiled(true);
+        limited.setMaxCompiled(1);
+        limited.init();
+
+        exchange.getIn().setHeader("foo", 123);
+
+        Expression exp = limited.createExpression("${header.foo}");
+        assertIsInstanceOf(CompiledExpression.class, exp);
+
+        // the limit is reached so the expression is interpreted
+        exp = limited.createExpression("Hello ${header.foo}");
+        assertFalse(exp instanceof CompiledExpression);
+        assertEquals("Hello 123", exp.evaluate(exchange, String.class));
+    }
+
+    @Override
+    protected String getLanguageName() {
+        return "simple";
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.support.ExpressionAdapter;
+import org.apache.camel.support.builder.ValueBuilder;
+import org.junit.Test;
+
+public class ChoiceIndexedTest extends ContextTestSupport {
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @Test
+    public void testSimpleIndexed() throws Exception {
+        assertEquals(4, getChoice("simple").getIndexedCount());
+
+        getMockEndpoint("mock:gold").expectedBodiesReceived("A", "E");
+        getMockEndpoint("mock:silver").expectedBodiesReceived("B", "C");
+        getMockEndpoint("mock:vip").expectedBodiesReceived("D");
+        getMockEndpoint("mock:numeric").expectedBodiesReceived("F");
+        getMockEndpoint("mock:other").expectedBodiesReceived("G", "H");
+
+        template.sendBodyAndHeader("direct:simple", "A", "type", "gold");
+        template.sendBodyAndHeader("direct:simple", "B", "type", "silver");
+        template.sendBodyAndHeader("direct:simple", "C", "type", "bronze");
+        // the not indexed predicate before the indexed predicate must be evaluated first
+        template.sendBodyAndHeader("direct:simple", "D", "vip", true);
+        // the first predicate which matches wins
+        template.sendBodyAndHeader("direct:simple", "E", "TYPE", "gold");
+        // not a String so the predicates are evaluated using type coercion
+        template.sendBodyAndHeader("direct:simple", "F", "type", 123);
+        template.sendBodyAndHeader("direct:simple", "G", "type", "copper");
+        template.sendBody("direct:simple", "H");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testBuilderIndexed() throws Exception {
+        assertEquals(10, getChoice("builder").getIndexedCount());
+
+        for (int i = 0; i < 10; i++) {
+            getMockEndpoint("mock:" + i).expectedBodiesReceived("Hello " + i);
+        }
+        getMockEndpoint("mock:other").expectedBodiesReceived("Bye");
+
+        for (int i = 9; i >= 0; i--) {
+            template.sendBodyAndHeader("direct:builder", "Hello " + i, "type", "t" + i);
+        }
+        template.sendBodyAndHeader("direct:builder", "Bye", "type", "t10");
+        // not a String so the predicates tests the value using type coercion
+        template.sendBodyAndHeader("direct:builder", "Bye", "type", 10);
+
+        assertMockEndpointsSatisfied();
+
+        // the expression is only evaluated once per message
+        assertEquals(10 + 2, evaluations.get());
+    }
+
+    @Test
+    public void testSameToStringNotIndexedTogether() throws Exception {
+        assertEquals(2, getChoice("collision").getIndexedCount());
+
+        getMockEndpoint("mock:a").expectedBodiesReceived("A");
+        getMockEndpoint("mock:b").expectedBodiesReceived("B");
+
+        template.sendBodyAndHeader("direct:collision", "A", "a", "x");
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("a", "z");
+        headers.put("b", "x");
+        template.sendBodyAndHeaders("direct:collision", "B", headers);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    private ChoiceProcessor getChoice(String routeId) {
+        Route route = context.getRoute(routeId);
+        return findChoice(route.navigate());
+    }
+
+    private static ChoiceProcessor findChoice(Navigate<Processor> nav) {
+        for (Processor processor : nav.next()) {
+            if (processor instanceof ChoiceProcessor) {
+                return (ChoiceProcessor) processor;
+            }
+            if (processor instanceof Navigate) {
+                @SuppressWarnings("unchecked")
+                ChoiceProcessor answer = findChoice((Navigate<Processor>) processor);
+                if (answer != null) {
+                    return answer;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:simple").routeId("simple")
+                    .choice()
+                        .when().simple("${header.type} == 'gold'").to("mock:gold")
+                        .when().simple("${header.vip} == true").to("mock:vip")
+                        .when().simple("${header.type} == '123'").to("mock:numeric")
+                        .when().simple("${header.type} in 'silver,bronze,gold'").to("mock:silver")
+                        .when().simple("${header.type} == 'plain'").to("mock:plain")
+                        .otherwise().to("mock:other");
+
+                ValueBuilder type = countingHeader("type");
+
+                from("direct:builder").routeId("builder")
+                    .choice()
+                        .when(type.isEqualTo("t0")).to("mock:0")
+                        .when(type.isEqualTo("t1")).to("mock:1")
+                        .when(type.isEqualTo("t2")).to("mock:2")
+                        .when(type.isEqualTo("t3")).to("mock:3")
+                        .when(type.isEqualTo("t4")).to("mock:4")
+                        .when(type.isEqualTo("t5")).to("mock:5")
+                        .when(type.isEqualTo("t6")).to("mock:6")
+                        .when(type.isEqualTo("t7")).to("mock:7")
+                        .when(type.isEqualTo("t8")).to("mock:8")
+                        .when(type.isEqualTo("t9")).to("mock:9")
+                        .otherwise().to("mock:other");
+
+                // different expressions of the same class and with the same toString
+                ValueBuilder a = countingHeader("a");
+                ValueBuilder b = countingHeader("b");
+
+                from("direct:collision").routeId("collision")
+                    .choice()
+                        .when(a.isEqualTo("x")).to("mock:a")
+                        .when(b.isEqualTo("x")).to("mock:b")
+                        .when(a.isEqualTo("y")).to("mock:a")
+                        .otherwise().to("mock:other");
+            }
+        };
+    }
+
+    private ValueBuilder countingHeader(String name) {
+        return new ValueBuilder(new ExpressionAdapter() {
+            @Override
+            public Object evaluate(Exchange exchange) {
+                evaluations.incrementAndGet();
+                return exchange.getIn().getHeader(name);
+            }
+
+            @Override
+            public String toString() {
+                return "countingHeader";
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class SplitterParallelWindowTest extends ContextTestSupport {
+
+    private static final int SIZE = 200;
+    private static final int WINDOW = 5;
+
+    private final AtomicInteger splitted = new AtomicInteger();
+    private final AtomicInteger aggregated = new AtomicInteger();
+    private final AtomicInteger maxInflight = new AtomicInteger();
+
+    @Test
+    public void testParallelWindow() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        String out = template.requestBody("direct:start", "Hello", String.class);
+
+        assertMockEndpointsSatisfied();
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            expected.append(i).append(",");
+        }
+        // aggregated in order even though streaming and processed in parallel
+        assertEquals(expected.toString(), out);
+        assertEquals(SIZE, splitted.get());
+        assertEquals(SIZE, aggregated.get());
+        assertTrue("Should not split more than the window ahead: " + maxInflight.get(), maxInflight.get() <= WINDOW);
+    }
+
+    public Iterator<Integer> lines() {
+        return new Iterator<Integer>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return count < SIZE;
+            }
+
+            @Override
+            public Integer next() {
+                int inflight = splitted.incrementAndGet() - aggregated.get();
+                maxInflight.accumulateAndGet(inflight, Math::max);
+                return count++;
+            }
+        };
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .split(method(SplitterParallelWindowTest.this, "lines"), new OrderAggregationStrategy())
+                        .streaming().parallelProcessing().parallelWindowSize(WINDOW)
+                        .process(e -> Thread.sleep(ThreadLocalRandom.current().nextInt(5)))
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+
+    private final class OrderAggregationStrategy implements AggregationStrategy {
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            aggregated.incrementAndGet();
+            String body = newExchange.getIn().getBody(String.class) + ",";
+            if (oldExchange == null) {
+                newExchange.getIn().setBody(body);
+                return newExchange;
+            }
+            oldExchange.getIn().setBody(oldExchange.getIn().getBody(String.class) + body);
+            return oldExchange;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class StreamResequencerRingBufferTest extends ContextTestSupport {
+
+    @Test
+    public void testSendMessagesInWrongOrderButReceiveThemInCorrectOrder() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("msg1", "msg2", "msg3", "msg4");
+
+        template.sendBodyAndHeader("direct:start", "msg4", "seqnum", 4L);
+        template.sendBodyAndHeader("direct:start", "msg1", "seqnum", 1L);
+        template.sendBodyAndHeader("direct:start", "msg3", "seqnum", 3L);
+        template.sendBodyAndHeader("direct:start", "msg2", "seqnum", 2L);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testMultithreaded() throws Exception {
+        doTestMultithreaded("direct:start", 2000);
+    }
+
+    @Test
+    public void testMultithreadedCapacityReached() throws Exception {
+        // the producers are waiting for capacity most of the time
+        doTestMultithreaded("direct:capacity", 1000);
+    }
+
+    private void doTestMultithreaded(String uri, int numMessages) throws Exception {
+        final int threads = 4;
+
+        Object[] bodies = new Object[numMessages];
+        for (int i = 0; i < numMessages; i++) {
+            bodies[i] = "msg" + i;
+        }
+        getMockEndpoint("mock:result").expectedBodiesReceived(bodies);
+        getMockEndpoint("mock:result").setResultWaitTime(20000);
+
+        ExecutorService service = context.getExecutorServiceManager().newFixedThreadPool(this, getName(), threads);
+        for (int t = 0; t < threads; t++) {
+            final int start = t;
+            service.execute(() -> {
+                for (long i = start; i < numMessages; i += threads) {
+                    template.sendBodyAndHeader(uri, "msg" + i, "seqnum", i);
+                }
+            });
+        }
+
+        assertMockEndpointsSatisfied();
+        context.getExecutorServiceManager().shutdownNow(service);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:start")
+                    .resequence(header("seqnum")).stream().capacity(2000).timeout(2000).deliveryAttemptInterval(10).ringBuffer()
+                    .to("mock:result");
+
+                from("direct:capacity")
+                    .resequence(header("seqnum")).stream().capacity(10).timeout(1000).deliveryAttemptInterval(10).ringBuffer()
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class ThrottlerTokenBucketTest extends ContextTestSupport {
+
+    @Test
+    public void testBurstThenThrottled() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Message " + i);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertMockEndpointsSatisfied();
+        // 5 requests in a burst and then one request per 100 millis
+        assertTrue("Should take at least 450 millis, was: " + elapsed, elapsed >= 450);
+    }
+
+    @Test
+    public void testRejectExecution() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        getMockEndpoint("mock:error").expectedMessageCount(4);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:reject", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testAsyncDelayed() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(10);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("seda:async", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should take at least 450 millis, was: " + elapsed, elapsed >= 450);
+    }
+
+    @Test
+    public void testCorrelation() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(4);
+        getMockEndpoint("mock:error").expectedMessageCount(2);
+
+        template.sendBodyAndHeader("direct:group", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B1", "key", "B");
+        template.sendBodyAndHeader("direct:group", "A2", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B2", "key", "B");
+        template.sendBodyAndHeader("direct:group", "A3", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B3", "key", "B");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testMaximumBuckets() throws Exception {
+        context.getProcessor("lru", Throttler.class).setMaximumBuckets(5);
+
+        getMockEndpoint("mock:result").expectedMessageCount(11);
+        getMockEndpoint("mock:error").expectedBodiesReceived("K9");
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBodyAndHeader("direct:lru", "K" + i, "key", "K" + i);
+        }
+        // the bucket of the most recently used key is kept
+        template.sendBodyAndHeader("direct:lru", "K9", "key", "K9");
+        // the bucket of the least recently used key was evicted
+        template.sendBodyAndHeader("direct:lru", "K0", "key", "K0");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                onException(ThrottlerRejectedExecutionException.class)
+                    .handled(true)
+                    .to("mock:error");
+
+                from("direct:start")
+                    .throttle(5).timePeriodMillis(500).tokenBucket()
+                    .to("mock:result");
+
+                from("direct:reject")
+                    .throttle(2).timePeriodMillis(10000).tokenBucket().rejectExecution(true)
+                    .to("mock:result");
+
+                from("seda:async?concurrentConsumers=5")
+                    .throttle(5).timePeriodMillis(500).tokenBucket().asyncDelayed()
+                    .to("mock:result");
+
+                from("direct:group")
+                    .throttle(constant(2), header("key")).timePeriodMillis(10000).tokenBucket().rejectExecution(true)
+                    .to("mock:result");
+
+                from("direct:lru")
+                    .throttle(constant(1), header("key")).timePeriodMillis(10000).tokenBucket().rejectExecution(true).id("lru")
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Map;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.Route;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.support.DefaultComponent;
+import org.apache.camel.support.DefaultEndpoint;
+import org.apache.camel.support.DefaultProducer;
+import org.junit.Test;
+
+public class ToDynamicEndpointCacheTest extends ContextTestSupport {
+
+    private final MyPrototypeComponent prototype = new MyPrototypeComponent();
+
+    @Test
+    public void testEndpointCache() throws Exception {
+        getMockEndpoint("mock:foo").expectedBodiesReceived("A", "C");
+        getMockEndpoint("mock:bar").expectedBodiesReceived("B");
+
+        template.sendBodyAndHeader("direct:start", "A", "foo", "foo");
+        template.sendBodyAndHeader("direct:start", "B", "foo", "bar");
+        template.sendBodyAndHeader("direct:start", "C", "foo", "foo");
+
+        assertMockEndpointsSatisfied();
+
+        DynamicEndpointCache cache = getSendDynamicProcessor("start").getEndpointCache();
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testEndpointCacheRemovedEndpoint() throws Exception {
+        MockEndpoint foo = getMockEndpoint("mock:foo");
+        foo.expectedBodiesReceived("A");
+        template.sendBodyAndHeader("direct:start", "A", "foo", "foo");
+        assertMockEndpointsSatisfied();
+
+        // the removed endpoint is stopped, and must not be used from the cache
+        context.removeEndpoint(foo);
+        assertNull(context.hasEndpoint("mock:foo"));
+
+        template.sendBodyAndHeader("direct:start", "B", "foo", "foo");
+
+        // the endpoint is resolved again from the camel context
+        assertNotNull(context.hasEndpoint("mock:foo"));
+        DynamicEndpointCache cache = getSendDynamicProcessor("start").getEndpointCache();
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testEndpointCacheDisabled() throws Exception {
+        getMockEndpoint("mock:foo").expectedBodiesReceived("A", "B");
+
+        template.sendBodyAndHeader("direct:nocache", "A", "foo", "foo");
+        template.sendBodyAndHeader("direct:nocache", "B", "foo", "foo");
+
+        assertMockEndpointsSatisfied();
+
+        assertNull(getSendDynamicProcessor("nocache").getEndpointCache());
+    }
+
+    @Test
+    public void testEndpointCacheNonSingleton() throws Exception {
+        template.sendBodyAndHeader("direct:prototype", "A", "foo", "foo");
+        template.sendBodyAndHeader("direct:prototype", "B", "foo", "foo");
+
+        // a new endpoint must be created each time
+        assertEquals(2, prototype.created);
+        DynamicEndpointCache cache = getSendDynamicProcessor("prototype").getEndpointCache();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private SendDynamicProcessor getSendDynamicProcessor(String routeId) {
+        Route route = context.getRoute(routeId);
+        return findSendDynamicProcessor(route.navigate());
+    }
+
+    private static SendDynamicProcessor findSendDynamicProcessor(Navigate<Processor> nav) {
+        for (Processor processor : nav.next()) {
+            if (processor instanceof SendDynamicProcessor) {
+                return (SendDynamicProcessor) processor;
+            }
+            if (processor instanceof Navigate) {
+                @SuppressWarnings("unchecked")
+                SendDynamicProcessor answer = findSendDynamicProcessor((Navigate<Processor>) processor);
+                if (answer != null) {
+                    return answer;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                context.addComponent("prototype", prototype);
+
+                from("direct:start").routeId("start")
+                    .toD("mock:${header.foo}");
+
+                from("direct:nocache").routeId("nocache")
+                    .toD("mock:${header.foo}", -1);
+
+                from("direct:prototype").routeId("prototype")
+                    .toD("prototype:${header.foo}");
+            }
+        };
+    }
+
+    private static final class MyPrototypeComponent extends DefaultComponent {
+
+        private int created;
+
+        @Override
+        protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
+            created++;
+            return new MyPrototypeEndpoint(uri, this);
+        }
+    }
+
+    private static final class MyPrototypeEndpoint extends DefaultEndpoint {
+
+        MyPrototypeEndpoint(String endpointUri, DefaultComponent component) {
+            super(endpointUri, component);
+        }
+
+        @Override
+        public Producer createProducer() throws Exception {
+            return new DefaultProducer(this) {
+                @Override
+                public void process(Exchange exchange) throws Exception {
+                    // noop
+                }
+            };
+        }
+
+        @Override
+        public Consumer createConsumer(Processor processor) throws Exception {
+            throw new UnsupportedOperationException("Consumer not supported");
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return false;
+        }
+    }
+}
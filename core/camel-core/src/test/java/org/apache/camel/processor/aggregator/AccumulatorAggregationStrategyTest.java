@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.aggregate.AccumulatorAggregationRepository;
+import org.apache.camel.processor.aggregate.Accumulators;
+import org.junit.Test;
+
+import static org.apache.camel.builder.AggregationStrategies.accumulate;
+
+public class AccumulatorAggregationStrategyTest extends ContextTestSupport {
+
+    @Test
+    public void testCounting() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:count");
+        mock.expectedBodiesReceivedInAnyOrder(3L, 2L);
+
+        template.sendBodyAndHeader("direct:count", "A", "id", 1);
+        template.sendBodyAndHeader("direct:count", "B", "id", 2);
+        template.sendBodyAndHeader("direct:count", "C", "id", 1);
+        template.sendBodyAndHeader("direct:count", "D", "id", 2);
+        template.sendBodyAndHeader("direct:count", "E", "id", 1);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testSummingWithRepository() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:sum");
+        mock.expectedBodiesReceived(60L);
+        mock.expectedPropertyReceived("CamelAggregatedSize", 3);
+
+        template.sendBodyAndHeader("direct:sum", 10, "id", 1);
+        template.sendBodyAndHeader("direct:sum", 20, "id", 1);
+        template.sendBodyAndHeader("direct:sum", 30, "id", 1);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testLatest() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:latest");
+        mock.expectedMessageCount(1);
+
+        for (String body : new String[] {"A", "B", "C", "D", "E"}) {
+            template.sendBodyAndHeader("direct:latest", body, "id", 1);
+        }
+
+        assertMockEndpointsSatisfied();
+        assertEquals(Arrays.asList("C", "D", "E"), mock.getReceivedExchanges().get(0).getIn().getBody(List.class));
+    }
+
+    @Test
+    public void testMergePartialStates() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:total");
+        mock.expectedBodiesReceived(21L);
+
+        // the partial sums are aggregated by two and then merged into the total
+        for (int i = 1; i <= 6; i++) {
+            template.sendBodyAndHeader("direct:partial", i, "id", 1);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:count")
+                    .aggregate(header("id"), accumulate(Accumulators.counting())).completionTimeout(500)
+                    .to("mock:count");
+
+                from("direct:sum")
+                    .aggregate(header("id"), accumulate(Accumulators.summingLong(body())))
+                        .aggregationRepository(new AccumulatorAggregationRepository()).completionSize(3)
+                    .to("mock:sum");
+
+                from("direct:latest")
+                    .aggregate(header("id"), accumulate(Accumulators.latest(3, body()))).completionSize(5)
+                    .to("mock:latest");
+
+                from("direct:partial")
+                    .aggregate(header("id"), accumulate(Accumulators.summingLong(body())).storeResultOnCompletion(false)).completionSize(2)
+                    .to("direct:total");
+
+                from("direct:total")
+                    .aggregate(header("id"), accumulate(Accumulators.summingLong(body()))).completionSize(3)
+                    .to("mock:total");
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.junit.Test;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit test to verify that aggregate by interval completes all the groups which was in progress on the interval.
+ */
+public class AggregateCompletionIntervalManyGroupsTest extends ContextTestSupport {
+
+    @Test
+    public void testAggregateIntervalManyGroups() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMinimumMessageCount(500);
+        result.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("interval");
+
+        for (int i = 0; i < 1000; i++) {
+            template.sendBodyAndHeader("direct:start", "Message " + i, "id", i % 500);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        // the groups may be split if the interval was triggered while sending, but all the messages should be completed
+        await().atMost(5, TimeUnit.SECONDS).until(() -> result.getReceivedExchanges().stream()
+            .mapToInt(e -> e.getProperty(Exchange.AGGREGATED_SIZE, Integer.class)).sum() == 1000);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .completionInterval(1000)
+                    .to("mock:result");
+            }
+        };
+    }
+}
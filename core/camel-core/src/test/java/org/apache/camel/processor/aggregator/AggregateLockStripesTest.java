@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.junit.Test;
+
+public class AggregateLockStripesTest extends ContextTestSupport {
+
+    @Test
+    public void testAggregateLockStripes() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final int id = i % 50;
+            final int count = i;
+            tasks.add(() -> {
+                template.sendBodyAndHeader("direct:start", "" + count, "id", id);
+                return null;
+            });
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(50);
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("size");
+
+        service.invokeAll(tasks);
+
+        assertMockEndpointsSatisfied();
+        service.shutdownNow();
+
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            assertEquals(20, exchange.getIn().getBody(String.class).split("\\+").length);
+        }
+    }
+
+    @Test
+    public void testAggregateLockStripesTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedMessageCount(3);
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("timeout");
+
+        for (int i = 0; i < 9; i++) {
+            template.sendBodyAndHeader("direct:timeout", "" + i, "id", i % 3);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testAggregateLockStripesForceCompletionOfAllGroups() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:force");
+        mock.expectedBodiesReceivedInAnyOrder("A+B", "C", "D");
+
+        template.sendBodyAndHeader("direct:force", "A", "id", 1);
+        template.sendBodyAndHeader("direct:force", "B", "id", 1);
+        template.sendBodyAndHeader("direct:force", "C", "id", 2);
+        template.sendBodyAndHeader("direct:force", "D", "id", 3);
+        // completes all the other groups than its own group
+        template.sendBodyAndHeader("direct:force", "END", "id", 4);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testAggregateLockStripesForceCompletionOfAllGroupsWithCurrentGroup() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:force");
+        mock.expectedBodiesReceivedInAnyOrder("A", "B+END");
+
+        template.sendBodyAndHeader("direct:force", "A", "id", 1);
+        template.sendBodyAndHeader("direct:force", "B", "id", 2);
+        // completes its own group as well as the other groups
+        template.sendBodyAndHeader("direct:force", "END", "id", 2);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).lockStripes(16).completionSize(20)
+                        .to("mock:result");
+
+                from("direct:timeout")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).lockStripes(16).completionTimeout(200)
+                        .to("mock:timeout");
+
+                from("direct:force")
+                    .aggregate(header("id"), new CompleteAllGroupsStrategy()).lockStripes(16).completionSize(100)
+                        .to("mock:force");
+            }
+        };
+    }
+
+    private static class CompleteAllGroupsStrategy implements AggregationStrategy {
+
+        private final AggregationStrategy delegate = new BodyInAggregatingStrategy();
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            Exchange answer = delegate.aggregate(oldExchange, newExchange);
+            if ("END".equals(newExchange.getIn().getBody(String.class))) {
+                answer.setProperty(Exchange.AGGREGATION_COMPLETE_ALL_GROUPS, true);
+            }
+            return answer;
+        }
+    }
+}
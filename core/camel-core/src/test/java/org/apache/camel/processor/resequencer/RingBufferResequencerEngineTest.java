@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import org.apache.camel.TestSupport;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RingBufferResequencerEngineTest extends TestSupport {
+
+    private RingBufferResequencerEngine<Integer> engine;
+    private SequenceBuffer<Integer> buffer;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        buffer = new SequenceBuffer<>();
+        engine = new RingBufferResequencerEngine<>(new IntegerComparator(), Integer::longValue, 6);
+        engine.setSequenceSender(buffer);
+        engine.setTimeout(0);
+        engine.start();
+    }
+
+    @Test
+    public void testRingSize() throws Exception {
+        assertEquals(8, engine.getRingSize());
+    }
+
+    @Test
+    public void testDeliverInSequence() throws Exception {
+        engine.insert(1);
+        engine.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+
+        engine.setTimeout(60000);
+        engine.insert(4);
+        engine.insert(3);
+        engine.deliver();
+        assertEquals(0, buffer.size());
+
+        engine.insert(2);
+        engine.deliver();
+        assertEquals((Integer) 2, buffer.poll(0));
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void testSkipGapOnTimeout() throws Exception {
+        engine.insert(1);
+        engine.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+
+        engine.setTimeout(100);
+        engine.insert(3);
+        engine.deliver();
+        assertEquals(0, buffer.size());
+
+        Thread.sleep(150);
+        engine.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void testBeyondRingBuffer() throws Exception {
+        engine.insert(1);
+        engine.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+
+        engine.setTimeout(60000);
+        for (int i = 20; i > 1; i--) {
+            engine.insert(i);
+        }
+        assertEquals(19, engine.size());
+        engine.deliver();
+        for (int i = 2; i <= 20; i++) {
+            assertEquals((Integer) i, buffer.poll(0));
+        }
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void testSparseSequence() throws Exception {
+        engine.insert(10);
+        engine.insert(1000);
+        engine.insert(100);
+        engine.deliver();
+        assertEquals((Integer) 10, buffer.poll(0));
+        assertEquals((Integer) 100, buffer.poll(0));
+        assertEquals((Integer) 1000, buffer.poll(0));
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void testIgnoreDuplicates() throws Exception {
+        engine.insert(1);
+        engine.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+
+        engine.setTimeout(60000);
+        engine.insert(3);
+        engine.insert(3);
+        engine.insert(2);
+        engine.deliver();
+        assertEquals((Integer) 2, buffer.poll(0));
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testAwaitCapacity() throws Exception {
+        engine.insert(1);
+        engine.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+
+        engine.setTimeout(60000);
+        engine.insert(3);
+        engine.insert(4);
+        engine.deliver();
+        assertTrue(engine.getGapTimeoutRemaining() > 0);
+
+        // the missing element and the elements within the ring buffer do not wait for capacity
+        engine.awaitCapacity(2, 2);
+        engine.awaitCapacity(9, 2);
+
+        Thread thread = new Thread(() -> {
+            try {
+                engine.awaitCapacity(10, 2);
+                engine.insert(10);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+        thread.start();
+        thread.join(100);
+        assertTrue("Should wait for capacity", thread.isAlive());
+
+        engine.insert(2);
+        engine.deliver();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals((Integer) 2, buffer.poll(0));
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals(-1, engine.getGapTimeoutRemaining());
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    public void testOldElements() throws Exception {
+        engine.insert(5);
+        engine.deliver();
+        assertEquals((Integer) 5, buffer.poll(0));
+
+        engine.insert(3);
+        engine.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+
+        engine.setRejectOld(true);
+        try {
+            engine.insert(4);
+            fail("Should have thrown exception");
+        } catch (MessageRejectedException e) {
+            // expected
+        }
+    }
+
+}
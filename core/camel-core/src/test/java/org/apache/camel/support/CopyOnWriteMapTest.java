@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.camel.util.CaseInsensitiveMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CopyOnWriteMapTest extends Assert {
+
+    @Test
+    public void testShare() throws Exception {
+        Map<String, Object> source = new CaseInsensitiveMap();
+        source.put("foo", "123");
+        source.put("bar", "456");
+
+        CopyOnWriteMap map = new CopyOnWriteMap(source, CaseInsensitiveMap::new);
+        CopyOnWriteMap copy = map.share();
+        assertTrue(map.isShared());
+        assertTrue(copy.isShared());
+
+        copy.put("FOO", "abc");
+        copy.remove("bar");
+        copy.put("baz", null);
+
+        // the shared map is not changed
+        assertEquals(2, source.size());
+        assertEquals("123", source.get("foo"));
+
+        assertEquals("123", map.get("foo"));
+        assertEquals("456", map.get("bar"));
+        assertEquals(2, map.size());
+
+        assertEquals("abc", copy.get("foo"));
+        assertNull(copy.get("bar"));
+        assertFalse(copy.containsKey("bar"));
+        assertTrue(copy.containsKey("baz"));
+        assertNull(copy.get("baz"));
+        assertEquals(2, copy.size());
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("FOO", "abc");
+        expected.put("baz", null);
+        assertEquals(expected, new HashMap<>(copy));
+    }
+
+    @Test
+    public void testShareAgain() throws Exception {
+        CopyOnWriteMap map = new CopyOnWriteMap(new HashMap<>(), HashMap::new);
+        map.put("foo", "123");
+        CopyOnWriteMap copy = map.share();
+        copy.put("bar", "456");
+
+        // sharing a changed map copies the map before it is shared
+        CopyOnWriteMap copy2 = copy.share();
+        assertFalse(map.containsKey("bar"));
+        assertEquals("456", copy2.get("bar"));
+
+        copy2.put("foo", "abc");
+        assertEquals("123", map.get("foo"));
+        assertEquals("123", copy.get("foo"));
+        assertEquals("abc", copy2.get("foo"));
+    }
+
+    @Test
+    public void testManyChanges() throws Exception {
+        CopyOnWriteMap map = new CopyOnWriteMap(new HashMap<>(), HashMap::new);
+        map.put("foo", "123");
+        CopyOnWriteMap copy = map.share();
+        for (int i = 0; i < 100; i++) {
+            copy.put("key" + i, i);
+        }
+        // the copy is no longer shared when it has many changes
+        assertFalse(copy.isShared());
+        assertEquals(101, copy.size());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        CopyOnWriteMap map = new CopyOnWriteMap(new HashMap<>(), HashMap::new);
+        map.put("foo", "123");
+        map.put("bar", "456");
+        CopyOnWriteMap copy = map.share();
+        copy.put("baz", "789");
+
+        Iterator<Map.Entry<String, Object>> it = copy.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if (entry.getKey().startsWith("b")) {
+                it.remove();
+            } else {
+                entry.setValue("abc");
+            }
+        }
+
+        assertEquals(1, copy.size());
+        assertEquals("abc", copy.get("foo"));
+        assertEquals(2, map.size());
+        assertEquals("123", map.get("foo"));
+        assertEquals("456", map.get("bar"));
+
+        // and when not shared the map is changed directly
+        CopyOnWriteMap owned = new CopyOnWriteMap(new HashMap<>(), HashMap::new);
+        owned.put("foo", "123");
+        owned.put("bar", "456");
+        owned.keySet().removeIf(k -> k.equals("bar"));
+        assertEquals(1, owned.size());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        CopyOnWriteMap map = new CopyOnWriteMap(new HashMap<>(), HashMap::new);
+        map.put("foo", "123");
+        CopyOnWriteMap copy = map.share();
+        copy.clear();
+        assertTrue(copy.isEmpty());
+        assertEquals("123", map.get("foo"));
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapIdempotentRepositoryTest extends Assert {
+
+    @Test
+    public void testAddContainsRemove() throws Exception {
+        OffHeapIdempotentRepository repository = new OffHeapIdempotentRepository(100);
+        repository.start();
+
+        assertTrue(repository.add("A"));
+        assertFalse(repository.add("A"));
+        assertTrue(repository.add("B"));
+        assertTrue(repository.contains("A"));
+        assertTrue(repository.contains("B"));
+        assertFalse(repository.contains("C"));
+        assertEquals(2, repository.getSize());
+
+        assertTrue(repository.remove("A"));
+        assertFalse(repository.remove("A"));
+        assertFalse(repository.contains("A"));
+        assertTrue(repository.add("A"));
+
+        repository.clear();
+        assertEquals(0, repository.getSize());
+        assertFalse(repository.contains("A"));
+        assertFalse(repository.contains("B"));
+
+        repository.stop();
+        assertEquals(0, repository.getMemorySize());
+    }
+
+    @Test
+    public void testMaximumSize() throws Exception {
+        OffHeapIdempotentRepository repository = new OffHeapIdempotentRepository(1000);
+        repository.start();
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.add("key-" + i));
+        }
+        assertTrue(repository.getRotations() > 0);
+        assertTrue(repository.getSize() <= 1000);
+
+        // at least the last half of the maximum size is kept
+        for (int i = 9500; i < 10000; i++) {
+            assertTrue(repository.contains("key-" + i));
+        }
+        assertFalse(repository.contains("key-0"));
+
+        repository.stop();
+    }
+
+    @Test
+    public void testFalsePositiveProbability() throws Exception {
+        OffHeapIdempotentRepository repository = new OffHeapIdempotentRepository(100000);
+        repository.setFalsePositiveProbability(0.01);
+        repository.start();
+
+        for (int i = 0; i < 50000; i++) {
+            repository.add("key-" + i);
+        }
+        for (int i = 0; i < 50000; i++) {
+            assertTrue(repository.contains("key-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (repository.contains("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("False positives: " + falsePositives, falsePositives < 200);
+
+        // smaller fingerprints uses less memory
+        OffHeapIdempotentRepository exact = new OffHeapIdempotentRepository(100000);
+        exact.start();
+        assertTrue(repository.getMemorySize() < exact.getMemorySize());
+
+        exact.stop();
+        repository.stop();
+    }
+
+    @Test
+    public void testSecondaryRepository() throws Exception {
+        OffHeapIdempotentRepository repository = new OffHeapIdempotentRepository(100000);
+        // a high probability so there are many probable hits to verify
+        repository.setFalsePositiveProbability(0.5);
+        MemoryIdempotentRepository secondary = new MemoryIdempotentRepository();
+        secondary.setCacheSize(100000);
+        repository.setSecondaryRepository(secondary);
+        repository.start();
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.add("key-" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.contains("key-" + i));
+            assertFalse(repository.contains("other-" + i));
+        }
+        assertTrue(repository.remove("key-1"));
+        assertFalse(repository.contains("key-1"));
+        assertFalse(secondary.contains("key-1"));
+
+        repository.stop();
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.camel.TestSupport.deleteDirectory;
+
+public class SegmentedFileIdempotentRepositoryTest extends Assert {
+
+    private final File directory = new File("target/data/segmentedstore");
+    private SegmentedFileIdempotentRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        deleteDirectory(directory);
+        repository = createRepository();
+        repository.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repository.stop();
+    }
+
+    private SegmentedFileIdempotentRepository createRepository() {
+        SegmentedFileIdempotentRepository answer = new SegmentedFileIdempotentRepository(directory);
+        answer.setMaxSegmentSize(1024);
+        answer.setSyncInterval(60000);
+        return answer;
+    }
+
+    @Test
+    public void testAddContainsRemove() throws Exception {
+        assertTrue(repository.add("A"));
+        assertFalse(repository.add("A"));
+        assertTrue(repository.add("B"));
+        assertTrue(repository.contains("A"));
+        assertTrue(repository.contains("B"));
+        assertFalse(repository.contains("C"));
+        assertEquals(2, repository.getSize());
+
+        assertTrue(repository.remove("A"));
+        assertFalse(repository.remove("A"));
+        assertFalse(repository.contains("A"));
+        assertTrue(repository.add("A"));
+        assertTrue(repository.contains("A"));
+
+        repository.clear();
+        assertEquals(0, repository.getSize());
+        assertFalse(repository.contains("A"));
+        assertTrue(repository.add("A"));
+    }
+
+    @Test
+    public void testManyKeys() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(repository.add("file-" + i + ".txt"));
+        }
+        assertTrue(repository.getSegments() > 1);
+        assertEquals(5000, repository.getSize());
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(repository.contains("file-" + i + ".txt"));
+            assertFalse(repository.contains("file-" + i + ".csv"));
+        }
+    }
+
+    @Test
+    public void testReloadFromIndex() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            repository.add("key-" + i);
+        }
+        repository.remove("key-10");
+        repository.stop();
+
+        assertTrue(new File(directory, "index.dat").exists());
+        repository = createRepository();
+        repository.start();
+        // the index is saved again when stopping
+        assertFalse(new File(directory, "index.dat").exists());
+
+        assertEquals(999, repository.getSize());
+        assertTrue(repository.contains("key-0"));
+        assertTrue(repository.contains("key-999"));
+        assertFalse(repository.contains("key-10"));
+    }
+
+    @Test
+    public void testReloadFromSegments() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            repository.add("key-" + i);
+        }
+        repository.remove("key-10");
+        int segments = repository.getSegments();
+        repository.stop();
+
+        // simulate a crash which has left an incomplete record and no index
+        assertTrue(new File(directory, "index.dat").delete());
+        File last = new File(directory, "segment-" + segments + ".log");
+        try (FileOutputStream fos = new FileOutputStream(last, true)) {
+            fos.write("+incompl".getBytes());
+        }
+
+        repository = createRepository();
+        repository.start();
+
+        assertEquals(999, repository.getSize());
+        assertTrue(repository.contains("key-0"));
+        assertTrue(repository.contains("key-999"));
+        assertFalse(repository.contains("key-10"));
+        assertFalse(repository.contains("incompl"));
+        assertTrue(repository.add("key-1000"));
+        assertTrue(repository.contains("key-1000"));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            repository.add("key-" + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            repository.remove("key-" + i);
+        }
+        long size = repository.getFileStoreSize();
+
+        repository.sync();
+        repository.compact();
+        assertTrue(repository.getCompactions() > 0);
+        assertTrue(repository.getFileStoreSize() < size);
+
+        assertEquals(500, repository.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, repository.contains("key-" + i));
+        }
+
+        // and the compacted segments can be reloaded
+        repository.stop();
+        assertTrue(new File(directory, "index.dat").delete());
+        repository = createRepository();
+        repository.start();
+        assertEquals(500, repository.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, repository.contains("key-" + i));
+        }
+    }
+
+    @Test
+    public void testMaxFileStoreSize() throws Exception {
+        repository.setMaxFileStoreSize(4096);
+        for (int i = 0; i < 1000; i++) {
+            repository.add("key-" + i);
+        }
+        repository.sync();
+        repository.compact();
+
+        assertTrue(repository.getFileStoreSize() <= 4096);
+        // the oldest keys are dropped
+        assertFalse(repository.contains("key-0"));
+        assertTrue(repository.contains("key-999"));
+        assertEquals(repository.getSize(), countKeys());
+    }
+
+    @Test
+    public void testClearKeepsOtherFiles() throws Exception {
+        File other = new File(directory, "other.txt");
+        assertTrue(other.createNewFile());
+        for (int i = 0; i < 100; i++) {
+            repository.add("key-" + i);
+        }
+
+        repository.clear();
+        assertEquals(0, repository.getSize());
+        assertTrue(other.exists());
+    }
+
+    @Test
+    public void testDirectoryPathNotSet() throws Exception {
+        assertNull(new SegmentedFileIdempotentRepository().getDirectoryPath());
+        assertEquals(directory.getPath(), repository.getDirectoryPath());
+    }
+
+    @Test
+    public void testConcurrentAddRemoveAndCompact() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String key = "key-" + thread + "-" + i;
+                        assertTrue(repository.add(key));
+                        assertFalse(repository.add(key));
+                        if (i % 2 == 0) {
+                            assertTrue(repository.remove(key));
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < 20; i++) {
+                repository.sync();
+                repository.compact();
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        repository.sync();
+        repository.compact();
+
+        assertEquals(2000, repository.getSize());
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i % 2 == 1, repository.contains("key-" + t + "-" + i));
+            }
+        }
+    }
+
+    private int countKeys() {
+        int answer = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (repository.contains("key-" + i)) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+}
@@ -1727,6 +1727,40 @@ public interface ActiveMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointConsumerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointConsumerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -3621,6 +3655,40 @@ public interface ActiveMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointProducerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointProducerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -4830,6 +4898,40 @@ public interface ActiveMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedActiveMQEndpointBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
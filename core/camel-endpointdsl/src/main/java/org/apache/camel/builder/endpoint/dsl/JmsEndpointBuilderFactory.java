@@ -1721,6 +1721,40 @@ public interface JmsEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointConsumerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointConsumerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -3608,6 +3642,40 @@ public interface JmsEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointProducerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointProducerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -4808,6 +4876,40 @@ public interface JmsEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedJmsEndpointBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
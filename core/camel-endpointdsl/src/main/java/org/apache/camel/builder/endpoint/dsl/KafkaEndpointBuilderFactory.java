@@ -251,6 +251,95 @@ public interface KafkaEndpointBuilderFactory {
             setProperty("autoOffsetReset", autoOffsetReset);
             return this;
         }
+        /**
+         * Whether the consumer routes the polled records together as a single
+         * exchange, instead of an exchange per record. The message body is a
+         * java.util.List with the value of each record, and the records are
+         * available from the kafka.BATCH_RECORDS header. The offsets of the
+         * records are committed when the exchange is done, which replaces the
+         * auto commit of Kafka. This option cannot be used together with
+         * allowManualCommit or consumerWorkers.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batching(boolean batching) {
+            setProperty("batching", batching);
+            return this;
+        }
+        /**
+         * Whether the consumer routes the polled records together as a single
+         * exchange, instead of an exchange per record. The message body is a
+         * java.util.List with the value of each record, and the records are
+         * available from the kafka.BATCH_RECORDS header. The offsets of the
+         * records are committed when the exchange is done, which replaces the
+         * auto commit of Kafka. This option cannot be used together with
+         * allowManualCommit or consumerWorkers.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batching(String batching) {
+            setProperty("batching", batching);
+            return this;
+        }
+        /**
+         * The maximum number of records in each exchange when batching. Use 0
+         * for no limit.
+         * 
+         * The option is a: <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batchingMaxSize(int batchingMaxSize) {
+            setProperty("batchingMaxSize", batchingMaxSize);
+            return this;
+        }
+        /**
+         * The maximum number of records in each exchange when batching. Use 0
+         * for no limit.
+         * 
+         * The option will be converted to a <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batchingMaxSize(
+                String batchingMaxSize) {
+            setProperty("batchingMaxSize", batchingMaxSize);
+            return this;
+        }
+        /**
+         * The maximum time in millis the consumer keeps polling for more
+         * records to fill up a batch to batchingMaxSize, before routing the
+         * records it has. The default value 0 routes the records of each poll
+         * right away.
+         * 
+         * The option is a: <code>long</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batchingMaxWaitMs(
+                long batchingMaxWaitMs) {
+            setProperty("batchingMaxWaitMs", batchingMaxWaitMs);
+            return this;
+        }
+        /**
+         * The maximum time in millis the consumer keeps polling for more
+         * records to fill up a batch to batchingMaxSize, before routing the
+         * records it has. The default value 0 routes the records of each poll
+         * right away.
+         * 
+         * The option will be converted to a <code>long</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder batchingMaxWaitMs(
+                String batchingMaxWaitMs) {
+            setProperty("batchingMaxWaitMs", batchingMaxWaitMs);
+            return this;
+        }
         /**
          * This options controls what happens when a consumer is processing an
          * exchange and it fails. If the option is false then the consumer
@@ -433,6 +522,87 @@ public interface KafkaEndpointBuilderFactory {
             setProperty("consumerStreams", consumerStreams);
             return this;
         }
+        /**
+         * The number of worker threads each consumer dispatches the polled
+         * records to, so the records of different partitions are processed in
+         * parallel, while the records of the same partition (or key) are
+         * processed in order. The offset of a partition is committed
+         * asynchronously when all the records up to the offset have been
+         * processed, which replaces the auto commit of Kafka. The default value
+         * 0 processes the records on the consumer thread. This option cannot be
+         * used together with allowManualCommit or breakOnFirstError.
+         * 
+         * The option is a: <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder consumerWorkers(int consumerWorkers) {
+            setProperty("consumerWorkers", consumerWorkers);
+            return this;
+        }
+        /**
+         * The number of worker threads each consumer dispatches the polled
+         * records to, so the records of different partitions are processed in
+         * parallel, while the records of the same partition (or key) are
+         * processed in order. The offset of a partition is committed
+         * asynchronously when all the records up to the offset have been
+         * processed, which replaces the auto commit of Kafka. The default value
+         * 0 processes the records on the consumer thread. This option cannot be
+         * used together with allowManualCommit or breakOnFirstError.
+         * 
+         * The option will be converted to a <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder consumerWorkers(
+                String consumerWorkers) {
+            setProperty("consumerWorkers", consumerWorkers);
+            return this;
+        }
+        /**
+         * The maximum number of records of a partition waiting to be processed
+         * by the consumer workers, before the consumer pauses fetching records
+         * from the partition. The partition is resumed when the backlog is down
+         * to half.
+         * 
+         * The option is a: <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder consumerWorkersMaxBacklog(
+                int consumerWorkersMaxBacklog) {
+            setProperty("consumerWorkersMaxBacklog", consumerWorkersMaxBacklog);
+            return this;
+        }
+        /**
+         * The maximum number of records of a partition waiting to be processed
+         * by the consumer workers, before the consumer pauses fetching records
+         * from the partition. The partition is resumed when the backlog is down
+         * to half.
+         * 
+         * The option will be converted to a <code>int</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder consumerWorkersMaxBacklog(
+                String consumerWorkersMaxBacklog) {
+            setProperty("consumerWorkersMaxBacklog", consumerWorkersMaxBacklog);
+            return this;
+        }
+        /**
+         * Whether the consumer workers keep the records in order per partition,
+         * or per record key, which spreads the records of a partition over the
+         * workers. Records without a key are ordered per partition.
+         * 
+         * The option is a: <code>java.lang.String</code> type.
+         * 
+         * Group: consumer
+         */
+        default KafkaEndpointConsumerBuilder consumerWorkersOrdering(
+                String consumerWorkersOrdering) {
+            setProperty("consumerWorkersOrdering", consumerWorkersOrdering);
+            return this;
+        }
         /**
          * The maximum amount of data the server should return for a fetch
          * request This is not an absolute maximum, if the first message in the
@@ -1821,6 +1991,38 @@ public interface KafkaEndpointBuilderFactory {
             setProperty("maxBlockMs", maxBlockMs);
             return this;
         }
+        /**
+         * The maximum number of records sent from KafkaProducer which are not
+         * yet acknowledged by kafka server. When reached, sending more records
+         * blocks for up to maxBlockMs until records have been acknowledged,
+         * which applies back pressure to the routes sending to Kafka. The
+         * default value 0 is no limit.
+         * 
+         * The option is a: <code>int</code> type.
+         * 
+         * Group: producer
+         */
+        default KafkaEndpointProducerBuilder maxInFlightRecords(
+                int maxInFlightRecords) {
+            setProperty("maxInFlightRecords", maxInFlightRecords);
+            return this;
+        }
+        /**
+         * The maximum number of records sent from KafkaProducer which are not
+         * yet acknowledged by kafka server. When reached, sending more records
+         * blocks for up to maxBlockMs until records have been acknowledged,
+         * which applies back pressure to the routes sending to Kafka. The
+         * default value 0 is no limit.
+         * 
+         * The option will be converted to a <code>int</code> type.
+         * 
+         * Group: producer
+         */
+        default KafkaEndpointProducerBuilder maxInFlightRecords(
+                String maxInFlightRecords) {
+            setProperty("maxInFlightRecords", maxInFlightRecords);
+            return this;
+        }
         /**
          * The maximum number of unacknowledged requests the client will send on
          * a single connection before blocking. Note that if this setting is set
@@ -2399,6 +2601,44 @@ public interface KafkaEndpointBuilderFactory {
             setProperty("workerPoolCoreSize", workerPoolCoreSize);
             return this;
         }
+        /**
+         * Whether to continue routing Exchange on a worker pool after kafka
+         * server has acknowledge the message that was sent to it from
+         * KafkaProducer using asynchronous non-blocking processing. By default
+         * the routing continues right away on the thread of the Kafka producer
+         * which completed the send, which avoids a thread hand-over per
+         * exchange, but then the rest of the route should not do slow or
+         * blocking work. Configuring a custom workerPool enables the worker
+         * pool as well.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: producer
+         */
+        default KafkaEndpointProducerBuilder workerPoolEnabled(
+                boolean workerPoolEnabled) {
+            setProperty("workerPoolEnabled", workerPoolEnabled);
+            return this;
+        }
+        /**
+         * Whether to continue routing Exchange on a worker pool after kafka
+         * server has acknowledge the message that was sent to it from
+         * KafkaProducer using asynchronous non-blocking processing. By default
+         * the routing continues right away on the thread of the Kafka producer
+         * which completed the send, which avoids a thread hand-over per
+         * exchange, but then the rest of the route should not do slow or
+         * blocking work. Configuring a custom workerPool enables the worker
+         * pool as well.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: producer
+         */
+        default KafkaEndpointProducerBuilder workerPoolEnabled(
+                String workerPoolEnabled) {
+            setProperty("workerPoolEnabled", workerPoolEnabled);
+            return this;
+        }
         /**
          * Maximum number of threads for the worker pool for continue routing
          * Exchange after kafka server has acknowledge the message that was sent
@@ -1092,6 +1092,40 @@ public interface RabbitMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointConsumerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointConsumerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -2211,6 +2245,40 @@ public interface RabbitMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointProducerBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointProducerBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -3041,6 +3109,40 @@ public interface RabbitMQEndpointBuilderFactory {
             setProperty("requestTimeoutCheckerInterval", requestTimeoutCheckerInterval);
             return this;
         }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointBuilder requestTimeoutTimingWheel(
+                boolean requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies for inOut exchange, instead of the default timeout
+         * map. The timing wheel adds, removes and expires the pending replies
+         * in constant time, which scales better when there are many pending
+         * replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Group: advanced
+         */
+        default AdvancedRabbitMQEndpointBuilder requestTimeoutTimingWheel(
+                String requestTimeoutTimingWheel) {
+            setProperty("requestTimeoutTimingWheel", requestTimeoutTimingWheel);
+            return this;
+        }
         /**
          * Sets whether synchronous processing should be strictly used, or Camel
          * is allowed to use asynchronous processing (if supported).
@@ -141,6 +141,36 @@ public interface SedaEndpointBuilderFactory {
         default SedaEndpointConsumerBuilder basic() {
             return (SedaEndpointConsumerBuilder) this;
         }
+        /**
+         * The maximum number of exchanges the consumer takes from the queue at
+         * once, which are then processed one after the other. Taking more
+         * exchanges at once reduces the contention on the queue, when there are
+         * many exchanges on the queue. The default value 1 takes one exchange
+         * at a time.
+         * 
+         * The option is a: <code>int</code> type.
+         * 
+         * Group: consumer (advanced)
+         */
+        default AdvancedSedaEndpointConsumerBuilder drainSize(int drainSize) {
+            setProperty("drainSize", drainSize);
+            return this;
+        }
+        /**
+         * The maximum number of exchanges the consumer takes from the queue at
+         * once, which are then processed one after the other. Taking more
+         * exchanges at once reduces the contention on the queue, when there are
+         * many exchanges on the queue. The default value 1 takes one exchange
+         * at a time.
+         * 
+         * The option will be converted to a <code>int</code> type.
+         * 
+         * Group: consumer (advanced)
+         */
+        default AdvancedSedaEndpointConsumerBuilder drainSize(String drainSize) {
+            setProperty("drainSize", drainSize);
+            return this;
+        }
         /**
          * To let the consumer use a custom ExceptionHandler. Notice if the
          * option bridgeErrorHandler is enabled then this option is not in use.
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.Map;
+
+import org.apache.camel.spi.ExchangePropertiesMapFactory;
+
+/**
+ * A {@link ExchangePropertiesMapFactory} which is using the {@link CompactMap} map implementation, which stores
+ * Camel's well-known internal exchange properties in fixed slots, and the other properties in a small open addressed map.
+ * <p/>
+ * Important: The map is not thread-safe, so only use this factory when the exchange properties
+ * are not modified concurrently by multiple threads.
+ */
+public class CompactExchangePropertiesMapFactory implements ExchangePropertiesMapFactory {
+
+    @Override
+    public Map<String, Object> newMap() {
+        return new CompactMap(false, true);
+    }
+
+    @Override
+    public Map<String, Object> newMap(Map<String, Object> map) {
+        return new CompactMap(false, true, map);
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.camel.Exchange;
+
+/**
+ * A compact {@link Map} for storing a few headers or exchange properties with as little garbage as possible.
+ * <p/>
+ * The keys and values are stored in two arrays using open addressing with linear probing, which starts small
+ * and grows on demand. The map can optionally be case insensitive, and optionally store Camel's
+ * well-known internal exchange properties (such as {@link Exchange#MESSAGE_HISTORY}) in fixed slots,
+ * which avoids hashing and probing for these keys.
+ * <p/>
+ * This implementation is <b>not</b> thread-safe.
+ */
+public class CompactMap extends AbstractMap<String, Object> {
+
+    /**
+     * The well-known keys which are stored in fixed slots (max 64 keys).
+     */
+    static final String[] KNOWN_KEYS = {
+        Exchange.CREATED_TIMESTAMP, Exchange.MESSAGE_HISTORY, Exchange.TO_ENDPOINT, Exchange.FAILURE_ENDPOINT,
+        Exchange.FAILURE_ROUTE_ID, Exchange.FAILURE_HANDLED, Exchange.ERRORHANDLER_HANDLED, Exchange.EXCEPTION_CAUGHT,
+        Exchange.EXCEPTION_HANDLED, Exchange.ROUTE_STOP, Exchange.ROLLBACK_ONLY, Exchange.ROLLBACK_ONLY_LAST,
+        Exchange.REDELIVERY_EXHAUSTED, Exchange.STEP_ID, Exchange.CORRELATION_ID, Exchange.CHARSET_NAME,
+        Exchange.FILTER_MATCHED, Exchange.SPLIT_INDEX, Exchange.SPLIT_SIZE, Exchange.SPLIT_COMPLETE,
+        Exchange.MULTICAST_INDEX, Exchange.MULTICAST_COMPLETE, Exchange.AGGREGATED_SIZE, Exchange.AGGREGATED_COMPLETED_BY,
+        Exchange.AGGREGATED_CORRELATION_KEY, Exchange.BATCH_INDEX, Exchange.BATCH_SIZE, Exchange.BATCH_COMPLETE,
+        Exchange.TRY_ROUTE_BLOCK, Exchange.PARENT_UNIT_OF_WORK, Exchange.STREAM_CACHE_UNIT_OF_WORK, Exchange.BREADCRUMB_ID
+    };
+
+    private static final int KNOWN_TABLE_MASK = 127;
+    private static final String[] KNOWN_TABLE = new String[KNOWN_TABLE_MASK + 1];
+    private static final int[] KNOWN_TABLE_SLOTS = new int[KNOWN_TABLE_MASK + 1];
+    private static final Object REMOVED = new Object();
+    private static final int INITIAL_CAPACITY = 8;
+
+    static {
+        // index the known keys in a static open addressed table, which relies on the hash code cached in the strings
+        for (int slot = 0; slot < KNOWN_KEYS.length; slot++) {
+            String key = KNOWN_KEYS[slot];
+            int i = spread(key.hashCode()) & KNOWN_TABLE_MASK;
+            while (KNOWN_TABLE[i] != null) {
+                i = (i + 1) & KNOWN_TABLE_MASK;
+            }
+            KNOWN_TABLE[i] = key;
+            KNOWN_TABLE_SLOTS[i] = slot;
+        }
+    }
+
+    private final boolean caseInsensitive;
+    private final boolean knownKeys;
+    // the keys are either a String, REMOVED or null
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+    private int used;
+    // fixed slots for the known keys, where the bits tells which slots are in use
+    private Object[] slots;
+    private long slotsInUse;
+    private int modCount;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Creates a new map
+     *
+     * @param caseInsensitive whether the keys are case insensitive
+     * @param knownKeys       whether to store the well-known exchange properties in fixed slots
+     */
+    public CompactMap(boolean caseInsensitive, boolean knownKeys) {
+        this.caseInsensitive = caseInsensitive;
+        this.knownKeys = knownKeys;
+    }
+
+    /**
+     * Creates a new map with the content of the given map
+     *
+     * @param caseInsensitive whether the keys are case insensitive
+     * @param knownKeys       whether to store the well-known exchange properties in fixed slots
+     * @param map             the content to copy over
+     */
+    public CompactMap(boolean caseInsensitive, boolean knownKeys, Map<String, Object> map) {
+        this(caseInsensitive, knownKeys);
+        if (map instanceof CompactMap && ((CompactMap) map).caseInsensitive == caseInsensitive
+                && ((CompactMap) map).knownKeys == knownKeys) {
+            // fast copy of the arrays
+            CompactMap other = (CompactMap) map;
+            if (other.keys != null) {
+                keys = other.keys.clone();
+                values = other.values.clone();
+            }
+            if (other.slots != null) {
+                slots = other.slots.clone();
+            }
+            slotsInUse = other.slotsInUse;
+            size = other.size;
+            used = other.used;
+        } else {
+            putAll(map);
+        }
+    }
+
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        String k = (String) key;
+        if (knownKeys) {
+            int slot = knownSlot(k);
+            if (slot >= 0) {
+                return (slotsInUse & (1L << slot)) != 0;
+            }
+        }
+        return indexOf(k) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String k = (String) key;
+        if (knownKeys) {
+            int slot = knownSlot(k);
+            if (slot >= 0) {
+                return slots != null ? slots[slot] : null;
+            }
+        }
+        int index = indexOf(k);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+        if (knownKeys) {
+            int slot = knownSlot(key);
+            if (slot >= 0) {
+                return putSlot(slot, value);
+            }
+        }
+        if (keys == null) {
+            keys = new Object[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        }
+
+        int hash = hash(key);
+        int mask = keys.length - 1;
+        int i = hash & mask;
+        int free = -1;
+        Object existing;
+        while ((existing = keys[i]) != null) {
+            if (existing == REMOVED) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (matches((String) existing, key)) {
+                Object answer = values[i];
+                values[i] = value;
+                return answer;
+            }
+            i = (i + 1) & mask;
+        }
+
+        modCount++;
+        size++;
+        if (free >= 0) {
+            // reuse the removed position
+            keys[free] = key;
+            values[free] = value;
+        } else {
+            keys[i] = key;
+            values[i] = value;
+            // grow when more than 3/4 of the positions are used
+            if (++used > (keys.length >> 2) * 3) {
+                resize(size > (keys.length >> 1) ? keys.length << 1 : keys.length);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String k = (String) key;
+        if (knownKeys) {
+            int slot = knownSlot(k);
+            if (slot >= 0) {
+                return removeSlot(slot);
+            }
+        }
+        int index = indexOf(k);
+        if (index < 0) {
+            return null;
+        }
+        Object answer = values[index];
+        removeAt(index);
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            modCount++;
+            if (keys != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = null;
+                    values[i] = null;
+                }
+            }
+            if (slots != null) {
+                for (int i = 0; i < slots.length; i++) {
+                    slots[i] = null;
+                }
+            }
+            slotsInUse = 0;
+            size = 0;
+            used = 0;
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private Object putSlot(int slot, Object value) {
+        if (slots == null) {
+            slots = new Object[KNOWN_KEYS.length];
+        }
+        long bit = 1L << slot;
+        Object answer = slots[slot];
+        slots[slot] = value;
+        if ((slotsInUse & bit) == 0) {
+            slotsInUse |= bit;
+            size++;
+            modCount++;
+        }
+        return answer;
+    }
+
+    private Object removeSlot(int slot) {
+        long bit = 1L << slot;
+        if ((slotsInUse & bit) == 0) {
+            return null;
+        }
+        Object answer = slots[slot];
+        slots[slot] = null;
+        slotsInUse &= ~bit;
+        size--;
+        modCount++;
+        return answer;
+    }
+
+    private void removeAt(int index) {
+        keys[index] = REMOVED;
+        values[index] = null;
+        size--;
+        modCount++;
+    }
+
+    private int indexOf(String key) {
+        if (keys == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object existing;
+        while ((existing = keys[i]) != null) {
+            if (existing != REMOVED && matches((String) existing, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        used = 0;
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null && key != REMOVED) {
+                int i = hash((String) key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+                used++;
+            }
+        }
+    }
+
+    private boolean matches(String existing, String key) {
+        return existing == key || (caseInsensitive ? existing.equalsIgnoreCase(key) : existing.equals(key));
+    }
+
+    private int hash(String key) {
+        if (!caseInsensitive) {
+            return spread(key.hashCode());
+        }
+        // must be consistent with String.equalsIgnoreCase
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+        }
+        return spread(h);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int knownSlot(String key) {
+        int i = spread(key.hashCode()) & KNOWN_TABLE_MASK;
+        String known;
+        while ((known = KNOWN_TABLE[i]) != null) {
+            if (known == key || known.equals(key)) {
+                return KNOWN_TABLE_SLOTS[i];
+            }
+            i = (i + 1) & KNOWN_TABLE_MASK;
+        }
+        return -1;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        // the positions 0..slots are the fixed slots, and then the positions of the table follows
+        private int next = -1;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            int slotCount = slots != null ? slots.length : 0;
+            int tableCount = keys != null ? keys.length : 0;
+            for (next++; next < slotCount + tableCount; next++) {
+                if (next < slotCount) {
+                    if ((slotsInUse & (1L << next)) != 0) {
+                        return;
+                    }
+                } else {
+                    Object key = keys[next - slotCount];
+                    if (key != null && key != REMOVED) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            int slotCount = slots != null ? slots.length : 0;
+            int tableCount = keys != null ? keys.length : 0;
+            return next < slotCount + tableCount;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            advance();
+            return new CompactEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int slotCount = slots != null ? slots.length : 0;
+            if (current < slotCount) {
+                removeSlot(current);
+            } else {
+                // marking the position as removed does not move other entries, so the iteration can continue
+                removeAt(current - slotCount);
+            }
+            current = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class CompactEntry implements Entry<String, Object> {
+
+        private final int position;
+        private final String key;
+
+        CompactEntry(int position) {
+            this.position = position;
+            int slotCount = slots != null ? slots.length : 0;
+            this.key = position < slotCount ? KNOWN_KEYS[position] : (String) keys[position - slotCount];
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            int slotCount = slots != null ? slots.length : 0;
+            if (position < slotCount) {
+                Object answer = slots[position];
+                slots[position] = value;
+                return answer;
+            }
+            Object answer = values[position - slotCount];
+            values[position - slotCount] = value;
+            return answer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object value = getValue();
+            return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactMapTest extends Assert {
+
+    @Test
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new CompactHeadersMapFactory().newMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals(1, map.size());
+
+        map.put("FOO", "beer");
+        assertEquals("beer", map.get("foo"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testConstructFromOther() {
+        Map<String, Object> other = new CompactHeadersMapFactory().newMap();
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+
+        Map<String, Object> map = new CompactHeadersMapFactory().newMap(other);
+
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals("cheese", map.get("foo"));
+        assertEquals(123, map.get("BaR"));
+
+        // should be a defensive copy
+        map.put("baz", true);
+        assertEquals(3, map.size());
+        assertEquals(2, other.size());
+        assertNull(other.get("baz"));
+    }
+
+    @Test
+    public void testIsInstance() {
+        Map<String, Object> map = new CompactHeadersMapFactory().newMap();
+
+        assertTrue(new CompactHeadersMapFactory().isInstanceOf(map));
+        assertFalse(new CompactHeadersMapFactory().isInstanceOf(new HashMap<>()));
+        assertFalse(new CompactHeadersMapFactory().isInstanceOf(new CompactExchangePropertiesMapFactory().newMap()));
+    }
+
+    @Test
+    public void testGrowAndRemove() {
+        Map<String, Object> map = new CompactHeadersMapFactory().newMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get("KEY" + i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove("Key" + i));
+        }
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertFalse(map.containsKey("key" + i));
+            } else {
+                assertEquals(i, map.get("key" + i));
+            }
+        }
+        // add again which reuses the removed positions
+        for (int i = 0; i < 1000; i += 2) {
+            map.put("key" + i, "again" + i);
+        }
+        assertEquals(1000, map.size());
+        assertEquals("again10", map.get("key10"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("key1"));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Map<String, Object> map = new CompactHeadersMapFactory().newMap();
+        for (int i = 0; i < 20; i++) {
+            map.put("key" + i, i);
+        }
+
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            count++;
+            if ((Integer) entry.getValue() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(20, count);
+        assertEquals(10, map.size());
+        assertEquals(1, map.get("key1"));
+        assertNull(map.get("key2"));
+
+        assertEquals(new HashMap<>(map), map);
+    }
+
+    @Test
+    public void testKnownProperties() {
+        Map<String, Object> map = new CompactExchangePropertiesMapFactory().newMap();
+        map.put(Exchange.TO_ENDPOINT, "mock://result");
+        map.put(Exchange.MESSAGE_HISTORY, "history");
+        map.put("foo", "bar");
+
+        assertEquals(3, map.size());
+        assertEquals("mock://result", map.get(Exchange.TO_ENDPOINT));
+        // should use a new string which is equal to the known key
+        assertEquals("history", map.get(new StringBuilder("Camel").append("MessageHistory").toString()));
+        assertEquals("bar", map.get("foo"));
+        // properties are case sensitive
+        assertNull(map.get("FOO"));
+        assertNull(map.get(Exchange.TO_ENDPOINT.toUpperCase()));
+
+        Map<String, Object> copy = new CompactExchangePropertiesMapFactory().newMap(map);
+        assertEquals(map, copy);
+        copy.remove(Exchange.TO_ENDPOINT);
+        assertEquals(2, copy.size());
+        assertEquals("mock://result", map.get(Exchange.TO_ENDPOINT));
+
+        map.put(Exchange.TO_ENDPOINT, null);
+        assertTrue(map.containsKey(Exchange.TO_ENDPOINT));
+        assertEquals(3, map.size());
+
+        Map<String, Object> answer = new HashMap<>(map);
+        assertEquals(3, answer.size());
+        assertEquals("history", answer.get(Exchange.MESSAGE_HISTORY));
+    }
+
+    @Test
+    public void testKnownKeysFitInSlots() {
+        // the slots in use are tracked by the bits of a long
+        assertTrue(CompactMap.KNOWN_KEYS.length <= 64);
+        assertEquals(CompactMap.KNOWN_KEYS.length, new HashSet<>(Arrays.asList(CompactMap.KNOWN_KEYS)).size());
+    }
+
+}
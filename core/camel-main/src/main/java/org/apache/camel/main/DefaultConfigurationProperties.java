@@ -60,6 +60,7 @@ public abstract class DefaultConfigurationProperties<T> {
     private boolean endpointRuntimeStatisticsEnabled;
     private boolean useDataType;
     private boolean useBreadcrumb;
+    private boolean inflightRepositoryBrowseEnabled = true;
     private ManagementStatisticsLevel jmxManagementStatisticsLevel = ManagementStatisticsLevel.Default;
     private String jmxManagementNamePattern = "#name#";
     private boolean jmxCreateConnector;
@@ -539,6 +540,20 @@ public abstract class DefaultConfigurationProperties<T> {
         this.useBreadcrumb = useBreadcrumb;
     }
 
+    public boolean isInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled;
+    }
+
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     *
+     * This is by default enabled. If disabled then the inflight exchanges are only counted,
+     * which reduces the overhead of routing each exchange.
+     */
+    public void setInflightRepositoryBrowseEnabled(boolean inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public ManagementStatisticsLevel getJmxManagementStatisticsLevel() {
         return jmxManagementStatisticsLevel;
     }
@@ -1028,6 +1043,17 @@ public abstract class DefaultConfigurationProperties<T> {
         return (T) this;
     }
 
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     *
+     * This is by default enabled. If disabled then the inflight exchanges are only counted,
+     * which reduces the overhead of routing each exchange.
+     */
+    public T withInflightRepositoryBrowseEnabled(boolean inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+        return (T) this;
+    }
+
     /**
      * Sets the JMX statistics level
      * The level can be set to Extended to gather additional information
@@ -29,6 +29,9 @@ public interface ManagedInflightRepositoryMBean extends ManagedServiceMBean {
     @ManagedOperation(description = "Current size of inflight exchanges which are from the given route.")
     int size(String routeId);
 
+    @ManagedAttribute(description = "Whether the inflight repository should allow browsing each inflight exchange.")
+    boolean isInflightBrowseEnabled();
+
     @ManagedOperation(description = "Lists all the exchanges which are currently inflight")
     TabularData browse();
 
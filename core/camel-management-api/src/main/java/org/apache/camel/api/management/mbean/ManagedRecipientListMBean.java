@@ -53,6 +53,15 @@ public interface ManagedRecipientListMBean extends ManagedProcessorMBean, Manage
     @ManagedAttribute(description = "The total timeout specified in millis, when using parallel processing.")
     Long getTimeout();
 
+    @ManagedAttribute(description = "Number of endpoints in the cache of the resolved endpoints")
+    Integer getEndpointCacheSize();
+
+    @ManagedAttribute(description = "Number of times the endpoint was found in the cache of the resolved endpoints")
+    Long getEndpointCacheHits();
+
+    @ManagedAttribute(description = "Number of times the endpoint was not found in the cache of the resolved endpoints")
+    Long getEndpointCacheMisses();
+
     @Override
     @ManagedOperation(description = "Statistics of the endpoints which has been sent to")
     TabularData extendedInformation();
@@ -41,6 +41,15 @@ public interface ManagedSendDynamicProcessorMBean extends ManagedProcessorMBean,
     @ManagedAttribute(description = "Whether an optimised component (SendDynamicAware) is in use")
     Boolean isOptimised();
 
+    @ManagedAttribute(description = "Number of endpoints in the cache of the resolved endpoints")
+    Integer getEndpointCacheSize();
+
+    @ManagedAttribute(description = "Number of times the endpoint was found in the cache of the resolved endpoints")
+    Long getEndpointCacheHits();
+
+    @ManagedAttribute(description = "Number of times the endpoint was not found in the cache of the resolved endpoints")
+    Long getEndpointCacheMisses();
+
     @Override
     @ManagedOperation(description = "Statistics of the endpoints which has been sent to")
     TabularData extendedInformation();
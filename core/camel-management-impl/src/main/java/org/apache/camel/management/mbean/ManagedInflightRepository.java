@@ -58,6 +58,11 @@ public class ManagedInflightRepository extends ManagedService implements Managed
         return inflightRepository.size(routeId);
     }
 
+    @Override
+    public boolean isInflightBrowseEnabled() {
+        return inflightRepository.isInflightBrowseEnabled();
+    }
+
     @Override
     public TabularData browse() {
         return browse(null, -1, false);
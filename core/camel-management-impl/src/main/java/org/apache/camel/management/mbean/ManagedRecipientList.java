@@ -30,6 +30,7 @@ import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedRecipientListMBean;
 import org.apache.camel.model.RecipientListDefinition;
+import org.apache.camel.processor.DynamicEndpointCache;
 import org.apache.camel.processor.RecipientList;
 import org.apache.camel.spi.EndpointUtilizationStatistics;
 import org.apache.camel.spi.ManagementStrategy;
@@ -62,6 +63,9 @@ public class ManagedRecipientList extends ManagedProcessor implements ManagedRec
         if (processor.getEndpointUtilizationStatistics() != null) {
             processor.getEndpointUtilizationStatistics().clear();
         }
+        if (processor.getEndpointCache() != null) {
+            processor.getEndpointCache().resetStatistics();
+        }
     }
 
     @Override
@@ -94,6 +98,24 @@ public class ManagedRecipientList extends ManagedProcessor implements ManagedRec
         return processor.getCacheSize();
     }
 
+    @Override
+    public Integer getEndpointCacheSize() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public Long getEndpointCacheHits() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    @Override
+    public Long getEndpointCacheMisses() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.getMisses() : 0;
+    }
+
     @Override
     public Boolean isParallelAggregate() {
         return processor.isParallelAggregate();
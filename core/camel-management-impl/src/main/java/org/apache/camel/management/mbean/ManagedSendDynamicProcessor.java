@@ -30,6 +30,7 @@ import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedSendDynamicProcessorMBean;
 import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.processor.DynamicEndpointCache;
 import org.apache.camel.processor.SendDynamicProcessor;
 import org.apache.camel.spi.EndpointUtilizationStatistics;
 import org.apache.camel.spi.ManagementStrategy;
@@ -63,6 +64,9 @@ public class ManagedSendDynamicProcessor extends ManagedProcessor implements Man
         if (processor.getEndpointUtilizationStatistics() != null) {
             processor.getEndpointUtilizationStatistics().clear();
         }
+        if (processor.getEndpointCache() != null) {
+            processor.getEndpointCache().resetStatistics();
+        }
     }
 
     @Override
@@ -94,6 +98,24 @@ public class ManagedSendDynamicProcessor extends ManagedProcessor implements Man
         return processor.getCacheSize();
     }
 
+    @Override
+    public Integer getEndpointCacheSize() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public Long getEndpointCacheHits() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    @Override
+    public Long getEndpointCacheMisses() {
+        DynamicEndpointCache cache = processor.getEndpointCache();
+        return cache != null ? cache.getMisses() : 0;
+    }
+
     @Override
     public Boolean isIgnoreInvalidEndpoint() {
         return processor.isIgnoreInvalidEndpoint();
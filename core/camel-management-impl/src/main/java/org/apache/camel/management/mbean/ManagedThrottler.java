@@ -70,4 +70,9 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public Boolean isRejectExecution() {
         return throttler.isRejectExecution();
     }
+
+    @Override
+    public Boolean isTokenBucket() {
+        return throttler.isTokenBucket();
+    }
 }
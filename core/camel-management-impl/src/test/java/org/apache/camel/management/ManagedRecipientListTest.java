@@ -84,6 +84,14 @@ public class ManagedRecipientListTest extends ManagementTestSupport {
         TabularData data = (TabularData) mbeanServer.invoke(on, "extendedInformation", null, null);
         assertNotNull(data);
         assertEquals(2, data.size());
+
+        // the endpoints are resolved once and then looked up from the endpoint cache
+        Integer size = (Integer) mbeanServer.getAttribute(on, "EndpointCacheSize");
+        assertEquals(2, size.intValue());
+        Long hits = (Long) mbeanServer.getAttribute(on, "EndpointCacheHits");
+        assertEquals(1, hits.longValue());
+        Long misses = (Long) mbeanServer.getAttribute(on, "EndpointCacheMisses");
+        assertEquals(2, misses.longValue());
     }
 
     @Override
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link Map} used for the headers and exchange properties of copied exchanges, where the copies share the map
+ * of the original exchange, instead of each copy eagerly copying the map.
+ * <p/>
+ * When the map is shared then the shared map is no longer changed, and the changes are instead kept as a small number
+ * of changes on top of the shared map. When there are more changes, or the map is shared once more, then the map is
+ * copied with the changes applied, and from then on the copy is changed directly. This allows the EIPs such as the
+ * multicast, splitter and wire tap to create many copies of an exchange, where the copies only set a few headers
+ * or properties of their own, without copying all the headers and properties for each copy.
+ * <p/>
+ * The maps are created by the given function, which creates a new map with the content of the given map,
+ * such as {@link org.apache.camel.spi.HeadersMapFactory#newMap(Map)}. The keys are therefore matched in the same way
+ * (such as case insensitive for headers) by the shared map and the changes.
+ * <p/>
+ * The changes and the sharing are synchronized, so a change is never done on a map which is being shared.
+ */
+public final class CopyOnWriteMap extends AbstractMap<String, Object> {
+
+    private static final int MAX_CHANGES = 16;
+    private static final Object REMOVED = new Object();
+    private static final Object NULL = new Object();
+
+    private final UnaryOperator<Map<String, Object>> factory;
+    private volatile Map<String, Object> map;
+    private volatile boolean shared;
+    // the changes on top of the shared map, where removed keys are marked with REMOVED
+    private volatile Map<String, Object> changes;
+    private Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Creates a map which is initially not shared.
+     *
+     * @param map     the map
+     * @param factory function to create a new map with the content of the given map
+     */
+    public CopyOnWriteMap(Map<String, Object> map, UnaryOperator<Map<String, Object>> factory) {
+        this.map = map;
+        this.factory = factory;
+    }
+
+    private CopyOnWriteMap(CopyOnWriteMap source) {
+        this.map = source.map;
+        this.factory = source.factory;
+        this.shared = true;
+    }
+
+    /**
+     * Shares this map with a new map, which has the same content as this map. Changes to either of the maps
+     * are not seen by the other map.
+     *
+     * @return the new map
+     */
+    public synchronized CopyOnWriteMap share() {
+        if (changes != null) {
+            // do not share a map on top of changes, but copy the map so the maps does not build up a chain of changes
+            copy();
+        }
+        shared = true;
+        return new CopyOnWriteMap(this);
+    }
+
+    /**
+     * Whether the map is currently shared with other maps
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * The underlying map, which must not be changed directly.
+     */
+    Map<String, Object> getMap() {
+        return map;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Map<String, Object> c = changes;
+        if (c != null) {
+            Object value = c.get(key);
+            if (value != null) {
+                return value == REMOVED || value == NULL ? null : value;
+            }
+        }
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Map<String, Object> c = changes;
+        if (c != null) {
+            Object value = c.get(key);
+            if (value != null) {
+                return value != REMOVED;
+            }
+        }
+        return map.containsKey(key);
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        // must check under the lock as the map may be shared concurrently
+        if (!shared) {
+            return map.put(key, value);
+        }
+        Object answer = get(key);
+        changes().put(key, value != null ? value : NULL);
+        if (changes.size() > MAX_CHANGES) {
+            copy();
+        }
+        return answer;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        // must check under the lock as the map may be shared concurrently
+        if (!shared) {
+            return map.remove(key);
+        }
+        if (!containsKey(key)) {
+            return null;
+        }
+        Object answer = get(key);
+        changes().put(key.toString(), REMOVED);
+        if (changes.size() > MAX_CHANGES) {
+            copy();
+        }
+        return answer;
+    }
+
+    @Override
+    public synchronized void clear() {
+        if (shared) {
+            map = factory.apply(Collections.emptyMap());
+            changes = null;
+            shared = false;
+        } else {
+            map.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        Map<String, Object> m = map;
+        int answer = m.size();
+        Map<String, Object> c = changes;
+        if (c != null) {
+            for (Entry<String, Object> entry : c.entrySet()) {
+                boolean existing = m.containsKey(entry.getKey());
+                if (entry.getValue() == REMOVED) {
+                    if (existing) {
+                        answer--;
+                    }
+                } else if (!existing) {
+                    answer++;
+                }
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        Map<String, Object> c = changes;
+        if (c == null) {
+            return map.isEmpty();
+        }
+        return size() == 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public String toString() {
+        // do not expose the marker values
+        StringBuilder sb = new StringBuilder("{");
+        for (Entry<String, Object> entry : entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    private Map<String, Object> changes() {
+        if (changes == null) {
+            changes = factory.apply(Collections.emptyMap());
+        }
+        return changes;
+    }
+
+    /**
+     * Copies the shared map with the changes applied, which then is no longer shared.
+     */
+    private void copy() {
+        Map<String, Object> answer = factory.apply(map);
+        Map<String, Object> c = changes;
+        if (c != null) {
+            for (Entry<String, Object> entry : c.entrySet()) {
+                Object value = entry.getValue();
+                if (value == REMOVED) {
+                    answer.remove(entry.getKey());
+                } else {
+                    answer.put(entry.getKey(), value == NULL ? null : value);
+                }
+            }
+        }
+        map = answer;
+        changes = null;
+        shared = false;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator(map, changes);
+        }
+
+        @Override
+        public int size() {
+            return CopyOnWriteMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CopyOnWriteMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterates the changes, and then the entries of the map which has not been changed. Changes to the entries
+     * are done on the map, so they are never done directly on a shared map.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private final Map<String, Object> map;
+        private final Map<String, Object> changes;
+        private final Iterator<Entry<String, Object>> changesIterator;
+        private final Iterator<Entry<String, Object>> mapIterator;
+        private Entry<String, Object> next;
+        private boolean nextFromMap;
+        private Entry<String, Object> last;
+        private boolean lastFromMap;
+
+        EntryIterator(Map<String, Object> map, Map<String, Object> changes) {
+            this.map = map;
+            this.changes = changes;
+            this.changesIterator = changes != null ? changes.entrySet().iterator() : null;
+            this.mapIterator = map.entrySet().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            lastFromMap = nextFromMap;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            synchronized (CopyOnWriteMap.this) {
+                if (lastFromMap && next == null && !shared && CopyOnWriteMap.this.map == map) {
+                    // the map is not shared so remove using the iterator to not break the iteration
+                    mapIterator.remove();
+                } else {
+                    CopyOnWriteMap.this.remove(last.getKey());
+                }
+            }
+            last = null;
+        }
+
+        private Entry<String, Object> advance() {
+            if (changesIterator != null) {
+                while (changesIterator.hasNext()) {
+                    Entry<String, Object> entry = changesIterator.next();
+                    Object value = entry.getValue();
+                    if (value != REMOVED) {
+                        nextFromMap = false;
+                        return new MapEntry(entry.getKey(), value == NULL ? null : value);
+                    }
+                }
+            }
+            while (mapIterator.hasNext()) {
+                Entry<String, Object> entry = mapIterator.next();
+                if (changes == null || !changes.containsKey(entry.getKey())) {
+                    nextFromMap = true;
+                    return new MapEntry(entry.getKey(), entry.getValue());
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class MapEntry extends SimpleEntry<String, Object> {
+
+        MapEntry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+}
@@ -24,12 +24,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelExecutionException;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.Message;
 import org.apache.camel.MessageHistory;
 import org.apache.camel.spi.Synchronization;
@@ -52,6 +54,7 @@ public final class DefaultExchange implements Exchange {
     private Endpoint fromEndpoint;
     private String fromRouteId;
     private List<Synchronization> onCompletions;
+    private boolean pooled;
 
     public DefaultExchange(CamelContext context) {
         this(context, ExchangePattern.InOnly);
@@ -97,29 +100,35 @@ public final class DefaultExchange implements Exchange {
     public Exchange copy() {
         DefaultExchange exchange = new DefaultExchange(this);
 
-        exchange.setIn(getIn().copy());
-        exchange.getIn().setBody(getIn().getBody());
-        if (getIn().hasHeaders()) {
-            exchange.getIn().setHeaders(safeCopyHeaders(getIn().getHeaders()));
-        }
+        exchange.setIn(copyMessage(getIn()));
         if (hasOut()) {
-            exchange.setOut(getOut().copy());
-            exchange.getOut().setBody(getOut().getBody());
-            if (getOut().hasHeaders()) {
-                exchange.getOut().setHeaders(safeCopyHeaders(getOut().getHeaders()));
-            }
+            exchange.setOut(copyMessage(getOut()));
         }
 
         exchange.setException(getException());
 
         // copy properties after body as body may trigger lazy init
         if (hasProperties()) {
-            exchange.setProperties(safeCopyProperties(getProperties()));
+            exchange.setProperties(shareProperties());
         }
 
         return exchange;
     }
 
+    private Message copyMessage(Message message) {
+        if (message.getClass() == DefaultMessage.class) {
+            // the headers are shared with the copy if its a default message
+            return ((DefaultMessage) message).copySharingHeaders();
+        }
+
+        Message answer = message.copy();
+        answer.setBody(message.getBody());
+        if (message.hasHeaders()) {
+            answer.setHeaders(safeCopyHeaders(message.getHeaders()));
+        }
+        return answer;
+    }
+
     private Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
         if (headers == null) {
             return null;
@@ -129,15 +138,17 @@ public final class DefaultExchange implements Exchange {
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> safeCopyProperties(Map<String, Object> properties) {
-        if (properties == null) {
-            return null;
+    private Map<String, Object> shareProperties() {
+        Map<String, Object> answer;
+        if (properties instanceof CopyOnWriteMap) {
+            answer = ((CopyOnWriteMap) properties).share();
+        } else {
+            // the properties has been set from the outside and may still be changed directly, so they must be copied
+            answer = createProperties(properties);
         }
 
-        Map<String, Object> answer = createProperties(properties);
-
         // safe copy message history using a defensive copy
-        List<MessageHistory> history = (List<MessageHistory>) answer.remove(Exchange.MESSAGE_HISTORY);
+        List<MessageHistory> history = (List<MessageHistory>) answer.get(Exchange.MESSAGE_HISTORY);
         if (history != null) {
             answer.put(Exchange.MESSAGE_HISTORY, new LinkedList<>(history));
         }
@@ -556,6 +567,42 @@ public final class DefaultExchange implements Exchange {
         return answer;
     }
 
+    /**
+     * Whether this exchange is recycled by a pooled {@link org.apache.camel.spi.ExchangeFactory}
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Resets the exchange so it can be reused for a new message by a pooled {@link org.apache.camel.spi.ExchangeFactory}.
+     * <p/>
+     * The in message is kept for reuse if its a {@link DefaultMessage} which belongs to this exchange.
+     *
+     * @param fromEndpoint the endpoint which is creating the exchange
+     * @param pattern      the exchange pattern
+     */
+    public void reset(Endpoint fromEndpoint, ExchangePattern pattern) {
+        this.fromEndpoint = fromEndpoint;
+        this.pattern = pattern;
+        if (in != null && in.getClass() == DefaultMessage.class && ((DefaultMessage) in).getExchange() == this) {
+            ((DefaultMessage) in).reset();
+        } else {
+            in = null;
+        }
+        properties = null;
+        out = null;
+        exception = null;
+        exchangeId = null;
+        unitOfWork = null;
+        fromRouteId = null;
+        onCompletions = null;
+    }
+
     /**
      * Configures the message after it has been set on the exchange
      */
@@ -572,11 +619,27 @@ public final class DefaultExchange implements Exchange {
     }
 
     protected Map<String, Object> createProperties() {
-        return new ConcurrentHashMap<>();
+        Map<String, Object> map;
+        if (context instanceof ExtendedCamelContext) {
+            map = ((ExtendedCamelContext) context).getExchangePropertiesMapFactory().newMap();
+        } else {
+            map = new ConcurrentHashMap<>();
+        }
+        // wrap the map so its the only map reachable, which allows sharing the properties when the exchange is copied
+        // (the function must not refer to this exchange, as the copies would then keep this exchange in memory)
+        return new CopyOnWriteMap(map, createPropertiesFactory(context));
     }
 
     protected Map<String, Object> createProperties(Map<String, Object> properties) {
-        return new ConcurrentHashMap<>(properties);
+        UnaryOperator<Map<String, Object>> factory = createPropertiesFactory(context);
+        return new CopyOnWriteMap(factory.apply(properties), factory);
+    }
+
+    private static UnaryOperator<Map<String, Object>> createPropertiesFactory(CamelContext context) {
+        if (context instanceof ExtendedCamelContext) {
+            return ((ExtendedCamelContext) context).getExchangePropertiesMapFactory()::newMap;
+        }
+        return ConcurrentHashMap::new;
     }
 
 }
@@ -23,6 +23,7 @@ import java.util.function.Supplier;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.Message;
 import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.util.ObjectHelper;
 
@@ -212,7 +213,9 @@ public class DefaultMessage extends MessageSupport {
     public void setHeaders(Map<String, Object> headers) {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
 
-        if (getCamelContext().getHeadersMapFactory().isInstanceOf(headers)) {
+        // a copy-on-write map is only accepted if it wraps a map created by the factory
+        Map<String, Object> map = headers instanceof CopyOnWriteMap ? ((CopyOnWriteMap) headers).getMap() : headers;
+        if (getCamelContext().getHeadersMapFactory().isInstanceOf(map)) {
             this.headers = headers;
         } else {
             // create a new map
@@ -229,6 +232,37 @@ public class DefaultMessage extends MessageSupport {
         return headers != null && !headers.isEmpty();
     }
 
+    /**
+     * Copies the message, where the copy shares the headers copy-on-write with this message.
+     * This is only used when copying exchanges, and the headers are copied if they cannot be shared.
+     */
+    DefaultMessage copySharingHeaders() {
+        DefaultMessage answer = newInstance();
+        if (hasDataType()) {
+            answer.setDataType(getDataType());
+        }
+        answer.setExchange(getExchange());
+        answer.setMessageId(getMessageId());
+        answer.setBody(getBody());
+        Map<String, Object> shared = hasHeaders() ? shareHeaders() : null;
+        if (shared != null) {
+            // share the headers until either message changes its headers
+            answer.headers = shared;
+        } else {
+            answer.copyHeadersFrom(this);
+        }
+        return answer;
+    }
+
+    private Map<String, Object> shareHeaders() {
+        // only headers created by this message can be shared, as a map set from the outside may still be changed
+        // directly by whoever set the map, which would then change the shared headers
+        if (headers instanceof CopyOnWriteMap) {
+            return ((CopyOnWriteMap) headers).share();
+        }
+        return null;
+    }
+
     @Override
     public DefaultMessage newInstance() {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
@@ -247,9 +281,11 @@ public class DefaultMessage extends MessageSupport {
     protected Map<String, Object> createHeaders() {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
 
-        Map<String, Object> map = getCamelContext().getHeadersMapFactory().newMap();
+        HeadersMapFactory factory = getCamelContext().getHeadersMapFactory();
+        Map<String, Object> map = factory.newMap();
         populateInitialHeaders(map);
-        return map;
+        // wrap the map so its the only map reachable, which allows sharing the headers when the exchange is copied
+        return new CopyOnWriteMap(map, factory::newMap);
     }
 
     /**
@@ -277,6 +313,13 @@ public class DefaultMessage extends MessageSupport {
         return null;
     }
 
+    @Override
+    protected void reset() {
+        super.reset();
+        // do not clear the map as it may have been set from an external map
+        headers = null;
+    }
+
     /**
      * Returns true if the headers have been mutated in some way
      */
@@ -33,12 +33,20 @@ import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.util.concurrent.RejectableScheduledThreadPoolExecutor;
 import org.apache.camel.util.concurrent.RejectableThreadPoolExecutor;
 import org.apache.camel.util.concurrent.SizedScheduledExecutorService;
+import org.apache.camel.util.concurrent.VirtualThreadExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Factory for thread pools that uses the JDK {@link Executors} for creating the thread pools.
+ * <p/>
+ * Thread pool profiles which has virtual threads enabled are created as {@link VirtualThreadExecutorService}
+ * when the JVM supports virtual threads.
  */
 public class DefaultThreadPoolFactory implements ThreadPoolFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultThreadPoolFactory.class);
+
     @Override
     public ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
         return Executors.newCachedThreadPool(threadFactory);
@@ -46,6 +54,13 @@ public class DefaultThreadPoolFactory implements ThreadPoolFactory {
     
     @Override
     public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (profile.getVirtualThreads() != null && profile.getVirtualThreads()) {
+            ExecutorService answer = newVirtualThreadPool(profile, factory);
+            if (answer != null) {
+                return answer;
+            }
+        }
+
         // allow core thread timeout is default false if not configured
         boolean allow = profile.getAllowCoreThreadTimeOut() != null ? profile.getAllowCoreThreadTimeOut() : false;
         return newThreadPool(profile.getPoolSize(), 
@@ -58,6 +73,46 @@ public class DefaultThreadPoolFactory implements ThreadPoolFactory {
                              factory);
     }
 
+    /**
+     * Creates a new thread pool which runs each task in a virtual thread.
+     * <p/>
+     * The number of concurrent tasks is bounded by the max pool size of the profile, unless max concurrent tasks
+     * is configured. Pools with a single thread are not created with virtual threads, as they must run the tasks
+     * one at a time in the order they were submitted.
+     *
+     * @param profile the thread pool profile
+     * @param factory the thread factory used for naming the threads
+     * @return the thread pool, or <tt>null</tt> if virtual threads is not supported by the JVM or the pool is single threaded
+     */
+    protected ExecutorService newVirtualThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (!VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            LOG.warn("Virtual threads is not supported on Java {}. Using a thread pool with platform threads instead for: {}",
+                    System.getProperty("java.version"), profile);
+            return null;
+        }
+        if (isSingleThreaded(profile)) {
+            LOG.debug("Using a single platform thread to keep the tasks in order for: {}", profile);
+            return null;
+        }
+        int maxConcurrentTasks = 0;
+        if (profile.getMaxConcurrentTasks() != null) {
+            maxConcurrentTasks = profile.getMaxConcurrentTasks();
+        } else if (profile.getMaxPoolSize() != null) {
+            maxConcurrentTasks = profile.getMaxPoolSize();
+        }
+        int maxQueueSize = profile.getMaxQueueSize() != null ? profile.getMaxQueueSize() : 0;
+        if (maxQueueSize < 0) {
+            maxQueueSize = Integer.MAX_VALUE;
+        }
+        return new VirtualThreadExecutorService(factory, maxConcurrentTasks, maxQueueSize, profile.getRejectedPolicy());
+    }
+
+    private static boolean isSingleThreaded(ThreadPoolProfile profile) {
+        // the pool size is only the core size, so the pool is single threaded if at most one task can run at a time
+        Integer max = profile.getMaxConcurrentTasks() != null ? profile.getMaxConcurrentTasks() : profile.getMaxPoolSize();
+        return max != null && max == 1;
+    }
+
     public ExecutorService newThreadPool(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit timeUnit, int maxQueueSize, boolean allowCoreThreadTimeOut,
                                          RejectedExecutionHandler rejectedExecutionHandler, ThreadFactory threadFactory) throws IllegalArgumentException {
 
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.Collection;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+
+/**
+ * A {@link Predicate} which tests whether the value of an expression is equal to one of a number of constant values,
+ * such as <tt>${header.type} == 'gold'</tt> or <tt>${header.type} in 'gold,silver'</tt> with the simple language.
+ * <p/>
+ * This allows EIPs such as the content based router to evaluate the expression once, and look up the predicate
+ * which matches the value, instead of evaluating each of the predicates in turn.
+ */
+public interface IndexablePredicate extends Predicate {
+
+    /**
+     * The expression which value is tested by this predicate.
+     */
+    Expression getIndexExpression();
+
+    /**
+     * A key which identifies the expression, where predicates with equal keys evaluates their expressions
+     * to the same value.
+     * <p/>
+     * By default the expression itself is the key, so only predicates which test the same expression instance
+     * are indexed together.
+     */
+    default Object getIndexKey() {
+        return getIndexExpression();
+    }
+
+    /**
+     * The constant values, where the predicate matches if, and only if, the expression evaluates to a
+     * {@link String} which is equal to one of the values.
+     * <p/>
+     * When the expression evaluates to any other type, then {@link #matchesValue(Exchange, Object)} is used
+     * as the values may be compared using type coercion.
+     */
+    Collection<String> getIndexValues();
+
+    /**
+     * Whether the predicate matches the given value, which the expression has already been evaluated to,
+     * so the expression is not evaluated again.
+     *
+     * @param exchange the exchange
+     * @param value    the value of the expression
+     * @return <tt>true</tt> if the predicate matches
+     */
+    boolean matchesValue(Exchange exchange, Object value);
+
+}
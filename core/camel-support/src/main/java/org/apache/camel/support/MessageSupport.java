@@ -214,6 +214,15 @@ public abstract class MessageSupport implements Message, CamelContextAware, Data
         setMessageId(that.getMessageId());
         setBody(newBody);
 
+        copyHeadersFrom(that);
+    }
+
+    /**
+     * Copies the headers from the given message, replacing any existing headers.
+     *
+     * @param that the message to copy the headers from
+     */
+    protected void copyHeadersFrom(Message that) {
         // the headers may be the same instance if the end user has made some mistake
         // and set the OUT message with the same header instance of the IN message etc
         boolean sameHeadersInstance = false;
@@ -280,6 +289,16 @@ public abstract class MessageSupport implements Message, CamelContextAware, Data
         this.messageId = messageId;
     }
 
+    /**
+     * Resets the message so it can be reused for a new message, such as when the exchange
+     * is recycled by a pooled {@link org.apache.camel.spi.ExchangeFactory}.
+     */
+    protected void reset() {
+        body = null;
+        messageId = null;
+        dataType = null;
+    }
+
     /**
      * Allow implementations to auto-create a messageId
      */
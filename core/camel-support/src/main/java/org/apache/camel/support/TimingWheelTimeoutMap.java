@@ -0,0 +1,456 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Comparator.comparing;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.camel.TimeoutMap.Listener.Type.Evict;
+import static org.apache.camel.TimeoutMap.Listener.Type.Put;
+import static org.apache.camel.TimeoutMap.Listener.Type.Remove;
+
+/**
+ * A {@link TimeoutMap} which keeps track of the timeouts in a hashed timing wheel, which is well suited
+ * for maps with many entries, such as when there are many in-flight request/reply messages.
+ * <p/>
+ * The timing wheel is an array of buckets, where each bucket holds the entries which expires in the same tick,
+ * and where a tick is the purge poll time. Adding, removing and updating the expire time of an entry are constant time
+ * operations, and the background task which purges the expired entries only visits the buckets of the elapsed ticks,
+ * instead of scanning all the entries as {@link DefaultTimeoutMap} does.
+ * <p/>
+ * This implementation supports thread safe and non thread safe, in the manner you can enable locking or not.
+ * By default locking is enabled and thus we are thread safe.
+ * <p/>
+ * You must provide a {@link java.util.concurrent.ScheduledExecutorService} in the constructor which is used
+ * to schedule a background task which check for old entries to purge.
+ * You must also invoke {@link #start()} to startup the timeout map, before its ready to be used.
+ * And you must invoke {@link #stop()} to stop the map when no longer in use.
+ */
+public class TimingWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V> {
+
+    /**
+     * The default number of buckets in the timing wheel
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final Lock lock;
+    private final Node<K, V>[] wheel;
+    private final int mask;
+    // the time of tick 0, and the last tick which has been purged
+    private long origin = -1;
+    private long lastTick;
+
+    private final List<Listener<K, V>> listeners = new ArrayList<>(2);
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, true);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock) {
+        this(executor, requestMapPollTimeMillis, useLock ? new ReentrantLock() : NoLock.INSTANCE);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, Lock lock) {
+        this(executor, requestMapPollTimeMillis, lock, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, Lock lock, int wheelSize) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("The purge poll time must be positive, was: " + requestMapPollTimeMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("The wheel size must be positive, was: " + wheelSize);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        this.lock = lock;
+        // use a power of two so the bucket can be found by masking the tick
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Node[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node;
+        lock.lock();
+        try {
+            node = map.get(key);
+            if (node == null) {
+                return null;
+            }
+            // accessing the entry updates its expire time
+            unlink(node);
+            updateExpireTime(node.entry);
+            link(node);
+        } finally {
+            lock.unlock();
+        }
+        return node.entry.getValue();
+    }
+
+    @Override
+    public V put(K key, V value, long timeoutMillis) {
+        Node<K, V> node = new Node<>(new TimeoutMapEntry<>(key, value, timeoutMillis));
+        lock.lock();
+        try {
+            updateExpireTime(node.entry);
+            Node<K, V> old = map.put(key, node);
+            if (old != null) {
+                unlink(old);
+            }
+            link(node);
+            return unwrap(old);
+        } finally {
+            lock.unlock();
+            emitEvent(Put, key, value);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        Node<K, V> old = null;
+        lock.lock();
+        try {
+            old = map.get(key);
+            if (old == null) {
+                Node<K, V> node = new Node<>(new TimeoutMapEntry<>(key, value, timeoutMillis));
+                updateExpireTime(node.entry);
+                map.put(key, node);
+                link(node);
+            }
+            return unwrap(old);
+        } finally {
+            lock.unlock();
+            if (old == null) {
+                emitEvent(Put, key, value); // conditional on map being changed
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        V value = null;
+        lock.lock();
+        try {
+            Node<K, V> node = map.remove(key);
+            if (node != null) {
+                unlink(node);
+                value = node.entry.getValue();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+            if (value != null) {
+                emitEvent(Remove, key, value); // conditional on map being changed
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Whether the map contains the given key, which unlike {@link #get(Object)} does not update the expire time
+     */
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * The timer task which purges old requests
+     */
+    private void purgeTask() {
+        // only purge if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries have been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next purgeTask
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    protected void purge() {
+        log.trace("There are {} in the timeout map", map.size());
+        if (map.isEmpty()) {
+            return;
+        }
+
+        long now = currentTime();
+
+        List<TimeoutMapEntry<K, V>> expired = new ArrayList<>();
+        List<Node<K, V>> retained = new ArrayList<>();
+        lock.lock();
+        try {
+            long tick = (now - origin) / purgePollTime;
+            // the buckets of the elapsed ticks (but at most one round of the wheel)
+            long first = Math.max(lastTick + 1, tick - mask);
+            for (long t = first; t <= tick; t++) {
+                expire(t, Long.MAX_VALUE, expired, retained);
+            }
+            lastTick = Math.max(lastTick, tick);
+            // the bucket of the current tick which has not elapsed yet, may also have entries which has expired
+            expire(lastTick + 1, now, expired, retained);
+
+            // the entries which was not valid for eviction is checked again on the next tick
+            for (Node<K, V> node : retained) {
+                node.tick = lastTick + 1;
+                linkToBucket(node);
+            }
+
+            if (!expired.isEmpty()) {
+                // sort according to the expired time so we got the first expired first
+                expired.sort(comparing(TimeoutMapEntry::getExpireTime));
+            }
+        } finally {
+            lock.unlock();
+            for (TimeoutMapEntry<K, V> entry : expired) {
+                emitEvent(Evict, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Expires the entries in the bucket for the given tick, which are due at or before the given tick, and
+     * which has expired before the given time.
+     */
+    private void expire(long tick, long now, List<TimeoutMapEntry<K, V>> expired, List<Node<K, V>> retained) {
+        Node<K, V> node = wheel[(int) (tick & mask)];
+        while (node != null) {
+            Node<K, V> next = node.next;
+            if (node.tick <= tick && node.entry.getExpireTime() < now) {
+                unlink(node);
+                if (isValidForEviction(node.entry)) {
+                    log.debug("Evicting inactive entry ID: {}", node.entry);
+                    map.remove(node.entry.getKey(), node);
+                    expired.add(node.entry);
+                } else {
+                    retained.add(node);
+                }
+            }
+            node = next;
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Number of buckets in the timing wheel
+     */
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    private static <K, V> V unwrap(Node<K, V> node) {
+        return node == null ? null : node.entry.getValue();
+    }
+
+    @Override
+    public void addListener(Listener<K, V> listener) {
+        this.listeners.add(listener);
+    }
+
+    private void emitEvent(Listener.Type type, K key, V value) {
+        for (Listener<K, V> listener : listeners) {
+            try {
+                listener.timeoutMapEvent(type, key, value);
+            } catch (Throwable t) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * lets schedule each time to allow folks to change the time at runtime
+     */
+    protected void schedulePoll() {
+        future = executor.scheduleWithFixedDelay(this::purgeTask, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Adds the node to the bucket of the tick where the entry expires
+     */
+    private void link(Node<K, V> node) {
+        if (origin < 0) {
+            origin = currentTime();
+        }
+        long expireTime = node.entry.getExpireTime();
+        // round up so the entry is not expired before its expire time
+        long tick = expireTime > origin ? (expireTime - origin + purgePollTime - 1) / purgePollTime : 0;
+        // the ticks which has been purged cannot be used
+        node.tick = Math.max(tick, lastTick + 1);
+        linkToBucket(node);
+    }
+
+    private void linkToBucket(Node<K, V> node) {
+        int index = (int) (node.tick & mask);
+        Node<K, V> head = wheel[index];
+        // add to the end of the bucket to keep the entries in the order they were added
+        if (head == null) {
+            node.prev = node;
+            node.next = null;
+            wheel[index] = node;
+        } else {
+            Node<K, V> tail = head.prev;
+            tail.next = node;
+            node.prev = tail;
+            node.next = null;
+            head.prev = node;
+        }
+        node.bucket = index;
+    }
+
+    /**
+     * Removes the node from its bucket
+     */
+    private void unlink(Node<K, V> node) {
+        int index = node.bucket;
+        if (index < 0) {
+            return;
+        }
+        Node<K, V> head = wheel[index];
+        if (node == head) {
+            Node<K, V> next = node.next;
+            if (next != null) {
+                next.prev = node.prev;
+            }
+            wheel[index] = next;
+        } else {
+            node.prev.next = node.next;
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                // the node was the tail
+                head.prev = node.prev;
+            }
+        }
+        node.prev = null;
+        node.next = null;
+        node.bucket = -1;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        schedulePoll();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map if we stop
+        lock.lock();
+        try {
+            map.clear();
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = null;
+            }
+            origin = -1;
+            lastTick = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An entry in the timing wheel, which is linked with the other entries in the same bucket,
+     * where the previous node of the head of the bucket is the tail of the bucket.
+     */
+    private static final class Node<K, V> {
+        private final TimeoutMapEntry<K, V> entry;
+        private long tick;
+        private int bucket = -1;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(TimeoutMapEntry<K, V> entry) {
+            this.entry = entry;
+        }
+    }
+
+}
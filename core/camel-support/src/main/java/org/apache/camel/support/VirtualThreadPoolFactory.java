@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.util.concurrent.VirtualThreadExecutorService;
+
+/**
+ * Factory for thread pools that runs the tasks in virtual threads, which is well suited for routes
+ * doing blocking IO such as JDBC, HTTP or JMS, as blocking does not tie up a platform thread.
+ * <p/>
+ * All thread pools, such as used by the threads EIP, parallel processing, wire tap and the SEDA consumers
+ * are created as {@link VirtualThreadExecutorService} where the number of concurrent tasks is bounded by the max pool size
+ * of the {@link ThreadPoolProfile}, or by {@link ThreadPoolProfile#setMaxConcurrentTasks(Integer)} if configured.
+ * Single threaded pools (such as used for keeping messages in order) and scheduled thread pools are still using
+ * platform threads.
+ * <p/>
+ * Virtual threads requires Java 21 or newer, and on older versions of Java then this factory
+ * creates the thread pools with platform threads, as {@link DefaultThreadPoolFactory} does.
+ */
+public class VirtualThreadPoolFactory extends DefaultThreadPoolFactory {
+
+    @Override
+    public ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
+        if (VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            return new VirtualThreadExecutorService(threadFactory, 0, 0, null);
+        }
+        return super.newCachedThreadPool(threadFactory);
+    }
+
+    @Override
+    public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        // only turn off virtual threads if explicit configured on the profile
+        boolean virtual = profile.getVirtualThreads() == null || profile.getVirtualThreads();
+        if (virtual && VirtualThreadExecutorService.isVirtualThreadsSupported()) {
+            ExecutorService answer = newVirtualThreadPool(profile, factory);
+            if (answer != null) {
+                return answer;
+            }
+        }
+        return super.newThreadPool(profile, factory);
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadPoolFactory";
+    }
+}
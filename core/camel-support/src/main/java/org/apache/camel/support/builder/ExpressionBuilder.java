@@ -541,16 +541,7 @@ public class ExpressionBuilder {
      * @return an expression object which will return the constant value
      */
     public static Expression constantExpression(final Object value) {
-        return new ExpressionAdapter() {
-            public Object evaluate(Exchange exchange) {
-                return value;
-            }
-
-            @Override
-            public String toString() {
-                return "" + value;
-            }
-        };
+        return new ConstantExpressionAdapter(value);
     }
 
     /**
@@ -1422,4 +1413,29 @@ public class ExpressionBuilder {
             throw new IllegalArgumentException("Failed to set property " + name + " on " + bean + ". Reason: " + e, e);
         }
     }
+
+    /**
+     * An expression which evaluates to a constant value
+     */
+    static final class ConstantExpressionAdapter extends ExpressionAdapter {
+
+        private final Object value;
+
+        ConstantExpressionAdapter(Object value) {
+            this.value = value;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        public Object evaluate(Exchange exchange) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "" + value;
+        }
+    }
 }
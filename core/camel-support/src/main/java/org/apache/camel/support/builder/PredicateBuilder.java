@@ -17,6 +17,8 @@
 package org.apache.camel.support.builder;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -25,6 +27,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.support.ExpressionToPredicateAdapter;
+import org.apache.camel.support.IndexablePredicate;
 import org.apache.camel.support.ObjectHelper;
 import static org.apache.camel.util.ObjectHelper.notNull;
 
@@ -155,24 +158,14 @@ public class PredicateBuilder {
     }
 
     public static Predicate isEqualTo(final Expression left, final Expression right) {
-        return new BinaryPredicateSupport(left, right) {
-
-            protected boolean matches(Exchange exchange, Object leftValue, Object rightValue) {
-                if (leftValue == null && rightValue == null) {
-                    // they are equal
-                    return true;
-                } else if (leftValue == null || rightValue == null) {
-                    // only one of them is null so they are not equal
-                    return false;
-                }
-
-                return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), leftValue, rightValue);
-            }
-
-            protected String getOperationText() {
-                return "==";
+        if (right instanceof ExpressionBuilder.ConstantExpressionAdapter) {
+            Object value = ((ExpressionBuilder.ConstantExpressionAdapter) right).getValue();
+            if (value instanceof String) {
+                // comparing with a constant string can be indexed by the content based router
+                return new IndexableEqualToPredicate(left, right, (String) value);
             }
-        };
+        }
+        return new EqualToPredicate(left, right);
     }
 
     public static Predicate isEqualToIgnoreCase(final Expression left, final Expression right) {
@@ -542,4 +535,52 @@ public class PredicateBuilder {
             }
         };
     }
+
+    private static class EqualToPredicate extends BinaryPredicateSupport {
+
+        EqualToPredicate(Expression left, Expression right) {
+            super(left, right);
+        }
+
+        protected boolean matches(Exchange exchange, Object leftValue, Object rightValue) {
+            if (leftValue == null && rightValue == null) {
+                // they are equal
+                return true;
+            } else if (leftValue == null || rightValue == null) {
+                // only one of them is null so they are not equal
+                return false;
+            }
+
+            return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), leftValue, rightValue);
+        }
+
+        protected String getOperationText() {
+            return "==";
+        }
+    }
+
+    private static final class IndexableEqualToPredicate extends EqualToPredicate implements IndexablePredicate {
+
+        private final List<String> values;
+
+        IndexableEqualToPredicate(Expression left, Expression right, String value) {
+            super(left, right);
+            this.values = Collections.singletonList(value);
+        }
+
+        @Override
+        public Expression getIndexExpression() {
+            return getLeft();
+        }
+
+        @Override
+        public Collection<String> getIndexValues() {
+            return values;
+        }
+
+        @Override
+        public boolean matchesValue(Exchange exchange, Object value) {
+            return matches(exchange, value, getRight().evaluate(exchange, Object.class));
+        }
+    }
 }
@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * A memory based implementation of {@link org.apache.camel.spi.IdempotentRepository} which stores
+ * fingerprints of the keys off-heap, and is suited for storing a very large number of keys.
+ * <p/>
+ * The fingerprints are stored in a cuckoo filter in direct memory, so the keys do not take up any heap.
+ * By default the fingerprints are the 64-bit hash of the keys, which makes the repository exact for all
+ * practical purposes. If a {@link #setFalsePositiveProbability(double) false positive probability} is configured,
+ * then smaller fingerprints are used to reduce the memory usage, which means a new key may be regarded
+ * as a duplicate with the given probability.
+ * <p/>
+ * A {@link #setSecondaryRepository(IdempotentRepository) secondary repository} can be configured, which
+ * the keys are also added to, and which is used for verifying whether a probable hit in the filter is
+ * an actual duplicate.
+ * <p/>
+ * The memory is bounded by the {@link #setMaximumSize(long) maximum size}, as the keys are stored in
+ * two generations each holding half the maximum size of keys. When the current generation is full, then
+ * the oldest generation is dropped, so at least the half of the maximum size of most recently added keys are kept.
+ */
+@ManagedResource(description = "Off-heap memory based idempotent repository")
+public class OffHeapIdempotentRepository extends ServiceSupport implements IdempotentRepository {
+
+    private long maximumSize = 1000000;
+    private double falsePositiveProbability;
+    private IdempotentRepository secondaryRepository;
+    private CuckooFilter current;
+    private CuckooFilter previous;
+    private long rotations;
+
+    public OffHeapIdempotentRepository() {
+    }
+
+    public OffHeapIdempotentRepository(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Creates a new off-heap memory based repository.
+     *
+     * @param maximumSize  the maximum number of keys
+     */
+    public static IdempotentRepository offHeapIdempotentRepository(long maximumSize) {
+        return new OffHeapIdempotentRepository(maximumSize);
+    }
+
+    /**
+     * Creates a new off-heap memory based repository, which may regard a new key as a duplicate
+     * with the given probability.
+     *
+     * @param maximumSize  the maximum number of keys
+     * @param falsePositiveProbability  the false positive probability
+     */
+    public static IdempotentRepository offHeapIdempotentRepository(long maximumSize, double falsePositiveProbability) {
+        OffHeapIdempotentRepository answer = new OffHeapIdempotentRepository(maximumSize);
+        answer.setFalsePositiveProbability(falsePositiveProbability);
+        return answer;
+    }
+
+    @Override
+    @ManagedOperation(description = "Adds the key to the store")
+    public synchronized boolean add(String key) {
+        long hash = hash(key);
+        if (containsHash(hash)) {
+            // a probable hit which is only verified if we have a secondary repository
+            if (secondaryRepository == null || !secondaryRepository.add(key)) {
+                return false;
+            }
+        } else if (secondaryRepository != null) {
+            secondaryRepository.add(key);
+        }
+        if (current.size >= current.maximumSize) {
+            rotate();
+        }
+        if (!current.insert(hash)) {
+            rotate();
+        }
+        return true;
+    }
+
+    @Override
+    @ManagedOperation(description = "Does the store contain the given key")
+    public synchronized boolean contains(String key) {
+        if (!containsHash(hash(key))) {
+            return false;
+        }
+        return secondaryRepository == null || secondaryRepository.contains(key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Remove the key from the store")
+    public synchronized boolean remove(String key) {
+        if (secondaryRepository != null && !secondaryRepository.remove(key)) {
+            return false;
+        }
+        long hash = hash(key);
+        return current.remove(hash) || (previous != null && previous.remove(hash)) || secondaryRepository != null;
+    }
+
+    @Override
+    public boolean confirm(String key) {
+        return secondaryRepository == null || secondaryRepository.confirm(key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Clear the store")
+    public synchronized void clear() {
+        current.clear();
+        previous = null;
+        if (secondaryRepository != null) {
+            secondaryRepository.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "The maximum number of keys")
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of keys. The keys are stored in two generations each holding half the maximum
+     * number of keys, and the oldest generation is dropped when the current generation is full.
+     * <p/>
+     * The default is 1000000.
+     */
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @ManagedAttribute(description = "The probability a new key is regarded as a duplicate")
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    /**
+     * Sets the probability a new key is regarded as a duplicate (such as 0.001), which allows to use smaller
+     * fingerprints for the keys.
+     * <p/>
+     * The default is 0, which means the 64-bit hash of the keys are stored.
+     */
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public IdempotentRepository getSecondaryRepository() {
+        return secondaryRepository;
+    }
+
+    /**
+     * Sets a secondary repository which the keys are added to as well, and which is used for verifying
+     * whether a probable hit is an actual duplicate.
+     */
+    public void setSecondaryRepository(IdempotentRepository secondaryRepository) {
+        this.secondaryRepository = secondaryRepository;
+    }
+
+    @ManagedAttribute(description = "The current number of keys")
+    public synchronized long getSize() {
+        if (current == null) {
+            return 0;
+        }
+        return current.size + (previous != null ? previous.size : 0);
+    }
+
+    @ManagedAttribute(description = "The off-heap memory in use in bytes")
+    public synchronized long getMemorySize() {
+        if (current == null) {
+            return 0;
+        }
+        return current.memorySize() + (previous != null ? previous.memorySize() : 0);
+    }
+
+    @ManagedAttribute(description = "Number of times the oldest generation of keys has been dropped")
+    public synchronized long getRotations() {
+        return rotations;
+    }
+
+    private boolean containsHash(long hash) {
+        return current.contains(hash) || (previous != null && previous.contains(hash));
+    }
+
+    /**
+     * Drops the oldest generation, and starts a new generation with the fingerprint which did not fit into the
+     * current generation (if any).
+     */
+    private void rotate() {
+        log.debug("Dropping oldest generation of keys as the current generation is full with {} keys", current.size);
+        CuckooFilter answer = previous != null ? previous : createFilter();
+        answer.clear();
+        if (current.victim != 0) {
+            answer.insertFingerprint(current.victim, current.victimBucket);
+            current.victim = 0;
+        }
+        previous = current;
+        current = answer;
+        rotations++;
+    }
+
+    private CuckooFilter createFilter() {
+        long keys = Math.max(1, maximumSize / 2);
+        if (falsePositiveProbability <= 0) {
+            return new CuckooFilter(keys, 64);
+        }
+        // each lookup compares the fingerprints of two buckets with 4 entries
+        int bits = (int) Math.ceil(Math.log(8 / falsePositiveProbability) / Math.log(2));
+        return new CuckooFilter(keys, Math.max(1, Math.min(64, bits)));
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive, was: " + maximumSize);
+        }
+        if (falsePositiveProbability < 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("The false positive probability must be between 0 and 1, was: " + falsePositiveProbability);
+        }
+        ServiceHelper.startService(secondaryRepository);
+        current = createFilter();
+        previous = null;
+        log.debug("Allocated {} bytes off-heap for {} keys", current.memorySize() * 2, maximumSize);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(secondaryRepository);
+        // release the memory
+        synchronized (this) {
+            current = null;
+            previous = null;
+        }
+    }
+
+    /**
+     * The 64-bit FNV-1a hash of the key, with an additional mixing of the bits
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * A cuckoo filter stored in direct byte buffers, where each bucket has 4 entries. A fingerprint can be
+     * stored in two buckets, where the alternate bucket is computed from the bucket and the fingerprint.
+     * An empty entry has the fingerprint <tt>0</tt>.
+     */
+    private static final class CuckooFilter {
+        private static final int ENTRIES = 4;
+        private static final int MAX_KICKS = 500;
+        private static final int CHUNK_SHIFT = 30;
+        private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+        private final ByteBuffer[] chunks;
+        private final int entryBytes;
+        private final long fingerprintMask;
+        private final long bucketMask;
+        private final long maximumSize;
+        private long size;
+        // the fingerprint which could not be inserted when the filter is full
+        private long victim;
+        private long victimBucket;
+
+        CuckooFilter(long maximumSize, int fingerprintBits) {
+            this.maximumSize = maximumSize;
+            this.entryBytes = fingerprintBits <= 8 ? 1 : fingerprintBits <= 16 ? 2 : fingerprintBits <= 32 ? 4 : 8;
+            this.fingerprintMask = fingerprintBits == 64 ? -1L : (1L << fingerprintBits) - 1;
+            // keep the load factor below 95% which is where inserts starts to fail
+            long buckets = Long.highestOneBit(Math.max(1, (long) Math.ceil(maximumSize / (ENTRIES * 0.95d))));
+            if (buckets * ENTRIES * 0.95d < maximumSize) {
+                buckets <<= 1;
+            }
+            this.bucketMask = buckets - 1;
+            long bytes = buckets * ENTRIES * entryBytes;
+            int count = (int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT);
+            this.chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                chunks[i] = ByteBuffer.allocateDirect((int) Math.min(CHUNK_MASK + 1, bytes - ((long) i << CHUNK_SHIFT)));
+            }
+        }
+
+        long memorySize() {
+            return (bucketMask + 1) * ENTRIES * entryBytes;
+        }
+
+        boolean contains(long hash) {
+            long fingerprint = fingerprint(hash);
+            long bucket = hash & bucketMask;
+            return indexOf(bucket, fingerprint) >= 0 || indexOf(alternate(bucket, fingerprint), fingerprint) >= 0;
+        }
+
+        boolean insert(long hash) {
+            return insertFingerprint(fingerprint(hash), hash & bucketMask);
+        }
+
+        boolean insertFingerprint(long fingerprint, long bucket) {
+            size++;
+            if (put(bucket, fingerprint)) {
+                return true;
+            }
+            bucket = alternate(bucket, fingerprint);
+            if (put(bucket, fingerprint)) {
+                return true;
+            }
+            // kick out a random fingerprint to its alternate bucket
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < MAX_KICKS; i++) {
+                int entry = random.nextInt(ENTRIES);
+                long kicked = get(bucket, entry);
+                set(bucket, entry, fingerprint);
+                fingerprint = kicked;
+                bucket = alternate(bucket, fingerprint);
+                if (put(bucket, fingerprint)) {
+                    return true;
+                }
+            }
+            // the filter is full
+            size--;
+            victim = fingerprint;
+            victimBucket = bucket;
+            return false;
+        }
+
+        boolean remove(long hash) {
+            long fingerprint = fingerprint(hash);
+            long bucket = hash & bucketMask;
+            int entry = indexOf(bucket, fingerprint);
+            if (entry < 0) {
+                bucket = alternate(bucket, fingerprint);
+                entry = indexOf(bucket, fingerprint);
+            }
+            if (entry >= 0) {
+                set(bucket, entry, 0);
+                size--;
+                return true;
+            }
+            return false;
+        }
+
+        void clear() {
+            for (ByteBuffer chunk : chunks) {
+                int i = 0;
+                for (; i + 8 <= chunk.capacity(); i += 8) {
+                    chunk.putLong(i, 0);
+                }
+                for (; i < chunk.capacity(); i++) {
+                    chunk.put(i, (byte) 0);
+                }
+            }
+            size = 0;
+            victim = 0;
+        }
+
+        private long fingerprint(long hash) {
+            // use the high bits as the low bits are used for the bucket
+            long answer = entryBytes == 8 ? hash : (hash >>> 32) & fingerprintMask;
+            return answer != 0 ? answer : 1;
+        }
+
+        private long alternate(long bucket, long fingerprint) {
+            return (bucket ^ mix(fingerprint)) & bucketMask;
+        }
+
+        private boolean put(long bucket, long fingerprint) {
+            int entry = indexOf(bucket, 0);
+            if (entry >= 0) {
+                set(bucket, entry, fingerprint);
+                return true;
+            }
+            return false;
+        }
+
+        private int indexOf(long bucket, long fingerprint) {
+            for (int i = 0; i < ENTRIES; i++) {
+                if (get(bucket, i) == fingerprint) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long get(long bucket, int entry) {
+            long position = (bucket * ENTRIES + entry) * entryBytes;
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+            int index = (int) (position & CHUNK_MASK);
+            switch (entryBytes) {
+            case 1:
+                return chunk.get(index) & 0xffL;
+            case 2:
+                return chunk.getShort(index) & 0xffffL;
+            case 4:
+                return chunk.getInt(index) & 0xffffffffL;
+            default:
+                return chunk.getLong(index);
+            }
+        }
+
+        private void set(long bucket, int entry, long fingerprint) {
+            long position = (bucket * ENTRIES + entry) * entryBytes;
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+            int index = (int) (position & CHUNK_MASK);
+            switch (entryBytes) {
+            case 1:
+                chunk.put(index, (byte) fingerprint);
+                break;
+            case 2:
+                chunk.putShort(index, (short) fingerprint);
+                break;
+            case 4:
+                chunk.putInt(index, (int) fingerprint);
+                break;
+            default:
+                chunk.putLong(index, fingerprint);
+            }
+        }
+    }
+
+}
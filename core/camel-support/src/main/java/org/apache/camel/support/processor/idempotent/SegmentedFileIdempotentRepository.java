@@ -0,0 +1,1260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.concurrent.CamelThreadFactory;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which is suited for
+ * storing a large number of keys, such as when de-duplicating millions of file names.
+ * <p/>
+ * The keys are appended to segment files in the given directory, and the segments are never rewritten when
+ * adding or removing keys, as a removed key is appended as a tombstone. When the current segment is full,
+ * then a new segment is started.
+ * <p/>
+ * In memory there is a compact hash index which holds a fingerprint of each key and its location in the segments,
+ * so checking whether a key exists does not scan the file store, and the key is only read from disk to verify a
+ * matching fingerprint. The keys are read from disk without holding the lock, so concurrent lookups
+ * are not serialized by the disk reads. The index is saved to the directory when the repository is stopped, so it can be loaded
+ * on startup, instead of reading all the segments.
+ * <p/>
+ * The appended keys are written and forced to disk in batches (group commit) by a background task, which runs
+ * every {@link #getSyncInterval()} millis. This means the keys added within the last interval may be lost
+ * if the JVM crashes.
+ * <p/>
+ * The same background task compacts segments where many keys have been removed, and drops the oldest segments
+ * when the file store grows bigger than {@link #getMaxFileStoreSize()}. Adding and checking keys is not blocked
+ * while compacting, as the lock is only held when taking a snapshot of the keys in the segment, and when the
+ * compacted segment is swapped in.
+ */
+@ManagedResource(description = "Segmented file based idempotent repository")
+public class SegmentedFileIdempotentRepository extends ServiceSupport implements IdempotentRepository, CamelContextAware {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String INDEX_FILE = "index.dat";
+    private static final int INDEX_MAGIC = 0x43494458;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte ADD = '+';
+    private static final byte REMOVE = '-';
+    private static final byte DELIMITER = '\n';
+
+    private final Lock lock = new ReentrantLock();
+    private final Object compactLock = new Object();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final AtomicLong compactions = new AtomicLong();
+    private CamelContext camelContext;
+    private File directory;
+    private long maxSegmentSize = 4 * 1024 * 1024L; // 4mb segments
+    private long maxFileStoreSize;
+    private long syncInterval = 1000;
+    private double compactionThreshold = 0.5d;
+    private ScheduledExecutorService executorService;
+    private boolean shutdownExecutorService;
+    private volatile ScheduledFuture<?> syncTask;
+    private KeyIndex index;
+    private Segment current;
+
+    public SegmentedFileIdempotentRepository() {
+    }
+
+    public SegmentedFileIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new segmented file based repository.
+     *
+     * @param directory  the directory of the file store
+     */
+    public static IdempotentRepository segmentedFileIdempotentRepository(File directory) {
+        return new SegmentedFileIdempotentRepository(directory);
+    }
+
+    /**
+     * Creates a new segmented file based repository.
+     *
+     * @param directory  the directory of the file store
+     * @param maxFileStoreSize  the max size in bytes for the file store
+     */
+    public static IdempotentRepository segmentedFileIdempotentRepository(File directory, long maxFileStoreSize) {
+        SegmentedFileIdempotentRepository repository = new SegmentedFileIdempotentRepository(directory);
+        repository.setMaxFileStoreSize(maxFileStoreSize);
+        return repository;
+    }
+
+    @Override
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int tag = tag(bytes, bytes.length);
+        long[][] candidates = new long[1][];
+        try {
+            while (true) {
+                if (lookup(tag, bytes, candidates) != 0) {
+                    return false;
+                }
+                lock.lock();
+                try {
+                    // another key with the same fingerprint may have been added in the meantime
+                    if (!Arrays.equals(candidates[0], index.locations(tag))) {
+                        continue;
+                    }
+                    long location = append(ADD, bytes);
+                    index.put(tag, location);
+                    current.records++;
+                    rollIfFull();
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
+    @Override
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int tag = tag(bytes, bytes.length);
+        try {
+            return lookup(tag, bytes, new long[1][]) != 0;
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
+    @Override
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int tag = tag(bytes, bytes.length);
+        long[][] candidates = new long[1][];
+        try {
+            while (true) {
+                long location = lookup(tag, bytes, candidates);
+                if (location == 0) {
+                    return false;
+                }
+                lock.lock();
+                try {
+                    // the key may have been removed or moved by a compaction in the meantime
+                    if (!Arrays.equals(candidates[0], index.locations(tag))) {
+                        continue;
+                    }
+                    index.remove(tag, location);
+                    segments.get(segmentId(location)).dead++;
+                    // append a tombstone so the key is also removed when reloading the store
+                    append(REMOVE, bytes);
+                    current.removals++;
+                    rollIfFull();
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
+    @Override
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @Override
+    @ManagedOperation(description = "Clear the store (danger this removes all entries)")
+    public void clear() {
+        lock.lock();
+        try {
+            closeSegments();
+            deleteStoreFiles();
+            index = new KeyIndex(KeyIndex.INITIAL_CAPACITY);
+            current = createSegment(1);
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the directory of the file store, where the segments and the index are stored.
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory path for the store")
+    public String getDirectoryPath() {
+        return directory != null ? directory.getPath() : null;
+    }
+
+    @ManagedAttribute(description = "The maximum size of a segment in bytes")
+    public long getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    /**
+     * Sets the maximum size of a segment in bytes, before a new segment is started.
+     * <p/>
+     * The default is 4mb.
+     */
+    public void setMaxSegmentSize(long maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    @ManagedAttribute(description = "The maximum size for the file store in bytes")
+    public long getMaxFileStoreSize() {
+        return maxFileStoreSize;
+    }
+
+    /**
+     * Sets the maximum size for the file store in bytes. If the file store grows bigger, then
+     * the oldest segments are dropped to make room for newer entries.
+     * <p/>
+     * The default is 0, which means the file store has unlimited size.
+     */
+    @ManagedAttribute(description = "The maximum size for the file store in bytes")
+    public void setMaxFileStoreSize(long maxFileStoreSize) {
+        this.maxFileStoreSize = maxFileStoreSize;
+    }
+
+    @ManagedAttribute(description = "Interval in millis the appended keys are written and forced to disk")
+    public long getSyncInterval() {
+        return syncInterval;
+    }
+
+    /**
+     * Sets the interval in millis the appended keys are written and forced to disk.
+     * <p/>
+     * The default is 1000 millis.
+     */
+    public void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    @ManagedAttribute(description = "The ratio of removed keys in a segment before the segment is compacted")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the ratio (between 0 and 1) of removed keys in a segment, before the segment is compacted.
+     * <p/>
+     * The default is 0.5.
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public ScheduledExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets a custom executor service for the background task which syncs and compacts the file store.
+     */
+    public void setExecutorService(ScheduledExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    @ManagedAttribute(description = "Number of keys in the store")
+    public int getSize() {
+        lock.lock();
+        try {
+            return index != null ? index.size : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of segments in the store")
+    public int getSegments() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The size of the file store in bytes")
+    public long getFileStoreSize() {
+        lock.lock();
+        try {
+            return fileStoreSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of segments which has been compacted")
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /**
+     * Writes the appended keys and forces them to disk.
+     */
+    @ManagedOperation(description = "Writes the appended keys and forces them to disk")
+    public void sync() throws IOException {
+        List<Segment> unsynced = new ArrayList<>();
+        List<FileChannel> channels = new ArrayList<>();
+        List<Long> positions = new ArrayList<>();
+        lock.lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            flushBuffer();
+            for (Segment segment : segments.values()) {
+                if (segment.synced < segment.written) {
+                    unsynced.add(segment);
+                    channels.add(segment.channel);
+                    positions.add(segment.written);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // force to disk without holding the lock
+        for (int i = 0; i < unsynced.size(); i++) {
+            Segment segment = unsynced.get(i);
+            FileChannel channel = channels.get(i);
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // the store was cleared or stopped, or the segment compacted in the meantime
+                continue;
+            }
+            // only mark as synced when forced to disk, and not if the segment was compacted in the meantime
+            lock.lock();
+            try {
+                if (segment.channel == channel && segment.synced < positions.get(i)) {
+                    segment.synced = positions.get(i);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drops the oldest segments if the file store is bigger than the maximum size, and compacts
+     * the segments where many keys have been removed.
+     */
+    @ManagedOperation(description = "Compacts the file store")
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            while (true) {
+                Segment oldest;
+                lock.lock();
+                try {
+                    if (current == null || maxFileStoreSize <= 0 || segments.size() <= 1 || fileStoreSize() <= maxFileStoreSize) {
+                        break;
+                    }
+                    oldest = segments.firstEntry().getValue();
+                } finally {
+                    lock.unlock();
+                }
+                log.warn("Maximum capacity of file store: {} hit at {} bytes. Dropping oldest segment: {}", directory, maxFileStoreSize, oldest.file);
+                dropSegment(oldest);
+            }
+
+            List<Segment> candidates = new ArrayList<>();
+            lock.lock();
+            try {
+                for (Segment segment : segments.values()) {
+                    if (segment != current && isCompactionNeeded(segment, segment.id == segments.firstKey())) {
+                        candidates.add(segment);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Segment segment : candidates) {
+                compactSegment(segment);
+            }
+        }
+    }
+
+    /**
+     * Finds the location of the given key, where the keys with a matching fingerprint are read from the
+     * segments without holding the lock.
+     *
+     * @param candidates holder for the locations in the index with the same fingerprint, which the caller can
+     *                   compare with the index while holding the lock, to detect whether the index has changed
+     * @return the location, or <tt>0</tt> if the key is not in the store
+     */
+    private long lookup(int tag, byte[] key, long[][] candidates) throws IOException {
+        while (true) {
+            long[] locations;
+            FileChannel[] channels;
+            lock.lock();
+            try {
+                locations = index.locations(tag);
+                candidates[0] = locations;
+                channels = new FileChannel[locations.length];
+                for (int i = 0; i < locations.length; i++) {
+                    Segment segment = segments.get(segmentId(locations[i]));
+                    long offset = offset(locations[i]);
+                    if (segment == current && offset >= segment.written) {
+                        // not written to the segment yet
+                        if (matches(buffer.array(), (int) (offset - segment.written), buffer.position(), key)) {
+                            return locations[i];
+                        }
+                    } else {
+                        if (!segment.channel.isOpen()) {
+                            // the channel is closed if a thread was interrupted while reading from it
+                            segment.channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                        }
+                        channels[i] = segment.channel;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                for (int i = 0; i < locations.length; i++) {
+                    if (channels[i] != null && matches(channels[i], offset(locations[i]), key)) {
+                        return locations[i];
+                    }
+                }
+                return 0;
+            } catch (ClosedByInterruptException e) {
+                throw e;
+            } catch (ClosedChannelException e) {
+                // the segment was compacted or dropped in the meantime, so lookup again
+                log.trace("Segment closed while reading key, will lookup again");
+            }
+        }
+    }
+
+    /**
+     * Finds the location of the given key, which must be called while holding the lock
+     *
+     * @return the location, or <tt>0</tt> if the key is not in the store
+     */
+    private long find(int tag, byte[] key) throws IOException {
+        for (int i = index.slot(tag); index.locations[i] != 0; i = index.next(i)) {
+            if (index.tags[i] == tag && matches(index.locations[i], key)) {
+                return index.locations[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Whether the key is stored at the given location, which is read from the write buffer or the segment
+     */
+    private boolean matches(long location, byte[] key) throws IOException {
+        Segment segment = segments.get(segmentId(location));
+        long offset = offset(location);
+        if (segment == current && offset >= segment.written) {
+            // not written to the segment yet
+            return matches(buffer.array(), (int) (offset - segment.written), buffer.position(), key);
+        }
+        return matches(segment.channel, offset, key);
+    }
+
+    private static boolean matches(FileChannel channel, long offset, byte[] key) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(key.length + 2);
+        while (record.hasRemaining()) {
+            if (channel.read(record, offset + record.position()) < 0) {
+                return false;
+            }
+        }
+        return matches(record.array(), 0, record.capacity(), key);
+    }
+
+    private static boolean matches(byte[] data, int pos, int limit, byte[] key) {
+        int end = pos + key.length + 1;
+        if (end >= limit || data[pos] != ADD || data[end] != DELIMITER) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (data[pos + 1 + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the record to the write buffer of the current segment
+     *
+     * @return the location of the record
+     */
+    private long append(byte type, byte[] key) throws IOException {
+        int length = key.length + 2;
+        long location = location(current.id, current.size);
+        if (buffer.remaining() < length) {
+            flushBuffer();
+        }
+        if (length > buffer.capacity()) {
+            // too big for the buffer so write directly to the segment
+            ByteBuffer record = ByteBuffer.allocate(length);
+            record.put(type).put(key).put(DELIMITER);
+            record.flip();
+            write(current.channel, record, current.written);
+            current.written += length;
+        } else {
+            buffer.put(type).put(key).put(DELIMITER);
+        }
+        current.size += length;
+        return location;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            int length = buffer.remaining();
+            write(current.channel, buffer, current.written);
+            current.written += length;
+            buffer.clear();
+        }
+    }
+
+    private void rollIfFull() throws IOException {
+        if (current.size >= maxSegmentSize) {
+            flushBuffer();
+            log.debug("Segment: {} is full with {} bytes", current.file, current.size);
+            current = createSegment(current.id + 1);
+        }
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        File file = new File(directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+        log.debug("Opening segment: {}", file);
+        Segment segment = new Segment(id, file);
+        segment.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.size = segment.channel.size();
+        segment.written = segment.size;
+        segment.synced = segment.size;
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private long fileStoreSize() {
+        long answer = 0;
+        for (Segment segment : segments.values()) {
+            answer += segment.size;
+        }
+        return answer;
+    }
+
+    private boolean isCompactionNeeded(Segment segment, boolean oldest) {
+        // the removed keys can only be dropped from the oldest segment, as there may be older segments with the keys
+        int garbage = segment.dead + (oldest ? segment.removals : 0);
+        return garbage > 0 && garbage >= compactionThreshold * (segment.records + segment.removals);
+    }
+
+    /**
+     * Drops the segment and removes its keys from the index
+     */
+    private void dropSegment(Segment segment) throws IOException {
+        Locations dropped = new Locations();
+        scan(segment.file, (type, key, length, offset) -> {
+            if (type == ADD) {
+                dropped.add(tag(key, length), location(segment.id, offset));
+            }
+        });
+
+        lock.lock();
+        try {
+            if (segments.get(segment.id) != segment) {
+                // the store was cleared in the meantime
+                return;
+            }
+            for (int i = 0; i < dropped.size; i++) {
+                index.remove(dropped.tags[i], dropped.locations[i]);
+            }
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.file.toPath());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the segment with the keys which are still in use, and swaps in the compacted segment.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        log.debug("Compacting segment: {}", segment.file);
+        boolean oldest;
+        long[] live;
+        lock.lock();
+        try {
+            oldest = segment.id == segments.firstKey();
+            // the keys removed after taking the snapshot are counted as dead when swapping in the compacted segment
+            live = index.segmentLocations(segment.id);
+        } finally {
+            lock.unlock();
+        }
+
+        File target = new File(directory, segment.file.getName() + COMPACT_SUFFIX);
+        Locations moved = new Locations();
+        int[] removals = new int[1];
+        long[] size = new long[1];
+        try (FileOutputStream fos = new FileOutputStream(target)) {
+            OutputStream out = new BufferedOutputStream(fos, BUFFER_SIZE);
+            scan(segment.file, (type, key, length, offset) -> {
+                boolean keep;
+                if (type == ADD) {
+                    long location = location(segment.id, offset);
+                    keep = Arrays.binarySearch(live, location) >= 0;
+                    if (keep) {
+                        moved.add(tag(key, length), location, location(segment.id, size[0]));
+                    }
+                } else {
+                    keep = !oldest;
+                    if (keep) {
+                        removals[0]++;
+                    }
+                }
+                if (keep) {
+                    out.write(type);
+                    out.write(key, 0, length);
+                    out.write(DELIMITER);
+                    size[0] += length + 2;
+                }
+            });
+            out.flush();
+            fos.getFD().sync();
+        }
+
+        lock.lock();
+        try {
+            if (segments.get(segment.id) != segment) {
+                // the store was cleared in the meantime
+                Files.deleteIfExists(target.toPath());
+                return;
+            }
+            // keys may have been removed while compacting
+            int dead = 0;
+            for (int i = 0; i < moved.size; i++) {
+                if (!index.replace(moved.tags[i], moved.locations[i], moved.targets[i])) {
+                    dead++;
+                }
+            }
+            segment.channel.close();
+            try {
+                Files.move(target.toPath(), segment.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(target.toPath(), segment.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            segment.channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment.size = size[0];
+            segment.written = size[0];
+            segment.records = moved.size;
+            segment.removals = removals[0];
+            segment.dead = dead;
+            segment.synced = size[0];
+        } finally {
+            lock.unlock();
+        }
+        compactions.incrementAndGet();
+        log.debug("Compacted segment: {} to {} bytes", segment.file, size[0]);
+    }
+
+    /**
+     * Reads the records of the segment file
+     *
+     * @return the size of the complete records in the segment
+     */
+    private long scan(File file, RecordHandler handler) throws IOException {
+        byte[] key = new byte[256];
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            int type;
+            while ((type = in.read()) != -1) {
+                int length = 0;
+                int b;
+                while ((b = in.read()) != DELIMITER) {
+                    if (b == -1) {
+                        // an incomplete record at the end of the segment
+                        return offset;
+                    }
+                    if (length == key.length) {
+                        key = Arrays.copyOf(key, length * 2);
+                    }
+                    key[length++] = (byte) b;
+                }
+                if (type == ADD || type == REMOVE) {
+                    handler.record((byte) type, key, length, offset);
+                }
+                offset += length + 2;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Loads the segments, and the index from the index file if its up to date, or otherwise by reading the segments.
+     */
+    protected void loadStore() throws IOException {
+        // auto create starting directory if needed
+        if (!directory.exists()) {
+            log.debug("Creating filestore: {}", directory);
+            if (!directory.mkdirs()) {
+                throw new IOException("Cannot create filestore: " + directory);
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX + COMPACT_SUFFIX)) {
+                    // a compaction which did not complete
+                    Files.deleteIfExists(file.toPath());
+                } else if (isSegmentFile(name)) {
+                    ids.add(Integer.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        for (Integer id : ids) {
+            createSegment(id);
+        }
+
+        if (!loadIndex()) {
+            log.trace("Loading index from idempotent filestore: {}", directory);
+            index = new KeyIndex(KeyIndex.INITIAL_CAPACITY);
+            for (Segment segment : segments.values()) {
+                loadSegment(segment);
+            }
+        }
+
+        current = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+        log.debug("Loaded {} keys in {} segments from idempotent filestore: {}", index.size, segments.size(), directory);
+    }
+
+    private void loadSegment(Segment segment) throws IOException {
+        long size = scan(segment.file, (type, key, length, offset) -> {
+            byte[] bytes = Arrays.copyOf(key, length);
+            int tag = tag(bytes, length);
+            long location = find(tag, bytes);
+            if (type == ADD) {
+                segment.records++;
+                if (location == 0) {
+                    index.put(tag, location(segment.id, offset));
+                } else {
+                    segment.dead++;
+                }
+            } else {
+                segment.removals++;
+                if (location != 0) {
+                    index.remove(tag, location);
+                    segments.get(segmentId(location)).dead++;
+                }
+            }
+        });
+        if (size < segment.size) {
+            log.warn("Truncating incomplete record at the end of segment: {}", segment.file);
+            segment.channel.truncate(size);
+            segment.size = size;
+            segment.written = size;
+            segment.synced = size;
+        }
+    }
+
+    private boolean loadIndex() {
+        File file = new File(directory, INDEX_FILE);
+        if (!file.exists()) {
+            return false;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        buf.flip();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            fill(channel, buf, 8);
+            if (buf.getInt() != INDEX_MAGIC || buf.getInt() != segments.size()) {
+                return false;
+            }
+            for (Segment segment : segments.values()) {
+                fill(channel, buf, 24);
+                if (buf.getInt() != segment.id || buf.getLong() != segment.size) {
+                    log.debug("Index file: {} is not up to date with segment: {}", file, segment.file);
+                    return false;
+                }
+                segment.records = buf.getInt();
+                segment.removals = buf.getInt();
+                segment.dead = buf.getInt();
+            }
+            fill(channel, buf, 8);
+            KeyIndex answer = new KeyIndex(buf.getInt());
+            answer.size = buf.getInt();
+            for (int i = 0; i < answer.tags.length; i++) {
+                fill(channel, buf, 4);
+                answer.tags[i] = buf.getInt();
+            }
+            for (int i = 0; i < answer.locations.length; i++) {
+                fill(channel, buf, 8);
+                answer.locations[i] = buf.getLong();
+            }
+            index = answer;
+            log.debug("Loaded index from file: {}", file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot load index from file: {} due to {}. The index is loaded from the segments instead.", file, e.getMessage());
+            return false;
+        } finally {
+            // the index is saved again when stopping
+            file.delete();
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        File file = new File(directory, INDEX_FILE);
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buf.putInt(INDEX_MAGIC).putInt(segments.size());
+            for (Segment segment : segments.values()) {
+                drain(channel, buf, 24);
+                buf.putInt(segment.id).putLong(segment.size).putInt(segment.records).putInt(segment.removals).putInt(segment.dead);
+            }
+            drain(channel, buf, 8);
+            buf.putInt(index.tags.length).putInt(index.size);
+            for (int tag : index.tags) {
+                drain(channel, buf, 4);
+                buf.putInt(tag);
+            }
+            for (long location : index.locations) {
+                drain(channel, buf, 8);
+                buf.putLong(location);
+            }
+            drain(channel, buf, buf.capacity());
+            channel.force(false);
+        }
+        log.debug("Saved index to file: {}", file);
+    }
+
+    /**
+     * Reads from the channel until the buffer has the given number of bytes
+     */
+    private static void fill(FileChannel channel, ByteBuffer buf, int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            buf.compact();
+            while (buf.position() < bytes) {
+                if (channel.read(buf) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buf.flip();
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel unless the buffer has room for the given number of bytes
+     */
+    private static void drain(FileChannel channel, ByteBuffer buf, int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    private void closeSegments() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        buffer.clear();
+        current = null;
+    }
+
+    /**
+     * Deletes the segments, the index and any incomplete compaction, but not any other files in the directory
+     */
+    private void deleteStoreFiles() throws IOException {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (isStoreFile(file.getName())) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            }
+        }
+    }
+
+    private static boolean isSegmentFile(String name) {
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static boolean isStoreFile(String name) {
+        return INDEX_FILE.equals(name) || isSegmentFile(name)
+                || name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX + COMPACT_SUFFIX);
+    }
+
+    private void runBackgroundTask() {
+        if (!isRunAllowed()) {
+            return;
+        }
+        try {
+            sync();
+            compact();
+        } catch (Throwable e) {
+            log.warn("Error syncing idempotent filestore: " + directory + ". This exception is ignored.", e);
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+        if (maxSegmentSize <= 0 || maxSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The maximum segment size must be between 1 and " + Integer.MAX_VALUE + " bytes, was: " + maxSegmentSize);
+        }
+
+        lock.lock();
+        try {
+            loadStore();
+        } finally {
+            lock.unlock();
+        }
+
+        if (executorService == null) {
+            if (camelContext != null) {
+                executorService = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "SegmentedFileIdempotentRepository");
+            } else {
+                executorService = Executors.newSingleThreadScheduledExecutor(
+                        new CamelThreadFactory("Camel Thread ##counter# - #name#", "SegmentedFileIdempotentRepository", true));
+            }
+            shutdownExecutorService = true;
+        }
+        syncTask = executorService.scheduleWithFixedDelay(this::runBackgroundTask, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (syncTask != null) {
+            syncTask.cancel(false);
+            syncTask = null;
+        }
+        if (shutdownExecutorService) {
+            if (camelContext != null) {
+                camelContext.getExecutorServiceManager().shutdownGraceful(executorService);
+            } else {
+                executorService.shutdown();
+                executorService.awaitTermination(30, TimeUnit.SECONDS);
+            }
+            executorService = null;
+            shutdownExecutorService = false;
+        }
+
+        // wait for any running compaction to complete
+        synchronized (compactLock) {
+            sync();
+            lock.lock();
+            try {
+                if (current != null) {
+                    saveIndex();
+                    closeSegments();
+                }
+                index = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static long location(int segmentId, long offset) {
+        return ((long) segmentId << 32) | offset;
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static long offset(long location) {
+        return location & 0xFFFFFFFFL;
+    }
+
+    /**
+     * The fingerprint of the key, which is the FNV-1a hash of the key
+     */
+    private static int tag(byte[] key, int length) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < length; i++) {
+            hash ^= key[i] & 0xff;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void record(byte type, byte[] key, int length, long offset) throws IOException;
+    }
+
+    /**
+     * A segment file, where only the current segment has keys in the write buffer.
+     */
+    private static final class Segment {
+        private final int id;
+        private final File file;
+        private FileChannel channel;
+        // the size including the write buffer, the number of bytes written to the channel and forced to disk
+        private long size;
+        private long written;
+        private long synced;
+        private int records;
+        private int removals;
+        private int dead;
+
+        Segment(int id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+    }
+
+    /**
+     * A list of key locations (and the new locations when compacting).
+     */
+    private static final class Locations {
+        private int[] tags = new int[1024];
+        private long[] locations = new long[1024];
+        private long[] targets = new long[1024];
+        private int size;
+
+        void add(int tag, long location) {
+            add(tag, location, 0);
+        }
+
+        void add(int tag, long location, long target) {
+            if (size == tags.length) {
+                tags = Arrays.copyOf(tags, size * 2);
+                locations = Arrays.copyOf(locations, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            tags[size] = tag;
+            locations[size] = location;
+            targets[size] = target;
+            size++;
+        }
+    }
+
+    /**
+     * An open addressing hash table with linear probing of the fingerprints and the locations of the keys,
+     * which uses 12 bytes per slot. An empty slot has location <tt>0</tt>, as the segment ids starts from 1.
+     */
+    private static final class KeyIndex {
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final long[] NO_LOCATIONS = new long[0];
+
+        private int[] tags;
+        private long[] locations;
+        private int mask;
+        private int size;
+
+        KeyIndex(int capacity) {
+            this.tags = new int[capacity];
+            this.locations = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int slot(int tag) {
+            // spread the bits as the fingerprint is also used for finding the slot
+            int h = tag * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        int next(int slot) {
+            return (slot + 1) & mask;
+        }
+
+        /**
+         * The locations of the keys with the given fingerprint
+         */
+        long[] locations(int tag) {
+            int count = 0;
+            for (int i = slot(tag); locations[i] != 0; i = next(i)) {
+                if (tags[i] == tag) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return NO_LOCATIONS;
+            }
+            long[] answer = new long[count];
+            count = 0;
+            for (int i = slot(tag); locations[i] != 0; i = next(i)) {
+                if (tags[i] == tag) {
+                    answer[count++] = locations[i];
+                }
+            }
+            return answer;
+        }
+
+        /**
+         * The sorted locations of the keys in the given segment
+         */
+        long[] segmentLocations(int segmentId) {
+            int count = 0;
+            for (long location : locations) {
+                if (location != 0 && segmentId(location) == segmentId) {
+                    count++;
+                }
+            }
+            long[] answer = new long[count];
+            count = 0;
+            for (long location : locations) {
+                if (location != 0 && segmentId(location) == segmentId) {
+                    answer[count++] = location;
+                }
+            }
+            Arrays.sort(answer);
+            return answer;
+        }
+
+        void put(int tag, long location) {
+            if (size >= (tags.length >> 1) + (tags.length >> 2)) {
+                resize(tags.length << 1);
+            }
+            insert(tag, location);
+            size++;
+        }
+
+        private void insert(int tag, long location) {
+            int i = slot(tag);
+            while (locations[i] != 0) {
+                i = next(i);
+            }
+            tags[i] = tag;
+            locations[i] = location;
+        }
+
+        private void resize(int capacity) {
+            int[] oldTags = tags;
+            long[] oldLocations = locations;
+            tags = new int[capacity];
+            locations = new long[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < oldLocations.length; i++) {
+                if (oldLocations[i] != 0) {
+                    insert(oldTags[i], oldLocations[i]);
+                }
+            }
+        }
+
+        boolean replace(int tag, long location, long target) {
+            for (int i = slot(tag); locations[i] != 0; i = next(i)) {
+                if (locations[i] == location) {
+                    locations[i] = target;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean remove(int tag, long location) {
+            int i = slot(tag);
+            while (locations[i] != location) {
+                if (locations[i] == 0) {
+                    return false;
+                }
+                i = next(i);
+            }
+            // shift back the following entries so the probing is not broken by the empty slot
+            int gap = i;
+            for (int j = next(gap); locations[j] != 0; j = next(j)) {
+                int home = slot(tags[j]);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    tags[gap] = tags[j];
+                    locations[gap] = locations[j];
+                    gap = j;
+                }
+            }
+            tags[gap] = 0;
+            locations[gap] = 0;
+            size--;
+            return true;
+        }
+    }
+
+}
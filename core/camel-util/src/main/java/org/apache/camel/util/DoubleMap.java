@@ -37,6 +37,7 @@ public class DoubleMap<K1, K2, V> {
 
     private Entry[] table;
     private int mask;
+    private volatile int size;
 
     public DoubleMap(int size) {
         table = new Entry[closedTableSize(size)];
@@ -79,8 +80,7 @@ public class DoubleMap<K1, K2, V> {
 
     public synchronized void put(K1 k1, K2 k2, V v) {
         Entry[] table = this.table;
-        int size = size() + 1;
-        int realSize = closedTableSize(size);
+        int realSize = closedTableSize(this.size + 1);
         if (realSize <= table.length) {
             realSize = table.length;
             int index = smear(k1.hashCode() * 31 + k2.hashCode()) & (realSize - 1);
@@ -96,6 +96,7 @@ public class DoubleMap<K1, K2, V> {
             entry.v = v;
             entry.next = table[index];
             table[index] = entry;
+            this.size++;
         } else {
             Entry[] newT = new Entry[realSize];
             int index = smear(k1.hashCode() * 31 + k2.hashCode()) & (realSize - 1);
@@ -104,6 +105,7 @@ public class DoubleMap<K1, K2, V> {
             entry.k1 = k1;
             entry.k2 = k2;
             entry.v = v;
+            int newSize = 1;
             for (Entry oldEntry : table) {
                 while (oldEntry != null) {
                     if (k1 != oldEntry.k1 || k2 != oldEntry.k2) {
@@ -114,12 +116,14 @@ public class DoubleMap<K1, K2, V> {
                         newEntry.v = oldEntry.v;
                         newEntry.next = newT[index];
                         newT[index] = newEntry;
+                        newSize++;
                     }
                     oldEntry = oldEntry.next;
                 }
             }
             this.table = newT;
             this.mask = realSize - 1;
+            this.size = newSize;
         }
     }
 
@@ -135,6 +139,7 @@ public class DoubleMap<K1, K2, V> {
                 } else {
                     prevEntry.next = oldEntry.next;
                 }
+                this.size--;
                 return true;
             }
         }
@@ -154,20 +159,12 @@ public class DoubleMap<K1, K2, V> {
     }
 
     public int size() {
-        Entry[] table = this.table;
-        int n = 0;
-        if (table != null) {
-            for (Entry e : table) {
-                for (Entry c = e; c != null; c = c.next) {
-                    n++;
-                }
-            }
-        }
-        return n;
+        return size;
     }
 
     public synchronized void clear() {
         this.table = new Entry[table.length];
+        this.size = 0;
     }
 
     static int smear(int hashCode) {
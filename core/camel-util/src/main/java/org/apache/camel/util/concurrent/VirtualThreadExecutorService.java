@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} which runs each task in a new virtual thread.
+ * <p/>
+ * Virtual threads are cheap to create and do not tie up a platform thread while blocking (such as when waiting for IO),
+ * and therefore there is no pool of threads. Instead the number of tasks which are allowed to run concurrently can be
+ * limited by the <tt>maxConcurrentTasks</tt> option, and the number of tasks waiting to run by the <tt>maxQueueSize</tt>
+ * option. Tasks exceeding these limits are rejected according to the {@link ThreadPoolRejectedPolicy}, where the discard
+ * policies drop the rejected task (as there is no queue of tasks not yet started), which are counted and logged.
+ * <p/>
+ * Virtual threads requires Java 21 or newer, which can be checked by the {@link #isVirtualThreadsSupported()} method.
+ */
+public class VirtualThreadExecutorService extends AbstractExecutorService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadExecutorService.class);
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+    private final ThreadFactory threadFactory;
+    private final int maxConcurrentTasks;
+    private final int maxQueueSize;
+    private final ThreadPoolRejectedPolicy rejectedPolicy;
+    private final Semaphore permits;
+    private final AtomicInteger waitingTasks = new AtomicInteger();
+    private final AtomicLong discardedTasks = new AtomicLong();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private final Object termination = new Object();
+    // guards shutdown against starting new threads
+    private final Object lock = new Object();
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new executor service
+     *
+     * @param threadFactory      the thread factory which is only used for naming the virtual threads (can be <tt>null</tt>)
+     * @param maxConcurrentTasks maximum number of tasks running concurrently, use 0 or negative for no limit
+     * @param maxQueueSize       maximum number of tasks waiting for one of the concurrent tasks to complete,
+     *                           use 0 or negative to not allow any waiting tasks
+     * @param rejectedPolicy     the policy for tasks which cannot be executed, is <tt>CallerRuns</tt> if <tt>null</tt>
+     * @throws IllegalStateException if virtual threads is not supported by the JVM
+     */
+    public VirtualThreadExecutorService(ThreadFactory threadFactory, int maxConcurrentTasks, int maxQueueSize,
+                                        ThreadPoolRejectedPolicy rejectedPolicy) {
+        if (VIRTUAL_THREAD_FACTORY == null) {
+            throw new IllegalStateException("Virtual threads is not supported on Java " + System.getProperty("java.version"));
+        }
+        this.threadFactory = threadFactory;
+        this.maxConcurrentTasks = maxConcurrentTasks;
+        this.maxQueueSize = maxQueueSize;
+        this.rejectedPolicy = rejectedPolicy != null ? rejectedPolicy : ThreadPoolRejectedPolicy.CallerRuns;
+        // use a fair semaphore so the waiting tasks are run in the order they were submitted
+        this.permits = maxConcurrentTasks > 0 ? new Semaphore(maxConcurrentTasks, true) : null;
+    }
+
+    /**
+     * Whether virtual threads is supported by the JVM
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    public int getMaxConcurrentTasks() {
+        return maxConcurrentTasks;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public ThreadPoolRejectedPolicy getRejectedPolicy() {
+        return rejectedPolicy;
+    }
+
+    /**
+     * Number of tasks which are currently running or waiting to run
+     */
+    public int getActiveCount() {
+        return threads.size();
+    }
+
+    /**
+     * Number of tasks which are waiting for one of the concurrent tasks to complete
+     */
+    public int getWaitingCount() {
+        return waitingTasks.get();
+    }
+
+    /**
+     * Number of tasks which has been discarded by the discard rejected policies
+     */
+    public long getDiscardedCount() {
+        return discardedTasks.get();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            reject(task);
+            return;
+        }
+
+        boolean acquired = false;
+        if (permits != null) {
+            acquired = permits.tryAcquire();
+            if (!acquired) {
+                if (waitingTasks.incrementAndGet() > maxQueueSize) {
+                    waitingTasks.decrementAndGet();
+                    reject(task);
+                    return;
+                }
+            }
+        }
+
+        final boolean hasPermit = acquired;
+        Thread thread = newThread(() -> doRun(task, hasPermit));
+        synchronized (lock) {
+            // check again under the lock so the thread is either started before shutdownNow interrupts the threads,
+            // or the task is rejected
+            if (!shutdown) {
+                threads.add(thread);
+                thread.start();
+                return;
+            }
+        }
+        if (hasPermit) {
+            permits.release();
+        } else if (permits != null) {
+            waitingTasks.decrementAndGet();
+        }
+        reject(task);
+    }
+
+    private void doRun(Runnable task, boolean hasPermit) {
+        boolean permit = hasPermit;
+        try {
+            if (permits != null && !permit) {
+                try {
+                    permits.acquire();
+                    permit = true;
+                } catch (InterruptedException e) {
+                    LOG.debug("Interrupted while waiting to run task: {}", task);
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    waitingTasks.decrementAndGet();
+                }
+            }
+            task.run();
+        } finally {
+            if (permit) {
+                permits.release();
+            }
+            threads.remove(Thread.currentThread());
+            if (shutdown && threads.isEmpty()) {
+                synchronized (termination) {
+                    termination.notifyAll();
+                }
+            }
+        }
+    }
+
+    private Thread newThread(Runnable runnable) {
+        Thread answer = VIRTUAL_THREAD_FACTORY.newThread(runnable);
+        if (threadFactory instanceof CamelThreadFactory) {
+            CamelThreadFactory ctf = (CamelThreadFactory) threadFactory;
+            answer.setName(ThreadHelper.resolveThreadName(ctf.getPattern(), ctf.getName()));
+        }
+        return answer;
+    }
+
+    private void reject(Runnable task) {
+        if (rejectedPolicy == ThreadPoolRejectedPolicy.CallerRuns) {
+            if (!shutdown) {
+                task.run();
+            }
+        } else if (task instanceof Rejectable) {
+            ((Rejectable) task).reject();
+        } else if (rejectedPolicy == ThreadPoolRejectedPolicy.Abort) {
+            throw new RejectedExecutionException("Task " + task.toString() + " rejected from " + this);
+        } else {
+            // discard policies drop the task as there is no queue of tasks not yet started to discard the oldest from
+            long discarded = discardedTasks.incrementAndGet();
+            LOG.warn("Task {} discarded ({} discarded in total) from {}", task, discarded, this);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+        }
+        if (threads.isEmpty()) {
+            synchronized (termination) {
+                termination.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        synchronized (lock) {
+            shutdown = true;
+            // no more threads are started once shutdown, so all the started threads are interrupted
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        if (threads.isEmpty()) {
+            synchronized (termination) {
+                termination.notifyAll();
+            }
+        }
+        // tasks are started immediately so there are never any tasks which has not been started
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && threads.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (termination) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(termination, remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadExecutorService[" + (threadFactory != null ? threadFactory : "") + " active: " + threads.size()
+                + ", waiting: " + waitingTasks.get() + ", discarded: " + discardedTasks.get() + ", maxConcurrentTasks: " + maxConcurrentTasks
+                + ", maxQueueSize: " + maxQueueSize + ", rejectedPolicy: " + rejectedPolicy + "]";
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() {
+        // use reflection as virtual threads is only available from Java 21 onwards
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> type = Class.forName("java.lang.Thread$Builder");
+            return (ThreadFactory) type.getMethod("factory").invoke(builder);
+        } catch (Throwable e) {
+            LOG.trace("Virtual threads is not supported", e);
+            return null;
+        }
+    }
+
+}
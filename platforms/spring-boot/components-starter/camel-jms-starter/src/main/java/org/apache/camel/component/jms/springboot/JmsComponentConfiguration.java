@@ -400,6 +400,14 @@ public class JmsComponentConfiguration
      * option requestTimeout.
      */
     private Long requestTimeoutCheckerInterval = 1000L;
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending
+     * replies when doing request/reply over JMS, instead of the default timeout
+     * map. The timing wheel adds, removes and expires the pending replies in
+     * constant time, which scales better when there are many pending replies,
+     * but the timeouts are only checked at every requestTimeoutCheckerInterval.
+     */
+    private Boolean requestTimeoutTimingWheel = false;
     /**
      * You can transfer the exchange over the wire instead of just the body and
      * headers. The following fields are transferred: In body, Out body, Fault
@@ -1065,6 +1073,15 @@ public class JmsComponentConfiguration
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public Boolean getRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    public void setRequestTimeoutTimingWheel(
+            Boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public Boolean getTransferExchange() {
         return transferExchange;
     }
@@ -1656,6 +1673,15 @@ public class JmsComponentConfiguration
          * determined by the option requestTimeout.
          */
         private Long requestTimeoutCheckerInterval = 1000L;
+        /**
+         * Whether to use a hashed timing wheel to track the timeouts of the
+         * pending replies when doing request/reply over JMS, instead of the
+         * default timeout map. The timing wheel adds, removes and expires the
+         * pending replies in constant time, which scales better when there are
+         * many pending replies, but the timeouts are only checked at every
+         * requestTimeoutCheckerInterval.
+         */
+        private Boolean requestTimeoutTimingWheel = false;
         /**
          * Provides an explicit ReplyTo destination, which overrides any
          * incoming value of Message.getJMSReplyTo().
@@ -2415,6 +2441,15 @@ public class JmsComponentConfiguration
             this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
         }
 
+        public Boolean getRequestTimeoutTimingWheel() {
+            return requestTimeoutTimingWheel;
+        }
+
+        public void setRequestTimeoutTimingWheel(
+                Boolean requestTimeoutTimingWheel) {
+            this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+        }
+
         public String getReplyTo() {
             return replyTo;
         }
@@ -257,6 +257,52 @@ public class KafkaComponentConfiguration
          * autocommit.
          */
         private StateRepository offsetRepository;
+        /**
+         * The number of worker threads each consumer dispatches the polled
+         * records to, so the records of different partitions are processed in
+         * parallel, while the records of the same partition (or key) are
+         * processed in order. The offset of a partition is committed
+         * asynchronously when all the records up to the offset have been
+         * processed, which replaces the auto commit of Kafka. The default value
+         * 0 processes the records on the consumer thread. This option cannot be
+         * used together with allowManualCommit or breakOnFirstError.
+         */
+        private Integer consumerWorkers = 0;
+        /**
+         * The maximum number of records of a partition waiting to be processed
+         * by the consumer workers, before the consumer pauses fetching records
+         * from the partition. The partition is resumed when the backlog is down
+         * to half.
+         */
+        private Integer consumerWorkersMaxBacklog = 1000;
+        /**
+         * Whether the consumer workers keep the records in order per partition,
+         * or per record key, which spreads the records of a partition over the
+         * workers. Records without a key are ordered per partition.
+         */
+        private String consumerWorkersOrdering = "partition";
+        /**
+         * Whether the consumer routes the polled records together as a single
+         * exchange, instead of an exchange per record. The message body is a
+         * java.util.List with the value of each record, and the records are
+         * available from the kafka.BATCH_RECORDS header. The offsets of the
+         * records are committed when the exchange is done, which replaces the
+         * auto commit of Kafka. This option cannot be used together with
+         * allowManualCommit or consumerWorkers.
+         */
+        private Boolean batching = false;
+        /**
+         * The maximum number of records in each exchange when batching. Use 0
+         * for no limit.
+         */
+        private Integer batchingMaxSize = 500;
+        /**
+         * The maximum time in millis the consumer keeps polling for more
+         * records to fill up a batch to batchingMaxSize, before routing the
+         * records it has. The default value 0 routes the records of each poll
+         * right away.
+         */
+        private Long batchingMaxWaitMs = 0L;
         /**
          * The frequency in ms that the consumer offsets are committed to
          * zookeeper.
@@ -754,6 +800,25 @@ public class KafkaComponentConfiguration
          * non-blocking processing.
          */
         private Integer workerPoolMaxSize = 20;
+        /**
+         * Whether to continue routing {@link Exchange} on a worker pool after
+         * kafka server has acknowledge the message that was sent to it from
+         * {@link KafkaProducer} using asynchronous non-blocking processing. By
+         * default the routing continues right away on the thread of the Kafka
+         * producer which completed the send, which avoids a thread hand-over
+         * per exchange, but then the rest of the route should not do slow or
+         * blocking work. Configuring a custom workerPool enables the worker
+         * pool as well.
+         */
+        private Boolean workerPoolEnabled = false;
+        /**
+         * The maximum number of records sent from {@link KafkaProducer} which
+         * are not yet acknowledged by kafka server. When reached, sending more
+         * records blocks for up to maxBlockMs until records have been
+         * acknowledged, which applies back pressure to the routes sending to
+         * Kafka. The default value 0 is no limit.
+         */
+        private Integer maxInFlightRecords = 0;
         /**
          * Whether the producer should store the {@link RecordMetadata} results
          * from sending to Kafka. The results are stored in a {@link List}
@@ -900,6 +965,54 @@ public class KafkaComponentConfiguration
             this.offsetRepository = offsetRepository;
         }
 
+        public Integer getConsumerWorkers() {
+            return consumerWorkers;
+        }
+
+        public void setConsumerWorkers(Integer consumerWorkers) {
+            this.consumerWorkers = consumerWorkers;
+        }
+
+        public Integer getConsumerWorkersMaxBacklog() {
+            return consumerWorkersMaxBacklog;
+        }
+
+        public void setConsumerWorkersMaxBacklog(Integer consumerWorkersMaxBacklog) {
+            this.consumerWorkersMaxBacklog = consumerWorkersMaxBacklog;
+        }
+
+        public String getConsumerWorkersOrdering() {
+            return consumerWorkersOrdering;
+        }
+
+        public void setConsumerWorkersOrdering(String consumerWorkersOrdering) {
+            this.consumerWorkersOrdering = consumerWorkersOrdering;
+        }
+
+        public Boolean getBatching() {
+            return batching;
+        }
+
+        public void setBatching(Boolean batching) {
+            this.batching = batching;
+        }
+
+        public Integer getBatchingMaxSize() {
+            return batchingMaxSize;
+        }
+
+        public void setBatchingMaxSize(Integer batchingMaxSize) {
+            this.batchingMaxSize = batchingMaxSize;
+        }
+
+        public Long getBatchingMaxWaitMs() {
+            return batchingMaxWaitMs;
+        }
+
+        public void setBatchingMaxWaitMs(Long batchingMaxWaitMs) {
+            this.batchingMaxWaitMs = batchingMaxWaitMs;
+        }
+
         public Integer getAutoCommitIntervalMs() {
             return autoCommitIntervalMs;
         }
@@ -1489,6 +1602,22 @@ public class KafkaComponentConfiguration
             this.workerPoolMaxSize = workerPoolMaxSize;
         }
 
+        public Boolean getWorkerPoolEnabled() {
+            return workerPoolEnabled;
+        }
+
+        public void setWorkerPoolEnabled(Boolean workerPoolEnabled) {
+            this.workerPoolEnabled = workerPoolEnabled;
+        }
+
+        public Integer getMaxInFlightRecords() {
+            return maxInFlightRecords;
+        }
+
+        public void setMaxInFlightRecords(Integer maxInFlightRecords) {
+            this.maxInFlightRecords = maxInFlightRecords;
+        }
+
         public Boolean getRecordMetadata() {
             return recordMetadata;
         }
@@ -156,6 +156,14 @@ public class RabbitMQComponentConfiguration
      * Set requestTimeoutCheckerInterval for inOut exchange
      */
     private Long requestTimeoutCheckerInterval = 1000L;
+    /**
+     * Whether to use a hashed timing wheel to track the timeouts of the pending
+     * replies for inOut exchange, instead of the default timeout map. The
+     * timing wheel adds, removes and expires the pending replies in constant
+     * time, which scales better when there are many pending replies, but the
+     * timeouts are only checked at every requestTimeoutCheckerInterval.
+     */
+    private Boolean requestTimeoutTimingWheel = false;
     /**
      * When true and an inOut Exchange failed on the consumer side send the
      * caused Exception back in the response
@@ -490,6 +498,15 @@ public class RabbitMQComponentConfiguration
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public Boolean getRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    public void setRequestTimeoutTimingWheel(
+            Boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public Boolean getTransferException() {
         return transferException;
     }
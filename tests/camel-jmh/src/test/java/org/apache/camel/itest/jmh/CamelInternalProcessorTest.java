@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.processor.CamelInternalProcessor;
+import org.apache.camel.spi.CamelInternalProcessorAdvice;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the per hop overhead of {@link CamelInternalProcessor} with a number of advices
+ */
+public class CamelInternalProcessorTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({"0", "3", "6"})
+        int advices;
+
+        CamelContext camel;
+        CamelInternalProcessor processor;
+        Exchange exchange;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+            processor = new CamelInternalProcessor(exchange -> exchange.getIn().setBody("Bye World"));
+            for (int i = 0; i < advices; i++) {
+                // every other advice has state
+                processor.addAdvice(i % 2 == 0 ? new StatefulAdvice() : new StatelessAdvice());
+            }
+            processor.start();
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("Hello World");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            processor.stop();
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void processWithAdvices(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.processor.process(state.exchange, bh::consume));
+    }
+
+    private static final class StatefulAdvice implements CamelInternalProcessorAdvice<Long> {
+
+        @Override
+        public Long before(Exchange exchange) throws Exception {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void after(Exchange exchange, Long data) throws Exception {
+            exchange.getIn().setHeader("elapsed", System.nanoTime() - data);
+        }
+    }
+
+    private static final class StatelessAdvice implements CamelInternalProcessorAdvice<Object> {
+
+        @Override
+        public Object before(Exchange exchange) throws Exception {
+            exchange.getIn().setHeader("before", true);
+            return null;
+        }
+
+        @Override
+        public void after(Exchange exchange, Object data) throws Exception {
+            exchange.getIn().removeHeader("before");
+        }
+    }
+
+}
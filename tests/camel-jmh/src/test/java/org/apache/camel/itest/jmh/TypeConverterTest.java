@@ -75,6 +75,7 @@ public class TypeConverterTest {
     public static class BenchmarkCamelContextState {
         Integer someInteger = 12345;
         String someIntegerString = String.valueOf(someInteger);
+        MyOrder someOrder = new MyOrder();
         String xmlAsString;
         byte[] xmlAsBytes;
 
@@ -151,4 +152,25 @@ public class TypeConverterTest {
         String string = state.camel.getTypeConverter().convertTo(String.class, state.xmlAsBytes);
         bh.consume(string);
     }
+
+    @Benchmark
+    public void typeConvertFallbackToString(BenchmarkCamelContextState state, Blackhole bh) {
+        // there is no type converter so the fallback type converter is used
+        String string = state.camel.getTypeConverter().convertTo(String.class, state.someOrder);
+        bh.consume(string);
+    }
+
+    @Benchmark
+    public void typeConvertMiss(BenchmarkCamelContextState state, Blackhole bh) {
+        MyOrder order = state.camel.getTypeConverter().convertTo(MyOrder.class, state.someIntegerString);
+        bh.consume(order);
+    }
+
+    public static class MyOrder {
+
+        @Override
+        public String toString() {
+            return "MyOrder";
+        }
+    }
 }
@@ -38,6 +38,9 @@ import javax.tools.JavaFileObject;
 
 public abstract class AbstractTypeConverterGenerator extends AbstractCamelAnnotationProcessor {
 
+    // keep the generated conversion methods small enough to be compiled by the JIT
+    private static final int CONVERTERS_PER_METHOD = 100;
+
     public static final class ClassConverters {
 
         private final Comparator<TypeMirror> comparator;
@@ -248,22 +251,67 @@ public abstract class AbstractTypeConverterGenerator extends AbstractCamelAnnota
             writer.append("\n");
 
             if (converters.size() > 0) {
+                // the converters are indexed at build time, and converting is dispatched by the index
+                // which avoids creating a class per converter (such as lambdas) when loading the converters
+                List<String> methods = new ArrayList<>();
                 writer.append("    private void registerConverters(TypeConverterRegistry registry) {\n");
                 for (Map.Entry<String, Map<TypeMirror, ExecutableElement>> to : converters.getConverters().entrySet()) {
                     for (Map.Entry<TypeMirror, ExecutableElement> from : to.getValue().entrySet()) {
                         boolean allowNull = isAllowNull(from.getValue());
                         writer.append("        addTypeConverter(registry, ").append(to.getKey()).append(".class").append(", ").append(toString(from.getKey()))
-                                .append(".class, ").append(Boolean.toString(allowNull)).append(",\n");
-                        writer.append("            (type, exchange, value) -> ").append(toJava(from.getValue(), converterClasses)).append(");\n");
+                                .append(".class, ").append(Boolean.toString(allowNull)).append(", ").append(Integer.toString(methods.size())).append(");\n");
+                        methods.add(toJava(from.getValue(), converterClasses));
                     }
                 }
                 writer.append("    }\n");
                 writer.append("\n");
 
-                writer.append(
-                              "    private static void addTypeConverter(TypeConverterRegistry registry, Class<?> toType, Class<?> fromType, boolean allowNull, SimpleTypeConverter.ConversionMethod method)"
-                              + " { \n");
-                writer.append("        registry.addTypeConverter(toType, fromType, new SimpleTypeConverter(allowNull, method));\n");
+                writer.append("    private void addTypeConverter(TypeConverterRegistry registry, Class<?> toType, Class<?> fromType, boolean allowNull, int index) {\n");
+                writer.append("        registry.addTypeConverter(toType, fromType, new SimpleTypeConverter(allowNull, new ConversionMethod(index)));\n");
+                writer.append("    }\n");
+                writer.append("\n");
+
+                int chunks = (methods.size() + CONVERTERS_PER_METHOD - 1) / CONVERTERS_PER_METHOD;
+                writer.append("    private Object doConvert(int index, Class<?> type, Exchange exchange, Object value) throws Exception {\n");
+                if (chunks == 1) {
+                    writer.append("        return doConvert0(index, type, exchange, value);\n");
+                } else {
+                    writer.append("        switch (index / ").append(Integer.toString(CONVERTERS_PER_METHOD)).append(") {\n");
+                    for (int i = 0; i < chunks; i++) {
+                        writer.append("        case ").append(Integer.toString(i)).append(": return doConvert").append(Integer.toString(i))
+                                .append("(index, type, exchange, value);\n");
+                    }
+                    writer.append("        default: throw new IllegalArgumentException(\"Unknown type converter: \" + index);\n");
+                    writer.append("        }\n");
+                }
+                writer.append("    }\n");
+                writer.append("\n");
+
+                for (int i = 0; i < chunks; i++) {
+                    writer.append("    private Object doConvert").append(Integer.toString(i))
+                            .append("(int index, Class<?> type, Exchange exchange, Object value) throws Exception {\n");
+                    writer.append("        switch (index) {\n");
+                    int end = Math.min(methods.size(), (i + 1) * CONVERTERS_PER_METHOD);
+                    for (int j = i * CONVERTERS_PER_METHOD; j < end; j++) {
+                        writer.append("        case ").append(Integer.toString(j)).append(": return ").append(methods.get(j)).append(";\n");
+                    }
+                    writer.append("        default: throw new IllegalArgumentException(\"Unknown type converter: \" + index);\n");
+                    writer.append("        }\n");
+                    writer.append("    }\n");
+                    writer.append("\n");
+                }
+
+                writer.append("    private final class ConversionMethod implements SimpleTypeConverter.ConversionMethod {\n");
+                writer.append("        private final int index;\n");
+                writer.append("\n");
+                writer.append("        ConversionMethod(int index) {\n");
+                writer.append("            this.index = index;\n");
+                writer.append("        }\n");
+                writer.append("\n");
+                writer.append("        @Override\n");
+                writer.append("        public Object doConvert(Class<?> type, Exchange exchange, Object value) throws Exception {\n");
+                writer.append("            return ").append(c).append(".this.doConvert(index, type, exchange, value);\n");
+                writer.append("        }\n");
                 writer.append("    }\n");
                 writer.append("\n");
             }